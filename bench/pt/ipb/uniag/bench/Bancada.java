@@ -0,0 +1,155 @@
+package pt.ipb.uniag.bench;// Ficheiro: bench/pt.ipb.uniag.bench.Bancada.java
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Bancada de medição de desempenho das operações principais da UNIAG.
+ * <p>
+ * Não depende de bibliotecas externas: cada {@link Cenario} é aquecido e medido em várias iterações,
+ * para vários tamanhos de dados, e o resultado apresenta o tempo médio por operação (com o desvio
+ * padrão entre iterações), os bytes alocados por operação e o número de recolhas de lixo durante
+ * a medição.
+ * <p>
+ * Utilização:
+ * <pre>
+ *   java -cp out:out-bench pt.ipb.uniag.bench.Bancada [filtro...] [--tamanhos=1000,10000]
+ *        [--aquecimento=3] [--medicoes=5]
+ * </pre>
+ * Cada filtro seleciona os cenários cujo nome o contém (por exemplo, {@code clone} ou {@code UNIAG.}).
+ * O custo das métricas ({@link pt.ipb.uniag.app.MetricasUNIAG}) aparece lado a lado: a associação é
+ * medida com as métricas desativadas ({@code UNIAG.associaMembroProjeto}) e ativas
+ * ({@code UNIAG.associaMembroProjeto (métricas)}). Com {@code -Duniag.metricas=true}, as UNIAG dos
+ * restantes cenários também recolhem as suas métricas.
+ *
+ * @author Luis Enrique
+ * @version 1.8
+ * @since 2026-10-18
+ */
+public final class Bancada {
+
+    private static final int[] TAMANHOS_POR_OMISSAO = {1_000, 10_000, 100_000, 1_000_000};
+
+    private static long sumidouro;
+    private static volatile long publicado;
+
+    private static final com.sun.management.ThreadMXBean THREADS = threads();
+
+    /**
+     * Construtor privado para prevenir a instanciação desta classe utilitária.
+     */
+    private Bancada() {
+        // Esta classe não deve ser instanciada.
+    }
+
+    /**
+     * Ponto de entrada da bancada.
+     * @param args Filtros de cenários e opções (ver a descrição da classe).
+     */
+    public static void main(String[] args) {
+        int[] tamanhos = TAMANHOS_POR_OMISSAO;
+        int aquecimento = 3;
+        int medicoes = 5;
+        List<String> filtros = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--tamanhos=")) {
+                tamanhos = Arrays.stream(arg.substring(11).split(",")).mapToInt(Integer::parseInt).toArray();
+            } else if (arg.startsWith("--aquecimento=")) {
+                aquecimento = Integer.parseInt(arg.substring(14));
+            } else if (arg.startsWith("--medicoes=")) {
+                medicoes = Integer.parseInt(arg.substring(11));
+            } else {
+                filtros.add(arg);
+            }
+        }
+
+        System.out.printf("%-42s %10s %14s %10s %14s %6s%n", "Cenário", "Tamanho", "ns/op", "± desvio", "B/op", "GCs");
+        for (Cenario cenario : CenariosUNIAG.todos()) {
+            if (!filtros.isEmpty() && filtros.stream().noneMatch(cenario.getNome()::contains)) continue;
+            for (int tamanho : tamanhos) {
+                medir(cenario, tamanho, aquecimento, medicoes);
+            }
+        }
+        publicado = sumidouro;
+    }
+
+    /**
+     * Consome um valor calculado por um cenário, para que o compilador JIT não elimine o cálculo.
+     * @param valor O valor a consumir.
+     */
+    static void consumir(long valor) {
+        sumidouro = sumidouro * 31 + valor;
+    }
+
+    /**
+     * Consome um objeto calculado por um cenário, para que o compilador JIT não elimine o cálculo.
+     * @param objeto O objeto a consumir.
+     */
+    static void consumir(Object objeto) {
+        consumir(System.identityHashCode(objeto));
+    }
+
+    private static void medir(Cenario cenario, int tamanho, int aquecimento, int medicoes) {
+        cenario.preparar(tamanho);
+        try {
+            for (int i = 0; i < aquecimento; i++) {
+                cenario.antesDaIteracao();
+                consumir(cenario.executar());
+            }
+
+            double[] nsPorOperacao = new double[medicoes];
+            long bytesAlocados = 0;
+            long operacoes = 0;
+            long recolhas = 0;
+            for (int i = 0; i < medicoes; i++) {
+                cenario.antesDaIteracao();
+                long recolhasAntes = recolhas();
+                long bytesAntes = bytesAlocados();
+                long inicio = System.nanoTime();
+                int n = cenario.executar();
+                long duracao = System.nanoTime() - inicio;
+                bytesAlocados += bytesAlocados() - bytesAntes;
+                recolhas += recolhas() - recolhasAntes;
+                operacoes += n;
+                nsPorOperacao[i] = (double) duracao / Math.max(1, n);
+            }
+
+            double media = Arrays.stream(nsPorOperacao).average().orElse(0);
+            double variancia = Arrays.stream(nsPorOperacao).map(x -> (x - media) * (x - media)).sum()
+                    / Math.max(1, medicoes - 1);
+            String alocacao = THREADS == null ? "n/d"
+                    : String.format(Locale.ROOT, "%.1f", (double) bytesAlocados / Math.max(1, operacoes));
+            System.out.printf(Locale.ROOT, "%-42s %10d %14.1f %10.1f %14s %6d%n",
+                    cenario.getNome(), tamanho, media, Math.sqrt(variancia), alocacao, recolhas);
+        } finally {
+            cenario.libertar();
+        }
+    }
+
+    private static long bytesAlocados() {
+        return THREADS == null ? 0 : THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static long recolhas() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionCount());
+        }
+        return total;
+    }
+
+    /**
+     * Obtém o acesso à memória alocada por thread, se a JVM o suportar.
+     */
+    private static com.sun.management.ThreadMXBean threads() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean)) return null;
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!threads.isThreadAllocatedMemorySupported()) return null;
+        threads.setThreadAllocatedMemoryEnabled(true);
+        return threads;
+    }
+}
@@ -0,0 +1,142 @@
+package pt.ipb.uniag.bench;// Ficheiro: bench/pt.ipb.uniag.bench.CargaHTTP.java
+
+import pt.ipb.uniag.app.ServidorUNIAG;
+import pt.ipb.uniag.app.UNIAG;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Teste de carga do {@link ServidorUNIAG}: inicia o serviço localmente sobre uma UNIAG com dados e
+ * mede os pedidos por segundo sustentados e a latência de vários clientes em simultâneo.
+ * <p>
+ * Cada cliente usa a sua própria ligação persistente e envia pedidos seguidos, numa mistura de
+ * 80% {@code GET /membros/{id}}, 15% {@code GET /projetos/{id}} e 5% de associações
+ * ({@code POST /projetos/{id}/membros/{idMembro}}).
+ * <p>
+ * Utilização:
+ * <pre>
+ *   java -cp out:out-bench pt.ipb.uniag.bench.CargaHTTP [--clientes=16] [--duracao=10]
+ *        [--aquecimento=3] [--membros=10000]
+ * </pre>
+ *
+ * @author Luis Enrique
+ * @version 1.8
+ * @since 2026-10-18
+ */
+public final class CargaHTTP {
+
+    /**
+     * Construtor privado para prevenir a instanciação desta classe utilitária.
+     */
+    private CargaHTTP() {
+        // Esta classe não deve ser instanciada.
+    }
+
+    /**
+     * Ponto de entrada do teste de carga.
+     * @param args As opções (ver a descrição da classe).
+     * @throws Exception se o serviço não puder ser iniciado.
+     */
+    public static void main(String[] args) throws Exception {
+        int clientes = 16;
+        int duracao = 10;
+        int aquecimento = 3;
+        int membros = 10_000;
+        for (String arg : args) {
+            if (arg.startsWith("--clientes=")) clientes = Integer.parseInt(arg.substring(11));
+            else if (arg.startsWith("--duracao=")) duracao = Integer.parseInt(arg.substring(10));
+            else if (arg.startsWith("--aquecimento=")) aquecimento = Integer.parseInt(arg.substring(14));
+            else if (arg.startsWith("--membros=")) membros = Integer.parseInt(arg.substring(10));
+        }
+        int projetos = Math.max(1, membros / 10);
+
+        UNIAG uniag = new UNIAG();
+        for (int i = 0; i < membros; i++) {
+            if (i % 3 == 0) uniag.addInvestigador("Investigador " + i);
+            else if (i % 3 == 1) uniag.addInvColaborador("Colaborador " + i);
+            else uniag.addVisitante("Visitante " + i);
+        }
+        for (int i = 0; i < projetos; i++) {
+            uniag.addProjeto("Projeto " + i, 10_000 + i);
+        }
+
+        try (ServidorUNIAG servico = new ServidorUNIAG(uniag, new InetSocketAddress("127.0.0.1", 0))) {
+            servico.iniciar();
+            String base = "http://127.0.0.1:" + servico.getPorta();
+            System.out.printf(Locale.ROOT, "Serviço em %s (threads virtuais: %s), %d clientes, %d membros, %d projetos%n",
+                    base, servico.isThreadsVirtuais() ? "sim" : "não", clientes, membros, projetos);
+
+            executar(base, clientes, aquecimento, membros, projetos, false);
+            executar(base, clientes, duracao, membros, projetos, true);
+        }
+    }
+
+    private static void executar(String base, int clientes, int segundos, int membros, int projetos, boolean mostrar)
+            throws InterruptedException {
+        long fim = System.nanoTime() + segundos * 1_000_000_000L;
+        long[][] latencias = new long[clientes][];
+        int[] contagens = new int[clientes];
+        AtomicLong erros = new AtomicLong();
+        Thread[] threads = new Thread[clientes];
+        for (int c = 0; c < clientes; c++) {
+            int cliente = c;
+            threads[c] = new Thread(() -> {
+                HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+                ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+                long[] medidas = new long[1 << 16];
+                int n = 0;
+                while (System.nanoTime() < fim) {
+                    int sorteio = aleatorio.nextInt(100);
+                    HttpRequest pedido;
+                    if (sorteio < 80) {
+                        pedido = HttpRequest.newBuilder(URI.create(base + "/membros/" + (1 + aleatorio.nextInt(membros)))).build();
+                    } else if (sorteio < 95) {
+                        pedido = HttpRequest.newBuilder(URI.create(base + "/projetos/" + (1 + aleatorio.nextInt(projetos)))).build();
+                    } else {
+                        pedido = HttpRequest.newBuilder(URI.create(base + "/projetos/" + (1 + aleatorio.nextInt(projetos))
+                                + "/membros/" + (1 + aleatorio.nextInt(membros)))).POST(HttpRequest.BodyPublishers.noBody()).build();
+                    }
+                    long inicio = System.nanoTime();
+                    try {
+                        HttpResponse<byte[]> resposta = http.send(pedido, HttpResponse.BodyHandlers.ofByteArray());
+                        if (resposta.statusCode() != 200) erros.incrementAndGet();
+                    } catch (Exception e) {
+                        erros.incrementAndGet();
+                    }
+                    if (n == medidas.length) medidas = Arrays.copyOf(medidas, n * 2);
+                    medidas[n++] = System.nanoTime() - inicio;
+                }
+                latencias[cliente] = medidas;
+                contagens[cliente] = n;
+            }, "carga-" + c);
+            threads[c].start();
+        }
+        for (Thread thread : threads) thread.join();
+        if (!mostrar) return;
+
+        int total = Arrays.stream(contagens).sum();
+        long[] todas = new long[total];
+        int k = 0;
+        for (int c = 0; c < clientes; c++) {
+            System.arraycopy(latencias[c], 0, todas, k, contagens[c]);
+            k += contagens[c];
+        }
+        Arrays.sort(todas);
+        System.out.printf(Locale.ROOT, "%d pedidos em %d s: %.0f pedidos/s | latência p50 %.0f µs, p99 %.0f µs, máx %.0f µs | erros %d%n",
+                total, segundos, (double) total / segundos, percentil(todas, 0.50), percentil(todas, 0.99),
+                todas.length == 0 ? 0.0 : todas[todas.length - 1] / 1000.0, erros.get());
+    }
+
+    private static double percentil(long[] ordenadas, double p) {
+        if (ordenadas.length == 0) return 0;
+        return ordenadas[Math.min(ordenadas.length - 1, (int) (p * ordenadas.length))] / 1000.0;
+    }
+}
@@ -0,0 +1,56 @@
+package pt.ipb.uniag.bench;// Ficheiro: bench/pt.ipb.uniag.bench.Cenario.java
+
+/**
+ * Um cenário de medição executado pela {@link Bancada}.
+ * <p>
+ * Para cada tamanho de dados, a bancada invoca {@link #preparar(int)} uma vez e depois, em cada
+ * iteração (de aquecimento ou de medição), {@link #antesDaIteracao()} fora da medição seguido de
+ * {@link #executar()} dentro da medição. O tempo e a memória alocada de cada iteração são divididos
+ * pelo número de operações devolvido por {@link #executar()}.
+ *
+ * @author Luis Enrique
+ * @version 1.8
+ * @since 2026-10-18
+ */
+abstract class Cenario {
+
+    private final String nome;
+
+    /**
+     * Constrói o cenário.
+     * @param nome O nome apresentado nos resultados (normalmente, o método medido).
+     */
+    Cenario(String nome) {
+        this.nome = nome;
+    }
+
+    /**
+     * Obtém o nome do cenário.
+     * @return O nome do cenário.
+     */
+    String getNome() { return this.nome; }
+
+    /**
+     * Cria os dados iniciais do cenário.
+     * @param tamanho O tamanho dos dados (número de membros, ou de participantes de um projeto).
+     */
+    abstract void preparar(int tamanho);
+
+    /**
+     * Prepara uma iteração. O tempo gasto aqui não é medido.
+     */
+    void antesDaIteracao() {
+        // Por omissão, nada a preparar.
+    }
+
+    /**
+     * Executa uma iteração medida.
+     * @return O número de operações executadas na iteração.
+     */
+    abstract int executar();
+
+    /**
+     * Liberta os dados do cenário, para não pesarem nas medições seguintes.
+     */
+    abstract void libertar();
+}
@@ -0,0 +1,312 @@
+package pt.ipb.uniag.bench;// Ficheiro: bench/pt.ipb.uniag.bench.CenariosUNIAG.java
+
+import pt.ipb.uniag.app.UNIAG;
+import pt.ipb.uniag.modelo.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Os cenários de medição das operações principais da UNIAG e do modelo.
+ * <p>
+ * Os dados de cada cenário são gerados de forma determinística: {@code tamanho} membros (um terço
+ * de cada tipo) distribuídos por {@code tamanho / 10} projetos, com três associações por membro.
+ *
+ * @author Luis Enrique
+ * @version 1.8
+ * @since 2026-10-18
+ */
+final class CenariosUNIAG {
+
+    private static final int OPERACOES_POR_ITERACAO = 10_000;
+    private static final int LIGACOES_POR_MEMBRO = 3;
+    private static final int MEMBROS_MUITO_LIGADOS = 100;
+    private static final int PROJETOS_POR_MEMBRO_MUITO_LIGADO = 1_000;
+
+    /**
+     * Construtor privado para prevenir a instanciação desta classe utilitária.
+     */
+    private CenariosUNIAG() {
+        // Esta classe não deve ser instanciada.
+    }
+
+    /**
+     * Obtém todos os cenários, pela ordem em que são executados.
+     * @return A lista de cenários.
+     */
+    static List<Cenario> todos() {
+        return List.of(
+                new AdicionarInvestigador(),
+                new AdicionarProjeto(),
+                new AssociarMembro(AssociarMembro.Variante.SIMPLES),
+                new AssociarMembro(AssociarMembro.Variante.METRICAS),
+                new AssociarMembro(AssociarMembro.Variante.FOTOGRAFIAS),
+                new AssociarMembro(AssociarMembro.Variante.COMPACTAS),
+                new RemoverMembroMuitoLigado(),
+                new DistribuirVerba(),
+                new ClonarProjeto(false),
+                new ClonarProjeto(true),
+                new MostrarProjetos());
+    }
+
+    /**
+     * Cria uma UNIAG com {@code membros} membros e {@code membros / 10} projetos, com três associações por membro.
+     */
+    private static UNIAG criarDados(int membros) {
+        UNIAG uniag = new UNIAG();
+        int[] idsMembros = new int[membros];
+        for (int i = 0; i < membros; i++) {
+            idsMembros[i] = novoMembro(uniag, i).getId();
+        }
+        int[] idsProjetos = new int[Math.max(1, membros / 10)];
+        for (int i = 0; i < idsProjetos.length; i++) {
+            idsProjetos[i] = uniag.addProjeto("Projeto " + i, 10_000 + i).getId();
+        }
+        SplittableRandom aleatorio = new SplittableRandom(42);
+        int[] pares = new int[membros * LIGACOES_POR_MEMBRO];
+        int[] projetos = new int[pares.length];
+        for (int i = 0; i < pares.length; i++) {
+            pares[i] = idsMembros[i / LIGACOES_POR_MEMBRO];
+            projetos[i] = idsProjetos[aleatorio.nextInt(idsProjetos.length)];
+        }
+        uniag.associaMembrosProjetos(pares, projetos);
+        return uniag;
+    }
+
+    /**
+     * Cria um projeto (fora de qualquer UNIAG) com {@code participantes} membros, um terço de cada tipo.
+     */
+    private static Projeto criarProjeto(int participantes) {
+        Projeto projeto = new Projeto("Projeto de medição", 1_000_000);
+        projeto.reservarCapacidade(participantes);
+        for (int i = 0; i < participantes; i++) {
+            MembroInvestigador membro = i % 3 == 0 ? new Investigador("Investigador " + i)
+                    : i % 3 == 1 ? new InvColaborador("Colaborador " + i) : new Visitante("Visitante " + i);
+            membro.associarProjeto(projeto);
+            projeto.adicionarMembro(membro);
+        }
+        return projeto;
+    }
+
+    private static MembroInvestigador novoMembro(UNIAG uniag, int i) {
+        switch (i % 3) {
+            case 0: return uniag.addInvestigador("Investigador " + i);
+            case 1: return uniag.addInvColaborador("Colaborador " + i);
+            default: return uniag.addVisitante("Visitante " + i);
+        }
+    }
+
+    /** {@link UNIAG#addInvestigador(String)} numa unidade que já tem {@code tamanho} membros. */
+    private static final class AdicionarInvestigador extends Cenario {
+        private UNIAG uniag;
+
+        AdicionarInvestigador() { super("UNIAG.addInvestigador"); }
+
+        @Override void preparar(int tamanho) { this.uniag = criarDados(tamanho); }
+
+        @Override int executar() {
+            for (int i = 0; i < OPERACOES_POR_ITERACAO; i++) {
+                Bancada.consumir(this.uniag.addInvestigador("Investigador de medição"));
+            }
+            return OPERACOES_POR_ITERACAO;
+        }
+
+        @Override void libertar() { this.uniag = null; }
+    }
+
+    /** {@link UNIAG#addProjeto(String, double)} numa unidade que já tem {@code tamanho / 10} projetos. */
+    private static final class AdicionarProjeto extends Cenario {
+        private UNIAG uniag;
+
+        AdicionarProjeto() { super("UNIAG.addProjeto"); }
+
+        @Override void preparar(int tamanho) { this.uniag = criarDados(tamanho); }
+
+        @Override int executar() {
+            for (int i = 0; i < OPERACOES_POR_ITERACAO; i++) {
+                Bancada.consumir(this.uniag.addProjeto("Projeto de medição", 1_000));
+            }
+            return OPERACOES_POR_ITERACAO;
+        }
+
+        @Override void libertar() { this.uniag = null; }
+    }
+
+    /**
+     * {@link UNIAG#associaMembroProjeto(int, int)} a um projeto que já tem {@code tamanho} participantes,
+     * sem ou com métricas ({@link UNIAG#getMetricas()}), fotografias ativas ({@link UNIAG#ativarFotografias()})
+     * ou associações compactas ({@link UNIAG#UNIAG(boolean)}).
+     * <p>
+     * As variantes simples e com métricas medem a mesma operação, com as métricas desativadas e ativas
+     * (com a amostragem por omissão), pelo que a diferença entre as duas é o custo das métricas.
+     */
+    private static final class AssociarMembro extends Cenario {
+
+        /** O que está ativo na unidade, além das associações. */
+        enum Variante {
+            SIMPLES(""), METRICAS(" (métricas)"), FOTOGRAFIAS(" (fotografias)"), COMPACTAS(" (compactas)");
+
+            final String sufixo;
+
+            Variante(String sufixo) {
+                this.sufixo = sufixo;
+            }
+        }
+
+        private final Variante variante;
+        private UNIAG uniag;
+        private int idProjeto;
+        private int[] novos = new int[0];
+
+        AssociarMembro(Variante variante) {
+            super("UNIAG.associaMembroProjeto" + variante.sufixo);
+            this.variante = variante;
+        }
+
+        @Override void preparar(int tamanho) {
+            this.uniag = new UNIAG(this.variante == Variante.COMPACTAS);
+            this.uniag.getMetricas().setAtiva(this.variante == Variante.METRICAS);
+            this.idProjeto = this.uniag.addProjeto("Projeto de medição", 1_000_000).getId();
+            for (int i = 0; i < tamanho; i++) {
+                this.uniag.associaMembroProjeto(novoMembro(this.uniag, i).getId(), this.idProjeto);
+            }
+            if (this.variante == Variante.FOTOGRAFIAS) this.uniag.ativarFotografias();
+        }
+
+        @Override void antesDaIteracao() {
+            // Repõe o projeto com o número inicial de participantes e cria os membros a associar.
+            for (int id : this.novos) {
+                this.uniag.removerMembro(id);
+            }
+            this.novos = new int[OPERACOES_POR_ITERACAO];
+            for (int i = 0; i < this.novos.length; i++) {
+                this.novos[i] = novoMembro(this.uniag, i).getId();
+            }
+        }
+
+        @Override int executar() {
+            for (int id : this.novos) {
+                Bancada.consumir(this.uniag.associaMembroProjeto(id, this.idProjeto) ? 1 : 0);
+            }
+            return this.novos.length;
+        }
+
+        @Override void libertar() {
+            this.uniag = null;
+            this.novos = new int[0];
+        }
+    }
+
+    /** {@link UNIAG#removerMembro(int)} de membros associados a muitos projetos. */
+    private static final class RemoverMembroMuitoLigado extends Cenario {
+        private UNIAG uniag;
+        private int[] idsProjetos;
+        private final int[] aRemover = new int[MEMBROS_MUITO_LIGADOS];
+
+        RemoverMembroMuitoLigado() { super("UNIAG.removerMembro (muito ligado)"); }
+
+        @Override void preparar(int tamanho) {
+            this.uniag = criarDados(tamanho);
+            this.idsProjetos = this.uniag.getProjetos().stream().mapToInt(Projeto::getId)
+                    .limit(PROJETOS_POR_MEMBRO_MUITO_LIGADO).toArray();
+        }
+
+        @Override void antesDaIteracao() {
+            int[] membros = new int[MEMBROS_MUITO_LIGADOS * this.idsProjetos.length];
+            int[] projetos = new int[membros.length];
+            for (int m = 0, k = 0; m < MEMBROS_MUITO_LIGADOS; m++) {
+                this.aRemover[m] = this.uniag.addInvestigador("Membro muito ligado").getId();
+                for (int idProjeto : this.idsProjetos) {
+                    membros[k] = this.aRemover[m];
+                    projetos[k++] = idProjeto;
+                }
+            }
+            this.uniag.associaMembrosProjetos(membros, projetos);
+        }
+
+        @Override int executar() {
+            for (int id : this.aRemover) {
+                Bancada.consumir(this.uniag.removerMembro(id) ? 1 : 0);
+            }
+            return this.aRemover.length;
+        }
+
+        @Override void libertar() { this.uniag = null; }
+    }
+
+    /** {@link Projeto#distribuirVerbaPorInvestigador(boolean)} num projeto com {@code tamanho} participantes. */
+    private static final class DistribuirVerba extends Cenario {
+        private Projeto projeto;
+        private int repeticoes;
+
+        DistribuirVerba() { super("Projeto.distribuirVerbaPorInvestigador"); }
+
+        @Override void preparar(int tamanho) {
+            this.projeto = criarProjeto(tamanho);
+            this.repeticoes = Math.max(1, 1_000_000 / Math.max(1, tamanho));
+        }
+
+        @Override int executar() {
+            for (int i = 0; i < this.repeticoes; i++) {
+                Bancada.consumir(this.projeto.distribuirVerbaPorInvestigador(false));
+            }
+            return this.repeticoes;
+        }
+
+        @Override void libertar() { this.projeto = null; }
+    }
+
+    /**
+     * {@link Projeto#clone()} (cópia profunda) de um projeto com {@code tamanho} participantes, só a
+     * clonagem ou seguida da leitura dos membros do clone (que obriga a copiá-los).
+     */
+    private static final class ClonarProjeto extends Cenario {
+        private final boolean lerMembros;
+        private Projeto projeto;
+        private int repeticoes;
+
+        ClonarProjeto(boolean lerMembros) {
+            super(lerMembros ? "Projeto.clone + leitura dos membros" : "Projeto.clone");
+            this.lerMembros = lerMembros;
+        }
+
+        @Override void preparar(int tamanho) {
+            this.projeto = criarProjeto(tamanho);
+            this.repeticoes = Math.max(1, 100_000 / Math.max(1, tamanho));
+        }
+
+        @Override int executar() {
+            for (int i = 0; i < this.repeticoes; i++) {
+                Projeto clone = this.projeto.clone();
+                Bancada.consumir(this.lerMembros ? clone.getNumeroInvestigadores() : System.identityHashCode(clone));
+            }
+            return this.repeticoes;
+        }
+
+        @Override void libertar() { this.projeto = null; }
+    }
+
+    /** {@link UNIAG#mostrarProjetos()} com a consola redirecionada para um destino nulo; uma operação por projeto. */
+    private static final class MostrarProjetos extends Cenario {
+        private UNIAG uniag;
+
+        MostrarProjetos() { super("UNIAG.mostrarProjetos (por projeto)"); }
+
+        @Override void preparar(int tamanho) { this.uniag = criarDados(tamanho); }
+
+        @Override int executar() {
+            PrintStream consola = System.out;
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            try {
+                this.uniag.mostrarProjetos();
+            } finally {
+                System.setOut(consola);
+            }
+            return this.uniag.getProjetos().size();
+        }
+
+        @Override void libertar() { this.uniag = null; }
+    }
+}
@@ -0,0 +1,13 @@
+// Ficheiro: bench/pt.ipb.uniag.bench/package-info.java
+
+/**
+ * Contém a bancada de medição de desempenho da aplicação UNIAG.
+ * <p>
+ * Estas classes não fazem parte da aplicação: são compiladas à parte, contra as classes de {@code src},
+ * e executadas com {@link pt.ipb.uniag.bench.Bancada}.
+ *
+ * @author Luis Enrique
+ * @version 1.8
+ * @since 2026-10-18
+ */
+package pt.ipb.uniag.bench;
@@ -0,0 +1,141 @@
+package pt.ipb.uniag.bench;// Ficheiro: jmh/src/pt.ipb.uniag.bench.BancadaJMH.java
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Os cenários da {@link Bancada} ({@link CenariosUNIAG}) executados pelo JMH.
+ * <p>
+ * Cada execução do cenário ({@link Cenario#executar()}) é uma invocação do JMH, precedida de
+ * {@link Cenario#antesDaIteracao()} fora da medição. Como o número de operações de cada invocação
+ * depende do cenário e do tamanho, o tempo por operação é o contador auxiliar {@code operacoes}
+ * (em operações por segundo); o tempo e a memória ({@code gc.alloc.rate.norm}) principais são por
+ * invocação.
+ * <p>
+ * Utilização (o perfilador de recolha de lixo está sempre ativo; as restantes opções são as do JMH):
+ * <pre>
+ *   java -jar jmh/target/benchmarks.jar [-p tamanho=1000,10000] [-p cenario=Projeto.clone]
+ * </pre>
+ *
+ * @author Luis Enrique
+ * @version 1.8
+ * @since 2026-10-18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BancadaJMH {
+
+    /** O número de membros (ou de participantes de um projeto), como na {@link Bancada}. */
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int tamanho;
+
+    /** O nome do cenário, como na {@link Bancada}. */
+    @Param({
+            "UNIAG.addInvestigador",
+            "UNIAG.addProjeto",
+            "UNIAG.associaMembroProjeto",
+            "UNIAG.associaMembroProjeto (métricas)",
+            "UNIAG.associaMembroProjeto (fotografias)",
+            "UNIAG.associaMembroProjeto (compactas)",
+            "UNIAG.removerMembro (muito ligado)",
+            "Projeto.distribuirVerbaPorInvestigador",
+            "Projeto.clone",
+            "Projeto.clone + leitura dos membros",
+            "UNIAG.mostrarProjetos (por projeto)"})
+    public String cenario;
+
+    private Cenario atual;
+
+    /**
+     * As operações executadas pelas invocações medidas, apresentadas pelo JMH em operações por segundo.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Operacoes {
+        /** O número de operações da iteração. */
+        public long operacoes;
+
+        /** Recomeça a contagem em cada iteração. */
+        @Setup(Level.Iteration)
+        public void recomecar() {
+            this.operacoes = 0;
+        }
+    }
+
+    /**
+     * Cria os dados do cenário.
+     * @throws IllegalArgumentException Se não existir nenhum cenário com o nome indicado.
+     */
+    @Setup(Level.Trial)
+    public void preparar() {
+        this.atual = CenariosUNIAG.todos().stream()
+                .filter(c -> c.getNome().equals(this.cenario))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Cenário desconhecido: " + this.cenario));
+        this.atual.preparar(this.tamanho);
+    }
+
+    /** Prepara a invocação seguinte, fora da medição. */
+    @Setup(Level.Invocation)
+    public void antesDaInvocacao() {
+        this.atual.antesDaIteracao();
+    }
+
+    /**
+     * Executa o cenário.
+     * @param operacoes O contador de operações.
+     * @param buraco O consumidor do resultado.
+     */
+    @Benchmark
+    public void executar(Operacoes operacoes, Blackhole buraco) {
+        int n = this.atual.executar();
+        operacoes.operacoes += n;
+        buraco.consume(n);
+    }
+
+    /** Liberta os dados do cenário. */
+    @TearDown(Level.Trial)
+    public void libertar() {
+        this.atual.libertar();
+        this.atual = null;
+    }
+
+    /**
+     * Executa a bancada com o perfilador de recolha de lixo ({@code -prof gc}) sempre ativo.
+     * @param args As opções do JMH.
+     * @throws CommandLineOptionException Se as opções forem inválidas.
+     * @throws RunnerException Se a execução falhar.
+     */
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(BancadaJMH.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,454 @@
+package pt.ipb.uniag.app;// Ficheiro: src/pt.ipb.uniag.app.AdjacenciaCompacta.java
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Listas de adjacência de IDs inteiros, guardadas de forma compacta: um dos lados das associações
+ * de uma UNIAG (os projetos de cada membro, ou os participantes de cada projeto). Cada linha é
+ * identificada pelo ID de uma entidade e contém os IDs ligados a ela, pela ordem de inserção.
+ * <p>
+ * A base está no formato CSR ("compressed sparse row"): um único array com todas as linhas
+ * seguidas e outro com a posição onde começa cada linha, sem nenhum objeto por ligação. As linhas
+ * são numeradas de forma densa, pela ordem em que entraram na base, e uma tabela de dispersão
+ * imutável converte o ID de cada entidade no número da sua linha: o tamanho da base depende do
+ * número de linhas e de ligações, e não do maior ID. As linhas que ficam vazias saem da base na
+ * compactação seguinte. As linhas com mais de {@value #LIMIAR_ORDENADA} ligações têm também uma
+ * cópia ordenada, para que verificar se um ID pertence à linha seja uma pesquisa binária.
+ * <p>
+ * A base nunca é alterada. As alterações de cada linha ficam num registo de operações ({@code +id}
+ * para acrescentar, {@code -id} para retirar), com uma tabela de dispersão que indica a última
+ * operação sobre cada ID. Quando as operações pendentes passam de um quarto do tamanho da base,
+ * a base é reconstruída com elas aplicadas (compactação), em tempo proporcional ao número de
+ * ligações: o custo amortizado de cada alteração é constante. A compactação apenas reorganiza o
+ * que as operações já registaram; se falhar (por falta de memória), o estado atual continua
+ * válido, a alteração que a desencadeou conta como feita e a compactação é adiada.
+ * <p>
+ * As alterações de uma mesma linha têm de ser feitas por uma thread de cada vez (em {@link UNIAG},
+ * com o bloqueio da entidade adquirido); linhas diferentes podem ser alteradas em simultâneo e só
+ * a compactação as suspende por instantes. As leituras não usam bloqueios: leem o estado publicado
+ * e veem sempre uma versão coerente de cada linha.
+ *
+ * @author Luis Enrique
+ * @version 1.8
+ * @since 2026-10-18
+ */
+final class AdjacenciaCompacta {
+
+    /** As linhas com mais ligações do que este limiar têm uma cópia ordenada na base. */
+    static final int LIMIAR_ORDENADA = 16;
+    private static final int OPERACOES_MINIMAS_COMPACTACAO = 4096;
+    private static final int CAPACIDADE_INICIAL_REGISTO = 4;
+    private static final int MAXIMO_LIGACOES = Integer.MAX_VALUE - 8;
+
+    /** Partilhado pelas alterações (leitura) e exclusivo da compactação (escrita). */
+    private final StampedLock bloqueio = new StampedLock();
+    private volatile Estado estado = new Estado(new int[0], new int[1], new int[0], new int[1], new int[0]);
+
+    /**
+     * Verifica se uma linha contém um ID.
+     * @param linha O ID da entidade dona da linha.
+     * @param id O ID procurado.
+     * @return {@code true} se o ID pertencer à linha.
+     */
+    boolean contem(int linha, int id) {
+        return contem(this.estado, linha, id);
+    }
+
+    /**
+     * Obtém o número de IDs de uma linha.
+     * @param linha O ID da entidade dona da linha.
+     * @return O número de ligações da linha.
+     */
+    int grau(int linha) {
+        Estado e = this.estado;
+        Delta delta = e.deltas.obter(linha);
+        // O contador é lido antes do grau, para ver um grau pelo menos tão recente como as operações.
+        if (delta == null || delta.n == 0) return e.grauBase(e.indice(linha));
+        return delta.grau;
+    }
+
+    /**
+     * Percorre os IDs de uma linha, tal como estão neste momento.
+     * @param linha O ID da entidade dona da linha.
+     * @return Um percurso dos IDs, pela ordem de inserção.
+     */
+    Percurso percorrer(int linha) {
+        Estado e = this.estado;
+        return new Percurso(e, linha, e.deltas.obter(linha));
+    }
+
+    /**
+     * Acrescenta um ID ao fim de uma linha, se ainda não estiver nela.
+     * @param linha O ID (positivo) da entidade dona da linha.
+     * @param id O ID (positivo) a acrescentar.
+     * @return {@code true} se o ID foi acrescentado; {@code false} se já estava na linha.
+     * @throws IllegalArgumentException se algum dos IDs não for positivo.
+     */
+    boolean acrescentar(int linha, int id) {
+        if (id <= 0) throw new IllegalArgumentException("O ID tem de ser positivo: " + id);
+        boolean compactar;
+        long selo = this.bloqueio.readLock();
+        try {
+            Estado e = this.estado;
+            if (contem(e, linha, id)) return false;
+            compactar = registar(e, linha, id);
+        } finally {
+            this.bloqueio.unlockRead(selo);
+        }
+        if (compactar) compactarSeNecessario();
+        return true;
+    }
+
+    /**
+     * Retira um ID de uma linha.
+     * @param linha O ID da entidade dona da linha.
+     * @param id O ID a retirar.
+     * @return {@code true} se o ID estava na linha e foi retirado.
+     */
+    boolean retirar(int linha, int id) {
+        boolean compactar;
+        long selo = this.bloqueio.readLock();
+        try {
+            Estado e = this.estado;
+            if (!contem(e, linha, id)) return false;
+            compactar = registar(e, linha, -id);
+        } finally {
+            this.bloqueio.unlockRead(selo);
+        }
+        if (compactar) compactarSeNecessario();
+        return true;
+    }
+
+    /**
+     * Retira todos os IDs de uma linha.
+     * @param linha O ID da entidade dona da linha.
+     */
+    void limpar(int linha) {
+        boolean compactar = false;
+        long selo = this.bloqueio.readLock();
+        try {
+            Estado e = this.estado;
+            Percurso percurso = new Percurso(e, linha, e.deltas.obter(linha));
+            int[] ids = new int[percurso.restantes()];
+            int n = 0;
+            for (int id; n < ids.length && (id = percurso.proximo()) != 0; ) ids[n++] = id;
+            for (int i = 0; i < n; i++) {
+                compactar |= registar(e, linha, -ids[i]);
+            }
+        } finally {
+            this.bloqueio.unlockRead(selo);
+        }
+        if (compactar) compactarSeNecessario();
+    }
+
+    // --- IMPLEMENTAÇÃO ---
+
+    private static boolean contem(Estado e, int linha, int id) {
+        if (id <= 0) return false;
+        Delta delta = e.deltas.obter(linha);
+        if (delta != null) {
+            int n = delta.n;
+            int posicao = delta.ultima(id, n);
+            if (posicao >= 0) return delta.operacoes[posicao] > 0;
+        }
+        return e.baseContem(linha, id);
+    }
+
+    /**
+     * Acrescenta uma operação ao registo de uma linha (com o bloqueio partilhado adquirido).
+     * @return {@code true} se as operações pendentes justificarem uma compactação.
+     */
+    private static boolean registar(Estado e, int linha, int operacao) {
+        Delta delta = e.deltas.obter(linha);
+        if (delta == null) {
+            int indice = e.indice(linha);
+            delta = new Delta(linha, CAPACIDADE_INICIAL_REGISTO, e.grauBase(indice));
+            e.deltas.colocar(linha, delta);
+            if (indice < 0) e.linhasNovas.incrementAndGet();
+        } else if (delta.n == delta.operacoes.length) {
+            delta = delta.crescer();
+            e.deltas.colocar(linha, delta);
+        }
+        delta.registar(operacao);
+        e.pendentes.increment();
+        return e.pendentes.sum() > e.limiteCompactacao;
+    }
+
+    private void compactarSeNecessario() {
+        long selo = this.bloqueio.writeLock();
+        try {
+            Estado e = this.estado;
+            if (e.pendentes.sum() <= e.limiteCompactacao) return;
+            try {
+                this.estado = compactado(e);
+            } catch (OutOfMemoryError | IllegalStateException falha) {
+                // As operações já estão registadas no estado atual, que continua válido: a alteração
+                // que desencadeou a compactação não pode falhar por causa dela. Tenta-se de novo
+                // quando as operações pendentes dobrarem.
+                e.limiteCompactacao = 2 * Math.max(e.limiteCompactacao, e.pendentes.sum());
+            }
+        } finally {
+            this.bloqueio.unlockWrite(selo);
+        }
+    }
+
+    /**
+     * Constrói uma base nova com todas as operações pendentes aplicadas (sem alterações em curso).
+     * As linhas da base antiga mantêm a ordem, seguidas das linhas novas; as que ficaram vazias saem.
+     * @throws IllegalStateException se o total de ligações não couber numa única base.
+     */
+    private static Estado compactado(Estado e) {
+        int[] candidatas = Arrays.copyOf(e.ids, e.linhas() + e.linhasNovas.get());
+        int n = e.linhas();
+        for (Delta delta : e.deltas.valores()) {
+            if (e.indice(delta.linha) < 0) candidatas[n++] = delta.linha;
+        }
+        int[] ids = new int[n];
+        int[] graus = new int[n];
+        int linhas = 0;
+        long total = 0;
+        long totalOrdenadas = 0;
+        for (int i = 0; i < n; i++) {
+            int linha = candidatas[i];
+            Delta delta = e.deltas.obter(linha);
+            int grau = delta != null ? delta.grau : e.grauBase(i);
+            if (grau == 0) continue;
+            ids[linhas] = linha;
+            graus[linhas++] = grau;
+            total += grau;
+            if (grau > LIMIAR_ORDENADA) totalOrdenadas += grau;
+            if (total > MAXIMO_LIGACOES) throw new IllegalStateException("Demasiadas ligações para uma única base.");
+        }
+        ids = Arrays.copyOf(ids, linhas);
+        int[] inicio = new int[linhas + 1];
+        int[] inicioOrdenada = new int[linhas + 1];
+        for (int indice = 0; indice < linhas; indice++) {
+            int grau = graus[indice];
+            inicio[indice + 1] = inicio[indice] + grau;
+            inicioOrdenada[indice + 1] = inicioOrdenada[indice] + (grau > LIMIAR_ORDENADA ? grau : 0);
+        }
+        int[] vizinhos = new int[(int) total];
+        int[] ordenadas = new int[(int) totalOrdenadas];
+        for (int indice = 0; indice < linhas; indice++) {
+            int linha = ids[indice];
+            int anterior = e.indice(linha);
+            int destino = inicio[indice];
+            int grau = graus[indice];
+            Delta delta = e.deltas.obter(linha);
+            if (delta == null) {
+                System.arraycopy(e.vizinhos, e.inicio(anterior), vizinhos, destino, grau);
+            } else {
+                Percurso percurso = new Percurso(e, linha, delta);
+                for (int id; (id = percurso.proximo()) != 0; ) vizinhos[destino++] = id;
+            }
+            if (grau > LIMIAR_ORDENADA) {
+                int inicioCopia = inicioOrdenada[indice];
+                if (delta == null) {
+                    // A linha não mudou: a cópia ordenada da base antiga continua válida.
+                    System.arraycopy(e.ordenadas, e.inicioOrdenada[anterior], ordenadas, inicioCopia, grau);
+                } else {
+                    System.arraycopy(vizinhos, inicio[indice], ordenadas, inicioCopia, grau);
+                    Arrays.sort(ordenadas, inicioCopia, inicioCopia + grau);
+                }
+            }
+        }
+        return new Estado(ids, inicio, vizinhos, inicioOrdenada, ordenadas);
+    }
+
+    private static int espalhar(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Uma base imutável e as operações pendentes sobre ela. Uma compactação publica um estado novo,
+     * pelo que quem lê um estado vê sempre a base e as operações correspondentes.
+     */
+    private static final class Estado {
+        final int[] ids;            // o ID da entidade de cada linha da base
+        final int[] chaves;         // IDs das linhas (0 = posição livre), por endereçamento aberto
+        final int[] indices;        // o número da linha de cada chave
+        final int[] inicio;
+        final int[] vizinhos;
+        final int[] inicioOrdenada;
+        final int[] ordenadas;
+        final RegistoIds<Delta> deltas = new RegistoIds<>();
+        final LongAdder pendentes = new LongAdder();
+        final AtomicInteger linhasNovas = new AtomicInteger();   // linhas com operações fora da base
+        volatile long limiteCompactacao;
+
+        Estado(int[] ids, int[] inicio, int[] vizinhos, int[] inicioOrdenada, int[] ordenadas) {
+            this.ids = ids;
+            this.inicio = inicio;
+            this.vizinhos = vizinhos;
+            this.inicioOrdenada = inicioOrdenada;
+            this.ordenadas = ordenadas;
+            int capacidade = Integer.highestOneBit(Math.max(1, ids.length) * 2 - 1) << 1;
+            this.chaves = new int[capacidade];
+            this.indices = new int[capacidade];
+            int mascara = capacidade - 1;
+            for (int indice = 0; indice < ids.length; indice++) {
+                int i = espalhar(ids[indice]) & mascara;
+                while (this.chaves[i] != 0) i = (i + 1) & mascara;
+                this.chaves[i] = ids[indice];
+                this.indices[i] = indice;
+            }
+            // A compactação percorre todas as linhas e ligações: o limite cresce com as duas.
+            this.limiteCompactacao = OPERACOES_MINIMAS_COMPACTACAO + ((long) vizinhos.length + ids.length) / 4;
+        }
+
+        int linhas() { return this.ids.length; }
+
+        /**
+         * Obtém o número da linha de uma entidade na base.
+         * @return O número da linha, ou -1 se a entidade não tiver linha na base.
+         */
+        int indice(int linha) {
+            if (linha <= 0) return -1;
+            int mascara = this.chaves.length - 1;
+            for (int i = espalhar(linha) & mascara; ; i = (i + 1) & mascara) {
+                int chave = this.chaves[i];
+                if (chave == linha) return this.indices[i];
+                if (chave == 0) return -1;
+            }
+        }
+
+        int inicio(int indice) { return indice >= 0 ? this.inicio[indice] : 0; }
+
+        int fim(int indice) { return indice >= 0 ? this.inicio[indice + 1] : 0; }
+
+        int grauBase(int indice) { return fim(indice) - inicio(indice); }
+
+        boolean baseContem(int linha, int id) {
+            int indice = indice(linha);
+            int inicio = inicio(indice);
+            int fim = fim(indice);
+            if (fim - inicio > LIMIAR_ORDENADA) {
+                return Arrays.binarySearch(this.ordenadas, this.inicioOrdenada[indice], this.inicioOrdenada[indice + 1], id) >= 0;
+            }
+            for (int i = inicio; i < fim; i++) {
+                if (this.vizinhos[i] == id) return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * O registo de operações de uma linha. Só a thread que altera a linha escreve; cada operação é
+     * escrita antes de o contador {@link #n} a publicar, e quem lê considera apenas as primeiras
+     * {@code n} operações. A tabela de dispersão tem sempre pelo menos metade das posições livres.
+     */
+    private static final class Delta {
+        final int linha;
+        final int[] operacoes;
+        final int[] chaves;     // IDs com operações (0 = posição livre), por endereçamento aberto
+        final int[] ultimas;    // posição, em operacoes, da última operação sobre cada chave
+        int grau;               // número de IDs da linha depois de todas as operações
+        volatile int n;
+
+        Delta(int linha, int capacidade, int grau) {
+            this.linha = linha;
+            this.operacoes = new int[capacidade];
+            this.chaves = new int[2 * capacidade];
+            this.ultimas = new int[2 * capacidade];
+            this.grau = grau;
+        }
+
+        /** Acrescenta uma operação (com espaço garantido) e publica-a. */
+        void registar(int operacao) {
+            int n = this.n;
+            this.operacoes[n] = operacao;
+            indexar(Math.abs(operacao), n);
+            this.grau += operacao > 0 ? 1 : -1;
+            this.n = n + 1;
+        }
+
+        /** Cria um registo com o dobro da capacidade e as mesmas operações. */
+        Delta crescer() {
+            int n = this.n;
+            Delta maior = new Delta(this.linha, 2 * this.operacoes.length, this.grau);
+            System.arraycopy(this.operacoes, 0, maior.operacoes, 0, n);
+            for (int i = 0; i < n; i++) {
+                maior.indexar(Math.abs(this.operacoes[i]), i);
+            }
+            maior.n = n;
+            return maior;
+        }
+
+        private void indexar(int id, int posicao) {
+            int mascara = this.chaves.length - 1;
+            int i = espalhar(id) & mascara;
+            while (this.chaves[i] != 0 && this.chaves[i] != id) i = (i + 1) & mascara;
+            this.ultimas[i] = posicao;
+            this.chaves[i] = id;
+        }
+
+        /**
+         * Obtém a posição da última operação sobre um ID entre as primeiras {@code n}.
+         * @return A posição, ou -1 se nenhuma dessas operações for sobre o ID.
+         */
+        int ultima(int id, int n) {
+            int mascara = this.chaves.length - 1;
+            for (int i = espalhar(id) & mascara; ; i = (i + 1) & mascara) {
+                int chave = this.chaves[i];
+                if (chave == 0) return -1;
+                if (chave == id) {
+                    int posicao = this.ultimas[i];
+                    if (posicao < n && Math.abs(this.operacoes[posicao]) == id) return posicao;
+                    // A operação indexada ainda não está entre as n lidas: procurar a anterior.
+                    for (int p = n - 1; p >= 0; p--) {
+                        if (Math.abs(this.operacoes[p]) == id) return p;
+                    }
+                    return -1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Um percurso dos IDs de uma linha: primeiro os da base que não foram alterados e depois os
+     * acrescentados pelas operações pendentes, pela ordem das operações.
+     */
+    static final class Percurso {
+        private final Estado estado;
+        private final Delta delta;
+        private final int n;
+        private final int fimBase;
+        private int posicaoBase;
+        private int posicaoOperacao;
+
+        private Percurso(Estado estado, int linha, Delta delta) {
+            this.estado = estado;
+            this.delta = delta;
+            this.n = delta == null ? 0 : delta.n;
+            int indice = estado.indice(linha);
+            this.posicaoBase = estado.inicio(indice);
+            this.fimBase = estado.fim(indice);
+        }
+
+        /**
+         * Obtém o próximo ID da linha.
+         * @return O ID, ou 0 quando já não houver mais.
+         */
+        int proximo() {
+            while (this.posicaoBase < this.fimBase) {
+                int id = this.estado.vizinhos[this.posicaoBase++];
+                if (this.delta == null || this.delta.ultima(id, this.n) < 0) return id;
+            }
+            while (this.posicaoOperacao < this.n) {
+                int posicao = this.posicaoOperacao++;
+                int operacao = this.delta.operacoes[posicao];
+                if (operacao > 0 && this.delta.ultima(operacao, this.n) == posicao) return operacao;
+            }
+            return 0;
+        }
+
+        /** Um limite superior do número de IDs que faltam percorrer. */
+        int restantes() {
+            return this.fimBase - this.posicaoBase + this.n - this.posicaoOperacao;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package pt.ipb.uniag.app;// Ficheiro: src/pt.ipb.uniag.app.AgregadosUNIAG.java
+
+import pt.ipb.uniag.modelo.InvColaborador;
+import pt.ipb.uniag.modelo.Investigador;
+import pt.ipb.uniag.modelo.MembroInvestigador;
+import pt.ipb.uniag.modelo.Projeto;
+import pt.ipb.uniag.modelo.Visitante;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Os contadores das {@link EstatisticasUNIAG} de uma UNIAG, atualizados a cada operação.
+ * <p>
+ * Cada contador é um {@link LongAdder}, para que operações concorrentes sobre entidades diferentes
+ * não disputem a mesma variável. Ler todos os contadores custa O(1), seja qual for o número de
+ * entidades; a leitura é exata quando não há operações em curso.
+ *
+ * @author Luis Enrique
+ * @version 1.8
+ * @since 2026-10-18
+ */
+final class AgregadosUNIAG {
+
+    private final LongAdder investigadores = new LongAdder();
+    private final LongAdder colaboradores = new LongAdder();
+    private final LongAdder visitantes = new LongAdder();
+    private final LongAdder projetos = new LongAdder();
+    private final LongAdder associacoes = new LongAdder();
+    private final LongAdder financiamentoCentimos = new LongAdder();
+    private final LongAdder saldoCentimos = new LongAdder();
+
+    /**
+     * Regista um membro acabado de entrar no registo (o seu saldo, se o tiver, passa a contar).
+     * @param membro O membro.
+     */
+    void membroAdicionado(MembroInvestigador membro) {
+        contadorDoTipo(membro).increment();
+        if (membro instanceof Investigador) this.saldoCentimos.add(((Investigador) membro).getSaldoCentimos());
+    }
+
+    /**
+     * Regista um membro retirado do registo. O saldo é descontado à parte, por {@link #saldoRetirado(long)},
+     * depois de o membro deixar de poder receber verba.
+     * @param membro O membro.
+     */
+    void membroRemovido(MembroInvestigador membro) {
+        contadorDoTipo(membro).decrement();
+    }
+
+    /**
+     * Regista um projeto acabado de entrar no registo, com as participações que já tiver.
+     * @param projeto O projeto.
+     */
+    void projetoAdicionado(Projeto projeto) {
+        this.projetos.increment();
+        this.financiamentoCentimos.add(projeto.getFinanciamentoCentimos());
+        this.associacoes.add(projeto.getMembrosParticipantes().size());
+    }
+
+    /**
+     * Regista um projeto retirado do registo, com todas as participações que ainda tinha.
+     * @param projeto O projeto.
+     */
+    void projetoRemovido(Projeto projeto) {
+        this.projetos.decrement();
+        this.financiamentoCentimos.add(-projeto.getFinanciamentoCentimos());
+        this.associacoes.add(-projeto.getMembrosParticipantes().size());
+    }
+
+    /**
+     * Regista a alteração do financiamento de um projeto registado.
+     * @param centimosAntigos O financiamento anterior, em cêntimos.
+     * @param centimosNovos O novo financiamento, em cêntimos.
+     */
+    void financiamentoAlterado(long centimosAntigos, long centimosNovos) {
+        this.financiamentoCentimos.add(centimosNovos - centimosAntigos);
+    }
+
+    /**
+     * Regista participações criadas (positivo) ou desfeitas (negativo) em projetos registados.
+     * @param diferenca A variação do número de participações.
+     */
+    void associacoesAlteradas(int diferenca) {
+        this.associacoes.add(diferenca);
+    }
+
+    /**
+     * Regista um crédito de verba feito por uma distribuição (descontado com {@link #saldoRetirado(long)}
+     * se o investigador for removido).
+     * @param centimos O valor creditado, em cêntimos.
+     */
+    void creditado(long centimos) {
+        this.saldoCentimos.add(centimos);
+    }
+
+    /**
+     * Desconta o saldo final de um investigador removido.
+     * @param centimos O saldo, em cêntimos.
+     */
+    void saldoRetirado(long centimos) {
+        this.saldoCentimos.add(-centimos);
+    }
+
+    /**
+     * Lê os contadores.
+     * @return As estatísticas atuais.
+     */
+    EstatisticasUNIAG ler() {
+        return new EstatisticasUNIAG(this.investigadores.sum(), this.colaboradores.sum(), this.visitantes.sum(),
+                this.projetos.sum(), this.associacoes.sum(), this.financiamentoCentimos.sum(), this.saldoCentimos.sum());
+    }
+
+    private LongAdder contadorDoTipo(MembroInvestigador membro) {
+        if (membro instanceof Investigador) return this.investigadores;
+        if (membro instanceof InvColaborador) return this.colaboradores;
+        if (membro instanceof Visitante) return this.visitantes;
+        throw new IllegalArgumentException("Tipo de membro não suportado: " + membro.getClass().getName());
+    }
+}
@@ -0,0 +1,67 @@
+package pt.ipb.uniag.app;// Ficheiro: src/pt.ipb.uniag.app.AlocadorIds.java
+
+/**
+ * Estratégia de atribuição dos IDs das entidades criadas por uma {@link UNIAG}.
+ * <p>
+ * Cada UNIAG tem um alocador para os membros e outro para os projetos, pelo que duas unidades não
+ * partilham o mesmo espaço de IDs. Os IDs são inteiros positivos; um alocador nunca atribui duas
+ * vezes o mesmo ID e, quando os IDs se esgotam, falha em vez de recomeçar do início.
+ * <p>
+ * Os alocadores contam em 64 bits, mas atribuem IDs {@code int}, porque o modelo, os registos e os
+ * formatos de ficheiro ainda usam IDs de 32 bits. A passagem a IDs de 64 bits está registada como
+ * trabalho em aberto no {@code README.md}.
+ * <p>
+ * Para restaurar uma unidade guardada, o alocador é avançado para lá dos IDs já usados
+ * ({@link #avancarPara(long)}), a partir do valor guardado com {@link #getProximoLivre()}.
+ *
+ * @author Luis Enrique
+ * @version 1.8
+ * @since 2026-10-18
+ */
+public interface AlocadorIds {
+
+    /**
+     * Atribui um novo ID.
+     * @return Um ID positivo ainda não atribuído por este alocador.
+     * @throws IllegalStateException se já não houver IDs disponíveis.
+     */
+    int proximo();
+
+    /**
+     * Obtém um limite inferior dos IDs ainda livres: nenhum ID já atribuído é maior ou igual a ele.
+     * O valor tem 64 bits para poder indicar que os IDs se esgotaram ({@code Integer.MAX_VALUE + 1}).
+     * @return O menor ID que é seguro voltar a usar como ponto de partida ao restaurar.
+     */
+    long getProximoLivre();
+
+    /**
+     * Garante que os IDs atribuídos a partir de agora são pelo menos o indicado (nunca faz o
+     * alocador recuar). Deve ser invocado antes de atribuir IDs em simultâneo noutras threads.
+     * @param proximoId O menor valor aceitável para os próximos IDs.
+     */
+    void avancarPara(long proximoId);
+
+    /**
+     * Cria um alocador que atribui os IDs por ordem (1, 2, 3, ...), com uma operação atómica por ID.
+     * @return O novo alocador.
+     */
+    static AlocadorIds sequencial() {
+        return new AlocadorSequencial();
+    }
+
+    /**
+     * Cria um alocador que reserva os IDs em blocos, um bloco de cada vez para cada thread.
+     * <p>
+     * Cada thread atribui os IDs do seu bloco sem operações atómicas partilhadas, pelo que várias
+     * threads a criar entidades em simultâneo (por exemplo, numa importação) não disputam um contador
+     * comum. Com uma única thread, os IDs são os mesmos do alocador sequencial; com várias, cada
+     * thread recebe intervalos próprios e podem ficar IDs por usar no fim dos blocos.
+     *
+     * @param tamanhoBloco O número de IDs reservados de cada vez.
+     * @return O novo alocador.
+     * @throws IllegalArgumentException se o tamanho do bloco não for positivo.
+     */
+    static AlocadorIds porBlocos(int tamanhoBloco) {
+        return new AlocadorPorBlocos(tamanhoBloco);
+    }
+}
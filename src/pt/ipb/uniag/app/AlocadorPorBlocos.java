@@ -0,0 +1,59 @@
+package pt.ipb.uniag.app;// Ficheiro: src/pt.ipb.uniag.app.AlocadorPorBlocos.java
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Alocador de IDs que reserva blocos para cada thread ({@link AlocadorIds#porBlocos(int)}).
+ * <p>
+ * O contador partilhado só é alterado uma vez por bloco. Cada thread guarda o seu bloco atual
+ * (próximo ID e fim) num {@link ThreadLocal}. Quando o alocador é avançado
+ * ({@link #avancarPara(long)}), os blocos já reservados abaixo do novo mínimo são abandonados
+ * na próxima atribuição de cada thread.
+ *
+ * @author Luis Enrique
+ * @version 1.8
+ * @since 2026-10-18
+ */
+final class AlocadorPorBlocos implements AlocadorIds {
+
+    private final int tamanhoBloco;
+    private final AtomicLong proximoBloco = new AtomicLong(1);
+    private final AtomicLong minimo = new AtomicLong(1);
+    /** O bloco de cada thread: {próximo ID, fim (exclusivo)}. */
+    private final ThreadLocal<long[]> blocos = ThreadLocal.withInitial(() -> new long[2]);
+
+    /**
+     * Constrói o alocador.
+     * @param tamanhoBloco O número de IDs reservados de cada vez.
+     * @throws IllegalArgumentException se o tamanho do bloco não for positivo.
+     */
+    AlocadorPorBlocos(int tamanhoBloco) {
+        if (tamanhoBloco <= 0) throw new IllegalArgumentException("O tamanho do bloco tem de ser positivo.");
+        this.tamanhoBloco = tamanhoBloco;
+    }
+
+    @Override
+    public int proximo() {
+        long[] bloco = this.blocos.get();
+        if (bloco[0] >= bloco[1] || bloco[0] < this.minimo.get()) reservarBloco(bloco);
+        return (int) bloco[0]++;
+    }
+
+    private void reservarBloco(long[] bloco) {
+        long inicio = this.proximoBloco.getAndAdd(this.tamanhoBloco);
+        if (inicio > Integer.MAX_VALUE) throw new IllegalStateException("Esgotaram-se os IDs disponíveis.");
+        bloco[0] = inicio;
+        bloco[1] = Math.min(inicio + this.tamanhoBloco, Integer.MAX_VALUE + 1L);
+    }
+
+    @Override
+    public long getProximoLivre() {
+        return Math.min(this.proximoBloco.get(), Integer.MAX_VALUE + 1L);
+    }
+
+    @Override
+    public void avancarPara(long proximoId) {
+        this.proximoBloco.accumulateAndGet(proximoId, Math::max);
+        this.minimo.accumulateAndGet(proximoId, Math::max);
+    }
+}
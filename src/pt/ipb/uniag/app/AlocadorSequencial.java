@@ -0,0 +1,35 @@
+package pt.ipb.uniag.app;// Ficheiro: src/pt.ipb.uniag.app.AlocadorSequencial.java
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Alocador de IDs sequenciais ({@link AlocadorIds#sequencial()}).
+ * <p>
+ * O contador tem 64 bits, para que os IDs esgotados sejam detetados em vez de darem a volta para
+ * valores negativos.
+ *
+ * @author Luis Enrique
+ * @version 1.8
+ * @since 2026-10-18
+ */
+final class AlocadorSequencial implements AlocadorIds {
+
+    private final AtomicLong proximo = new AtomicLong(1);
+
+    @Override
+    public int proximo() {
+        long id = this.proximo.getAndIncrement();
+        if (id > Integer.MAX_VALUE) throw new IllegalStateException("Esgotaram-se os IDs disponíveis.");
+        return (int) id;
+    }
+
+    @Override
+    public long getProximoLivre() {
+        return Math.min(this.proximo.get(), Integer.MAX_VALUE + 1L);
+    }
+
+    @Override
+    public void avancarPara(long proximoId) {
+        this.proximo.accumulateAndGet(proximoId, Math::max);
+    }
+}
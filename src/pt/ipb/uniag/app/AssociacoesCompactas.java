@@ -0,0 +1,173 @@
+package pt.ipb.uniag.app;// Ficheiro: src/pt.ipb.uniag.app.AssociacoesCompactas.java
+
+import pt.ipb.uniag.modelo.ArmazemAssociacoes;
+import pt.ipb.uniag.modelo.MembroInvestigador;
+import pt.ipb.uniag.modelo.Projeto;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+
+/**
+ * O armazém de associações de uma UNIAG criada com {@code new UNIAG(true)}: as associações de
+ * todos os membros e projetos registados ficam em duas {@link AdjacenciaCompacta} (os projetos de
+ * cada membro e os participantes de cada projeto), em vez de dois conjuntos por entidade.
+ * <p>
+ * As linhas guardam apenas IDs; as vistas devolvidas ao modelo convertem-nos nas entidades ligadas
+ * a este armazém. Uma entidade fica ligada desde o registo na UNIAG até ao fim da sua remoção,
+ * quando recebe de volta um conjunto próprio com as associações que tinha.
+ *
+ * @author Luis Enrique
+ * @version 1.8
+ * @since 2026-10-18
+ */
+final class AssociacoesCompactas implements ArmazemAssociacoes {
+
+    private final AdjacenciaCompacta projetosDosMembros = new AdjacenciaCompacta();
+    private final AdjacenciaCompacta participantesDosProjetos = new AdjacenciaCompacta();
+    private final RegistoIds<MembroInvestigador> membros = new RegistoIds<>();
+    private final RegistoIds<Projeto> projetos = new RegistoIds<>();
+
+    /**
+     * Liga um membro acabado de registar (com o seu bloqueio adquirido).
+     * @param membro O membro, ainda sem associações.
+     * @throws IllegalStateException se o membro já tiver associações.
+     */
+    void ligar(MembroInvestigador membro) {
+        membro.setArmazemAssociacoes(this);
+        this.membros.colocar(membro.getId(), membro);
+    }
+
+    /**
+     * Liga um projeto acabado de registar (com o seu bloqueio adquirido).
+     * @param projeto O projeto, ainda sem participantes.
+     * @throws IllegalStateException se o projeto já tiver participantes.
+     */
+    void ligar(Projeto projeto) {
+        projeto.setArmazemAssociacoes(this);
+        this.projetos.colocar(projeto.getId(), projeto);
+    }
+
+    /**
+     * Desliga um membro removido da UNIAG (com o seu bloqueio adquirido), depois de desfeitas as
+     * suas participações: o membro fica com um conjunto próprio dos projetos que tinha.
+     * @param membro O membro.
+     */
+    void desligar(MembroInvestigador membro) {
+        if (this.membros.obter(membro.getId()) != membro) return;
+        membro.setArmazemAssociacoes(null);
+        this.projetosDosMembros.limpar(membro.getId());
+        this.membros.remover(membro.getId());
+    }
+
+    /**
+     * Desliga um projeto removido da UNIAG (com o seu bloqueio adquirido), depois de desfeitas as
+     * associações dos membros: o projeto fica com um conjunto próprio dos participantes que tinha.
+     * @param projeto O projeto.
+     */
+    void desligar(Projeto projeto) {
+        if (this.projetos.obter(projeto.getId()) != projeto) return;
+        projeto.setArmazemAssociacoes(null);
+        this.participantesDosProjetos.limpar(projeto.getId());
+        this.projetos.remover(projeto.getId());
+    }
+
+    @Override
+    public Set<Projeto> projetosDe(MembroInvestigador membro) {
+        return new Vista<>(this.projetosDosMembros, membro.getId(), this.projetos, Projeto.class, Projeto::getId);
+    }
+
+    @Override
+    public boolean associar(MembroInvestigador membro, Projeto projeto) {
+        if (this.projetos.obter(projeto.getId()) != projeto) {
+            throw new IllegalArgumentException("O projeto " + projeto.getId() + " não está registado nesta UNIAG.");
+        }
+        return this.projetosDosMembros.acrescentar(membro.getId(), projeto.getId());
+    }
+
+    @Override
+    public boolean desassociar(MembroInvestigador membro, Projeto projeto) {
+        return this.projetosDosMembros.retirar(membro.getId(), projeto.getId());
+    }
+
+    @Override
+    public Set<MembroInvestigador> participantesDe(Projeto projeto) {
+        return new Vista<>(this.participantesDosProjetos, projeto.getId(), this.membros,
+                MembroInvestigador.class, MembroInvestigador::getId);
+    }
+
+    @Override
+    public boolean adicionarParticipante(Projeto projeto, MembroInvestigador membro) {
+        if (this.membros.obter(membro.getId()) != membro) {
+            throw new IllegalArgumentException("O membro " + membro.getId() + " não está registado nesta UNIAG.");
+        }
+        return this.participantesDosProjetos.acrescentar(projeto.getId(), membro.getId());
+    }
+
+    @Override
+    public boolean removerParticipante(Projeto projeto, MembroInvestigador membro) {
+        return this.participantesDosProjetos.retirar(projeto.getId(), membro.getId());
+    }
+
+    /**
+     * Vista não modificável de uma linha, com os IDs convertidos nas entidades ligadas.
+     * @param <E> O tipo das entidades da linha.
+     */
+    private static final class Vista<E> extends AbstractSet<E> {
+        private final AdjacenciaCompacta adjacencia;
+        private final int linha;
+        private final RegistoIds<E> entidades;
+        private final Class<E> tipo;
+        private final ToIntFunction<E> id;
+
+        Vista(AdjacenciaCompacta adjacencia, int linha, RegistoIds<E> entidades, Class<E> tipo, ToIntFunction<E> id) {
+            this.adjacencia = adjacencia;
+            this.linha = linha;
+            this.entidades = entidades;
+            this.tipo = tipo;
+            this.id = id;
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            AdjacenciaCompacta.Percurso percurso = this.adjacencia.percorrer(this.linha);
+            return new Iterator<E>() {
+                private E proxima;
+
+                @Override
+                public boolean hasNext() {
+                    while (this.proxima == null) {
+                        int id = percurso.proximo();
+                        if (id == 0) return false;
+                        this.proxima = entidades.obter(id); // null se a entidade já foi desligada
+                    }
+                    return true;
+                }
+
+                @Override
+                public E next() {
+                    if (!hasNext()) throw new NoSuchElementException();
+                    E entidade = this.proxima;
+                    this.proxima = null;
+                    return entidade;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return this.adjacencia.grau(this.linha);
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!this.tipo.isInstance(o)) return false;
+            int id = this.id.applyAsInt(this.tipo.cast(o));
+            if (!this.adjacencia.contem(this.linha, id)) return false;
+            E entidade = this.entidades.obter(id);
+            return entidade != null && entidade.equals(o);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package pt.ipb.uniag.app;// Ficheiro: src/pt.ipb.uniag.app.BloqueiosRepartidos.java
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Conjunto fixo de bloqueios repartidos por ID (lock striping).
+ * <p>
+ * Em vez de um bloqueio por entidade, cada ID é mapeado para uma de
+ * {@code 2^n} "faixas", permitindo que operações sobre entidades diferentes
+ * avancem em paralelo com um custo de memória constante.
+ *
+ * @author Luis Enrique
+ * @version 1.8
+ * @since 2026-10-18
+ */
+final class BloqueiosRepartidos {
+
+    private final ReentrantLock[] bloqueios;
+    private final int mascara;
+
+    /**
+     * Constrói o conjunto de bloqueios.
+     * @param numeroFaixas O número de faixas pretendido (arredondado à potência de 2 seguinte).
+     */
+    BloqueiosRepartidos(int numeroFaixas) {
+        int tamanho = Integer.highestOneBit(Math.max(1, numeroFaixas - 1)) << 1;
+        this.bloqueios = new ReentrantLock[tamanho];
+        for (int i = 0; i < tamanho; i++) {
+            this.bloqueios[i] = new ReentrantLock();
+        }
+        this.mascara = tamanho - 1;
+    }
+
+    /**
+     * Devolve o bloqueio responsável por um determinado ID.
+     * @param id O ID da entidade.
+     * @return O bloqueio da faixa correspondente.
+     */
+    ReentrantLock para(int id) {
+        return this.bloqueios[faixa(id)];
+    }
+
+    /**
+     * Adquire os bloqueios de vários IDs, uma vez por faixa e por ordem crescente de faixa, para que
+     * duas threads a adquirir conjuntos de faixas sobrepostos não fiquem à espera uma da outra.
+     * @param ids Os IDs das entidades.
+     * @return Os bloqueios adquiridos, a libertar com {@link #desbloquear(ReentrantLock[])}.
+     */
+    ReentrantLock[] bloquear(int[] ids) {
+        int[] faixas = new int[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            faixas[i] = faixa(ids[i]);
+        }
+        Arrays.sort(faixas);
+        int distintas = 0;
+        for (int i = 0; i < faixas.length; i++) {
+            if (i == 0 || faixas[i] != faixas[i - 1]) faixas[distintas++] = faixas[i];
+        }
+        ReentrantLock[] adquiridos = new ReentrantLock[distintas];
+        for (int i = 0; i < distintas; i++) {
+            adquiridos[i] = this.bloqueios[faixas[i]];
+            adquiridos[i].lock();
+        }
+        return adquiridos;
+    }
+
+    /**
+     * Liberta os bloqueios adquiridos por {@link #bloquear(int[])}.
+     * @param adquiridos Os bloqueios adquiridos.
+     */
+    static void desbloquear(ReentrantLock[] adquiridos) {
+        for (int i = adquiridos.length - 1; i >= 0; i--) {
+            adquiridos[i].unlock();
+        }
+    }
+
+    private int faixa(int id) {
+        // Os IDs são sequenciais; o espalhamento evita que padrões regulares colidam na mesma faixa.
+        int h = id * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & this.mascara;
+    }
+
+    /**
+     * Adquire todos os bloqueios, por ordem crescente de faixa, esperando pelas operações em curso.
+     */
+    void bloquearTodos() {
+        for (ReentrantLock bloqueio : this.bloqueios) {
+            bloqueio.lock();
+        }
+    }
+
+    /**
+     * Liberta todos os bloqueios adquiridos por {@link #bloquearTodos()}.
+     */
+    void desbloquearTodos() {
+        for (int i = this.bloqueios.length - 1; i >= 0; i--) {
+            this.bloqueios[i].unlock();
+        }
+    }
+}
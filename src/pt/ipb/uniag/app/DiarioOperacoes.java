@@ -0,0 +1,603 @@
+package pt.ipb.uniag.app;// Ficheiro: src/pt.ipb.uniag.app.DiarioOperacoes.java
+
+import pt.ipb.uniag.modelo.*;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Diário (write-ahead log) das operações que alteram uma {@link UNIAG}.
+ * <p>
+ * O ficheiro começa com um cabeçalho {@code [int mágico][long LSN base]} e cada operação é
+ * acrescentada ao fim como um registo {@code [int tamanho][int CRC32][dados]}; o n-ésimo registo
+ * tem o número de sequência (LSN) base + n. Depois de uma falha, o estado é recuperado carregando o
+ * último ficheiro de {@link PersistenciaUNIAG} e reproduzindo o diário por cima
+ * ({@link #reproduzir(Path, UNIAG)}). Esse ficheiro guarda o LSN do último registo que já contém,
+ * e a reprodução salta os registos até esse LSN: uma falha entre guardar o estado e
+ * {@link #reiniciar()} não aplica as mesmas operações duas vezes. Um diário sem cabeçalho (de uma
+ * versão anterior) é lido com base 0. Um registo incompleto ou corrompido no fim do ficheiro
+ * (escrita interrompida) marca o fim do diário e é descartado ao reabrir. Um tamanho de registo
+ * negativo ou acima de {@value #TAMANHO_MAXIMO_REGISTO} bytes não resulta de uma escrita interrompida,
+ * pois registos assim nunca são escritos: o diário é dado como corrompido e não é alterado.
+ * <p>
+ * A durabilidade é configurável ({@link ModoDurabilidade}): sincronização com o disco em cada
+ * operação, sincronização em grupo (várias operações concorrentes partilham o mesmo {@code fsync}),
+ * ou sincronização assíncrona periódica.
+ *
+ * @author Luis Enrique
+ * @version 1.8
+ * @since 2026-10-18
+ */
+public final class DiarioOperacoes implements Closeable {
+
+    /**
+     * Define quando uma operação registada é considerada durável.
+     */
+    public enum ModoDurabilidade {
+        /** Cada operação escreve e sincroniza o ficheiro antes de terminar. */
+        POR_OPERACAO,
+        /**
+         * Cada operação espera pela sincronização, mas uma thread dedicada sincroniza de uma só vez
+         * todas as operações acumuladas entretanto (group commit).
+         */
+        EM_GRUPO,
+        /**
+         * As operações não esperam; uma thread dedicada sincroniza periodicamente. Uma falha pode
+         * perder as operações do último intervalo.
+         */
+        ASSINCRONO
+    }
+
+    private static final int MAGICO = 0x554E4457; // "UNDW"
+    /** O tamanho do cabeçalho: o número mágico e o LSN base. */
+    private static final int TAMANHO_CABECALHO = Integer.BYTES + Long.BYTES;
+    private static final int TAMANHO_BUFFER = 1 << 20;
+    /** O tamanho máximo dos dados de um registo. */
+    static final int TAMANHO_MAXIMO_REGISTO = TAMANHO_BUFFER;
+    /** O espaço de um registo além do nome ou título (tipo, IDs, tamanho do texto e financiamento). */
+    private static final int ESPACO_ALEM_DO_TEXTO = 32;
+    private static final long INTERVALO_ASSINCRONO_MS = 50;
+
+    private static final byte MEMBRO_ADICIONADO = 1;
+    private static final byte PROJETO_ADICIONADO = 2;
+    private static final byte ASSOCIACAO = 3;
+    private static final byte NOME_EDITADO = 4;
+    private static final byte TITULO_EDITADO = 5;
+    private static final byte FINANCIAMENTO_EDITADO = 6;
+    private static final byte MEMBRO_REMOVIDO = 7;
+    private static final byte PROJETO_REMOVIDO = 8;
+    private static final byte VERBA_DISTRIBUIDA = 9;
+
+    private final FileChannel canal;
+    private final EscritorBinario saida;
+    private final ModoDurabilidade modo;
+    private final ReentrantLock bloqueio;
+    private final Condition haRegistos;
+    private final Object durabilidade;
+    private final CRC32 crc;
+    private final Thread sincronizador;
+    private ByteBuffer registo;
+
+    private volatile long ultimoLsn;  // escrito apenas com o bloqueio adquirido
+    private volatile long lsnSincronizado;
+    private volatile boolean fechado;
+    private volatile IOException erro;
+
+    private DiarioOperacoes(FileChannel canal, ModoDurabilidade modo, long ultimoLsn) {
+        this.canal = canal;
+        this.ultimoLsn = ultimoLsn;
+        this.lsnSincronizado = ultimoLsn;
+        this.saida = new EscritorBinario(canal, TAMANHO_BUFFER);
+        this.modo = modo;
+        this.bloqueio = new ReentrantLock();
+        this.haRegistos = this.bloqueio.newCondition();
+        this.durabilidade = new Object();
+        this.crc = new CRC32();
+        this.registo = ByteBuffer.allocate(256);
+        if (modo == ModoDurabilidade.POR_OPERACAO) {
+            this.sincronizador = null;
+        } else {
+            this.sincronizador = new Thread(this::cicloSincronizacao, "uniag-diario");
+            this.sincronizador.setDaemon(true);
+            this.sincronizador.start();
+        }
+    }
+
+    /**
+     * Abre (ou cria) um diário para acrescentar novas operações.
+     * Um eventual registo incompleto no fim do ficheiro é descartado. A numeração das operações
+     * continua a partir do último registo válido.
+     *
+     * @param ficheiro O caminho do ficheiro do diário.
+     * @param modo O modo de durabilidade.
+     * @return O diário aberto, posicionado no fim do último registo válido.
+     * @throws IOException se o ficheiro não puder ser aberto.
+     */
+    public static DiarioOperacoes abrir(Path ficheiro, ModoDurabilidade modo) throws IOException {
+        FileChannel canal = FileChannel.open(ficheiro, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (canal.size() < TAMANHO_CABECALHO) {
+                // Vazio, ou cabeçalho interrompido: nenhum registo completo cabe em tão pouco espaço.
+                escreverCabecalho(canal, 0);
+            }
+            long base = lerBase(canal);
+            long[] registos = new long[1];
+            long fimValido = percorrer(canal, inicioRegistos(base), dados -> registos[0]++);
+            canal.truncate(fimValido);
+            canal.position(fimValido);
+            return new DiarioOperacoes(canal, modo, Math.max(base, 0) + registos[0]);
+        } catch (IOException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reproduz as operações de um diário sobre uma UNIAG (normalmente acabada de carregar do
+     * último ficheiro de {@link PersistenciaUNIAG}). Os registos com LSN até
+     * {@link UNIAG#getLsnIncluido()} já estão contidos na unidade e são saltados; no fim, a
+     * unidade passa a incluir o último registo do diário.
+     *
+     * @param ficheiro O caminho do ficheiro do diário (se não existir, nada é reproduzido).
+     * @param uniag A unidade onde as operações são aplicadas; não pode ter um diário ativo.
+     * @return O número de operações reproduzidas (sem contar as saltadas).
+     * @throws IOException se a leitura do diário falhar.
+     * @throws IllegalStateException se a unidade já tiver um diário ativo.
+     */
+    public static int reproduzir(Path ficheiro, UNIAG uniag) throws IOException {
+        if (uniag.getDiario() != null) {
+            throw new IllegalStateException("Não é possível reproduzir um diário numa UNIAG com um diário ativo.");
+        }
+        if (!ficheiro.toFile().exists()) return 0;
+        long incluido = uniag.getLsnIncluido();
+        long[] lsn = new long[1];
+        int[] contador = new int[1];
+        try (FileChannel canal = FileChannel.open(ficheiro, StandardOpenOption.READ)) {
+            if (canal.size() < TAMANHO_CABECALHO) return 0;
+            long base = lerBase(canal);
+            lsn[0] = Math.max(base, 0);
+            percorrer(canal, inicioRegistos(base), dados -> {
+                if (++lsn[0] <= incluido) return;
+                aplicar(dados, uniag);
+                contador[0]++;
+            });
+        }
+        uniag.setLsnIncluido(Math.max(incluido, lsn[0]));
+        return contador[0];
+    }
+
+    /**
+     * Obtém o modo de durabilidade do diário.
+     * @return O modo de durabilidade.
+     */
+    public ModoDurabilidade getModo() { return modo; }
+
+    /**
+     * Esvazia o diário. Deve ser invocado logo depois de guardar o estado com
+     * {@link PersistenciaUNIAG#guardar(UNIAG, Path)} e sem outras threads a alterar a unidade,
+     * pois as operações registadas até aqui passam a estar contidas nesse ficheiro.
+     *
+     * @throws IOException se o ficheiro não puder ser truncado.
+     */
+    public void reiniciar() throws IOException {
+        this.bloqueio.lock();
+        try {
+            recomecarEm(this.ultimoLsn);
+        } finally {
+            this.bloqueio.unlock();
+        }
+    }
+
+    /**
+     * Garante que as próximas operações ficam com um LSN acima de {@code lsn}. Se o diário ainda
+     * não chegou a esse LSN, todos os seus registos já estão contidos no estado guardado (o diário
+     * ficou para trás em relação ao ficheiro de {@link PersistenciaUNIAG}): é esvaziado e a
+     * numeração recomeça em {@code lsn}.
+     *
+     * @param lsn O LSN do último registo já contido no estado guardado.
+     * @throws IOException se o ficheiro não puder ser truncado.
+     */
+    void avancarPara(long lsn) throws IOException {
+        this.bloqueio.lock();
+        try {
+            if (this.ultimoLsn < lsn) recomecarEm(lsn);
+        } finally {
+            this.bloqueio.unlock();
+        }
+    }
+
+    /**
+     * Trunca o ficheiro e escreve um cabeçalho novo com base {@code lsn}. Uma falha a meio deixa
+     * um ficheiro vazio ou só com o cabeçalho, que não reproduz nada.
+     * Invocado com o bloqueio adquirido.
+     */
+    private void recomecarEm(long lsn) throws IOException {
+        this.saida.descarregar();
+        this.canal.truncate(0);
+        escreverCabecalho(this.canal, lsn);
+        this.canal.position(TAMANHO_CABECALHO);
+        this.canal.force(true);
+        this.ultimoLsn = lsn;
+        publicar(lsn);
+    }
+
+    /**
+     * Fecha o diário, sincronizando com o disco todas as operações registadas.
+     * @throws IOException se a sincronização final falhar.
+     */
+    @Override
+    public void close() throws IOException {
+        if (this.fechado) return;
+        this.bloqueio.lock();
+        try {
+            this.fechado = true;
+            this.haRegistos.signalAll();
+        } finally {
+            this.bloqueio.unlock();
+        }
+        if (this.sincronizador != null) {
+            try {
+                this.sincronizador.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        this.bloqueio.lock();
+        try {
+            this.saida.descarregar();
+            this.canal.force(false);
+            publicar(this.ultimoLsn);
+        } finally {
+            this.bloqueio.unlock();
+            this.canal.close();
+        }
+    }
+
+    // --- REGISTO DE OPERAÇÕES (invocado pela UNIAG) ---
+
+    long registarMembroAdicionado(MembroInvestigador membro) {
+        verificarTexto(membro.getNome());
+        ByteBuffer b = iniciar(MEMBRO_ADICIONADO).put((byte) PersistenciaUNIAG.tipoDe(membro)).putInt(membro.getId());
+        return terminar(texto(b, membro.getNome()));
+    }
+
+    long registarProjetoAdicionado(Projeto projeto) {
+        verificarTexto(projeto.getTitulo());
+        ByteBuffer b = texto(iniciar(PROJETO_ADICIONADO).putInt(projeto.getId()), projeto.getTitulo());
+        return terminar(espaco(b, Double.BYTES).putDouble(projeto.getFinanciamento()));
+    }
+
+    long registarAssociacao(int idMembro, int idProj) {
+        return terminar(iniciar(ASSOCIACAO).putInt(idMembro).putInt(idProj));
+    }
+
+    long registarNomeEditado(int idMembro, String novoNome) {
+        verificarTexto(novoNome);
+        return terminar(texto(iniciar(NOME_EDITADO).putInt(idMembro), novoNome));
+    }
+
+    long registarTituloEditado(int idProj, String novoTitulo) {
+        verificarTexto(novoTitulo);
+        return terminar(texto(iniciar(TITULO_EDITADO).putInt(idProj), novoTitulo));
+    }
+
+    long registarFinanciamentoEditado(int idProj, double novoFin) {
+        return terminar(iniciar(FINANCIAMENTO_EDITADO).putInt(idProj).putDouble(novoFin));
+    }
+
+    long registarMembroRemovido(int idMembro) {
+        return terminar(iniciar(MEMBRO_REMOVIDO).putInt(idMembro));
+    }
+
+    long registarProjetoRemovido(int idProj) {
+        return terminar(iniciar(PROJETO_REMOVIDO).putInt(idProj));
+    }
+
+    long registarVerbaDistribuida(int idProj) {
+        return terminar(iniciar(VERBA_DISTRIBUIDA).putInt(idProj));
+    }
+
+    /**
+     * Verifica que um nome ou título cabe num registo. Deve ser invocado antes de a UNIAG aplicar
+     * a alteração, para que uma alteração rejeitada não fique por registar.
+     * @param texto O nome ou título.
+     * @throws IllegalArgumentException se o texto ocupar mais do que o espaço de um registo.
+     */
+    static void verificarTexto(String texto) {
+        int maximo = TAMANHO_MAXIMO_REGISTO - ESPACO_ALEM_DO_TEXTO;
+        // Cada char ocupa no máximo 3 bytes em UTF-8: só os textos muito longos precisam de ser codificados.
+        if (texto == null || texto.length() <= maximo / 3) return;
+        if (texto.getBytes(StandardCharsets.UTF_8).length > maximo) {
+            throw new IllegalArgumentException("O texto é demasiado longo para o diário de operações (máximo de "
+                    + maximo + " bytes em UTF-8).");
+        }
+    }
+
+    /**
+     * Obtém o número de sequência do último registo acrescentado.
+     * @return O último LSN atribuído.
+     */
+    long getUltimoLsn() { return this.ultimoLsn; }
+
+    /**
+     * Espera, conforme o modo de durabilidade, até que a operação indicada esteja no disco.
+     * Deve ser invocado fora de quaisquer bloqueios da UNIAG, para não atrasar outras operações.
+     *
+     * @param lsn O número de sequência devolvido pelo método {@code registar...}.
+     * @throws UncheckedIOException se a escrita ou a sincronização falharem.
+     */
+    void confirmar(long lsn) {
+        switch (this.modo) {
+            case POR_OPERACAO:
+                this.bloqueio.lock();
+                try {
+                    verificarErro();
+                    this.saida.descarregar();
+                    this.canal.force(false);
+                    publicar(this.ultimoLsn);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Falha ao sincronizar o diário.", e);
+                } finally {
+                    this.bloqueio.unlock();
+                }
+                break;
+            case EM_GRUPO:
+                synchronized (this.durabilidade) {
+                    while (this.lsnSincronizado < lsn) {
+                        verificarErro();
+                        try {
+                            this.durabilidade.wait();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw new IllegalStateException("Interrompido à espera do diário.", e);
+                        }
+                    }
+                }
+                break;
+            default:
+                verificarErro();
+                break;
+        }
+    }
+
+    // --- IMPLEMENTAÇÃO ---
+
+    /**
+     * Adquire o bloqueio do diário e começa a preparar um registo em {@link #registo}.
+     */
+    private ByteBuffer iniciar(byte tipo) {
+        this.bloqueio.lock();
+        try {
+            verificarErro();
+        } catch (UncheckedIOException e) {
+            this.bloqueio.unlock();
+            throw e;
+        }
+        this.registo.clear();
+        return this.registo.put(tipo);
+    }
+
+    /**
+     * Acrescenta o registo preparado em {@link #registo} e liberta o bloqueio adquirido em {@link #iniciar}.
+     */
+    private long terminar(ByteBuffer b) {
+        try {
+            b.flip();
+            if (b.limit() > TAMANHO_MAXIMO_REGISTO) {
+                // Não deve acontecer (os textos são verificados antes): ao ler, seria tomado por corrupção.
+                throw new IllegalArgumentException("Registo demasiado grande para o diário: " + b.limit() + " bytes.");
+            }
+            this.crc.reset();
+            this.crc.update(b.array(), 0, b.limit());
+            this.saida.escreverInt(b.limit());
+            this.saida.escreverInt((int) this.crc.getValue());
+            this.saida.escreverBytes(b.array(), 0, b.limit());
+            long lsn = ++this.ultimoLsn;
+            if (this.modo == ModoDurabilidade.EM_GRUPO) this.haRegistos.signal();
+            return lsn;
+        } catch (IOException e) {
+            this.erro = e;
+            throw new UncheckedIOException("Falha ao escrever no diário.", e);
+        } finally {
+            this.bloqueio.unlock();
+        }
+    }
+
+    private ByteBuffer texto(ByteBuffer b, String texto) {
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        return espaco(b, Integer.BYTES + bytes.length).putInt(bytes.length).put(bytes);
+    }
+
+    private ByteBuffer espaco(ByteBuffer b, int bytes) {
+        if (b.remaining() < bytes) {
+            ByteBuffer maior = ByteBuffer.allocate(Math.max(b.capacity() * 2, b.position() + bytes));
+            b.flip();
+            maior.put(b);
+            this.registo = maior;
+            return maior;
+        }
+        return b;
+    }
+
+    private void cicloSincronizacao() {
+        while (true) {
+            long alvo;
+            this.bloqueio.lock();
+            try {
+                while (this.ultimoLsn == this.lsnSincronizado && !this.fechado) {
+                    if (this.modo == ModoDurabilidade.ASSINCRONO) {
+                        this.haRegistos.await(INTERVALO_ASSINCRONO_MS, TimeUnit.MILLISECONDS);
+                    } else {
+                        this.haRegistos.await();
+                    }
+                }
+                if (this.fechado) return; // close() faz a sincronização final
+                this.saida.descarregar();
+                alvo = this.ultimoLsn;
+            } catch (InterruptedException e) {
+                return;
+            } catch (IOException e) {
+                falhar(e);
+                return;
+            } finally {
+                this.bloqueio.unlock();
+            }
+
+            // O fsync é feito fora do bloqueio: as operações seguintes acumulam-se para o próximo grupo.
+            try {
+                this.canal.force(false);
+            } catch (IOException e) {
+                falhar(e);
+                return;
+            }
+            publicar(alvo);
+
+            if (this.modo == ModoDurabilidade.ASSINCRONO) {
+                try {
+                    Thread.sleep(INTERVALO_ASSINCRONO_MS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void publicar(long lsn) {
+        synchronized (this.durabilidade) {
+            if (lsn > this.lsnSincronizado) this.lsnSincronizado = lsn;
+            this.durabilidade.notifyAll();
+        }
+    }
+
+    private void falhar(IOException e) {
+        this.erro = e;
+        synchronized (this.durabilidade) {
+            this.durabilidade.notifyAll();
+        }
+    }
+
+    private void verificarErro() {
+        IOException e = this.erro;
+        if (e != null) throw new UncheckedIOException("O diário está inutilizável devido a uma falha anterior.", e);
+    }
+
+    private static void escreverCabecalho(FileChannel canal, long base) throws IOException {
+        ByteBuffer cabecalho = ByteBuffer.allocate(TAMANHO_CABECALHO).putInt(MAGICO).putLong(base).flip();
+        long posicao = 0;
+        while (cabecalho.hasRemaining()) {
+            posicao += canal.write(cabecalho, posicao);
+        }
+    }
+
+    /**
+     * Lê o LSN base do cabeçalho.
+     * @return O LSN base, ou -1 se o diário não tiver cabeçalho (versão anterior).
+     * @throws IOException se a leitura falhar ou o LSN base for negativo.
+     */
+    private static long lerBase(FileChannel canal) throws IOException {
+        ByteBuffer cabecalho = ByteBuffer.allocate(TAMANHO_CABECALHO);
+        while (cabecalho.hasRemaining()) {
+            if (canal.read(cabecalho, cabecalho.position()) < 0) throw new EOFException();
+        }
+        cabecalho.flip();
+        if (cabecalho.getInt() != MAGICO) return -1;
+        long base = cabecalho.getLong();
+        if (base < 0) throw new IOException("O diário está corrompido: LSN base " + base + ".");
+        return base;
+    }
+
+    private static long inicioRegistos(long base) {
+        return base < 0 ? 0 : TAMANHO_CABECALHO;
+    }
+
+    /**
+     * Percorre os registos válidos de um diário.
+     * @param canal O canal do diário.
+     * @param inicio A posição do primeiro registo (depois do cabeçalho).
+     * @param consumidor Recebe os dados de cada registo (pode ser {@code null}).
+     * @return A posição do fim do último registo válido.
+     * @throws IOException se a leitura falhar ou um registo tiver um tamanho impossível.
+     */
+    private static long percorrer(FileChannel canal, long inicio, ConsumidorRegisto consumidor) throws IOException {
+        canal.position(inicio);
+        LeitorBinario entrada = new LeitorBinario(canal, TAMANHO_BUFFER);
+        CRC32 crc = new CRC32();
+        byte[] dados = new byte[256];
+        long fimValido = inicio;
+        try {
+            while (entrada.temMais()) {
+                int tamanho = entrada.lerInt();
+                int soma = entrada.lerInt();
+                if (tamanho < 0 || tamanho > TAMANHO_MAXIMO_REGISTO) {
+                    throw new IOException("O diário está corrompido: registo com " + tamanho
+                            + " bytes na posição " + fimValido + ".");
+                }
+                if (tamanho == 0) break; // fim preenchido com zeros
+                if (tamanho > dados.length) dados = new byte[Math.max(tamanho, dados.length * 2)];
+                entrada.lerBytes(dados, tamanho);
+                crc.reset();
+                crc.update(dados, 0, tamanho);
+                if ((int) crc.getValue() != soma) break;
+                if (consumidor != null) consumidor.aceitar(ByteBuffer.wrap(dados, 0, tamanho));
+                fimValido += 2L * Integer.BYTES + tamanho;
+            }
+        } catch (EOFException e) {
+            // Registo incompleto no fim do ficheiro: termina aqui.
+        }
+        return fimValido;
+    }
+
+    private static void aplicar(ByteBuffer dados, UNIAG uniag) {
+        byte tipo = dados.get();
+        switch (tipo) {
+            case MEMBRO_ADICIONADO: {
+                int tipoMembro = dados.get();
+                int id = dados.getInt();
+                MembroInvestigador membro = PersistenciaUNIAG.novoMembro(tipoMembro, id, lerTexto(dados));
+                uniag.registarMembro(membro);
+                break;
+            }
+            case PROJETO_ADICIONADO: {
+                int id = dados.getInt();
+                String titulo = lerTexto(dados);
+                uniag.registarProjeto(new Projeto(id, titulo, dados.getDouble()));
+                break;
+            }
+            case ASSOCIACAO: uniag.associaMembroProjeto(dados.getInt(), dados.getInt()); break;
+            case NOME_EDITADO: uniag.editarNomeMembro(dados.getInt(), lerTexto(dados)); break;
+            case TITULO_EDITADO: uniag.editarTituloProjeto(dados.getInt(), lerTexto(dados)); break;
+            case FINANCIAMENTO_EDITADO: uniag.editarFinanciamentoProjeto(dados.getInt(), dados.getDouble()); break;
+            case MEMBRO_REMOVIDO: uniag.removerMembro(dados.getInt()); break;
+            case PROJETO_REMOVIDO: uniag.removerProjeto(dados.getInt()); break;
+            case VERBA_DISTRIBUIDA: uniag.distribuirVerba(dados.getInt(), false); break;
+            default: throw new IllegalStateException("Tipo de registo desconhecido no diário: " + tipo);
+        }
+    }
+
+    private static String lerTexto(ByteBuffer dados) {
+        int tamanho = dados.getInt();
+        String texto = new String(dados.array(), dados.arrayOffset() + dados.position(), tamanho, StandardCharsets.UTF_8);
+        dados.position(dados.position() + tamanho);
+        return texto;
+    }
+
+    /**
+     * Recebe os dados de cada registo durante {@link #percorrer}.
+     */
+    @FunctionalInterface
+    private interface ConsumidorRegisto {
+        void aceitar(ByteBuffer dados);
+    }
+}
@@ -0,0 +1,112 @@
+package pt.ipb.uniag.app;// Ficheiro: src/pt.ipb.uniag.app.EscritorBinario.java
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Codificador binário com buffer sobre um canal NIO.
+ * <p>
+ * Os valores são acumulados num {@link ByteBuffer} direto e só são escritos no canal quando o
+ * buffer enche ou em {@link #descarregar()}, o que torna a escrita de milhões de registos pequenos
+ * uma sequência de poucas chamadas de sistema.
+ *
+ * @author Luis Enrique
+ * @version 1.8
+ * @since 2026-10-18
+ */
+final class EscritorBinario {
+
+    private final WritableByteChannel canal;
+    private final ByteBuffer buffer;
+
+    /**
+     * Constrói o escritor.
+     * @param canal O canal de destino.
+     * @param tamanhoBuffer O tamanho do buffer intermédio, em bytes.
+     */
+    EscritorBinario(WritableByteChannel canal, int tamanhoBuffer) {
+        this.canal = canal;
+        this.buffer = ByteBuffer.allocateDirect(tamanhoBuffer);
+    }
+
+    /** Escreve um byte (os 8 bits menos significativos do valor). */
+    void escreverByte(int valor) throws IOException {
+        garantir(Byte.BYTES);
+        this.buffer.put((byte) valor);
+    }
+
+    /** Escreve um inteiro de 32 bits. */
+    void escreverInt(int valor) throws IOException {
+        garantir(Integer.BYTES);
+        this.buffer.putInt(valor);
+    }
+
+    /** Escreve um inteiro de 64 bits. */
+    void escreverLong(long valor) throws IOException {
+        garantir(Long.BYTES);
+        this.buffer.putLong(valor);
+    }
+
+    /** Escreve um {@code double} de 64 bits. */
+    void escreverDouble(double valor) throws IOException {
+        garantir(Double.BYTES);
+        this.buffer.putDouble(valor);
+    }
+
+    /**
+     * Escreve uma sequência de bytes, sem qualquer prefixo.
+     * @param bytes O array de origem.
+     * @param inicio A posição do primeiro byte a escrever.
+     * @param tamanho O número de bytes a escrever.
+     * @throws IOException se a escrita no canal falhar.
+     */
+    void escreverBytes(byte[] bytes, int inicio, int tamanho) throws IOException {
+        if (tamanho <= this.buffer.capacity()) {
+            garantir(tamanho);
+            this.buffer.put(bytes, inicio, tamanho);
+        } else {
+            descarregar();
+            ByteBuffer grande = ByteBuffer.wrap(bytes, inicio, tamanho);
+            while (grande.hasRemaining()) {
+                this.canal.write(grande);
+            }
+        }
+    }
+
+    /**
+     * Escreve um texto em UTF-8, precedido do seu tamanho em bytes.
+     * @param texto O texto a escrever.
+     * @throws IOException se a escrita no canal falhar.
+     */
+    void escreverTexto(String texto) throws IOException {
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        escreverInt(bytes.length);
+        escreverBytes(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Obtém o número de bytes ainda retidos no buffer.
+     * @return Os bytes escritos mas ainda não enviados para o canal.
+     */
+    int pendentes() { return this.buffer.position(); }
+
+    /**
+     * Envia para o canal todos os bytes retidos no buffer.
+     * @throws IOException se a escrita no canal falhar.
+     */
+    void descarregar() throws IOException {
+        this.buffer.flip();
+        while (this.buffer.hasRemaining()) {
+            this.canal.write(this.buffer);
+        }
+        this.buffer.clear();
+    }
+
+    private void garantir(int bytes) throws IOException {
+        if (this.buffer.remaining() < bytes) {
+            descarregar();
+        }
+    }
+}
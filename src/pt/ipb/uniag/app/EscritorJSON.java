@@ -0,0 +1,204 @@
+package pt.ipb.uniag.app;// Ficheiro: src/pt.ipb.uniag.app.EscritorJSON.java
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Codificador de JSON em fluxo, usado pelas respostas do {@link ServidorUNIAG}.
+ * <p>
+ * O texto é codificado diretamente em UTF-8 num buffer de bytes reutilizado, que é enviado para o
+ * destino sempre que enche. Uma listagem de um milhão de membros ocupa, por isso, apenas o buffer,
+ * em vez de uma árvore de objetos ou uma única {@link String} com toda a resposta. As vírgulas
+ * entre os elementos são colocadas automaticamente.
+ *
+ * @author Luis Enrique
+ * @version 1.8
+ * @since 2026-10-18
+ */
+final class EscritorJSON {
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private final OutputStream destino;
+    private final byte[] buffer;
+    private int usado;
+    private boolean[] primeiro = new boolean[16];   // por nível: ainda não há elementos
+    private int nivel;
+    private boolean depoisDoNome;
+
+    /**
+     * Constrói o codificador.
+     * @param destino O destino dos bytes.
+     * @param tamanhoBuffer O tamanho do buffer intermédio, em bytes.
+     */
+    EscritorJSON(OutputStream destino, int tamanhoBuffer) {
+        this.destino = destino;
+        this.buffer = new byte[tamanhoBuffer];
+        this.primeiro[0] = true;
+    }
+
+    /** Abre um objeto. */
+    EscritorJSON inicioObjeto() throws IOException {
+        return abrir('{');
+    }
+
+    /** Fecha o objeto atual. */
+    EscritorJSON fimObjeto() throws IOException {
+        return fechar('}');
+    }
+
+    /** Abre uma lista ({@code [}). */
+    EscritorJSON inicioLista() throws IOException {
+        return abrir('[');
+    }
+
+    /** Fecha a lista atual. */
+    EscritorJSON fimLista() throws IOException {
+        return fechar(']');
+    }
+
+    /**
+     * Escreve o nome do próximo campo do objeto atual.
+     * @param nome O nome do campo.
+     * @return Este codificador.
+     */
+    EscritorJSON nome(String nome) throws IOException {
+        separar();
+        texto(nome);
+        byteSimples(':');
+        this.depoisDoNome = true;
+        return this;
+    }
+
+    /** Escreve um texto (ou {@code null}). */
+    EscritorJSON valor(String valor) throws IOException {
+        if (valor == null) return nulo();
+        separar();
+        texto(valor);
+        return this;
+    }
+
+    /** Escreve um número inteiro. */
+    EscritorJSON valor(long valor) throws IOException {
+        separar();
+        ascii(Long.toString(valor));
+        return this;
+    }
+
+    /** Escreve um número; os valores não finitos, que o JSON não representa, são escritos como {@code null}. */
+    EscritorJSON valor(double valor) throws IOException {
+        if (!Double.isFinite(valor)) return nulo();
+        separar();
+        ascii(Double.toString(valor));
+        return this;
+    }
+
+    /** Escreve um valor lógico. */
+    EscritorJSON valor(boolean valor) throws IOException {
+        separar();
+        ascii(valor ? "true" : "false");
+        return this;
+    }
+
+    /** Escreve {@code null}. */
+    EscritorJSON nulo() throws IOException {
+        separar();
+        ascii("null");
+        return this;
+    }
+
+    /**
+     * Envia para o destino os bytes ainda no buffer.
+     * @throws IOException se a escrita falhar.
+     */
+    void descarregar() throws IOException {
+        if (this.usado > 0) {
+            this.destino.write(this.buffer, 0, this.usado);
+            this.usado = 0;
+        }
+        this.destino.flush();
+    }
+
+    private EscritorJSON abrir(char c) throws IOException {
+        separar();
+        byteSimples(c);
+        if (++this.nivel == this.primeiro.length) this.primeiro = Arrays.copyOf(this.primeiro, this.nivel * 2);
+        this.primeiro[this.nivel] = true;
+        return this;
+    }
+
+    private EscritorJSON fechar(char c) throws IOException {
+        this.nivel--;
+        byteSimples(c);
+        return this;
+    }
+
+    /** Coloca a vírgula antes de um elemento, exceto no primeiro de cada nível ou depois de um nome. */
+    private void separar() throws IOException {
+        if (this.depoisDoNome) {
+            this.depoisDoNome = false;
+            return;
+        }
+        if (this.primeiro[this.nivel]) {
+            this.primeiro[this.nivel] = false;
+        } else {
+            byteSimples(',');
+        }
+    }
+
+    private void texto(String s) throws IOException {
+        byteSimples('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                byteSimples('\\');
+                byteSimples(c);
+            } else if (c < 0x20) {
+                switch (c) {
+                    case '\n': ascii("\\n"); break;
+                    case '\r': ascii("\\r"); break;
+                    case '\t': ascii("\\t"); break;
+                    default:
+                        ascii("\\u00");
+                        byteSimples(HEX[c >> 4]);
+                        byteSimples(HEX[c & 0xF]);
+                        break;
+                }
+            } else if (c < 0x80) {
+                byteSimples(c);
+            } else if (c < 0x800) {
+                byteSimples(0xC0 | (c >> 6));
+                byteSimples(0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                byteSimples(0xF0 | (cp >> 18));
+                byteSimples(0x80 | ((cp >> 12) & 0x3F));
+                byteSimples(0x80 | ((cp >> 6) & 0x3F));
+                byteSimples(0x80 | (cp & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                byteSimples('?'); // metade de um par, sem representação em UTF-8
+            } else {
+                byteSimples(0xE0 | (c >> 12));
+                byteSimples(0x80 | ((c >> 6) & 0x3F));
+                byteSimples(0x80 | (c & 0x3F));
+            }
+        }
+        byteSimples('"');
+    }
+
+    private void ascii(String s) throws IOException {
+        for (int i = 0; i < s.length(); i++) {
+            byteSimples(s.charAt(i));
+        }
+    }
+
+    private void byteSimples(int b) throws IOException {
+        if (this.usado == this.buffer.length) {
+            this.destino.write(this.buffer, 0, this.usado);
+            this.usado = 0;
+        }
+        this.buffer[this.usado++] = (byte) b;
+    }
+}
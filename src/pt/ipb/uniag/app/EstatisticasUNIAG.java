@@ -0,0 +1,142 @@
+package pt.ipb.uniag.app;// Ficheiro: src/pt.ipb.uniag.app.EstatisticasUNIAG.java
+
+import pt.ipb.uniag.modelo.InvColaborador;
+import pt.ipb.uniag.modelo.Investigador;
+import pt.ipb.uniag.modelo.MembroInvestigador;
+import pt.ipb.uniag.modelo.Projeto;
+import pt.ipb.uniag.modelo.Visitante;
+
+import java.util.Objects;
+
+/**
+ * Estatísticas agregadas de uma UNIAG ({@link UNIAG#getEstatisticas()}): membros por tipo,
+ * projetos, associações, financiamento total e saldo total dos investigadores.
+ * <p>
+ * Os valores monetários são guardados em cêntimos, para que duas estatísticas com os mesmos
+ * valores sejam sempre iguais ({@link #equals(Object)}), por exemplo ao comparar os agregados
+ * mantidos pela UNIAG com os recalculados de raiz.
+ *
+ * @author Luis Enrique
+ * @version 1.8
+ * @since 2026-10-18
+ */
+public final class EstatisticasUNIAG {
+
+    private final long investigadores;
+    private final long colaboradores;
+    private final long visitantes;
+    private final long projetos;
+    private final long associacoes;
+    private final long financiamentoCentimos;
+    private final long saldoCentimos;
+
+    /**
+     * Constrói as estatísticas.
+     * @param investigadores O número de investigadores integrados.
+     * @param colaboradores O número de investigadores colaboradores.
+     * @param visitantes O número de visitantes.
+     * @param projetos O número de projetos.
+     * @param associacoes O número de participações (pares membro-projeto) nos projetos registados.
+     * @param financiamentoCentimos A soma do financiamento dos projetos, em cêntimos.
+     * @param saldoCentimos A soma do saldo dos investigadores integrados, em cêntimos.
+     */
+    EstatisticasUNIAG(long investigadores, long colaboradores, long visitantes, long projetos,
+                      long associacoes, long financiamentoCentimos, long saldoCentimos) {
+        this.investigadores = investigadores;
+        this.colaboradores = colaboradores;
+        this.visitantes = visitantes;
+        this.projetos = projetos;
+        this.associacoes = associacoes;
+        this.financiamentoCentimos = financiamentoCentimos;
+        this.saldoCentimos = saldoCentimos;
+    }
+
+    /**
+     * Calcula as estatísticas de raiz, percorrendo todas as entidades.
+     * @param membros Os membros registados.
+     * @param projetos Os projetos registados.
+     * @return As estatísticas calculadas.
+     */
+    static EstatisticasUNIAG calcular(RegistoIds<MembroInvestigador> membros, RegistoIds<Projeto> projetos) {
+        long investigadores = 0, colaboradores = 0, visitantes = 0, saldo = 0;
+        for (MembroInvestigador membro : membros.valores()) {
+            if (membro instanceof Investigador) {
+                investigadores++;
+                saldo += ((Investigador) membro).getSaldoCentimos();
+            } else if (membro instanceof InvColaborador) {
+                colaboradores++;
+            } else if (membro instanceof Visitante) {
+                visitantes++;
+            }
+        }
+        long associacoes = 0, financiamento = 0;
+        for (Projeto projeto : projetos.valores()) {
+            associacoes += projeto.getMembrosParticipantes().size();
+            financiamento += projeto.getFinanciamentoCentimos();
+        }
+        return new EstatisticasUNIAG(investigadores, colaboradores, visitantes, projetos.tamanho(),
+                associacoes, financiamento, saldo);
+    }
+
+    /** @return O número de investigadores integrados. */
+    public long getNumeroInvestigadores() { return investigadores; }
+
+    /** @return O número de investigadores colaboradores. */
+    public long getNumeroColaboradores() { return colaboradores; }
+
+    /** @return O número de visitantes. */
+    public long getNumeroVisitantes() { return visitantes; }
+
+    /** @return O número total de membros. */
+    public long getNumeroMembros() { return investigadores + colaboradores + visitantes; }
+
+    /** @return O número de projetos. */
+    public long getNumeroProjetos() { return projetos; }
+
+    /** @return O número de participações (pares membro-projeto). */
+    public long getNumeroAssociacoes() { return associacoes; }
+
+    /**
+     * Obtém o tamanho médio das equipas dos projetos.
+     * @return O número médio de participantes por projeto, ou zero se não houver projetos.
+     */
+    public double getMediaMembrosPorProjeto() { return projetos == 0 ? 0 : (double) associacoes / projetos; }
+
+    /** @return A soma do financiamento de todos os projetos. */
+    public double getFinanciamentoTotal() { return financiamentoCentimos / 100.0; }
+
+    /** @return A soma exata, em cêntimos, do financiamento de todos os projetos. */
+    public long getFinanciamentoTotalCentimos() { return financiamentoCentimos; }
+
+    /** @return A soma do saldo (verba já distribuída) de todos os investigadores integrados. */
+    public double getSaldoTotal() { return saldoCentimos / 100.0; }
+
+    /** @return A soma exata, em cêntimos, do saldo de todos os investigadores integrados. */
+    public long getSaldoTotalCentimos() { return saldoCentimos; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof EstatisticasUNIAG)) return false;
+        EstatisticasUNIAG outras = (EstatisticasUNIAG) o;
+        return investigadores == outras.investigadores && colaboradores == outras.colaboradores
+                && visitantes == outras.visitantes && projetos == outras.projetos
+                && associacoes == outras.associacoes && financiamentoCentimos == outras.financiamentoCentimos
+                && saldoCentimos == outras.saldoCentimos;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(investigadores, colaboradores, visitantes, projetos, associacoes, financiamentoCentimos, saldoCentimos);
+    }
+
+    /** @return Um resumo textual das estatísticas. */
+    @Override
+    public String toString() {
+        return "Membros: " + getNumeroMembros() + " (" + investigadores + " investigadores, " + colaboradores
+                + " colaboradores, " + visitantes + " visitantes) | Projetos: " + projetos
+                + " | Média de membros por projeto: " + String.format("%.2f", getMediaMembrosPorProjeto())
+                + " | Financiamento total: " + String.format("%.2f", getFinanciamentoTotal())
+                + "€ | Saldo distribuído: " + String.format("%.2f", getSaldoTotal()) + "€";
+    }
+}
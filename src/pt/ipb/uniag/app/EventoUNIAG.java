@@ -0,0 +1,119 @@
+package pt.ipb.uniag.app;// Ficheiro: src/pt.ipb.uniag.app.EventoUNIAG.java
+
+import java.util.Locale;
+
+/**
+ * Uma alteração a uma {@link UNIAG}, entregue aos {@link OuvinteEventos} de um {@link PublicadorEventos}.
+ * <p>
+ * Os eventos são imutáveis. Os campos que não se aplicam a um tipo de evento valem {@code 0}
+ * (IDs e valor) ou {@code null} (texto); a descrição de cada {@link Tipo} indica os que se aplicam.
+ *
+ * @author Luis Enrique
+ * @version 1.8
+ * @since 2026-10-18
+ */
+public final class EventoUNIAG {
+
+    /**
+     * Os tipos de alteração publicados.
+     */
+    public enum Tipo {
+        /** Um membro foi criado: ID do membro e nome. */
+        MEMBRO_ADICIONADO,
+        /** Um projeto foi criado: ID do projeto, título e financiamento (valor). */
+        PROJETO_ADICIONADO,
+        /** O nome de um membro foi editado: ID do membro e novo nome. */
+        NOME_EDITADO,
+        /** O título de um projeto foi editado: ID do projeto e novo título. */
+        TITULO_EDITADO,
+        /** O financiamento de um projeto foi editado: ID do projeto e novo financiamento (valor). */
+        FINANCIAMENTO_EDITADO,
+        /** Um membro foi removido (seguido das associações que perdeu): ID do membro. */
+        MEMBRO_REMOVIDO,
+        /** Um projeto foi removido (seguido das associações que perdeu): ID do projeto. */
+        PROJETO_REMOVIDO,
+        /** Um membro foi associado a um projeto: IDs do membro e do projeto. */
+        ASSOCIACAO_CRIADA,
+        /** Uma associação foi desfeita pela remoção do membro ou do projeto: IDs do membro e do projeto. */
+        ASSOCIACAO_REMOVIDA,
+        /** O saldo de um investigador foi creditado por uma distribuição: IDs do investigador e do projeto, e o crédito (valor). */
+        SALDO_CREDITADO,
+        /** A verba de um projeto foi distribuída (depois dos seus créditos): ID do projeto e o total distribuído (valor). */
+        VERBA_DISTRIBUIDA
+    }
+
+    private static final Tipo[] TIPOS = Tipo.values();
+
+    private final long sequencia;
+    private final Tipo tipo;
+    private final int idMembro;
+    private final int idProjeto;
+    private final double valor;
+    private final String texto;
+
+    /**
+     * Constrói um evento.
+     * @param sequencia O número de sequência no publicador.
+     * @param tipo O tipo, pelo seu ordinal.
+     * @param idMembro O ID do membro, ou 0.
+     * @param idProjeto O ID do projeto, ou 0.
+     * @param valor O valor em euros, ou 0.
+     * @param texto O nome ou o título, ou {@code null}.
+     */
+    EventoUNIAG(long sequencia, int tipo, int idMembro, int idProjeto, double valor, String texto) {
+        this.sequencia = sequencia;
+        this.tipo = TIPOS[tipo];
+        this.idMembro = idMembro;
+        this.idProjeto = idProjeto;
+        this.valor = valor;
+        this.texto = texto;
+    }
+
+    /**
+     * Obtém o número de sequência do evento, que cresce de 1 em 1 pela ordem de publicação. Os
+     * eventos da mesma entidade são publicados pela ordem em que as operações foram aplicadas.
+     * @return O número de sequência.
+     */
+    public long getSequencia() { return sequencia; }
+
+    /**
+     * Obtém o tipo do evento.
+     * @return O tipo.
+     */
+    public Tipo getTipo() { return tipo; }
+
+    /**
+     * Obtém o ID do membro envolvido.
+     * @return O ID, ou 0 se o evento não envolver um membro.
+     */
+    public int getIdMembro() { return idMembro; }
+
+    /**
+     * Obtém o ID do projeto envolvido.
+     * @return O ID, ou 0 se o evento não envolver um projeto.
+     */
+    public int getIdProjeto() { return idProjeto; }
+
+    /**
+     * Obtém o valor do evento, em euros (financiamento, crédito ou total distribuído).
+     * @return O valor, ou 0 se o evento não tiver valor.
+     */
+    public double getValor() { return valor; }
+
+    /**
+     * Obtém o texto do evento (nome do membro ou título do projeto).
+     * @return O texto, ou {@code null} se o evento não tiver texto.
+     */
+    public String getTexto() { return texto; }
+
+    /** @return Uma representação textual do evento. */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder().append('#').append(sequencia).append(' ').append(tipo);
+        if (idMembro != 0) sb.append(" membro=").append(idMembro);
+        if (idProjeto != 0) sb.append(" projeto=").append(idProjeto);
+        if (texto != null) sb.append(" \"").append(texto).append('"');
+        if (valor != 0) sb.append(String.format(Locale.ROOT, " %.2f€", valor));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,377 @@
+package pt.ipb.uniag.app;// Ficheiro: src/pt.ipb.uniag.app.FotografiaUNIAG.java
+
+import pt.ipb.uniag.modelo.Investigador;
+import pt.ipb.uniag.modelo.MembroInvestigador;
+import pt.ipb.uniag.modelo.Projeto;
+
+import java.util.Arrays;
+
+/**
+ * Uma fotografia imutável do estado de uma UNIAG num dado instante: membros, projetos e as
+ * associações entre eles.
+ * <p>
+ * A UNIAG publica uma nova fotografia a cada operação que a altera (ver {@link UNIAG#ativarFotografias()}).
+ * Cada fotografia é construída a partir da anterior com {@link MapaPersistente}, copiando apenas as
+ * entradas alteradas, e cada operação é aplicada por inteiro numa única fotografia: por exemplo, um
+ * membro removido desaparece, na mesma versão, do registo e de todos os seus projetos, mesmo que a
+ * UNIAG ainda esteja a desfazer essas ligações uma a uma.
+ * <p>
+ * Uma fotografia nunca muda depois de publicada: pode ser percorrida por qualquer número de threads,
+ * sem bloqueios e durante o tempo que for preciso, enquanto as operações continuam sobre a UNIAG.
+ *
+ * @author Luis Enrique
+ * @version 1.8
+ * @since 2026-10-18
+ */
+public final class FotografiaUNIAG {
+
+    private final long versao;
+    private final MapaPersistente<MembroFotografado> membros;
+    private final MapaPersistente<ProjetoFotografado> projetos;
+
+    private FotografiaUNIAG(long versao, MapaPersistente<MembroFotografado> membros, MapaPersistente<ProjetoFotografado> projetos) {
+        this.versao = versao;
+        this.membros = membros;
+        this.projetos = projetos;
+    }
+
+    // --- LEITURA ---
+
+    /**
+     * Obtém a versão da fotografia, que aumenta a cada operação aplicada.
+     * @return O número da versão (a primeira fotografia tem a versão 0).
+     */
+    public long getVersao() { return this.versao; }
+
+    /**
+     * Encontra um membro pelo seu ID.
+     * @param id O ID do membro.
+     * @return O membro, ou {@code null} se não existia nesta versão.
+     */
+    public MembroFotografado findMembro(int id) { return this.membros.obter(id); }
+
+    /**
+     * Encontra um projeto pelo seu ID.
+     * @param id O ID do projeto.
+     * @return O projeto, ou {@code null} se não existia nesta versão.
+     */
+    public ProjetoFotografado findProjeto(int id) { return this.projetos.obter(id); }
+
+    /**
+     * Obtém todos os membros desta versão.
+     * @return Os membros, por ordem não especificada.
+     */
+    public Iterable<MembroFotografado> getMembros() { return this.membros; }
+
+    /**
+     * Obtém todos os projetos desta versão.
+     * @return Os projetos, por ordem não especificada.
+     */
+    public Iterable<ProjetoFotografado> getProjetos() { return this.projetos; }
+
+    /**
+     * Obtém o número de membros.
+     * @return O número de membros desta versão.
+     */
+    public int getNumeroMembros() { return this.membros.tamanho(); }
+
+    /**
+     * Obtém o número de projetos.
+     * @return O número de projetos desta versão.
+     */
+    public int getNumeroProjetos() { return this.projetos.tamanho(); }
+
+    // --- CONSTRUÇÃO E TRANSIÇÕES (usadas pela UNIAG, com os bloqueios das entidades adquiridos) ---
+
+    /**
+     * Constrói a primeira fotografia a partir do estado atual das entidades.
+     * <p>
+     * Tem de ser invocado sem operações em curso sobre a UNIAG. Uma remoção já iniciada pode ainda
+     * não ter desfeito todas as ligações da entidade removida: essas ligações são ignoradas, tal como
+     * as operações seguintes as veriam.
+     *
+     * @param membros Os membros registados.
+     * @param projetos Os projetos registados.
+     * @return A fotografia inicial.
+     */
+    static FotografiaUNIAG de(RegistoIds<MembroInvestigador> membros, RegistoIds<Projeto> projetos) {
+        MapaPersistente<MembroFotografado> fotosMembros = MapaPersistente.vazio();
+        for (MembroInvestigador membro : membros.valores()) {
+            Ligacoes ligacoes = Ligacoes.VAZIAS;
+            for (Projeto projeto : membro.getProjetosAssociados()) {
+                if (projetos.obter(projeto.getId()) == projeto) ligacoes = ligacoes.com(projeto.getId());
+            }
+            fotosMembros = fotosMembros.com(membro.getId(), MembroFotografado.de(membro, ligacoes));
+        }
+        MapaPersistente<ProjetoFotografado> fotosProjetos = MapaPersistente.vazio();
+        for (Projeto projeto : projetos.valores()) {
+            Ligacoes ligacoes = Ligacoes.VAZIAS;
+            for (MembroInvestigador membro : projeto.getMembrosParticipantes()) {
+                if (membros.obter(membro.getId()) == membro) ligacoes = ligacoes.com(membro.getId());
+            }
+            fotosProjetos = fotosProjetos.com(projeto.getId(), ProjetoFotografado.de(projeto, ligacoes));
+        }
+        return new FotografiaUNIAG(0, fotosMembros, fotosProjetos);
+    }
+
+    FotografiaUNIAG comMembro(MembroInvestigador membro) {
+        return comMembros(this.membros.com(membro.getId(), MembroFotografado.de(membro, Ligacoes.VAZIAS)));
+    }
+
+    FotografiaUNIAG comProjeto(Projeto projeto) {
+        return comProjetos(this.projetos.com(projeto.getId(), ProjetoFotografado.de(projeto, Ligacoes.VAZIAS)));
+    }
+
+    FotografiaUNIAG comNome(int idMembro, String nome) {
+        MembroFotografado membro = this.membros.obter(idMembro);
+        if (membro == null) return this;
+        return comMembros(this.membros.com(idMembro, new MembroFotografado(membro.id, membro.tipo, nome, membro.saldoCentimos, membro.ligacoes)));
+    }
+
+    FotografiaUNIAG comTitulo(int idProj, String titulo) {
+        ProjetoFotografado projeto = this.projetos.obter(idProj);
+        if (projeto == null) return this;
+        return comProjetos(this.projetos.com(idProj, new ProjetoFotografado(projeto.id, titulo, projeto.financiamento, projeto.ligacoes)));
+    }
+
+    FotografiaUNIAG comFinanciamento(int idProj, double financiamento) {
+        ProjetoFotografado projeto = this.projetos.obter(idProj);
+        if (projeto == null) return this;
+        return comProjetos(this.projetos.com(idProj, new ProjetoFotografado(projeto.id, projeto.titulo, financiamento, projeto.ligacoes)));
+    }
+
+    FotografiaUNIAG comAssociacao(int idMembro, int idProj) {
+        MembroFotografado membro = this.membros.obter(idMembro);
+        ProjetoFotografado projeto = this.projetos.obter(idProj);
+        if (membro == null || projeto == null) return this;
+        return new FotografiaUNIAG(this.versao + 1,
+                this.membros.com(idMembro, membro.comLigacoes(membro.ligacoes.com(idProj))),
+                this.projetos.com(idProj, projeto.comLigacoes(projeto.ligacoes.com(idMembro))));
+    }
+
+    /** Retira o membro e, na mesma versão, todas as suas ligações a projetos. */
+    FotografiaUNIAG semMembro(int idMembro) {
+        MembroFotografado membro = this.membros.obter(idMembro);
+        if (membro == null) return this;
+        MapaPersistente<ProjetoFotografado> projetos = this.projetos;
+        for (int idProj : membro.ligacoes.ids()) {
+            ProjetoFotografado projeto = projetos.obter(idProj);
+            if (projeto != null) projetos = projetos.com(idProj, projeto.comLigacoes(projeto.ligacoes.sem(idMembro)));
+        }
+        return new FotografiaUNIAG(this.versao + 1, this.membros.sem(idMembro), projetos);
+    }
+
+    /** Retira o projeto e, na mesma versão, todas as suas ligações a membros. */
+    FotografiaUNIAG semProjeto(int idProj) {
+        ProjetoFotografado projeto = this.projetos.obter(idProj);
+        if (projeto == null) return this;
+        MapaPersistente<MembroFotografado> membros = this.membros;
+        for (int idMembro : projeto.ligacoes.ids()) {
+            MembroFotografado membro = membros.obter(idMembro);
+            if (membro != null) membros = membros.com(idMembro, membro.comLigacoes(membro.ligacoes.sem(idProj)));
+        }
+        return new FotografiaUNIAG(this.versao + 1, membros, this.projetos.sem(idProj));
+    }
+
+    /** Aplica, numa única versão, todos os créditos de uma distribuição de verba. */
+    FotografiaUNIAG comCreditos(Creditos creditos) {
+        MapaPersistente<MembroFotografado> membros = this.membros;
+        for (int i = 0; i < creditos.numero; i++) {
+            MembroFotografado membro = membros.obter(creditos.ids[i]);
+            if (membro == null) continue;
+            membros = membros.com(membro.id, new MembroFotografado(membro.id, membro.tipo, membro.nome,
+                    membro.saldoCentimos + creditos.centimos[i], membro.ligacoes));
+        }
+        return comMembros(membros);
+    }
+
+    private FotografiaUNIAG comMembros(MapaPersistente<MembroFotografado> membros) {
+        return membros == this.membros ? this : new FotografiaUNIAG(this.versao + 1, membros, this.projetos);
+    }
+
+    private FotografiaUNIAG comProjetos(MapaPersistente<ProjetoFotografado> projetos) {
+        return projetos == this.projetos ? this : new FotografiaUNIAG(this.versao + 1, this.membros, projetos);
+    }
+
+    // --- ENTIDADES FOTOGRAFADAS ---
+
+    /**
+     * O estado imutável de um membro numa fotografia.
+     */
+    public static final class MembroFotografado {
+        private final int id;
+        private final Class<? extends MembroInvestigador> tipo;
+        private final String nome;
+        private final long saldoCentimos;
+        private final Ligacoes ligacoes;
+
+        private MembroFotografado(int id, Class<? extends MembroInvestigador> tipo, String nome, long saldoCentimos, Ligacoes ligacoes) {
+            this.id = id;
+            this.tipo = tipo;
+            this.nome = nome;
+            this.saldoCentimos = saldoCentimos;
+            this.ligacoes = ligacoes;
+        }
+
+        private static MembroFotografado de(MembroInvestigador membro, Ligacoes ligacoes) {
+            long saldo = membro instanceof Investigador ? ((Investigador) membro).getSaldoCentimos() : 0;
+            return new MembroFotografado(membro.getId(), membro.getClass(), membro.getNome(), saldo, ligacoes);
+        }
+
+        private MembroFotografado comLigacoes(Ligacoes ligacoes) {
+            return new MembroFotografado(this.id, this.tipo, this.nome, this.saldoCentimos, ligacoes);
+        }
+
+        /** @return O ID do membro. */
+        public int getId() { return this.id; }
+
+        /** @return A classe concreta do membro ({@link Investigador}, ...). */
+        public Class<? extends MembroInvestigador> getTipo() { return this.tipo; }
+
+        /** @return O nome do membro. */
+        public String getNome() { return this.nome; }
+
+        /** @return O saldo em cêntimos (sempre 0 para quem não é {@link Investigador}). */
+        public long getSaldoCentimos() { return this.saldoCentimos; }
+
+        /** @return O número de projetos associados. */
+        public int getNumeroProjetos() { return this.ligacoes.tamanho(); }
+
+        /**
+         * Obtém os IDs dos projetos associados, pela ordem de associação.
+         * @return Um array novo com os IDs.
+         */
+        public int[] getIdsProjetos() { return this.ligacoes.ids(); }
+
+        /**
+         * Verifica se o membro está associado a um projeto.
+         * @param idProj O ID do projeto.
+         * @return {@code true} se estava associado nesta versão.
+         */
+        public boolean estaAssociado(int idProj) { return this.ligacoes.contem(idProj); }
+
+        @Override
+        public String toString() {
+            return "ID: " + this.id + " | Nome: " + this.nome + " | Tipo: " + this.tipo.getSimpleName();
+        }
+    }
+
+    /**
+     * O estado imutável de um projeto numa fotografia.
+     */
+    public static final class ProjetoFotografado {
+        private final int id;
+        private final String titulo;
+        private final double financiamento;
+        private final Ligacoes ligacoes;
+
+        private ProjetoFotografado(int id, String titulo, double financiamento, Ligacoes ligacoes) {
+            this.id = id;
+            this.titulo = titulo;
+            this.financiamento = financiamento;
+            this.ligacoes = ligacoes;
+        }
+
+        private static ProjetoFotografado de(Projeto projeto, Ligacoes ligacoes) {
+            return new ProjetoFotografado(projeto.getId(), projeto.getTitulo(), projeto.getFinanciamento(), ligacoes);
+        }
+
+        private ProjetoFotografado comLigacoes(Ligacoes ligacoes) {
+            return new ProjetoFotografado(this.id, this.titulo, this.financiamento, ligacoes);
+        }
+
+        /** @return O ID do projeto. */
+        public int getId() { return this.id; }
+
+        /** @return O título do projeto. */
+        public String getTitulo() { return this.titulo; }
+
+        /** @return O financiamento do projeto. */
+        public double getFinanciamento() { return this.financiamento; }
+
+        /** @return O número de membros participantes. */
+        public int getNumeroMembros() { return this.ligacoes.tamanho(); }
+
+        /**
+         * Obtém os IDs dos membros participantes, pela ordem de entrada no projeto.
+         * @return Um array novo com os IDs.
+         */
+        public int[] getIdsMembros() { return this.ligacoes.ids(); }
+
+        /**
+         * Verifica se um membro participa no projeto.
+         * @param idMembro O ID do membro.
+         * @return {@code true} se participava nesta versão.
+         */
+        public boolean temMembro(int idMembro) { return this.ligacoes.contem(idMembro); }
+
+        @Override
+        public String toString() {
+            return "pt.ipb.uniag.modelo.Projeto " + this.id + ": " + this.titulo + " (" + String.format("%.2f", this.financiamento) + "€)";
+        }
+    }
+
+    /**
+     * Um conjunto imutável de IDs que se lembra da ordem de inserção: cada ID é guardado com o seu
+     * número de ordem, e {@link #ids()} ordena-os por esse número.
+     */
+    private static final class Ligacoes {
+        static final Ligacoes VAZIAS = new Ligacoes(MapaPersistente.vazio(), 0);
+
+        private final MapaPersistente<Integer> ordem;
+        private final int proxima;
+
+        private Ligacoes(MapaPersistente<Integer> ordem, int proxima) {
+            this.ordem = ordem;
+            this.proxima = proxima;
+        }
+
+        Ligacoes com(int id) {
+            return contem(id) ? this : new Ligacoes(this.ordem.com(id, this.proxima), this.proxima + 1);
+        }
+
+        Ligacoes sem(int id) {
+            MapaPersistente<Integer> ordem = this.ordem.sem(id);
+            return ordem == this.ordem ? this : new Ligacoes(ordem, this.proxima);
+        }
+
+        boolean contem(int id) { return this.ordem.obter(id) != null; }
+
+        int tamanho() { return this.ordem.tamanho(); }
+
+        int[] ids() {
+            // Número de ordem nos 32 bits altos, ID nos baixos: ordenar as chaves ordena por entrada.
+            long[] chaves = new long[this.ordem.tamanho()];
+            int[] n = new int[1];
+            this.ordem.paraCada((id, ordem) -> chaves[n[0]++] = ((long) ordem << 32) | (id & 0xFFFFFFFFL));
+            Arrays.sort(chaves);
+            int[] ids = new int[chaves.length];
+            for (int i = 0; i < ids.length; i++) ids[i] = (int) chaves[i];
+            return ids;
+        }
+    }
+
+    /**
+     * Os créditos de uma distribuição de verba, recolhidos enquanto é feita para serem aplicados
+     * numa única transição por {@link #comCreditos(Creditos)}.
+     */
+    static final class Creditos {
+        private int[] ids;
+        private long[] centimos;
+        private int numero;
+
+        Creditos(int capacidade) {
+            this.ids = new int[Math.max(1, capacidade)];
+            this.centimos = new long[this.ids.length];
+        }
+
+        void registar(Investigador investigador, long valor) {
+            if (this.numero == this.ids.length) {
+                this.ids = Arrays.copyOf(this.ids, this.numero * 2);
+                this.centimos = Arrays.copyOf(this.centimos, this.numero * 2);
+            }
+            this.ids[this.numero] = investigador.getId();
+            this.centimos[this.numero++] = valor;
+        }
+    }
+}
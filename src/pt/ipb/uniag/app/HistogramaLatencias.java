@@ -0,0 +1,128 @@
+package pt.ipb.uniag.app;// Ficheiro: src/pt.ipb.uniag.app.HistogramaLatencias.java
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latências (em nanossegundos) com precisão relativa constante, ao estilo dos
+ * histogramas HDR, usado pelas {@link MetricasUNIAG}.
+ * <p>
+ * Os valores abaixo de {@value #SUB_BALDES} ns têm um balde cada; acima disso, cada potência de 2
+ * é dividida em {@value #SUB_BALDES} baldes iguais, pelo que um percentil nunca se afasta mais de
+ * 1/{@value #SUB_BALDES} (~6%) do valor real, de 1 ns a centenas de anos, com {@value #NUM_BALDES}
+ * contadores. O balde de um valor obtém-se com duas operações de bits, sem ciclos nem divisões.
+ * <p>
+ * Os contadores estão repartidos por faixas (uma linha de baldes por faixa, escolhida pela thread),
+ * para que threads diferentes a registar a mesma operação raramente incrementem o mesmo contador.
+ * As faixas só são somadas ao ler o histograma.
+ *
+ * @author Luis Enrique
+ * @version 1.8
+ * @since 2026-10-18
+ */
+final class HistogramaLatencias {
+
+    private static final int BITS_SUB_BALDES = 4;
+    private static final int SUB_BALDES = 1 << BITS_SUB_BALDES;
+    /** O número de baldes de cada faixa: todos os valores {@code long} não negativos. */
+    static final int NUM_BALDES = (64 - BITS_SUB_BALDES) * SUB_BALDES;
+    private static final int MAXIMO_FAIXAS = 8;
+
+    private final int mascaraFaixas;
+    private final AtomicLongArray contagens;
+    private final LongAdder total = new LongAdder();
+    private final LongAdder soma = new LongAdder();
+    private final AtomicLong maximo = new AtomicLong();
+
+    /**
+     * Constrói um histograma vazio, com uma faixa por processador (até {@value #MAXIMO_FAIXAS}).
+     */
+    HistogramaLatencias() {
+        int processadores = Math.min(MAXIMO_FAIXAS, Runtime.getRuntime().availableProcessors());
+        int faixas = Integer.highestOneBit(Math.max(1, processadores * 2 - 1));
+        this.mascaraFaixas = faixas - 1;
+        this.contagens = new AtomicLongArray(faixas * NUM_BALDES);
+    }
+
+    /**
+     * Regista uma medição.
+     * @param nanos A duração, em nanossegundos (os valores negativos contam como 0).
+     */
+    void registar(long nanos) {
+        long valor = Math.max(0, nanos);
+        int faixa = (int) Thread.currentThread().getId() & this.mascaraFaixas;
+        this.contagens.getAndIncrement(faixa * NUM_BALDES + balde(valor));
+        this.total.increment();
+        this.soma.add(valor);
+        if (valor > this.maximo.get()) this.maximo.accumulateAndGet(valor, Math::max);
+    }
+
+    /**
+     * Resume o histograma. Com registos em curso, o resumo pode incluir só parte deles.
+     * @param operacao O nome da operação medida.
+     * @return O número de medições, a média, os percentis e o máximo.
+     */
+    ResumoLatencias resumir(String operacao) {
+        long[] baldes = new long[NUM_BALDES];
+        long contagem = 0;
+        for (int i = 0; i < this.contagens.length(); i++) {
+            long n = this.contagens.get(i);
+            baldes[i % NUM_BALDES] += n;
+            contagem += n;
+        }
+        long maximo = this.maximo.get();
+        double media = contagem == 0 ? 0 : (double) this.soma.sum() / Math.max(1, this.total.sum());
+        return new ResumoLatencias(operacao, contagem, media,
+                percentil(baldes, contagem, 0.50, maximo), percentil(baldes, contagem, 0.90, maximo),
+                percentil(baldes, contagem, 0.99, maximo), percentil(baldes, contagem, 0.999, maximo), maximo);
+    }
+
+    /**
+     * Esvazia o histograma. Os registos feitos ao mesmo tempo podem ser contados só em parte.
+     */
+    void reiniciar() {
+        for (int i = 0; i < this.contagens.length(); i++) {
+            this.contagens.set(i, 0);
+        }
+        this.total.reset();
+        this.soma.reset();
+        this.maximo.set(0);
+    }
+
+    /**
+     * Obtém o balde de um valor: o próprio valor abaixo de {@code SUB_BALDES}; acima, a potência de 2
+     * (posição do bit mais alto) e os {@code BITS_SUB_BALDES} bits seguintes.
+     */
+    static int balde(long valor) {
+        if (valor < SUB_BALDES) return (int) valor;
+        int expoente = 63 - Long.numberOfLeadingZeros(valor);
+        return (expoente - BITS_SUB_BALDES + 1) * SUB_BALDES
+                + (int) ((valor >>> (expoente - BITS_SUB_BALDES)) & (SUB_BALDES - 1));
+    }
+
+    /**
+     * Obtém o maior valor que cai num balde.
+     */
+    static long limiteSuperior(int balde) {
+        if (balde < SUB_BALDES) return balde;
+        int escala = balde / SUB_BALDES - 1;
+        long inferior = (long) (SUB_BALDES + balde % SUB_BALDES) << escala;
+        return inferior + (1L << escala) - 1;
+    }
+
+    /**
+     * Obtém o percentil {@code p}: o limite superior do balde onde a contagem acumulada o atinge,
+     * sem ultrapassar o máximo registado.
+     */
+    private static long percentil(long[] baldes, long contagem, double p, long maximo) {
+        if (contagem == 0) return 0;
+        long alvo = Math.max(1, (long) Math.ceil(p * contagem));
+        long acumulado = 0;
+        for (int i = 0; i < baldes.length; i++) {
+            acumulado += baldes[i];
+            if (acumulado >= alvo) return Math.min(limiteSuperior(i), maximo);
+        }
+        return maximo;
+    }
+}
@@ -0,0 +1,592 @@
+package pt.ipb.uniag.app;// Ficheiro: src/pt.ipb.uniag.app.ImportadorCSV.java
+
+import pt.ipb.uniag.modelo.*;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Supplier;
+
+/**
+ * Importa membros, projetos e associações de ficheiros CSV (UTF-8, separados por vírgulas) para uma
+ * {@link UNIAG}, com a memória limitada independentemente do tamanho dos ficheiros.
+ * <p>
+ * Os formatos de cada linha são:
+ * <pre>
+ *   membros:     id,tipo,nome            (tipo: investigador, colaborador ou visitante)
+ *   projetos:    id,titulo,financiamento
+ *   associações: idMembro,idProjeto
+ * </pre>
+ * Os campos podem estar entre aspas ({@code "Silva, Ana"}, com {@code ""} para uma aspa), mas não
+ * podem conter quebras de linha. A primeira linha é ignorada se for um cabeçalho (se não começar por
+ * um número), tal como as linhas vazias e as que começam por {@code #}. Os IDs dos ficheiros são
+ * mantidos, para que as associações possam referir os membros e projetos importados.
+ * <p>
+ * O ficheiro é lido em blocos de linhas completas, que passam por uma fila limitada para um conjunto
+ * de threads de análise. Cada linha é validada pelos construtores do modelo (as mesmas regras de
+ * {@link UNIAG#addInvestigador(String)} ou {@link UNIAG#addProjeto(String, double)}), e cada bloco é
+ * inserido de uma só vez, pela ordem do ficheiro; as associações de um bloco usam
+ * {@link UNIAG#associaMembrosProjetos(int[], int[])}. As linhas inválidas ou que a UNIAG recusa
+ * (por exemplo, um ID repetido ou um membro inexistente) são rejeitadas e descritas no
+ * {@link RelatorioImportacao}, sem interromper a importação.
+ *
+ * @author Luis Enrique
+ * @version 1.8
+ * @since 2026-10-18
+ */
+public final class ImportadorCSV {
+
+    private static final int TAMANHO_BLOCO = 1 << 20;
+    private static final int LIMITE_REJEICOES = 1000;
+
+    private final UNIAG uniag;
+    private final int numeroTrabalhadores;
+
+    /**
+     * Constrói um importador com uma thread de análise por processador.
+     * @param uniag A unidade onde os dados são inseridos.
+     */
+    public ImportadorCSV(UNIAG uniag) {
+        this(uniag, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constrói um importador.
+     * @param uniag A unidade onde os dados são inseridos.
+     * @param numeroTrabalhadores O número de threads de análise.
+     * @throws IllegalArgumentException se o número de threads não for positivo.
+     */
+    public ImportadorCSV(UNIAG uniag, int numeroTrabalhadores) {
+        if (numeroTrabalhadores <= 0) throw new IllegalArgumentException("O número de threads tem de ser positivo.");
+        this.uniag = uniag;
+        this.numeroTrabalhadores = numeroTrabalhadores;
+    }
+
+    /**
+     * Importa os membros de um ficheiro CSV ({@code id,tipo,nome}).
+     * @param ficheiro O ficheiro a ler.
+     * @return O relatório da importação.
+     * @throws IOException se a leitura falhar; as linhas anteriores ao erro podem já ter sido importadas.
+     */
+    public RelatorioImportacao importarMembros(Path ficheiro) throws IOException {
+        return importar(ficheiro, LoteMembros::new);
+    }
+
+    /**
+     * Importa os projetos de um ficheiro CSV ({@code id,titulo,financiamento}).
+     * @param ficheiro O ficheiro a ler.
+     * @return O relatório da importação.
+     * @throws IOException se a leitura falhar; as linhas anteriores ao erro podem já ter sido importadas.
+     */
+    public RelatorioImportacao importarProjetos(Path ficheiro) throws IOException {
+        return importar(ficheiro, LoteProjetos::new);
+    }
+
+    /**
+     * Importa as associações de um ficheiro CSV ({@code idMembro,idProjeto}). Os membros e projetos
+     * referidos já têm de existir na UNIAG.
+     * @param ficheiro O ficheiro a ler.
+     * @return O relatório da importação.
+     * @throws IOException se a leitura falhar; as linhas anteriores ao erro podem já ter sido importadas.
+     */
+    public RelatorioImportacao importarAssociacoes(Path ficheiro) throws IOException {
+        return importar(ficheiro, LoteAssociacoes::new);
+    }
+
+    private RelatorioImportacao importar(Path ficheiro, Supplier<Lote> fabrica) throws IOException {
+        Execucao execucao = new Execucao(this.uniag, fabrica, this.numeroTrabalhadores);
+        Thread[] trabalhadores = new Thread[this.numeroTrabalhadores];
+        for (int i = 0; i < trabalhadores.length; i++) {
+            trabalhadores[i] = new Thread(execucao::trabalhar, "uniag-importacao-" + i);
+            trabalhadores[i].setDaemon(true);
+            trabalhadores[i].start();
+        }
+        try (FileChannel canal = FileChannel.open(ficheiro, StandardOpenOption.READ)) {
+            lerBlocos(canal, execucao);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            execucao.cancelar(null);
+            throw new InterruptedIOException("Importação interrompida.");
+        } catch (IOException | RuntimeException e) {
+            execucao.cancelar(null);
+            throw e;
+        } finally {
+            execucao.terminar(trabalhadores);
+        }
+        execucao.lancarFalha();
+        return execucao.relatorio;
+    }
+
+    /**
+     * Divide o ficheiro em blocos de linhas completas e entrega-os às threads de análise.
+     */
+    private static void lerBlocos(FileChannel canal, Execucao execucao) throws IOException, InterruptedException {
+        byte[] buffer = new byte[TAMANHO_BLOCO];
+        int cheio = 0;
+        long sequencia = 0;
+        while (!execucao.cancelada) {
+            int lidos = canal.read(ByteBuffer.wrap(buffer, cheio, buffer.length - cheio));
+            if (lidos < 0) break;
+            cheio += lidos;
+            if (cheio < buffer.length) continue;
+
+            int corte = cheio;
+            while (corte > 0 && buffer[corte - 1] != '\n') corte--;
+            if (corte == 0) { // uma linha maior do que o bloco
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                continue;
+            }
+            int resto = cheio - corte;
+            byte[] seguinte = new byte[Math.max(TAMANHO_BLOCO, 2 * resto)];
+            System.arraycopy(buffer, corte, seguinte, 0, resto);
+            execucao.entregar(new Bloco(sequencia++, buffer, corte));
+            buffer = seguinte;
+            cheio = resto;
+        }
+        if (cheio > 0 && !execucao.cancelada) execucao.entregar(new Bloco(sequencia, buffer, cheio));
+    }
+
+    /**
+     * Um bloco de linhas completas do ficheiro.
+     */
+    private static final class Bloco {
+        static final Bloco FIM = new Bloco(-1, null, 0);
+
+        final long sequencia;
+        final byte[] dados;
+        final int tamanho;
+
+        Bloco(long sequencia, byte[] dados, int tamanho) {
+            this.sequencia = sequencia;
+            this.dados = dados;
+            this.tamanho = tamanho;
+        }
+    }
+
+    /**
+     * O estado partilhado de uma importação: a fila de blocos, a vez de inserir e o relatório.
+     * <p>
+     * Os blocos são analisados em paralelo, mas cada thread espera pela vez do seu bloco para o
+     * inserir, pelo que as inserções (e o relatório) seguem a ordem do ficheiro.
+     */
+    private static final class Execucao {
+        final UNIAG uniag;
+        final Supplier<Lote> fabrica;
+        final BlockingQueue<Bloco> fila;
+        final RelatorioImportacao relatorio = new RelatorioImportacao(LIMITE_REJEICOES);
+        volatile boolean cancelada;
+        private RuntimeException falha;
+        private long proximaSequencia;   // o próximo bloco a inserir
+        private long linhasAnteriores;   // as linhas dos blocos já inseridos
+
+        Execucao(UNIAG uniag, Supplier<Lote> fabrica, int numeroTrabalhadores) {
+            this.uniag = uniag;
+            this.fabrica = fabrica;
+            this.fila = new ArrayBlockingQueue<>(2 * numeroTrabalhadores);
+        }
+
+        void entregar(Bloco bloco) throws InterruptedException {
+            this.fila.put(bloco);
+        }
+
+        void trabalhar() {
+            Campos campos = new Campos();
+            while (true) {
+                Bloco bloco;
+                try {
+                    bloco = this.fila.take();
+                } catch (InterruptedException e) {
+                    cancelar(null); // continua a esvaziar a fila até ao fim, para não bloquear a leitura
+                    continue;
+                }
+                if (bloco == Bloco.FIM) return;
+                if (this.cancelada) continue;
+                try {
+                    Lote lote = this.fabrica.get();
+                    lote.analisar(bloco, campos);
+                    if (!esperarVez(bloco.sequencia)) continue;
+                    try {
+                        lote.inserir(this.uniag, this.relatorio, this.linhasAnteriores);
+                        this.uniag.confirmarDiario();
+                        this.linhasAnteriores += lote.numeroLinhas;
+                    } finally {
+                        passarVez();
+                    }
+                } catch (RuntimeException e) {
+                    cancelar(e);
+                }
+            }
+        }
+
+        private synchronized boolean esperarVez(long sequencia) {
+            while (this.proximaSequencia != sequencia && !this.cancelada) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    cancelar(null);
+                }
+            }
+            return !this.cancelada;
+        }
+
+        private synchronized void passarVez() {
+            this.proximaSequencia++;
+            notifyAll();
+        }
+
+        synchronized void cancelar(RuntimeException causa) {
+            if (causa != null && this.falha == null) this.falha = causa;
+            this.cancelada = true;
+            notifyAll();
+        }
+
+        /**
+         * Envia o fim da fila a cada thread e espera que todas terminem.
+         */
+        void terminar(Thread[] trabalhadores) {
+            boolean interrompida = false;
+            for (int i = 0; i < trabalhadores.length; i++) {
+                while (true) {
+                    try {
+                        this.fila.put(Bloco.FIM);
+                        break;
+                    } catch (InterruptedException e) {
+                        interrompida = true;
+                        cancelar(null);
+                    }
+                }
+            }
+            for (Thread trabalhador : trabalhadores) {
+                while (trabalhador.isAlive()) {
+                    try {
+                        trabalhador.join();
+                    } catch (InterruptedException e) {
+                        interrompida = true;
+                        cancelar(null);
+                    }
+                }
+            }
+            if (interrompida) Thread.currentThread().interrupt();
+        }
+
+        synchronized void lancarFalha() throws IOException {
+            if (this.falha instanceof UncheckedIOException) throw ((UncheckedIOException) this.falha).getCause();
+            if (this.falha != null) throw this.falha;
+        }
+    }
+
+    /**
+     * As linhas de dados de um bloco, já analisadas e validadas, à espera de serem inseridas.
+     * Cada linha de dados tem o seu número dentro do bloco e, se foi rejeitada, o motivo.
+     */
+    private abstract static class Lote {
+        int numeroLinhas;   // todas as linhas do bloco, incluindo as ignoradas
+        int n;              // as linhas de dados
+        int[] linhas = new int[256];
+        String[] motivos = new String[256];
+
+        /** @return O número de campos de cada linha. */
+        abstract int numeroCampos();
+
+        /**
+         * Lê os campos da linha de dados {@code i}.
+         * @throws IllegalArgumentException com o motivo, se a linha for inválida.
+         */
+        abstract void ler(Campos campos, int i);
+
+        /** Aumenta a capacidade dos dados de cada linha. */
+        abstract void crescer(int capacidade);
+
+        /**
+         * Insere as linhas válidas na UNIAG e regista o resultado de todas no relatório.
+         * @param linhasAnteriores O número de linhas do ficheiro antes deste bloco.
+         */
+        abstract void inserir(UNIAG uniag, RelatorioImportacao relatorio, long linhasAnteriores);
+
+        void analisar(Bloco bloco, Campos campos) {
+            byte[] dados = bloco.dados;
+            int pos = 0;
+            if (bloco.sequencia == 0 && bloco.tamanho >= 3
+                    && dados[0] == (byte) 0xEF && dados[1] == (byte) 0xBB && dados[2] == (byte) 0xBF) {
+                pos = 3; // marca de ordem dos bytes (BOM)
+            }
+            int linha = 0;
+            while (pos < bloco.tamanho) {
+                int fim = pos;
+                while (fim < bloco.tamanho && dados[fim] != '\n') fim++;
+                int proxima = fim + 1;
+                int inicio = pos;
+                while (inicio < fim && Campos.espaco(dados[inicio])) inicio++;
+                while (fim > inicio && (Campos.espaco(dados[fim - 1]) || dados[fim - 1] == '\r')) fim--;
+
+                boolean ignorada = inicio == fim || dados[inicio] == '#'
+                        || (bloco.sequencia == 0 && linha == 0 && !Campos.inicioNumero(dados[inicio]));
+                if (!ignorada) {
+                    int i = novaLinha(linha);
+                    try {
+                        int encontrados = campos.separar(dados, inicio, fim);
+                        if (encontrados != numeroCampos()) {
+                            throw new IllegalArgumentException("Número de campos inválido: esperados "
+                                    + numeroCampos() + ", encontrados " + encontrados + ".");
+                        }
+                        ler(campos, i);
+                    } catch (IllegalArgumentException e) {
+                        this.motivos[i] = e.getMessage();
+                    }
+                }
+                linha++;
+                pos = proxima;
+            }
+            this.numeroLinhas = linha;
+        }
+
+        private int novaLinha(int linha) {
+            if (this.n == this.linhas.length) {
+                int capacidade = this.n * 2;
+                this.linhas = Arrays.copyOf(this.linhas, capacidade);
+                this.motivos = Arrays.copyOf(this.motivos, capacidade);
+                crescer(capacidade);
+            }
+            this.linhas[this.n] = linha;
+            return this.n++;
+        }
+
+        /** @return O número da linha de dados {@code i} no ficheiro. */
+        long numeroNoFicheiro(int i, long linhasAnteriores) {
+            return linhasAnteriores + this.linhas[i] + 1;
+        }
+    }
+
+    private static final class LoteMembros extends Lote {
+        MembroInvestigador[] membros = new MembroInvestigador[256];
+
+        @Override int numeroCampos() { return 3; }
+
+        @Override
+        void ler(Campos campos, int i) {
+            int id = campos.inteiro(0, "ID");
+            String tipo = campos.texto(1);
+            String nome = campos.texto(2);
+            switch (tipo.toLowerCase(Locale.ROOT)) {
+                case "investigador": this.membros[i] = new Investigador(id, nome, 0); break;
+                case "colaborador": this.membros[i] = new InvColaborador(id, nome); break;
+                case "visitante": this.membros[i] = new Visitante(id, nome); break;
+                default: throw new IllegalArgumentException("Tipo de membro desconhecido: " + tipo + ".");
+            }
+        }
+
+        @Override
+        void crescer(int capacidade) { this.membros = Arrays.copyOf(this.membros, capacidade); }
+
+        @Override
+        void inserir(UNIAG uniag, RelatorioImportacao relatorio, long linhasAnteriores) {
+            for (int i = 0; i < this.n; i++) {
+                String motivo = this.motivos[i];
+                if (motivo == null) {
+                    try {
+                        uniag.importarMembro(this.membros[i]);
+                        relatorio.registarImportada();
+                        continue;
+                    } catch (IllegalArgumentException e) {
+                        motivo = e.getMessage();
+                    }
+                }
+                relatorio.registarRejeitada(numeroNoFicheiro(i, linhasAnteriores), motivo);
+            }
+        }
+    }
+
+    private static final class LoteProjetos extends Lote {
+        Projeto[] projetos = new Projeto[256];
+
+        @Override int numeroCampos() { return 3; }
+
+        @Override
+        void ler(Campos campos, int i) {
+            int id = campos.inteiro(0, "ID");
+            String titulo = campos.texto(1);
+            this.projetos[i] = new Projeto(id, titulo, campos.decimal(2, "Financiamento"));
+        }
+
+        @Override
+        void crescer(int capacidade) { this.projetos = Arrays.copyOf(this.projetos, capacidade); }
+
+        @Override
+        void inserir(UNIAG uniag, RelatorioImportacao relatorio, long linhasAnteriores) {
+            for (int i = 0; i < this.n; i++) {
+                String motivo = this.motivos[i];
+                if (motivo == null) {
+                    try {
+                        uniag.importarProjeto(this.projetos[i]);
+                        relatorio.registarImportada();
+                        continue;
+                    } catch (IllegalArgumentException e) {
+                        motivo = e.getMessage();
+                    }
+                }
+                relatorio.registarRejeitada(numeroNoFicheiro(i, linhasAnteriores), motivo);
+            }
+        }
+    }
+
+    private static final class LoteAssociacoes extends Lote {
+        int[] membros = new int[256];
+        int[] projetos = new int[256];
+
+        @Override int numeroCampos() { return 2; }
+
+        @Override
+        void ler(Campos campos, int i) {
+            this.membros[i] = campos.inteiro(0, "ID do membro");
+            this.projetos[i] = campos.inteiro(1, "ID do projeto");
+        }
+
+        @Override
+        void crescer(int capacidade) {
+            this.membros = Arrays.copyOf(this.membros, capacidade);
+            this.projetos = Arrays.copyOf(this.projetos, capacidade);
+        }
+
+        @Override
+        void inserir(UNIAG uniag, RelatorioImportacao relatorio, long linhasAnteriores) {
+            int validas = 0;
+            for (int i = 0; i < this.n; i++) {
+                if (this.motivos[i] == null) {
+                    this.membros[validas] = this.membros[i];
+                    this.projetos[validas] = this.projetos[i];
+                    validas++;
+                }
+            }
+            RelatorioAssociacoes resultados = uniag.associaMembrosProjetos(
+                    Arrays.copyOf(this.membros, validas), Arrays.copyOf(this.projetos, validas));
+            int j = 0;
+            for (int i = 0; i < this.n; i++) {
+                String motivo = this.motivos[i];
+                if (motivo == null) {
+                    int idMembro = this.membros[j];
+                    int idProj = this.projetos[j];
+                    switch (resultados.getResultado(j++)) {
+                        case ASSOCIADO: relatorio.registarImportada(); continue;
+                        case JA_ASSOCIADO: motivo = "O membro " + idMembro + " já está associado ao projeto " + idProj + "."; break;
+                        case MEMBRO_INEXISTENTE: motivo = "Não existe nenhum membro com o ID " + idMembro + "."; break;
+                        default: motivo = "Não existe nenhum projeto com o ID " + idProj + "."; break;
+                    }
+                }
+                relatorio.registarRejeitada(numeroNoFicheiro(i, linhasAnteriores), motivo);
+            }
+        }
+    }
+
+    /**
+     * Os campos de uma linha, como posições no bloco. Os números são lidos diretamente dos bytes,
+     * sem criar texto intermédio.
+     */
+    private static final class Campos {
+        private static final int MAXIMO = 8;
+
+        private byte[] dados;
+        private final int[] inicio = new int[MAXIMO];
+        private final int[] fim = new int[MAXIMO];
+        private final boolean[] aspas = new boolean[MAXIMO];
+
+        static boolean espaco(byte b) {
+            return b == ' ' || b == '\t';
+        }
+
+        static boolean inicioNumero(byte b) {
+            return (b >= '0' && b <= '9') || b == '-' || b == '+';
+        }
+
+        /**
+         * Separa os campos da linha {@code [de, ate)}.
+         * @return O número de campos encontrados (só os primeiros {@value #MAXIMO} ficam disponíveis).
+         * @throws IllegalArgumentException se umas aspas não estiverem bem fechadas.
+         */
+        int separar(byte[] dados, int de, int ate) {
+            this.dados = dados;
+            int n = 0;
+            int pos = de;
+            while (true) {
+                while (pos < ate && espaco(dados[pos])) pos++;
+                int ini;
+                int fimCampo;
+                boolean entreAspas = pos < ate && dados[pos] == '"';
+                if (entreAspas) {
+                    ini = ++pos;
+                    while (true) {
+                        if (pos >= ate) throw new IllegalArgumentException("Aspas por fechar no campo " + (n + 1) + ".");
+                        if (dados[pos] == '"') {
+                            if (pos + 1 < ate && dados[pos + 1] == '"') { pos += 2; continue; }
+                            break;
+                        }
+                        pos++;
+                    }
+                    fimCampo = pos++;
+                    while (pos < ate && espaco(dados[pos])) pos++;
+                    if (pos < ate && dados[pos] != ',') {
+                        throw new IllegalArgumentException("Texto depois das aspas no campo " + (n + 1) + ".");
+                    }
+                } else {
+                    ini = pos;
+                    while (pos < ate && dados[pos] != ',') pos++;
+                    fimCampo = pos;
+                    while (fimCampo > ini && espaco(dados[fimCampo - 1])) fimCampo--;
+                }
+                if (n < MAXIMO) {
+                    this.inicio[n] = ini;
+                    this.fim[n] = fimCampo;
+                    this.aspas[n] = entreAspas;
+                }
+                n++;
+                if (pos >= ate) return n;
+                pos++; // a vírgula
+            }
+        }
+
+        String texto(int k) {
+            String texto = new String(this.dados, this.inicio[k], this.fim[k] - this.inicio[k], StandardCharsets.UTF_8);
+            return this.aspas[k] ? texto.replace("\"\"", "\"") : texto;
+        }
+
+        int inteiro(int k, String nome) {
+            int pos = this.inicio[k];
+            int ate = this.fim[k];
+            boolean negativo = pos < ate && this.dados[pos] == '-';
+            if (pos < ate && (this.dados[pos] == '-' || this.dados[pos] == '+')) pos++;
+            if (pos == ate) throw new IllegalArgumentException(nome + " inválido: \"" + texto(k) + "\".");
+            long valor = 0;
+            for (; pos < ate; pos++) {
+                int digito = this.dados[pos] - '0';
+                if (digito < 0 || digito > 9 || valor > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException(nome + " inválido: \"" + texto(k) + "\".");
+                }
+                valor = valor * 10 + digito;
+            }
+            if (negativo) valor = -valor;
+            if (valor > Integer.MAX_VALUE || valor < Integer.MIN_VALUE) {
+                throw new IllegalArgumentException(nome + " inválido: \"" + texto(k) + "\".");
+            }
+            return (int) valor;
+        }
+
+        double decimal(int k, String nome) {
+            String texto = texto(k);
+            try {
+                double valor = Double.parseDouble(texto);
+                if (Double.isFinite(valor)) return valor;
+            } catch (NumberFormatException e) {
+                // tratado abaixo
+            }
+            throw new IllegalArgumentException(nome + " inválido: \"" + texto + "\".");
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package pt.ipb.uniag.app;// Ficheiro: src/pt.ipb.uniag.app.IndiceFinanciamento.java
+
+import pt.ipb.uniag.modelo.Projeto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Índice ordenado dos projetos pelo financiamento, com pesquisas por intervalo, os K maiores
+ * e somas de financiamento por intervalo em tempo logarítmico.
+ * <p>
+ * É uma treap imutável (árvore binária de pesquisa equilibrada por prioridades pseudoaleatórias),
+ * ordenada pelo financiamento em cêntimos e, em caso de empate, pelo ID do projeto. Cada nó guarda
+ * também o número de nós e a soma dos financiamentos da sua subárvore, o que permite contar e somar
+ * qualquer intervalo percorrendo apenas dois caminhos da raiz às folhas.
+ * <p>
+ * Cada alteração cria uma nova raiz, copiando apenas os nós do caminho alterado, e publica-a com
+ * uma operação atómica. As pesquisas leem uma única raiz, sem bloqueios, e por isso nunca veem uma
+ * alteração a meio (por exemplo, um projeto retirado da posição antiga mas ainda não inserido na nova).
+ * As alterações de um mesmo projeto têm de ser feitas com o respetivo bloqueio adquirido.
+ *
+ * @author Luis Enrique
+ * @version 1.8
+ * @since 2026-10-18
+ */
+final class IndiceFinanciamento {
+
+    private final AtomicReference<No> raiz = new AtomicReference<>();
+
+    /**
+     * Indexa um projeto com o seu financiamento atual.
+     * @param projeto O projeto.
+     */
+    void adicionar(Projeto projeto) {
+        No novo = new No(projeto.getFinanciamentoCentimos(), projeto, null, null);
+        this.raiz.updateAndGet(r -> inserir(r, novo));
+    }
+
+    /**
+     * Retira um projeto do índice.
+     * @param centimos O financiamento, em cêntimos, com que o projeto foi indexado.
+     * @param id O ID do projeto.
+     */
+    void remover(long centimos, int id) {
+        this.raiz.updateAndGet(r -> retirar(r, centimos, id));
+    }
+
+    /**
+     * Muda a posição de um projeto cujo financiamento foi alterado, numa única publicação.
+     * @param centimosAntigos O financiamento, em cêntimos, com que o projeto foi indexado.
+     * @param projeto O projeto, já com o novo financiamento.
+     */
+    void alterar(long centimosAntigos, Projeto projeto) {
+        if (centimosAntigos == projeto.getFinanciamentoCentimos()) return;
+        No novo = new No(projeto.getFinanciamentoCentimos(), projeto, null, null);
+        this.raiz.updateAndGet(r -> inserir(retirar(r, centimosAntigos, projeto.getId()), novo));
+    }
+
+    /**
+     * Conta os projetos com financiamento num intervalo.
+     * @param minimo O financiamento mínimo, em cêntimos (inclusive).
+     * @param maximo O financiamento máximo, em cêntimos (inclusive).
+     * @return O número de projetos no intervalo.
+     */
+    int contar(long minimo, long maximo) {
+        if (minimo > maximo) return 0;
+        No r = this.raiz.get();
+        int ate = maximo == Long.MAX_VALUE ? tamanho(r) : contarAbaixo(r, maximo + 1);
+        return ate - contarAbaixo(r, minimo);
+    }
+
+    /**
+     * Soma o financiamento dos projetos num intervalo.
+     * @param minimo O financiamento mínimo, em cêntimos (inclusive).
+     * @param maximo O financiamento máximo, em cêntimos (inclusive).
+     * @return A soma, em cêntimos.
+     */
+    long somar(long minimo, long maximo) {
+        if (minimo > maximo) return 0;
+        No r = this.raiz.get();
+        long ate = maximo == Long.MAX_VALUE ? soma(r) : somarAbaixo(r, maximo + 1);
+        return ate - somarAbaixo(r, minimo);
+    }
+
+    /**
+     * Obtém os projetos com financiamento num intervalo, por ordem crescente de financiamento.
+     * @param minimo O financiamento mínimo, em cêntimos (inclusive).
+     * @param maximo O financiamento máximo, em cêntimos (inclusive).
+     * @param limite O número máximo de resultados.
+     * @return Os projetos encontrados.
+     */
+    List<Projeto> intervalo(long minimo, long maximo, int limite) {
+        List<Projeto> resultado = new ArrayList<>(Math.min(limite, 64));
+        if (minimo <= maximo && limite > 0) recolher(this.raiz.get(), minimo, maximo, limite, resultado);
+        return resultado;
+    }
+
+    /**
+     * Obtém os projetos com maior financiamento, por ordem decrescente (e, em caso de empate, de ID).
+     * @param k O número de projetos pretendido.
+     * @return Os (no máximo) {@code k} projetos com maior financiamento.
+     */
+    List<Projeto> maiores(int k) {
+        List<Projeto> resultado = new ArrayList<>(Math.min(k, 64));
+        if (k > 0) recolherDecrescente(this.raiz.get(), k, resultado);
+        return resultado;
+    }
+
+    /**
+     * Obtém o número de projetos indexados.
+     * @return O número de projetos.
+     */
+    int tamanho() {
+        return tamanho(this.raiz.get());
+    }
+
+    // --- TREAP IMUTÁVEL ---
+
+    private static int tamanho(No no) { return no == null ? 0 : no.tamanho; }
+
+    private static long soma(No no) { return no == null ? 0 : no.soma; }
+
+    /** Compara a chave de um nó com (centimos, id). */
+    private static int comparar(No no, long centimos, int id) {
+        int c = Long.compare(no.centimos, centimos);
+        return c != 0 ? c : Integer.compare(no.projeto.getId(), id);
+    }
+
+    private static No inserir(No no, No novo) {
+        if (no == null) return novo;
+        if (novo.prioridade > no.prioridade) {
+            No[] partes = dividir(no, novo.centimos, novo.projeto.getId());
+            return new No(novo.centimos, novo.projeto, partes[0], partes[1]);
+        }
+        if (comparar(no, novo.centimos, novo.projeto.getId()) > 0) {
+            return no.com(inserir(no.esquerda, novo), no.direita);
+        }
+        return no.com(no.esquerda, inserir(no.direita, novo));
+    }
+
+    /** Divide uma árvore nas chaves menores que (centimos, id) e nas restantes. */
+    private static No[] dividir(No no, long centimos, int id) {
+        if (no == null) return new No[2];
+        if (comparar(no, centimos, id) < 0) {
+            No[] partes = dividir(no.direita, centimos, id);
+            partes[0] = no.com(no.esquerda, partes[0]);
+            return partes;
+        }
+        No[] partes = dividir(no.esquerda, centimos, id);
+        partes[1] = no.com(partes[1], no.direita);
+        return partes;
+    }
+
+    private static No retirar(No no, long centimos, int id) {
+        if (no == null) return null;
+        int c = comparar(no, centimos, id);
+        if (c == 0) return juntar(no.esquerda, no.direita);
+        No esquerda = c > 0 ? retirar(no.esquerda, centimos, id) : no.esquerda;
+        No direita = c < 0 ? retirar(no.direita, centimos, id) : no.direita;
+        return esquerda == no.esquerda && direita == no.direita ? no : no.com(esquerda, direita);
+    }
+
+    /** Junta duas árvores em que todas as chaves de {@code a} são menores que as de {@code b}. */
+    private static No juntar(No a, No b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        if (a.prioridade > b.prioridade) return a.com(a.esquerda, juntar(a.direita, b));
+        return b.com(juntar(a, b.esquerda), b.direita);
+    }
+
+    /** O número de projetos com financiamento menor que {@code centimos}. */
+    private static int contarAbaixo(No no, long centimos) {
+        int total = 0;
+        while (no != null) {
+            if (no.centimos < centimos) {
+                total += tamanho(no.esquerda) + 1;
+                no = no.direita;
+            } else {
+                no = no.esquerda;
+            }
+        }
+        return total;
+    }
+
+    /** A soma dos financiamentos menores que {@code centimos}. */
+    private static long somarAbaixo(No no, long centimos) {
+        long total = 0;
+        while (no != null) {
+            if (no.centimos < centimos) {
+                total += soma(no.esquerda) + no.centimos;
+                no = no.direita;
+            } else {
+                no = no.esquerda;
+            }
+        }
+        return total;
+    }
+
+    private static void recolher(No no, long minimo, long maximo, int limite, List<Projeto> resultado) {
+        if (no == null || resultado.size() == limite) return;
+        if (no.centimos >= minimo) recolher(no.esquerda, minimo, maximo, limite, resultado);
+        if (no.centimos >= minimo && no.centimos <= maximo && resultado.size() < limite) resultado.add(no.projeto);
+        if (no.centimos <= maximo) recolher(no.direita, minimo, maximo, limite, resultado);
+    }
+
+    private static void recolherDecrescente(No no, int k, List<Projeto> resultado) {
+        if (no == null || resultado.size() == k) return;
+        recolherDecrescente(no.direita, k, resultado);
+        if (resultado.size() < k) resultado.add(no.projeto);
+        recolherDecrescente(no.esquerda, k, resultado);
+    }
+
+    /** Um nó imutável da treap, com o tamanho e a soma da sua subárvore. */
+    private static final class No {
+        final long centimos;
+        final Projeto projeto;
+        final int prioridade;
+        final No esquerda;
+        final No direita;
+        final int tamanho;
+        final long soma;
+
+        No(long centimos, Projeto projeto, No esquerda, No direita) {
+            this.centimos = centimos;
+            this.projeto = projeto;
+            // Prioridade derivada do ID: a forma da árvore é a mesma para o mesmo conjunto de projetos.
+            int h = projeto.getId() * 0x9E3779B9;
+            h ^= h >>> 15;
+            h *= 0x85EBCA6B;
+            this.prioridade = h ^ (h >>> 13);
+            this.esquerda = esquerda;
+            this.direita = direita;
+            this.tamanho = tamanho(esquerda) + tamanho(direita) + 1;
+            this.soma = soma(esquerda) + soma(direita) + centimos;
+        }
+
+        No com(No esquerda, No direita) {
+            return new No(this.centimos, this.projeto, esquerda, direita);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package pt.ipb.uniag.app;// Ficheiro: src/pt.ipb.uniag.app.IndiceTexto.java
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Índice secundário ordenado de entidades por um texto (nome de membro, título de projeto),
+ * com pesquisa por prefixo que ignora maiúsculas, acentos e espaços repetidos.
+ * <p>
+ * As entradas ficam numa {@link ConcurrentSkipListMap} ordenada pela forma normalizada do texto
+ * (ver {@link #normalizar(String)}) e, em caso de empate, pelo ID da entidade. Uma pesquisa por
+ * prefixo é um percurso do sub-mapa {@code [prefixo, prefixo + Character.MAX_VALUE)}: custa O(log n) para
+ * encontrar o início e depois apenas o número de resultados pedido, seja qual for o tamanho do índice.
+ * <p>
+ * O índice pode ser lido e alterado por várias threads em simultâneo. As alterações de uma mesma
+ * entidade têm de ser feitas com o respetivo bloqueio adquirido (como em {@link UNIAG}), para que
+ * a retirada do texto antigo e a inserção do novo não se cruzem com outra alteração.
+ *
+ * @param <E> O tipo das entidades indexadas.
+ * @author Luis Enrique
+ * @version 1.8
+ * @since 2026-10-18
+ */
+final class IndiceTexto<E> {
+
+    /** A letra base de cada caráter de U+00C0 a U+00FF ("é" passa a "e"; os que não têm acento ficam iguais). */
+    private static final char PRIMEIRA_LETRA_LATIN1 = 0xC0;
+    private static final char[] SEM_ACENTO_LATIN1 = new char[0x100 - PRIMEIRA_LETRA_LATIN1];
+
+    static {
+        for (int i = 0; i < SEM_ACENTO_LATIN1.length; i++) {
+            SEM_ACENTO_LATIN1[i] = Normalizer.normalize(String.valueOf((char) (PRIMEIRA_LETRA_LATIN1 + i)), Normalizer.Form.NFD).charAt(0);
+        }
+    }
+
+    private final ConcurrentSkipListMap<Chave, E> entradas = new ConcurrentSkipListMap<>();
+
+    /**
+     * Indexa uma entidade.
+     * @param texto O texto (não normalizado) da entidade.
+     * @param id O ID da entidade.
+     * @param entidade A entidade.
+     */
+    void adicionar(String texto, int id, E entidade) {
+        this.entradas.put(new Chave(normalizar(texto), id), entidade);
+    }
+
+    /**
+     * Retira a entrada de uma entidade.
+     * @param texto O texto com que a entidade foi indexada.
+     * @param id O ID da entidade.
+     */
+    void remover(String texto, int id) {
+        this.entradas.remove(new Chave(normalizar(texto), id));
+    }
+
+    /**
+     * Muda o texto com que uma entidade está indexada.
+     * @param textoAntigo O texto com que foi indexada.
+     * @param textoNovo O novo texto.
+     * @param id O ID da entidade.
+     * @param entidade A entidade.
+     */
+    void alterar(String textoAntigo, String textoNovo, int id, E entidade) {
+        String antiga = normalizar(textoAntigo);
+        String nova = normalizar(textoNovo);
+        if (antiga.equals(nova)) return;
+        this.entradas.put(new Chave(nova, id), entidade);
+        this.entradas.remove(new Chave(antiga, id));
+    }
+
+    /**
+     * Procura as entidades cujo texto normalizado começa por um prefixo.
+     * @param prefixo O prefixo (é normalizado da mesma forma que os textos; vazio devolve as primeiras entidades).
+     * @param limite O número máximo de resultados.
+     * @return As entidades encontradas, por ordem alfabética do texto normalizado e depois por ID.
+     * @throws IllegalArgumentException se o limite for negativo.
+     */
+    List<E> procurarPrefixo(String prefixo, int limite) {
+        if (limite < 0) throw new IllegalArgumentException("O limite não pode ser negativo.");
+        String normalizado = normalizar(prefixo);
+        ConcurrentNavigableMap<Chave, E> intervalo = this.entradas.subMap(
+                new Chave(normalizado, Integer.MIN_VALUE), true,
+                new Chave(normalizado + Character.MAX_VALUE, Integer.MIN_VALUE), false);
+        List<E> resultado = new ArrayList<>(Math.min(limite, 64));
+        for (E entidade : intervalo.values()) {
+            if (resultado.size() == limite) break;
+            resultado.add(entidade);
+        }
+        return resultado;
+    }
+
+    /**
+     * Obtém o número de entradas.
+     * @return O número de entidades indexadas.
+     */
+    int tamanho() {
+        return this.entradas.size();
+    }
+
+    /**
+     * Normaliza um texto para comparação: minúsculas, sem acentos nem outros diacríticos
+     * ("Conceição" e "conceicao" ficam iguais), sem espaços nas pontas e com cada sequência de
+     * espaços reduzida a um único espaço.
+     * <p>
+     * Os textos só com caracteres ASCII e letras do Latin-1 (o caso de quase todos os nomes
+     * portugueses) são normalizados numa única passagem, com uma tabela; os restantes passam pela
+     * decomposição Unicode completa, que dá o mesmo resultado.
+     *
+     * @param texto O texto a normalizar.
+     * @return A forma normalizada (vazia para {@code null}).
+     */
+    static String normalizar(String texto) {
+        if (texto == null) return "";
+        StringBuilder sb = new StringBuilder(texto.length());
+        boolean espaco = false;
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c >= 0x80) {
+                if (c < PRIMEIRA_LETRA_LATIN1 || c > 0xFF) return normalizarUnicode(texto);
+                c = SEM_ACENTO_LATIN1[c - PRIMEIRA_LETRA_LATIN1];
+            }
+            if (c <= ' ' || c == 0x7F) {
+                espaco = sb.length() > 0;
+            } else {
+                if (espaco) sb.append(' ');
+                espaco = false;
+                sb.append(Character.toLowerCase(c));
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Normalização completa, para textos com caracteres fora do Latin-1: a decomposição NFD separa
+     * cada letra acentuada da letra base e das marcas, que são descartadas.
+     */
+    private static String normalizarUnicode(String texto) {
+        String decomposto = Normalizer.normalize(texto, Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(decomposto.length());
+        boolean espaco = false;
+        for (int i = 0; i < decomposto.length(); i++) {
+            char c = decomposto.charAt(i);
+            if (ehMarca(c)) continue;
+            if (Character.isWhitespace(c) || Character.isISOControl(c)) {
+                espaco = sb.length() > 0;
+            } else {
+                if (espaco) sb.append(' ');
+                espaco = false;
+                sb.append(c);
+            }
+        }
+        return sb.toString().toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean ehMarca(char c) {
+        int tipo = Character.getType(c);
+        return tipo == Character.NON_SPACING_MARK || tipo == Character.COMBINING_SPACING_MARK
+                || tipo == Character.ENCLOSING_MARK;
+    }
+
+    /**
+     * A chave de uma entrada: o texto normalizado e, para distinguir entidades com o mesmo texto, o ID.
+     */
+    private static final class Chave implements Comparable<Chave> {
+        private final String texto;
+        private final int id;
+
+        Chave(String texto, int id) {
+            this.texto = texto;
+            this.id = id;
+        }
+
+        @Override
+        public int compareTo(Chave outra) {
+            int c = this.texto.compareTo(outra.texto);
+            return c != 0 ? c : Integer.compare(this.id, outra.id);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Chave)) return false;
+            Chave outra = (Chave) o;
+            return this.id == outra.id && this.texto.equals(outra.texto);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * this.texto.hashCode() + this.id;
+        }
+    }
+}
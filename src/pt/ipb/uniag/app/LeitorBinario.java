@@ -0,0 +1,150 @@
+package pt.ipb.uniag.app;// Ficheiro: src/pt.ipb.uniag.app.LeitorBinario.java
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Descodificador binário com buffer sobre um canal NIO, simétrico de {@link EscritorBinario}.
+ * <p>
+ * Os tamanhos lidos do próprio canal ({@link #lerTexto()}, {@link #lerContagem(int)}) são validados
+ * antes de qualquer reserva de memória: não podem exceder os bytes que ainda restam num canal de
+ * tamanho conhecido ({@link SeekableByteChannel}), nem {@value #TAMANHO_MAXIMO_TEXTO} bytes num texto.
+ * Um ficheiro corrompido resulta assim numa {@link IOException} e não num {@link OutOfMemoryError}.
+ *
+ * @author Luis Enrique
+ * @version 1.8
+ * @since 2026-10-18
+ */
+final class LeitorBinario {
+
+    /** O tamanho máximo de um texto, em bytes. */
+    static final int TAMANHO_MAXIMO_TEXTO = 1 << 24;
+
+    private final ReadableByteChannel canal;
+    private final ByteBuffer buffer;
+    private byte[] auxiliar;
+
+    /**
+     * Constrói o leitor.
+     * @param canal O canal de origem.
+     * @param tamanhoBuffer O tamanho do buffer intermédio, em bytes.
+     */
+    LeitorBinario(ReadableByteChannel canal, int tamanhoBuffer) {
+        this.canal = canal;
+        this.buffer = ByteBuffer.allocateDirect(tamanhoBuffer);
+        this.buffer.flip(); // começa vazio
+        this.auxiliar = new byte[256];
+    }
+
+    /** @return O próximo byte, com sinal. */
+    int lerByte() throws IOException {
+        garantir(Byte.BYTES);
+        return this.buffer.get();
+    }
+
+    /** @return O próximo inteiro de 32 bits. */
+    int lerInt() throws IOException {
+        garantir(Integer.BYTES);
+        return this.buffer.getInt();
+    }
+
+    /** @return O próximo inteiro de 64 bits. */
+    long lerLong() throws IOException {
+        garantir(Long.BYTES);
+        return this.buffer.getLong();
+    }
+
+    /** @return O próximo {@code double}. */
+    double lerDouble() throws IOException {
+        garantir(Double.BYTES);
+        return this.buffer.getDouble();
+    }
+
+    /**
+     * Lê um texto escrito por {@link EscritorBinario#escreverTexto(String)}.
+     * @return O texto lido.
+     * @throws IOException se o canal terminar a meio ou o tamanho for inválido.
+     */
+    String lerTexto() throws IOException {
+        int tamanho = lerInt();
+        if (tamanho < 0 || tamanho > TAMANHO_MAXIMO_TEXTO || tamanho > disponiveis()) {
+            throw new IOException("Tamanho de texto inválido: " + tamanho);
+        }
+        if (tamanho > this.auxiliar.length) {
+            this.auxiliar = new byte[Math.max(tamanho, this.auxiliar.length * 2)];
+        }
+        lerBytes(this.auxiliar, tamanho);
+        return new String(this.auxiliar, 0, tamanho, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Lê o número de elementos que se seguem no canal (por exemplo, para reservar a capacidade de
+     * uma coleção), validando-o contra os bytes que ainda restam.
+     * @param bytesPorElemento O número mínimo de bytes de cada elemento (positivo).
+     * @return O número de elementos.
+     * @throws IOException se o canal terminar a meio ou o número for negativo ou maior do que os
+     *         bytes restantes permitem.
+     */
+    int lerContagem(int bytesPorElemento) throws IOException {
+        int contagem = lerInt();
+        if (contagem < 0 || (long) contagem * bytesPorElemento > disponiveis()) {
+            throw new IOException("Número de elementos inválido: " + contagem);
+        }
+        return contagem;
+    }
+
+    /**
+     * Lê um número exato de bytes para o início de um array.
+     * @param destino O array de destino.
+     * @param tamanho O número de bytes a ler.
+     * @throws IOException se o canal terminar antes de serem lidos todos os bytes.
+     */
+    void lerBytes(byte[] destino, int tamanho) throws IOException {
+        int lidos = 0;
+        while (lidos < tamanho) {
+            garantir(1);
+            int bloco = Math.min(tamanho - lidos, this.buffer.remaining());
+            this.buffer.get(destino, lidos, bloco);
+            lidos += bloco;
+        }
+    }
+
+    /**
+     * Indica se ainda existem bytes por ler, lendo mais do canal se necessário.
+     * @return {@code true} se o canal ainda não terminou.
+     * @throws IOException se a leitura do canal falhar.
+     */
+    boolean temMais() throws IOException {
+        if (this.buffer.hasRemaining()) return true;
+        this.buffer.clear();
+        int lidos = this.canal.read(this.buffer);
+        this.buffer.flip();
+        return lidos > 0 || (lidos == 0 && temMais());
+    }
+
+    /**
+     * Obtém o número de bytes que ainda restam: os do buffer e, num canal de tamanho conhecido, os
+     * que faltam ler do canal.
+     */
+    private long disponiveis() throws IOException {
+        if (!(this.canal instanceof SeekableByteChannel)) return Long.MAX_VALUE;
+        SeekableByteChannel ficheiro = (SeekableByteChannel) this.canal;
+        return this.buffer.remaining() + Math.max(0, ficheiro.size() - ficheiro.position());
+    }
+
+    private void garantir(int bytes) throws IOException {
+        if (this.buffer.remaining() >= bytes) return;
+        this.buffer.compact();
+        while (this.buffer.position() < bytes) {
+            if (this.canal.read(this.buffer) < 0) {
+                this.buffer.flip();
+                throw new EOFException("Fim inesperado dos dados.");
+            }
+        }
+        this.buffer.flip();
+    }
+}
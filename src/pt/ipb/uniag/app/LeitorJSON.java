@@ -0,0 +1,179 @@
+package pt.ipb.uniag.app;// Ficheiro: src/pt.ipb.uniag.app.LeitorJSON.java
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Analisador de JSON para os pedidos recebidos pelo {@link ServidorUNIAG}.
+ * <p>
+ * Os objetos são devolvidos como {@link Map} (pela ordem dos campos), as listas como {@link List},
+ * os números inteiros como {@link Long}, os restantes números como {@link Double}, e os textos,
+ * valores lógicos e {@code null} como os tipos Java correspondentes.
+ *
+ * @author Luis Enrique
+ * @version 1.8
+ * @since 2026-10-18
+ */
+final class LeitorJSON {
+
+    private static final int PROFUNDIDADE_MAXIMA = 64;
+
+    private final String texto;
+    private int pos;
+
+    private LeitorJSON(String texto) {
+        this.texto = texto;
+    }
+
+    /**
+     * Analisa um documento JSON completo.
+     * @param texto O documento.
+     * @return O valor do documento.
+     * @throws IllegalArgumentException se o documento não for JSON válido.
+     */
+    static Object ler(String texto) {
+        LeitorJSON leitor = new LeitorJSON(texto);
+        Object valor = leitor.valor(0);
+        leitor.espacos();
+        if (leitor.pos != texto.length()) throw leitor.erro("texto a mais depois do valor");
+        return valor;
+    }
+
+    private Object valor(int profundidade) {
+        if (profundidade > PROFUNDIDADE_MAXIMA) throw erro("demasiados níveis");
+        espacos();
+        if (this.pos >= this.texto.length()) throw erro("fim inesperado");
+        char c = this.texto.charAt(this.pos);
+        switch (c) {
+            case '{': return objeto(profundidade);
+            case '[': return lista(profundidade);
+            case '"': return texto();
+            case 't': palavra("true"); return Boolean.TRUE;
+            case 'f': palavra("false"); return Boolean.FALSE;
+            case 'n': palavra("null"); return null;
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) return numero();
+                throw erro("carácter inesperado '" + c + "'");
+        }
+    }
+
+    private Map<String, Object> objeto(int profundidade) {
+        Map<String, Object> objeto = new LinkedHashMap<>();
+        this.pos++;
+        espacos();
+        if (consumir('}')) return objeto;
+        do {
+            espacos();
+            if (this.pos >= this.texto.length() || this.texto.charAt(this.pos) != '"') throw erro("nome de campo esperado");
+            String nome = texto();
+            espacos();
+            if (!consumir(':')) throw erro("':' esperado");
+            objeto.put(nome, valor(profundidade + 1));
+            espacos();
+        } while (consumir(','));
+        if (!consumir('}')) throw erro("',' ou '}' esperado");
+        return objeto;
+    }
+
+    private List<Object> lista(int profundidade) {
+        List<Object> lista = new ArrayList<>();
+        this.pos++;
+        espacos();
+        if (consumir(']')) return lista;
+        do {
+            lista.add(valor(profundidade + 1));
+            espacos();
+        } while (consumir(','));
+        if (!consumir(']')) throw erro("',' ou ']' esperado");
+        return lista;
+    }
+
+    private String texto() {
+        this.pos++; // a aspa inicial
+        StringBuilder sb = null;
+        int inicio = this.pos;
+        while (true) {
+            if (this.pos >= this.texto.length()) throw erro("texto por fechar");
+            char c = this.texto.charAt(this.pos);
+            if (c == '"') {
+                String parte = this.texto.substring(inicio, this.pos++);
+                return sb == null ? parte : sb.append(parte).toString();
+            }
+            if (c < 0x20) throw erro("carácter de controlo num texto");
+            if (c != '\\') {
+                this.pos++;
+                continue;
+            }
+            if (sb == null) sb = new StringBuilder();
+            sb.append(this.texto, inicio, this.pos);
+            if (++this.pos >= this.texto.length()) throw erro("texto por fechar");
+            char escape = this.texto.charAt(this.pos++);
+            switch (escape) {
+                case '"': case '\\': case '/': sb.append(escape); break;
+                case 'b': sb.append('\b'); break;
+                case 'f': sb.append('\f'); break;
+                case 'n': sb.append('\n'); break;
+                case 'r': sb.append('\r'); break;
+                case 't': sb.append('\t'); break;
+                case 'u':
+                    if (this.pos + 4 > this.texto.length()) throw erro("escape \\u incompleto");
+                    try {
+                        sb.append((char) Integer.parseInt(this.texto.substring(this.pos, this.pos + 4), 16));
+                    } catch (NumberFormatException e) {
+                        throw erro("escape \\u inválido");
+                    }
+                    this.pos += 4;
+                    break;
+                default: throw erro("escape inválido '\\" + escape + "'");
+            }
+            inicio = this.pos;
+        }
+    }
+
+    private Object numero() {
+        int inicio = this.pos;
+        boolean inteiro = true;
+        while (this.pos < this.texto.length()) {
+            char c = this.texto.charAt(this.pos);
+            if (c == '.' || c == 'e' || c == 'E') {
+                inteiro = false;
+            } else if (!(c == '-' || c == '+' || (c >= '0' && c <= '9'))) {
+                break;
+            }
+            this.pos++;
+        }
+        String numero = this.texto.substring(inicio, this.pos);
+        try {
+            return inteiro ? (Object) Long.parseLong(numero) : (Object) Double.parseDouble(numero);
+        } catch (NumberFormatException e) {
+            throw erro("número inválido '" + numero + "'");
+        }
+    }
+
+    private void palavra(String palavra) {
+        if (!this.texto.startsWith(palavra, this.pos)) throw erro("valor inválido");
+        this.pos += palavra.length();
+    }
+
+    private boolean consumir(char c) {
+        if (this.pos < this.texto.length() && this.texto.charAt(this.pos) == c) {
+            this.pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private void espacos() {
+        while (this.pos < this.texto.length()) {
+            char c = this.texto.charAt(this.pos);
+            if (c != ' ' && c != '\t' && c != '\n' && c != '\r') return;
+            this.pos++;
+        }
+    }
+
+    private IllegalArgumentException erro(String motivo) {
+        return new IllegalArgumentException("JSON inválido na posição " + this.pos + ": " + motivo + ".");
+    }
+}
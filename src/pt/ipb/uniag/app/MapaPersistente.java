@@ -0,0 +1,280 @@
+package pt.ipb.uniag.app;// Ficheiro: src/pt.ipb.uniag.app.MapaPersistente.java
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Mapa imutável de chaves {@code int} para valores, com partilha estrutural.
+ * <p>
+ * É uma árvore de prefixos de 32 ramos (HAMT): cada nível usa 5 bits da chave, a começar pelos
+ * menos significativos, e cada nó guarda apenas os ramos ocupados, indicados por um mapa de bits.
+ * {@link #com(int, Object)} e {@link #sem(int)} devolvem um novo mapa que copia apenas os nós do
+ * caminho até à chave (no máximo 7), partilhando todos os outros com o mapa anterior, que continua
+ * válido e inalterado. Por ser imutável, pode ser lido por qualquer número de threads sem bloqueios.
+ *
+ * @param <V> O tipo dos valores.
+ * @author Luis Enrique
+ * @version 1.8
+ * @since 2026-10-18
+ */
+final class MapaPersistente<V> implements Iterable<V> {
+
+    private static final int BITS = 5;
+    private static final int MASCARA = (1 << BITS) - 1;
+
+    private static final MapaPersistente<Object> VAZIO = new MapaPersistente<>(null, 0);
+
+    private final No raiz;
+    private final int tamanho;
+
+    private MapaPersistente(No raiz, int tamanho) {
+        this.raiz = raiz;
+        this.tamanho = tamanho;
+    }
+
+    /**
+     * Obtém o mapa vazio.
+     * @param <V> O tipo dos valores.
+     * @return O mapa vazio (partilhado).
+     */
+    @SuppressWarnings("unchecked")
+    static <V> MapaPersistente<V> vazio() {
+        return (MapaPersistente<V>) VAZIO;
+    }
+
+    /**
+     * Obtém o número de entradas.
+     * @return O número de chaves presentes.
+     */
+    int tamanho() { return this.tamanho; }
+
+    /**
+     * Obtém o valor associado a uma chave.
+     * @param chave A chave.
+     * @return O valor, ou {@code null} se a chave não existir.
+     */
+    @SuppressWarnings("unchecked")
+    V obter(int chave) {
+        No no = this.raiz;
+        for (int deslocamento = 0; no != null; deslocamento += BITS) {
+            int bit = 1 << ((chave >>> deslocamento) & MASCARA);
+            if ((no.mapa & bit) == 0) return null;
+            Object filho = no.filhos[Integer.bitCount(no.mapa & (bit - 1))];
+            if (filho instanceof Folha) {
+                Folha folha = (Folha) filho;
+                return folha.chave == chave ? (V) folha.valor : null;
+            }
+            no = (No) filho;
+        }
+        return null;
+    }
+
+    /**
+     * Devolve um mapa com a chave associada ao valor indicado.
+     * @param chave A chave.
+     * @param valor O valor (não nulo).
+     * @return O novo mapa (ou este, se a chave já tinha exatamente este valor).
+     */
+    MapaPersistente<V> com(int chave, V valor) {
+        if (this.raiz == null) {
+            return new MapaPersistente<>(new No(1 << (chave & MASCARA), new Object[] {new Folha(chave, valor)}), 1);
+        }
+        boolean[] nova = new boolean[1];
+        No raiz = inserir(this.raiz, chave, valor, 0, nova);
+        return raiz == this.raiz ? this : new MapaPersistente<>(raiz, nova[0] ? this.tamanho + 1 : this.tamanho);
+    }
+
+    /**
+     * Devolve um mapa sem a chave indicada.
+     * @param chave A chave a retirar.
+     * @return O novo mapa (ou este, se a chave não existia).
+     */
+    MapaPersistente<V> sem(int chave) {
+        if (this.raiz == null) return this;
+        Object raiz = remover(this.raiz, chave, 0, true);
+        if (raiz == this.raiz) return this;
+        return this.tamanho == 1 ? vazio() : new MapaPersistente<>((No) raiz, this.tamanho - 1);
+    }
+
+    /**
+     * Percorre os valores, por uma ordem fixa para o mesmo conjunto de chaves.
+     * @return Um iterador sobre os valores.
+     */
+    @Override
+    public Iterator<V> iterator() {
+        return new Iterador<>(this.raiz);
+    }
+
+    /**
+     * Percorre todas as entradas.
+     * @param consumidor Recebe cada chave e o respetivo valor.
+     */
+    @SuppressWarnings("unchecked")
+    void paraCada(ConsumidorEntrada<? super V> consumidor) {
+        if (this.raiz != null) percorrer(this.raiz, (ConsumidorEntrada<Object>) consumidor);
+    }
+
+    // --- IMPLEMENTAÇÃO ---
+
+    private static No inserir(No no, int chave, Object valor, int deslocamento, boolean[] nova) {
+        int bit = 1 << ((chave >>> deslocamento) & MASCARA);
+        int indice = Integer.bitCount(no.mapa & (bit - 1));
+        if ((no.mapa & bit) == 0) {
+            nova[0] = true;
+            return no.comFilhoInserido(indice, bit, new Folha(chave, valor));
+        }
+        Object filho = no.filhos[indice];
+        if (filho instanceof No) {
+            No novo = inserir((No) filho, chave, valor, deslocamento + BITS, nova);
+            return novo == filho ? no : no.comFilho(indice, novo);
+        }
+        Folha folha = (Folha) filho;
+        if (folha.chave == chave) {
+            return folha.valor == valor ? no : no.comFilho(indice, new Folha(chave, valor));
+        }
+        nova[0] = true;
+        return no.comFilho(indice, juntar(folha, new Folha(chave, valor), deslocamento + BITS));
+    }
+
+    /**
+     * Cria o menor ramo que separa duas folhas com o mesmo prefixo até ao nível anterior.
+     * Duas chaves diferentes separam-se sempre, no máximo, no sétimo nível.
+     */
+    private static No juntar(Folha a, Folha b, int deslocamento) {
+        int ia = (a.chave >>> deslocamento) & MASCARA;
+        int ib = (b.chave >>> deslocamento) & MASCARA;
+        if (ia == ib) return new No(1 << ia, new Object[] {juntar(a, b, deslocamento + BITS)});
+        return new No((1 << ia) | (1 << ib), ia < ib ? new Object[] {a, b} : new Object[] {b, a});
+    }
+
+    /**
+     * Remove uma chave de um nó.
+     * @return O próprio nó se a chave não existia; caso contrário, o nó resultante, uma {@link Folha}
+     *         (se o ramo ficou só com uma folha e pode subir) ou {@code null} (se ficou vazio).
+     */
+    private static Object remover(No no, int chave, int deslocamento, boolean raiz) {
+        int bit = 1 << ((chave >>> deslocamento) & MASCARA);
+        if ((no.mapa & bit) == 0) return no;
+        int indice = Integer.bitCount(no.mapa & (bit - 1));
+        Object filho = no.filhos[indice];
+        if (filho instanceof No) {
+            Object novo = remover((No) filho, chave, deslocamento + BITS, false);
+            if (novo == filho) return no;
+            if (novo instanceof Folha && no.filhos.length == 1 && !raiz) return novo;
+            return no.comFilho(indice, novo);
+        }
+        if (((Folha) filho).chave != chave) return no;
+        if (no.filhos.length == 1) return null;
+        if (no.filhos.length == 2 && !raiz && no.filhos[1 - indice] instanceof Folha) return no.filhos[1 - indice];
+        return no.semFilho(indice, bit);
+    }
+
+    private static void percorrer(No no, ConsumidorEntrada<Object> consumidor) {
+        for (Object filho : no.filhos) {
+            if (filho instanceof Folha) {
+                consumidor.aceitar(((Folha) filho).chave, ((Folha) filho).valor);
+            } else {
+                percorrer((No) filho, consumidor);
+            }
+        }
+    }
+
+    /**
+     * Recebe as entradas percorridas por {@link #paraCada(ConsumidorEntrada)}.
+     * @param <V> O tipo dos valores.
+     */
+    @FunctionalInterface
+    interface ConsumidorEntrada<V> {
+        void aceitar(int chave, V valor);
+    }
+
+    /** Um nó interno: mapa de bits dos ramos ocupados e os respetivos filhos ({@link No} ou {@link Folha}). */
+    private static final class No {
+        final int mapa;
+        final Object[] filhos;
+
+        No(int mapa, Object[] filhos) {
+            this.mapa = mapa;
+            this.filhos = filhos;
+        }
+
+        No comFilho(int indice, Object filho) {
+            Object[] copia = this.filhos.clone();
+            copia[indice] = filho;
+            return new No(this.mapa, copia);
+        }
+
+        No comFilhoInserido(int indice, int bit, Object filho) {
+            Object[] copia = new Object[this.filhos.length + 1];
+            System.arraycopy(this.filhos, 0, copia, 0, indice);
+            copia[indice] = filho;
+            System.arraycopy(this.filhos, indice, copia, indice + 1, this.filhos.length - indice);
+            return new No(this.mapa | bit, copia);
+        }
+
+        No semFilho(int indice, int bit) {
+            Object[] copia = new Object[this.filhos.length - 1];
+            System.arraycopy(this.filhos, 0, copia, 0, indice);
+            System.arraycopy(this.filhos, indice + 1, copia, indice, copia.length - indice);
+            return new No(this.mapa & ~bit, copia);
+        }
+    }
+
+    /** Uma entrada do mapa. */
+    private static final class Folha {
+        final int chave;
+        final Object valor;
+
+        Folha(int chave, Object valor) {
+            this.chave = chave;
+            this.valor = valor;
+        }
+    }
+
+    /** Percurso em profundidade com uma pilha explícita. */
+    private static final class Iterador<V> implements Iterator<V> {
+        private final ArrayDeque<No> nos = new ArrayDeque<>();
+        private final ArrayDeque<Integer> posicoes = new ArrayDeque<>();
+        private Folha proxima;
+
+        Iterador(No raiz) {
+            if (raiz != null) {
+                this.nos.push(raiz);
+                this.posicoes.push(0);
+            }
+            avancar();
+        }
+
+        private void avancar() {
+            this.proxima = null;
+            while (!this.nos.isEmpty()) {
+                No no = this.nos.peek();
+                int posicao = this.posicoes.pop();
+                if (posicao == no.filhos.length) {
+                    this.nos.pop();
+                    continue;
+                }
+                this.posicoes.push(posicao + 1);
+                Object filho = no.filhos[posicao];
+                if (filho instanceof Folha) {
+                    this.proxima = (Folha) filho;
+                    return;
+                }
+                this.nos.push((No) filho);
+                this.posicoes.push(0);
+            }
+        }
+
+        @Override public boolean hasNext() { return this.proxima != null; }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V next() {
+            if (this.proxima == null) throw new NoSuchElementException();
+            V valor = (V) this.proxima.valor;
+            avancar();
+            return valor;
+        }
+    }
+}
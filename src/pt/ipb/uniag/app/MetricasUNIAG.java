@@ -0,0 +1,287 @@
+package pt.ipb.uniag.app;// Ficheiro: src/pt.ipb.uniag.app.MetricasUNIAG.java
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Métricas de funcionamento de uma {@link UNIAG} ({@link UNIAG#getMetricas()}): a latência das
+ * operações mais pesadas, o número de membros e de projetos e o tamanho do maior projeto.
+ * <p>
+ * A latência de cada {@link Operacao} é registada num {@link HistogramaLatencias}, com contadores
+ * repartidos por faixas, pelo que as operações concorrentes quase nunca disputam o mesmo contador.
+ * Desativadas (por omissão), as operações só leem um campo {@code volatile} e incrementam o seu
+ * contador. Para as ativar desde o arranque, sem alterar código, basta iniciar a JVM com
+ * {@code -Duniag.metricas=true}.
+ * <p>
+ * Ler o relógio custa dezenas de nanossegundos, tanto quanto uma associação inteira, pelo que as
+ * latências são medidas numa amostra aleatória de uma em cada {@link #getAmostragem()} operações
+ * (por omissão {@value #AMOSTRAGEM_OMISSAO}, ou {@code -Duniag.metricas.amostragem=N}; com 1, são
+ * todas medidas). Os percentis de uma amostra uniforme estimam os de todas as operações; a contagem
+ * de cada resumo é a das operações medidas.
+ * <p>
+ * O número total de cada operação ({@link #getContagem(Operacao)}) é exato e está sempre a ser
+ * contado, mesmo com as métricas desativadas, num {@link LongAdder} por operação: somado ao longo
+ * do tempo, dá o débito real de cada operação, que a amostra não dá.
+ * <p>
+ * As métricas podem ser lidas por código ({@link #getLatencias()}), em texto ({@link #getRelatorio()})
+ * ou por JMX ({@link #registarJMX(String)}).
+ *
+ * @author Luis Enrique
+ * @version 1.8
+ * @since 2026-10-18
+ */
+public final class MetricasUNIAG implements MetricasUNIAGMXBean {
+
+    /**
+     * As operações cuja latência é medida.
+     */
+    public enum Operacao {
+        /** {@link UNIAG#associaMembroProjeto(int, int)}. */
+        ASSOCIAR("associaMembroProjeto"),
+        /** {@link UNIAG#associaMembrosProjetos(int[], int[])}. */
+        ASSOCIAR_EM_LOTE("associaMembrosProjetos"),
+        /** {@link UNIAG#removerMembro(int)}. */
+        REMOVER_MEMBRO("removerMembro"),
+        /** {@link UNIAG#removerProjeto(int)}. */
+        REMOVER_PROJETO("removerProjeto"),
+        /** {@link UNIAG#distribuirVerbaPorInvestigador(int)}. */
+        DISTRIBUIR_VERBA("distribuirVerbaPorInvestigador"),
+        /** {@link UNIAG#distribuirTodasAsVerbas()}. */
+        DISTRIBUIR_TODAS("distribuirTodasAsVerbas");
+
+        private final String nome;
+
+        Operacao(String nome) {
+            this.nome = nome;
+        }
+
+        /**
+         * Obtém o nome do método medido.
+         * @return O nome da operação.
+         */
+        public String getNome() { return nome; }
+    }
+
+    private static final Operacao[] OPERACOES = Operacao.values();
+    private static final int AMOSTRAGEM_OMISSAO = 64;
+    private static final int AMOSTRAGEM_MAXIMA = 1 << 20;
+
+    private final IntSupplier numeroMembros;
+    private final IntSupplier numeroProjetos;
+    private final IntSupplier maiorProjeto;
+    private volatile boolean ativa;
+    private volatile int mascaraAmostragem;              // amostragem - 1
+    private volatile HistogramaLatencias[] histogramas;   // criados na primeira ativação
+    private final LongAdder[] contagens = new LongAdder[OPERACOES.length];
+    private ObjectName nomeJmx;
+
+    /**
+     * Constrói as métricas de uma UNIAG, ativas se a propriedade {@code uniag.metricas} for {@code true}.
+     * @param numeroMembros Conta os membros registados.
+     * @param numeroProjetos Conta os projetos registados.
+     * @param maiorProjeto Calcula, percorrendo os projetos, o número de participantes do maior.
+     */
+    MetricasUNIAG(IntSupplier numeroMembros, IntSupplier numeroProjetos, IntSupplier maiorProjeto) {
+        this.numeroMembros = numeroMembros;
+        this.numeroProjetos = numeroProjetos;
+        this.maiorProjeto = maiorProjeto;
+        for (int i = 0; i < this.contagens.length; i++) {
+            this.contagens[i] = new LongAdder();
+        }
+        setAmostragem(Integer.getInteger("uniag.metricas.amostragem", AMOSTRAGEM_OMISSAO));
+        if (Boolean.getBoolean("uniag.metricas")) setAtiva(true);
+    }
+
+    @Override
+    public boolean isAtiva() {
+        return this.ativa;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Os histogramas são criados na primeira ativação.
+     */
+    @Override
+    public synchronized void setAtiva(boolean ativa) {
+        if (ativa && this.histogramas == null) {
+            HistogramaLatencias[] novos = new HistogramaLatencias[OPERACOES.length];
+            for (int i = 0; i < novos.length; i++) {
+                novos[i] = new HistogramaLatencias();
+            }
+            this.histogramas = novos;
+        }
+        this.ativa = ativa;
+    }
+
+    @Override
+    public int getAmostragem() {
+        return this.mascaraAmostragem + 1;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @throws IllegalArgumentException se a amostragem não estiver entre 1 e 2^20.
+     */
+    @Override
+    public void setAmostragem(int amostragem) {
+        if (amostragem < 1 || amostragem > AMOSTRAGEM_MAXIMA) {
+            throw new IllegalArgumentException("A amostragem tem de estar entre 1 e " + AMOSTRAGEM_MAXIMA + ": " + amostragem);
+        }
+        this.mascaraAmostragem = Integer.highestOneBit(amostragem) - 1;
+    }
+
+    @Override
+    public int getNumeroMembros() {
+        return this.numeroMembros.getAsInt();
+    }
+
+    @Override
+    public int getNumeroProjetos() {
+        return this.numeroProjetos.getAsInt();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Calculado a cada leitura, percorrendo todos os projetos (O(n)) sem os bloquear, para que as
+     * associações não tenham de o acompanhar nem esperar pela leitura. É aproximado: as associações
+     * em curso durante o percurso podem ou não ser contadas.
+     */
+    @Override
+    public int getMaiorProjeto() {
+        return this.maiorProjeto.getAsInt();
+    }
+
+    /**
+     * Obtém as latências de uma operação.
+     * @param operacao A operação.
+     * @return O resumo das latências (vazio se as métricas nunca foram ativadas).
+     */
+    public ResumoLatencias getLatencias(Operacao operacao) {
+        HistogramaLatencias[] histogramas = this.histogramas;
+        return histogramas == null ? new ResumoLatencias(operacao.getNome(), 0, 0, 0, 0, 0, 0, 0)
+                : histogramas[operacao.ordinal()].resumir(operacao.getNome());
+    }
+
+    /**
+     * Obtém o número de vezes que uma operação foi executada (todas, e não só as medidas), desde a
+     * criação da UNIAG ou do último {@link #reiniciar()}.
+     * @param operacao A operação.
+     * @return O número de execuções.
+     */
+    public long getContagem(Operacao operacao) {
+        return this.contagens[operacao.ordinal()].sum();
+    }
+
+    @Override
+    public Map<String, Long> getContagens() {
+        Map<String, Long> contagens = new LinkedHashMap<>();
+        for (Operacao operacao : OPERACOES) {
+            contagens.put(operacao.getNome(), getContagem(operacao));
+        }
+        return contagens;
+    }
+
+    @Override
+    public Map<String, ResumoLatencias> getLatencias() {
+        Map<String, ResumoLatencias> latencias = new LinkedHashMap<>();
+        for (Operacao operacao : OPERACOES) {
+            latencias.put(operacao.getNome(), getLatencias(operacao));
+        }
+        return latencias;
+    }
+
+    @Override
+    public String getRelatorio() {
+        StringBuilder sb = new StringBuilder(1024);
+        sb.append("Métricas da UNIAG (").append(this.ativa ? "ativas" : "desativadas")
+                .append(", latências medidas em 1 de cada ").append(getAmostragem()).append(" operações)\n");
+        sb.append("Membros: ").append(getNumeroMembros()).append(" | Projetos: ").append(getNumeroProjetos())
+                .append(" | Maior projeto: ").append(getMaiorProjeto()).append(" participantes\n");
+        sb.append(String.format(Locale.ROOT, "%-32s %12s %10s %10s %10s %10s %10s %12s %14s%n",
+                "Operação (tempos em µs)", "N", "média", "p50", "p90", "p99", "p99.9", "máx", "total"));
+        for (Operacao operacao : OPERACOES) {
+            sb.append(getLatencias(operacao))
+                    .append(String.format(Locale.ROOT, " %14d", getContagem(operacao))).append('\n');
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public void reiniciar() {
+        for (LongAdder contagem : this.contagens) {
+            contagem.reset();
+        }
+        HistogramaLatencias[] histogramas = this.histogramas;
+        if (histogramas != null) {
+            for (HistogramaLatencias histograma : histogramas) {
+                histograma.reiniciar();
+            }
+        }
+    }
+
+    /**
+     * Regista estas métricas no servidor de MBeans da plataforma, com o nome
+     * {@code pt.ipb.uniag:type=MetricasUNIAG,name=<nome>}.
+     * @param nome O nome que distingue esta UNIAG das outras registadas.
+     * @return O nome do MBean registado.
+     * @throws IllegalStateException se já estiverem registadas ou o registo falhar.
+     */
+    public synchronized ObjectName registarJMX(String nome) {
+        if (this.nomeJmx != null) throw new IllegalStateException("As métricas já estão registadas como " + this.nomeJmx + ".");
+        try {
+            ObjectName objeto = new ObjectName("pt.ipb.uniag:type=MetricasUNIAG,name=" + ObjectName.quote(nome));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, objeto);
+            this.nomeJmx = objeto;
+            return objeto;
+        } catch (JMException e) {
+            throw new IllegalStateException("Não foi possível registar as métricas no JMX: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Retira estas métricas do servidor de MBeans, se estiverem registadas.
+     */
+    public synchronized void removerJMX() {
+        if (this.nomeJmx == null) return;
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(this.nomeJmx);
+        } catch (JMException e) {
+            // Já não estava registado.
+        }
+        this.nomeJmx = null;
+    }
+
+    // --- REGISTO (usado pela UNIAG) ---
+
+    /**
+     * Marca o início de uma operação.
+     * @return O instante atual, ou 0 se a operação não for medida (métricas desativadas ou fora da amostra).
+     */
+    long inicio() {
+        if (!this.ativa) return 0;
+        int mascara = this.mascaraAmostragem;
+        if (mascara != 0 && (ThreadLocalRandom.current().nextInt() & mascara) != 0) return 0;
+        return System.nanoTime();
+    }
+
+    /**
+     * Regista o fim de uma operação iniciada com {@link #inicio()}: conta-a sempre e, se foi medida,
+     * regista a sua latência.
+     * @param operacao A operação.
+     * @param inicio O valor devolvido por {@link #inicio()}.
+     */
+    void registar(Operacao operacao, long inicio) {
+        this.contagens[operacao.ordinal()].increment();
+        // Um início diferente de 0 garante que os histogramas já foram criados.
+        if (inicio != 0) this.histogramas[operacao.ordinal()].registar(System.nanoTime() - inicio);
+    }
+}
@@ -0,0 +1,80 @@
+package pt.ipb.uniag.app;// Ficheiro: src/pt.ipb.uniag.app.MetricasUNIAGMXBean.java
+
+import java.util.Map;
+
+/**
+ * A interface de gestão (JMX) das {@link MetricasUNIAG}, visível em ferramentas como o JConsole ou
+ * o VisualVM depois de {@link MetricasUNIAG#registarJMX(String)}.
+ *
+ * @author Luis Enrique
+ * @version 1.8
+ * @since 2026-10-18
+ */
+public interface MetricasUNIAGMXBean {
+
+    /**
+     * Indica se as métricas estão a ser recolhidas.
+     * @return {@code true} se estiverem ativas.
+     */
+    boolean isAtiva();
+
+    /**
+     * Ativa ou desativa a recolha das métricas.
+     * @param ativa {@code true} para recolher.
+     */
+    void setAtiva(boolean ativa);
+
+    /**
+     * Obtém a amostragem das latências: é medida uma em cada N operações.
+     * @return N.
+     */
+    int getAmostragem();
+
+    /**
+     * Define a amostragem das latências (arredondada para baixo a uma potência de 2).
+     * @param amostragem N, para medir uma em cada N operações (1 para medir todas).
+     */
+    void setAmostragem(int amostragem);
+
+    /**
+     * Obtém o número de membros registados.
+     * @return O número de membros.
+     */
+    int getNumeroMembros();
+
+    /**
+     * Obtém o número de projetos registados.
+     * @return O número de projetos.
+     */
+    int getNumeroProjetos();
+
+    /**
+     * Obtém o número de participantes do maior projeto.
+     * @return O maior número de participantes.
+     */
+    int getMaiorProjeto();
+
+    /**
+     * Obtém o número de execuções de cada operação (todas, e não só as medidas), contadas mesmo com
+     * as métricas desativadas.
+     * @return As contagens, indexadas pelo nome da operação.
+     */
+    Map<String, Long> getContagens();
+
+    /**
+     * Obtém as latências de cada operação medida.
+     * @return Os resumos, indexados pelo nome da operação.
+     */
+    Map<String, ResumoLatencias> getLatencias();
+
+    /**
+     * Obtém todas as métricas em texto, numa tabela.
+     * @return O relatório.
+     */
+    String getRelatorio();
+
+    /**
+     * Esvazia os histogramas das latências e recomeça as contagens.
+     */
+    void reiniciar();
+}
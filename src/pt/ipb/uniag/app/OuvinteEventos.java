@@ -0,0 +1,21 @@
+package pt.ipb.uniag.app;// Ficheiro: src/pt.ipb.uniag.app.OuvinteEventos.java
+
+import java.util.List;
+
+/**
+ * Recetor dos eventos de uma {@link UNIAG}, subscrito num {@link PublicadorEventos}.
+ *
+ * @author Luis Enrique
+ * @version 1.8
+ * @since 2026-10-18
+ */
+@FunctionalInterface
+public interface OuvinteEventos {
+
+    /**
+     * Recebe um lote de eventos, pela ordem de publicação. É invocado sempre pela mesma thread do
+     * publicador, nunca em simultâneo; enquanto demora, os eventos seguintes acumulam-se no buffer.
+     * @param lote Os eventos (lista não modificável, que pode ser guardada).
+     */
+    void aoReceber(List<EventoUNIAG> lote);
+}
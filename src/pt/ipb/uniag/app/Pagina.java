@@ -0,0 +1,58 @@
+package pt.ipb.uniag.app;// Ficheiro: src/pt.ipb.uniag.app.Pagina.java
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Uma página de uma listagem por ordem de ID ({@link UNIAG#listarMembros(int, int)},
+ * {@link UNIAG#listarProjetos(int, int)}).
+ * <p>
+ * A página seguinte é pedida com o {@linkplain #getCursor() cursor} desta página, que é um ID e
+ * não uma posição: as entidades criadas ou removidas entretanto não deslocam as páginas seguintes,
+ * e nenhuma entidade que exista durante todo o percurso é saltada ou repetida.
+ *
+ * @param <T> O tipo das entidades da página.
+ * @author Luis Enrique
+ * @version 1.8
+ * @since 2026-10-18
+ */
+public final class Pagina<T> {
+
+    private final List<T> itens;
+    private final int cursor;
+
+    /**
+     * Constrói uma página.
+     * @param itens As entidades da página, por ordem crescente de ID.
+     * @param cursor O cursor da página seguinte, ou {@code 0} se esta for a última.
+     */
+    Pagina(List<T> itens, int cursor) {
+        this.itens = Collections.unmodifiableList(itens);
+        this.cursor = cursor;
+    }
+
+    /**
+     * Obtém as entidades da página.
+     * @return Uma lista não modificável, por ordem crescente de ID (pode ter menos entidades do que
+     *         o limite pedido, ou nenhuma, sem ser a última página).
+     */
+    public List<T> getItens() { return itens; }
+
+    /**
+     * Obtém o cursor a indicar no pedido da página seguinte.
+     * @return O cursor, ou {@code 0} se esta for a última página.
+     */
+    public int getCursor() { return cursor; }
+
+    /**
+     * Indica se há mais entidades depois desta página.
+     * @return {@code true} se esta for a última página.
+     */
+    public boolean isUltima() { return cursor == 0; }
+
+    /** @return Um resumo textual da página. */
+    @Override
+    public String toString() {
+        return itens.size() + " entidade(s)" + (isUltima() ? ", última página" : ", seguinte depois do ID " + cursor);
+    }
+}
@@ -0,0 +1,239 @@
+package pt.ipb.uniag.app;// Ficheiro: src/pt.ipb.uniag.app.PersistenciaUNIAG.java
+
+import pt.ipb.uniag.modelo.*;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Guarda e carrega o estado completo de uma {@link UNIAG} num ficheiro binário compacto.
+ * <p>
+ * O formato (big-endian) é:
+ * <pre>
+ *   cabeçalho:  int MAGICO, int VERSAO, long próximo ID de membro, long próximo ID de projeto,
+ *               long LSN do último registo do diário contido no ficheiro
+ *   membros:    (byte tipo, int id, texto nome, [long saldo em cêntimos se for Investigador])* byte 0
+ *   projetos:   (byte 1, int id, texto título, double financiamento, int n, int idMembro × n)* byte 0
+ * </pre>
+ * onde cada texto é um {@code int} com o tamanho seguido dos bytes UTF-8. As associações são
+ * guardadas pela ordem dos participantes de cada projeto, que é a ordem usada na distribuição de verbas.
+ * Os próximos IDs são os dos {@link AlocadorIds} da UNIAG; os ficheiros da versão 1 guardavam-nos
+ * como {@code int} e continuam a poder ser carregados. O LSN permite a
+ * {@link DiarioOperacoes#reproduzir(Path, UNIAG)} saltar as operações que o ficheiro já contém,
+ * caso o diário não tenha chegado a ser reiniciado depois de guardar; os ficheiros das versões 1 e
+ * 2 não o têm e são carregados com LSN 0.
+ * <p>
+ * A escrita é feita para um ficheiro temporário, que só substitui o destino depois de estar
+ * completo e sincronizado com o disco.
+ *
+ * @author Luis Enrique
+ * @version 1.8
+ * @since 2026-10-18
+ */
+public final class PersistenciaUNIAG {
+
+    private static final int MAGICO = 0x554E4941; // "UNIA"
+    private static final int VERSAO = 3;
+    private static final int VERSAO_SEM_LSN = 2;
+    private static final int VERSAO_IDS_INT = 1;
+    private static final int TAMANHO_BUFFER = 1 << 20;
+
+    private static final int FIM = 0;
+    private static final int TIPO_INVESTIGADOR = 1;
+    private static final int TIPO_COLABORADOR = 2;
+    private static final int TIPO_VISITANTE = 3;
+    private static final int PROJETO = 1;
+
+    /**
+     * Construtor privado para prevenir a instanciação desta classe utilitária.
+     */
+    private PersistenciaUNIAG() {
+        // Esta classe não deve ser instanciada.
+    }
+
+    /**
+     * Guarda todos os membros, projetos e associações de uma UNIAG num ficheiro.
+     * <p>
+     * Os participantes de cada projeto são lidos com o bloqueio do projeto adquirido. Se houver
+     * alterações em curso noutras threads, o ficheiro reflete cada entidade num estado válido,
+     * mas não necessariamente todas no mesmo instante. O LSN guardado é lido antes das entidades,
+     * pelo que nunca inclui uma operação que o ficheiro não contenha.
+     *
+     * @param uniag A unidade a guardar.
+     * @param ficheiro O caminho do ficheiro de destino (substituído se existir).
+     * @throws IOException se a escrita falhar.
+     */
+    public static void guardar(UNIAG uniag, Path ficheiro) throws IOException {
+        Path temporario = ficheiro.resolveSibling(ficheiro.getFileName() + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            DiarioOperacoes diario = uniag.getDiario();
+            long lsnIncluido = diario != null ? diario.getUltimoLsn() : uniag.getLsnIncluido();
+            EscritorBinario saida = new EscritorBinario(canal, TAMANHO_BUFFER);
+            saida.escreverInt(MAGICO);
+            saida.escreverInt(VERSAO);
+            saida.escreverLong(uniag.getIdsMembros().getProximoLivre());
+            saida.escreverLong(uniag.getIdsProjetos().getProximoLivre());
+            saida.escreverLong(lsnIncluido);
+
+            for (MembroInvestigador membro : uniag.getMembros()) {
+                escreverMembro(saida, membro);
+            }
+            saida.escreverByte(FIM);
+
+            for (Projeto projeto : uniag.getProjetos()) {
+                int[] participantes = uniag.comBloqueioProjeto(projeto, PersistenciaUNIAG::idsParticipantes);
+                saida.escreverByte(PROJETO);
+                saida.escreverInt(projeto.getId());
+                saida.escreverTexto(projeto.getTitulo());
+                saida.escreverDouble(projeto.getFinanciamento());
+                saida.escreverInt(participantes.length);
+                for (int idMembro : participantes) {
+                    saida.escreverInt(idMembro);
+                }
+            }
+            saida.escreverByte(FIM);
+
+            saida.descarregar();
+            canal.force(true);
+        }
+        Files.move(temporario, ficheiro, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Carrega uma UNIAG a partir de um ficheiro criado por {@link #guardar(UNIAG, Path)}.
+     * <p>
+     * Os alocadores de IDs da nova UNIAG são restaurados a partir do ficheiro (e nunca ficam abaixo
+     * dos IDs restaurados), para que as entidades criadas a seguir não colidam com eles.
+     *
+     * @param ficheiro O caminho do ficheiro a ler.
+     * @return Uma nova UNIAG com o estado guardado.
+     * @throws IOException se a leitura falhar ou o ficheiro não estiver no formato esperado.
+     */
+    public static UNIAG carregar(Path ficheiro) throws IOException {
+        UNIAG uniag = new UNIAG();
+        try (FileChannel canal = FileChannel.open(ficheiro, StandardOpenOption.READ)) {
+            LeitorBinario entrada = new LeitorBinario(canal, TAMANHO_BUFFER);
+            if (entrada.lerInt() != MAGICO) throw new IOException("O ficheiro não é um estado guardado da UNIAG.");
+            int versao = entrada.lerInt();
+            if (versao != VERSAO && versao != VERSAO_SEM_LSN && versao != VERSAO_IDS_INT) {
+                throw new IOException("Versão de ficheiro não suportada: " + versao);
+            }
+            uniag.getIdsMembros().avancarPara(versao == VERSAO_IDS_INT ? entrada.lerInt() : entrada.lerLong());
+            uniag.getIdsProjetos().avancarPara(versao == VERSAO_IDS_INT ? entrada.lerInt() : entrada.lerLong());
+            if (versao == VERSAO) {
+                long lsnIncluido = entrada.lerLong();
+                if (lsnIncluido < 0) throw new IOException("LSN do diário inválido: " + lsnIncluido);
+                uniag.setLsnIncluido(lsnIncluido);
+            }
+
+            int tipo;
+            while ((tipo = entrada.lerByte()) != FIM) {
+                MembroInvestigador membro = lerMembro(entrada, tipo);
+                uniag.registarMembro(membro);
+            }
+
+            while (entrada.lerByte() != FIM) {
+                Projeto projeto = new Projeto(entrada.lerInt(), entrada.lerTexto(), entrada.lerDouble());
+                uniag.registarProjeto(projeto);
+                int participantes = entrada.lerContagem(Integer.BYTES);
+                projeto.reservarCapacidade(participantes);
+                for (int i = 0; i < participantes; i++) {
+                    int idMembro = entrada.lerInt();
+                    if (!uniag.associaMembroProjeto(idMembro, projeto.getId())) {
+                        throw new IOException("Participante inválido no projeto " + projeto.getId() + ": " + idMembro);
+                    }
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Dados inválidos no ficheiro: " + e.getMessage(), e);
+        }
+        return uniag;
+    }
+
+    /**
+     * Obtém o código binário do tipo concreto de um membro.
+     * @param membro O membro.
+     * @return O código do tipo, usado também por {@link DiarioOperacoes}.
+     * @throws IllegalArgumentException se o tipo de membro não for suportado.
+     */
+    static int tipoDe(MembroInvestigador membro) {
+        if (membro instanceof Investigador) return TIPO_INVESTIGADOR;
+        if (membro instanceof InvColaborador) return TIPO_COLABORADOR;
+        if (membro instanceof Visitante) return TIPO_VISITANTE;
+        throw new IllegalArgumentException("Tipo de membro não suportado: " + membro.getClass().getName());
+    }
+
+    /**
+     * Cria um membro do tipo indicado com um ID já atribuído e saldo zero.
+     * @param tipo O código do tipo (ver {@link #tipoDe(MembroInvestigador)}).
+     * @param id O ID do membro.
+     * @param nome O nome do membro.
+     * @return O novo membro.
+     * @throws IllegalArgumentException se o código de tipo for desconhecido.
+     */
+    static MembroInvestigador novoMembro(int tipo, int id, String nome) {
+        switch (tipo) {
+            case TIPO_INVESTIGADOR: return new Investigador(id, nome, 0);
+            case TIPO_COLABORADOR: return new InvColaborador(id, nome);
+            case TIPO_VISITANTE: return new Visitante(id, nome);
+            default: throw new IllegalArgumentException("Tipo de membro desconhecido: " + tipo);
+        }
+    }
+
+    /**
+     * Obtém a classe concreta correspondente a um código de tipo de membro.
+     * @param tipo O código do tipo (ver {@link #tipoDe(MembroInvestigador)}).
+     * @return A classe do membro.
+     * @throws IllegalArgumentException se o código de tipo for desconhecido.
+     */
+    static Class<? extends MembroInvestigador> classeDoTipo(int tipo) {
+        switch (tipo) {
+            case TIPO_INVESTIGADOR: return Investigador.class;
+            case TIPO_COLABORADOR: return InvColaborador.class;
+            case TIPO_VISITANTE: return Visitante.class;
+            default: throw new IllegalArgumentException("Tipo de membro desconhecido: " + tipo);
+        }
+    }
+
+    /**
+     * Obtém os IDs dos participantes de um projeto, pela ordem de participação.
+     * Deve ser invocado com o bloqueio do projeto adquirido.
+     * @param projeto O projeto.
+     * @return Um novo array com os IDs.
+     */
+    static int[] idsParticipantes(Projeto projeto) {
+        int[] ids = new int[projeto.getMembrosParticipantes().size()];
+        int i = 0;
+        for (MembroInvestigador membro : projeto.getMembrosParticipantes()) {
+            ids[i++] = membro.getId();
+        }
+        return ids;
+    }
+
+    private static void escreverMembro(EscritorBinario saida, MembroInvestigador membro) throws IOException {
+        try {
+            saida.escreverByte(tipoDe(membro));
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        saida.escreverInt(membro.getId());
+        saida.escreverTexto(membro.getNome());
+        if (membro instanceof Investigador) {
+            saida.escreverLong(((Investigador) membro).getSaldoCentimos());
+        }
+    }
+
+    private static MembroInvestigador lerMembro(LeitorBinario entrada, int tipo) throws IOException {
+        if (tipo == TIPO_INVESTIGADOR) {
+            int id = entrada.lerInt();
+            String nome = entrada.lerTexto();
+            return new Investigador(id, nome, entrada.lerLong());
+        }
+        return novoMembro(tipo, entrada.lerInt(), entrada.lerTexto());
+    }
+}
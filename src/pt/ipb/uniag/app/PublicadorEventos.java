@@ -0,0 +1,297 @@
+package pt.ipb.uniag.app;// Ficheiro: src/pt.ipb.uniag.app.PublicadorEventos.java
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Publica as alterações de uma {@link UNIAG} ({@link UNIAG#setEventos(PublicadorEventos)}) como
+ * {@link EventoUNIAG}, entregues em lotes aos {@link OuvinteEventos} subscritos.
+ * <p>
+ * As operações da UNIAG não chamam os ouvintes: copiam os campos do evento para um buffer circular
+ * limitado, pré-alocado e sem bloqueios (várias threads a publicar, uma a consumir), e seguem.
+ * Cada posição do buffer tem um número de sequência que indica se está livre ou preenchida: quem
+ * publica reserva a posição seguinte com um único {@code compareAndSet} e marca-a como preenchida
+ * depois de copiar os campos. Uma thread dedicada ({@code uniag-eventos}) recolhe as posições
+ * preenchidas, cria os eventos e entrega-os aos ouvintes em lotes de até {@value #LOTE_MAXIMO}.
+ * <p>
+ * Quando os ouvintes não acompanham o ritmo e o buffer enche, aplica-se a {@link PoliticaExcesso}:
+ * esperar que haja espaço (as operações da UNIAG ficam mais lentas, mas nenhum evento se perde)
+ * ou descartar os eventos novos, contando-os ({@link #getDescartados()}). Como os eventos são
+ * publicados com os bloqueios das entidades adquiridos, com a política {@link PoliticaExcesso#ESPERAR}
+ * os ouvintes não devem alterar a UNIAG, para não esperarem por uma operação que está, por sua vez,
+ * à espera deles.
+ *
+ * @author Luis Enrique
+ * @version 1.8
+ * @since 2026-10-18
+ */
+public final class PublicadorEventos implements AutoCloseable {
+
+    /**
+     * Define o que acontece a um evento publicado com o buffer cheio.
+     */
+    public enum PoliticaExcesso {
+        /** A operação espera que os ouvintes libertem espaço (contrapressão). */
+        ESPERAR,
+        /** O evento é descartado e contado, e a operação continua sem esperar. */
+        DESCARTAR
+    }
+
+    private static final int LOTE_MAXIMO = 1024;
+    private static final int ESPERAS_ATIVAS = 100;
+    private static final long PAUSA_MAXIMA_NS = 1_000_000;
+    /** Marca na {@link #cauda} de que o publicador foi fechado: nenhuma posição é reservada depois. */
+    private static final long FECHADO = 1L << 62;
+
+    private final int capacidade;
+    private final int mascara;
+    private final PoliticaExcesso politica;
+
+    /** Por posição: {@code p} se livre para a publicação {@code p}, {@code p + 1} se preenchida por ela. */
+    private final AtomicLongArray sequencias;
+    private final byte[] tipos;
+    private final int[] idsMembros;
+    private final int[] idsProjetos;
+    private final double[] valores;
+    private final String[] textos;
+
+    private final AtomicLong cauda = new AtomicLong();   // a próxima posição a reservar (com FECHADO depois de fechar)
+    private long cabeca;                                  // a próxima posição a recolher (só a thread de entrega)
+    private volatile long entregues;                      // escrito apenas pela thread de entrega
+    private final LongAdder descartados = new LongAdder();
+
+    private final CopyOnWriteArrayList<OuvinteEventos> ouvintes = new CopyOnWriteArrayList<>();
+    private final Thread entrega;
+    private volatile boolean aDormir;
+    private volatile boolean fechado;
+
+    /**
+     * Constrói o publicador e inicia a sua thread de entrega.
+     * @param capacidade O número de eventos que o buffer guarda (arredondado para uma potência de 2).
+     * @param politica O que fazer quando o buffer está cheio.
+     * @throws IllegalArgumentException se a capacidade não estiver entre 2 e 2^30.
+     */
+    public PublicadorEventos(int capacidade, PoliticaExcesso politica) {
+        if (capacidade < 2 || capacidade > 1 << 30) {
+            throw new IllegalArgumentException("A capacidade tem de estar entre 2 e 2^30: " + capacidade);
+        }
+        this.politica = Objects.requireNonNull(politica, "A política não pode ser nula.");
+        this.capacidade = Integer.highestOneBit(capacidade - 1) << 1;
+        this.mascara = this.capacidade - 1;
+        this.sequencias = new AtomicLongArray(this.capacidade);
+        for (int i = 0; i < this.capacidade; i++) {
+            this.sequencias.set(i, i);
+        }
+        this.tipos = new byte[this.capacidade];
+        this.idsMembros = new int[this.capacidade];
+        this.idsProjetos = new int[this.capacidade];
+        this.valores = new double[this.capacidade];
+        this.textos = new String[this.capacidade];
+        this.entrega = new Thread(this::cicloEntrega, "uniag-eventos");
+        this.entrega.setDaemon(true);
+        this.entrega.start();
+    }
+
+    /**
+     * Subscreve um ouvinte, que recebe os eventos publicados a partir daqui.
+     * @param ouvinte O ouvinte.
+     */
+    public void subscrever(OuvinteEventos ouvinte) {
+        this.ouvintes.add(Objects.requireNonNull(ouvinte, "O ouvinte não pode ser nulo."));
+    }
+
+    /**
+     * Cancela a subscrição de um ouvinte.
+     * @param ouvinte O ouvinte.
+     * @return {@code true} se estava subscrito.
+     */
+    public boolean cancelar(OuvinteEventos ouvinte) {
+        return this.ouvintes.remove(ouvinte);
+    }
+
+    /**
+     * Obtém a capacidade do buffer.
+     * @return O número de eventos que o buffer guarda.
+     */
+    public int getCapacidade() { return capacidade; }
+
+    /**
+     * Obtém a política aplicada com o buffer cheio.
+     * @return A política.
+     */
+    public PoliticaExcesso getPolitica() { return politica; }
+
+    /**
+     * Obtém o número de eventos publicados (aceites no buffer) até agora.
+     * @return O número de eventos publicados.
+     */
+    public long getPublicados() { return this.cauda.get() & ~FECHADO; }
+
+    /**
+     * Obtém o número de eventos já entregues aos ouvintes.
+     * @return O número de eventos entregues.
+     */
+    public long getEntregues() { return this.entregues; }
+
+    /**
+     * Obtém o número de eventos descartados (buffer cheio com {@link PoliticaExcesso#DESCARTAR}, ou
+     * publicados depois de fechar).
+     * @return O número de eventos descartados.
+     */
+    public long getDescartados() { return this.descartados.sum(); }
+
+    /**
+     * Fecha o publicador: os eventos já publicados são entregues antes de a thread de entrega
+     * terminar, e os publicados depois são descartados.
+     * <p>
+     * A marca de fecho é posta na própria {@code cauda}, de forma atómica: um evento ou reservou a
+     * sua posição antes (e é entregue, mesmo que ainda esteja a ser copiado) ou é descartado.
+     */
+    @Override
+    public void close() {
+        if (this.fechado) return;
+        this.cauda.accumulateAndGet(FECHADO, (cauda, marca) -> cauda | marca);
+        this.fechado = true; // depois da marca: quem vê fechado já vê a cauda final
+        LockSupport.unpark(this.entrega);
+        if (Thread.currentThread() == this.entrega) return; // fechado por um ouvinte: termina no fim do lote
+        try {
+            this.entrega.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // --- PUBLICAÇÃO ---
+
+    /**
+     * Publica um evento. Invocado pela UNIAG com os bloqueios das entidades envolvidas adquiridos,
+     * para que os eventos de cada entidade sigam a ordem das operações.
+     * @param tipo O tipo do evento.
+     * @param idMembro O ID do membro, ou 0.
+     * @param idProjeto O ID do projeto, ou 0.
+     * @param valor O valor em euros, ou 0.
+     * @param texto O nome ou o título, ou {@code null}.
+     */
+    void publicar(EventoUNIAG.Tipo tipo, int idMembro, int idProjeto, double valor, String texto) {
+        long posicao;
+        int indice;
+        int esperas = 0;
+        while (true) {
+            posicao = this.cauda.get();
+            if ((posicao & FECHADO) != 0) {
+                this.descartados.increment();
+                return;
+            }
+            indice = (int) posicao & this.mascara;
+            long diferenca = this.sequencias.get(indice) - posicao;
+            if (diferenca == 0) {
+                if (this.cauda.compareAndSet(posicao, posicao + 1)) break;
+            } else if (diferenca < 0) {
+                // A posição ainda tem um evento por recolher: o buffer está cheio.
+                if (!esperarEspaco(esperas++)) {
+                    this.descartados.increment();
+                    return;
+                }
+            }
+            // diferenca > 0: outra thread reservou esta posição entretanto.
+        }
+        this.tipos[indice] = (byte) tipo.ordinal();
+        this.idsMembros[indice] = idMembro;
+        this.idsProjetos[indice] = idProjeto;
+        this.valores[indice] = valor;
+        this.textos[indice] = texto;
+        // Escrita volátil: tem de ser vista antes da leitura de aDormir (ver cicloEntrega).
+        this.sequencias.set(indice, posicao + 1);
+        if (this.aDormir) {
+            this.aDormir = false; // as publicações seguintes já não precisam de a acordar
+            LockSupport.unpark(this.entrega);
+        }
+    }
+
+    /**
+     * Espera um pouco que os ouvintes libertem espaço no buffer, conforme a política.
+     * @param esperas O número de esperas já feitas por esta publicação.
+     * @return {@code false} se o evento deve ser descartado.
+     */
+    private boolean esperarEspaco(int esperas) {
+        // Um ouvinte que altere a UNIAG esperaria por si próprio.
+        if (this.politica == PoliticaExcesso.DESCARTAR || this.fechado || Thread.currentThread() == this.entrega) {
+            return false;
+        }
+        LockSupport.unpark(this.entrega);
+        if (esperas < ESPERAS_ATIVAS) {
+            Thread.onSpinWait();
+        } else {
+            LockSupport.parkNanos(this, Math.min(PAUSA_MAXIMA_NS, 1_000L * (esperas - ESPERAS_ATIVAS + 1)));
+        }
+        return true;
+    }
+
+    // --- ENTREGA ---
+
+    private void cicloEntrega() {
+        int vazios = 0;
+        while (true) {
+            // Lido antes de recolher: depois de fechar, há ainda uma recolha que apanha tudo o que foi publicado.
+            boolean terminar = this.fechado;
+            List<EventoUNIAG> lote = recolher();
+            if (!lote.isEmpty()) {
+                entregar(lote);
+                vazios = 0;
+                continue;
+            }
+            if (terminar) {
+                // Só termina depois de recolher todas as posições reservadas antes de fechar: quem
+                // as reservou está ainda a copiar o evento.
+                if (this.cabeca == (this.cauda.get() & ~FECHADO)) return;
+                Thread.onSpinWait();
+                continue;
+            }
+            if (++vazios < ESPERAS_ATIVAS) {
+                Thread.onSpinWait();
+                continue;
+            }
+            this.aDormir = true;
+            // Verificado depois de anunciar que vai dormir: quem publicar a seguir vê aDormir e acorda-a.
+            if (!haEventos() && !this.fechado) LockSupport.parkNanos(this, PAUSA_MAXIMA_NS);
+            this.aDormir = false;
+        }
+    }
+
+    private boolean haEventos() {
+        return this.sequencias.get((int) this.cabeca & this.mascara) == this.cabeca + 1;
+    }
+
+    private List<EventoUNIAG> recolher() {
+        List<EventoUNIAG> lote = new ArrayList<>();
+        while (lote.size() < LOTE_MAXIMO && haEventos()) {
+            int indice = (int) this.cabeca & this.mascara;
+            lote.add(new EventoUNIAG(this.cabeca + 1, this.tipos[indice], this.idsMembros[indice],
+                    this.idsProjetos[indice], this.valores[indice], this.textos[indice]));
+            this.textos[indice] = null;
+            // Liberta a posição para a publicação que a vai ocupar na volta seguinte do buffer.
+            this.sequencias.lazySet(indice, this.cabeca + this.capacidade);
+            this.cabeca++;
+        }
+        return lote;
+    }
+
+    private void entregar(List<EventoUNIAG> lote) {
+        List<EventoUNIAG> vista = Collections.unmodifiableList(lote);
+        for (OuvinteEventos ouvinte : this.ouvintes) {
+            try {
+                ouvinte.aoReceber(vista);
+            } catch (RuntimeException e) {
+                System.err.println("Erro num ouvinte de eventos: " + e);
+            }
+        }
+        this.entregues += lote.size();
+    }
+}
@@ -0,0 +1,496 @@
+package pt.ipb.uniag.app;// Ficheiro: src/pt.ipb.uniag.app.RegistoIds.java
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Registo concorrente de entidades indexadas por um ID inteiro positivo, sem conversões para
+ * {@link Integer} nem nós por entrada.
+ * <p>
+ * Os IDs da aplicação são atribuídos sequencialmente a partir de 1, por isso as entidades são
+ * guardadas diretamente na posição do seu ID, em blocos de {@value #TAMANHO_BLOCO} posições
+ * ({@link AtomicReferenceArray}) criados à medida que são precisos. Cada entrada custa apenas uma
+ * referência no bloco, em vez do nó, do {@link Integer} e da posição na tabela de um
+ * {@link java.util.concurrent.ConcurrentHashMap}.
+ * <p>
+ * Um ID isolado, muito acima dos restantes (por exemplo, importado de um ficheiro), não cria um
+ * bloco inteiro: a zona do seu bloco fica num bloco esparso, com vetores ordenados só dos IDs
+ * ocupados, que passa a bloco completo quando chega a {@value #LIMITE_ESPARSO} entidades. A memória
+ * cresce assim com o número de entidades e não com o maior ID (além do diretório de blocos, com uma
+ * referência por cada {@value #TAMANHO_BLOCO} IDs).
+ * <p>
+ * As leituras não usam bloqueios e veem sempre a última escrita concluída de cada posição, como
+ * num {@code ConcurrentHashMap}; as escritas de IDs diferentes não se bloqueiam entre si. Apenas a
+ * criação de um bloco novo (uma vez por {@value #TAMANHO_BLOCO} IDs) e as escritas nos blocos
+ * esparsos, que são substituídos a cada escrita, são feitas com um bloqueio.
+ * Os percursos ({@link #valores()}) seguem a ordem crescente dos IDs e são fracamente consistentes.
+ * O mesmo acontece com as páginas ({@link #pagina(int, int, Class, List)}), que começam
+ * diretamente na posição do ID indicado.
+ *
+ * @param <E> O tipo das entidades.
+ * @author Luis Enrique
+ * @version 1.8
+ * @since 2026-10-18
+ */
+final class RegistoIds<E> {
+
+    private static final int BITS_BLOCO = 12;
+    /** O número de posições de cada bloco. */
+    static final int TAMANHO_BLOCO = 1 << BITS_BLOCO;
+    private static final int MASCARA_BLOCO = TAMANHO_BLOCO - 1;
+    /** O número de entidades a partir do qual um bloco esparso passa a bloco completo. */
+    static final int LIMITE_ESPARSO = 64;
+
+    /**
+     * Os blocos, indexados por {@code id >>> BITS_BLOCO}: um {@link AtomicReferenceArray} (completo)
+     * ou um {@link Esparso}. Substituído por um maior quando é preciso crescer.
+     */
+    private volatile AtomicReferenceArray<Object> blocos = new AtomicReferenceArray<>(16);
+    /** O maior índice de um bloco completo: o bloco seguinte também é criado completo. */
+    private int maiorBlocoCompleto = -1;
+    private final LongAdder tamanho = new LongAdder();
+    /** O maior ID alguma vez guardado: as páginas não procuram para lá dele. */
+    private final AtomicInteger maiorId = new AtomicInteger();
+    private final Object criacaoBlocos = new Object();
+
+    /**
+     * Obtém a entidade com um ID.
+     * @param id O ID.
+     * @return A entidade, ou {@code null} se não existir.
+     */
+    E obter(int id) {
+        Object bloco = bloco(id);
+        if (bloco instanceof AtomicReferenceArray) return completo(bloco).get(id & MASCARA_BLOCO);
+        return bloco == null ? null : esparso(bloco).obter(id);
+    }
+
+    /**
+     * Verifica se existe uma entidade com um ID.
+     * @param id O ID.
+     * @return {@code true} se existir.
+     */
+    boolean contem(int id) {
+        return obter(id) != null;
+    }
+
+    /**
+     * Guarda uma entidade, substituindo a que existir com o mesmo ID.
+     * @param id O ID (positivo).
+     * @param entidade A entidade (não nula).
+     * @return A entidade substituída, ou {@code null}.
+     * @throws IllegalArgumentException se o ID não for positivo.
+     */
+    E colocar(int id, E entidade) {
+        AtomicReferenceArray<E> bloco = blocoCompletoParaEscrita(id);
+        E anterior = bloco != null ? bloco.getAndSet(id & MASCARA_BLOCO, entidade)
+                : colocarComBloqueio(id, entidade, true);
+        if (anterior == null) this.tamanho.increment();
+        registarId(id);
+        return anterior;
+    }
+
+    /**
+     * Guarda uma entidade apenas se ainda não existir nenhuma com o mesmo ID.
+     * @param id O ID (positivo).
+     * @param entidade A entidade (não nula).
+     * @return A entidade já existente, ou {@code null} se a nova foi guardada.
+     * @throws IllegalArgumentException se o ID não for positivo.
+     */
+    E colocarSeAusente(int id, E entidade) {
+        AtomicReferenceArray<E> bloco = blocoCompletoParaEscrita(id);
+        if (bloco != null) {
+            int posicao = id & MASCARA_BLOCO;
+            do {
+                E existente = bloco.get(posicao);
+                if (existente != null) return existente;
+            } while (!bloco.compareAndSet(posicao, null, entidade));
+        } else {
+            E existente = colocarComBloqueio(id, entidade, false);
+            if (existente != null) return existente;
+        }
+        this.tamanho.increment();
+        registarId(id);
+        return null;
+    }
+
+    /**
+     * Retira a entidade com um ID.
+     * @param id O ID.
+     * @return A entidade retirada, ou {@code null} se não existia.
+     */
+    E remover(int id) {
+        Object bloco = bloco(id);
+        if (bloco == null) return null;
+        E anterior = bloco instanceof AtomicReferenceArray ? completo(bloco).getAndSet(id & MASCARA_BLOCO, null)
+                : removerComBloqueio(id);
+        if (anterior != null) this.tamanho.decrement();
+        return anterior;
+    }
+
+    /**
+     * Obtém o número de entidades.
+     * @return O número de entidades registadas.
+     */
+    int tamanho() {
+        return (int) this.tamanho.sum();
+    }
+
+    /**
+     * Obtém uma vista das entidades, por ordem crescente de ID. A vista não suporta alterações e
+     * divide-se por blocos em percursos paralelos ({@link Collection#parallelStream()}).
+     * @return A vista das entidades.
+     */
+    Collection<E> valores() {
+        return new Valores();
+    }
+
+    /**
+     * Recolhe uma página de entidades de um tipo com ID maior do que {@code depoisDe}, por ordem
+     * crescente de ID, sem percorrer as anteriores: a procura começa diretamente na posição
+     * {@code depoisDe + 1} e salta os blocos inexistentes.
+     * <p>
+     * O número de posições examinadas é limitado a {@code max(TAMANHO_BLOCO, 16 * limite)}, para que
+     * um tipo raro ou uma zona de IDs removidos não tornem uma página tão cara como um percurso
+     * completo: nesse caso a página fica incompleta (ou vazia) e o cursor devolvido aponta para a
+     * última posição examinada.
+     *
+     * @param depoisDe O ID a partir do qual procurar (exclusive; {@code 0} para o início).
+     * @param limite O número máximo de entidades a recolher (positivo).
+     * @param tipo O tipo das entidades pretendidas.
+     * @param destino A lista onde as entidades são acrescentadas.
+     * @param <T> O tipo das entidades pretendidas.
+     * @return O cursor da página seguinte (o último ID examinado ou recolhido), ou {@code 0} se o
+     *         fim do registo foi alcançado sem encontrar mais entidades do tipo.
+     */
+    <T> int pagina(int depoisDe, int limite, Class<T> tipo, List<? super T> destino) {
+        AtomicReferenceArray<Object> blocos = this.blocos;
+        long fimIds = Math.min((long) blocos.length() << BITS_BLOCO, this.maiorId.get() + 1L);
+        long orcamento = Math.max(TAMANHO_BLOCO, 16L * limite);
+        int recolhidas = 0;
+        int ultimo = depoisDe;
+        long id = depoisDe + 1L;
+        while (id < fimIds) {
+            if (orcamento <= 0) return (int) (id - 1);
+            Object atual = blocos.get((int) (id >>> BITS_BLOCO));
+            if (!(atual instanceof AtomicReferenceArray)) {
+                // Um bloco inexistente ou esparso: só as entidades existentes são examinadas.
+                long fimBloco = ((id >>> BITS_BLOCO) + 1) << BITS_BLOCO;
+                orcamento--;
+                if (atual != null) {
+                    Esparso<E> esparso = esparso(atual);
+                    for (int i = esparso.posicao((int) id); i < esparso.ids.length && orcamento > 0; i++) {
+                        E entidade = esparso.entidade(i);
+                        if (tipo.isInstance(entidade)) {
+                            if (recolhidas == limite) return ultimo;
+                            destino.add(tipo.cast(entidade));
+                            recolhidas++;
+                            ultimo = esparso.ids[i];
+                        }
+                        id = esparso.ids[i] + 1L;
+                        orcamento--;
+                    }
+                    if (orcamento <= 0) continue;
+                }
+                id = fimBloco;
+                continue;
+            }
+            AtomicReferenceArray<E> bloco = completo(atual);
+            for (int posicao = (int) (id & MASCARA_BLOCO); posicao < TAMANHO_BLOCO && orcamento > 0; posicao++) {
+                E entidade = bloco.get(posicao);
+                if (tipo.isInstance(entidade)) {
+                    // Com a página cheia, basta saber que existe mais uma para a página não ser a última.
+                    if (recolhidas == limite) return ultimo;
+                    destino.add(tipo.cast(entidade));
+                    recolhidas++;
+                    ultimo = (int) id;
+                }
+                id++;
+                orcamento--;
+            }
+        }
+        return 0;
+    }
+
+    // --- IMPLEMENTAÇÃO ---
+
+    private void registarId(int id) {
+        if (id > this.maiorId.get()) this.maiorId.accumulateAndGet(id, Math::max);
+    }
+
+    private Object bloco(int id) {
+        if (id <= 0) return null;
+        AtomicReferenceArray<Object> blocos = this.blocos;
+        int indice = id >>> BITS_BLOCO;
+        return indice < blocos.length() ? blocos.get(indice) : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private AtomicReferenceArray<E> completo(Object bloco) {
+        return (AtomicReferenceArray<E>) bloco;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Esparso<E> esparso(Object bloco) {
+        return (Esparso<E>) bloco;
+    }
+
+    /**
+     * Obtém o bloco completo onde escrever um ID, criando-o se for o seguinte aos já completos.
+     * @return O bloco, ou {@code null} se a escrita tiver de ser feita num bloco esparso.
+     */
+    private AtomicReferenceArray<E> blocoCompletoParaEscrita(int id) {
+        if (id <= 0) throw new IllegalArgumentException("O ID tem de ser positivo: " + id);
+        Object bloco = bloco(id);
+        if (bloco instanceof AtomicReferenceArray) return completo(bloco);
+        if (bloco != null) return null;
+        synchronized (this.criacaoBlocos) {
+            int indice = id >>> BITS_BLOCO;
+            bloco = diretorio(indice).get(indice);
+            if (bloco instanceof AtomicReferenceArray) return completo(bloco);
+            if (bloco != null || indice > this.maiorBlocoCompleto + 1) return null;
+            return criarBlocoCompleto(indice, null);
+        }
+    }
+
+    /** Obtém o diretório com lugar para um índice de bloco, aumentando-o se for preciso (com o bloqueio adquirido). */
+    private AtomicReferenceArray<Object> diretorio(int indice) {
+        AtomicReferenceArray<Object> blocos = this.blocos;
+        if (indice >= blocos.length()) {
+            // Crescer para o dobro (ou o necessário): os blocos existentes são partilhados.
+            int novoTamanho = Math.max(indice + 1, (int) Math.min(Integer.MAX_VALUE, 2L * blocos.length()));
+            AtomicReferenceArray<Object> maiores = new AtomicReferenceArray<>(novoTamanho);
+            for (int i = 0; i < blocos.length(); i++) {
+                maiores.set(i, blocos.get(i));
+            }
+            this.blocos = blocos = maiores;
+        }
+        return blocos;
+    }
+
+    /** Cria um bloco completo, com as entidades de um bloco esparso (com o bloqueio adquirido). */
+    private AtomicReferenceArray<E> criarBlocoCompleto(int indice, Esparso<E> esparso) {
+        AtomicReferenceArray<E> bloco = new AtomicReferenceArray<>(TAMANHO_BLOCO);
+        if (esparso != null) {
+            for (int i = 0; i < esparso.ids.length; i++) {
+                bloco.set(esparso.ids[i] & MASCARA_BLOCO, esparso.entidade(i));
+            }
+        }
+        this.blocos.set(indice, bloco);
+        this.maiorBlocoCompleto = Math.max(this.maiorBlocoCompleto, indice);
+        return bloco;
+    }
+
+    /**
+     * Guarda uma entidade num bloco esparso (ou no bloco completo que entretanto o substituiu).
+     * @param substituir {@code true} para substituir a entidade existente com o mesmo ID.
+     * @return A entidade existente com o mesmo ID, ou {@code null}.
+     */
+    private E colocarComBloqueio(int id, E entidade, boolean substituir) {
+        synchronized (this.criacaoBlocos) {
+            int indice = id >>> BITS_BLOCO;
+            AtomicReferenceArray<Object> blocos = diretorio(indice);
+            Object bloco = blocos.get(indice);
+            if (bloco instanceof AtomicReferenceArray) {
+                AtomicReferenceArray<E> completo = completo(bloco);
+                return substituir ? completo.getAndSet(id & MASCARA_BLOCO, entidade)
+                        : completo.compareAndExchange(id & MASCARA_BLOCO, null, entidade);
+            }
+            Esparso<E> atual = bloco == null ? Esparso.vazio() : esparso(bloco);
+            int posicao = atual.posicao(id);
+            boolean existe = posicao < atual.ids.length && atual.ids[posicao] == id;
+            E anterior = existe ? atual.entidade(posicao) : null;
+            if (existe && !substituir) return anterior;
+            Esparso<E> novo = existe ? atual.substituir(posicao, entidade) : atual.inserir(posicao, id, entidade);
+            if (novo.ids.length >= LIMITE_ESPARSO) {
+                criarBlocoCompleto(indice, novo);
+            } else {
+                blocos.set(indice, novo);
+            }
+            return anterior;
+        }
+    }
+
+    /** Retira uma entidade de um bloco esparso (ou do bloco completo que entretanto o substituiu). */
+    private E removerComBloqueio(int id) {
+        synchronized (this.criacaoBlocos) {
+            int indice = id >>> BITS_BLOCO;
+            AtomicReferenceArray<Object> blocos = this.blocos;
+            Object bloco = blocos.get(indice);
+            if (bloco instanceof AtomicReferenceArray) return completo(bloco).getAndSet(id & MASCARA_BLOCO, null);
+            Esparso<E> atual = esparso(bloco);
+            int posicao = atual.posicao(id);
+            if (posicao == atual.ids.length || atual.ids[posicao] != id) return null;
+            blocos.set(indice, atual.ids.length == 1 ? null : atual.remover(posicao));
+            return atual.entidade(posicao);
+        }
+    }
+
+    /**
+     * Um bloco com poucas entidades: os IDs ocupados, por ordem crescente, e as suas entidades.
+     * Nunca é alterado; cada escrita substitui-o por outro no diretório.
+     */
+    private static final class Esparso<E> {
+        private static final Esparso<?> VAZIO = new Esparso<>(new int[0], new Object[0]);
+
+        final int[] ids;
+        private final Object[] entidades;
+
+        private Esparso(int[] ids, Object[] entidades) {
+            this.ids = ids;
+            this.entidades = entidades;
+        }
+
+        @SuppressWarnings("unchecked")
+        static <E> Esparso<E> vazio() {
+            return (Esparso<E>) VAZIO;
+        }
+
+        /** A posição do primeiro ID maior ou igual a {@code id}. */
+        int posicao(int id) {
+            int posicao = Arrays.binarySearch(this.ids, id);
+            return posicao >= 0 ? posicao : -posicao - 1;
+        }
+
+        @SuppressWarnings("unchecked")
+        E entidade(int posicao) {
+            return (E) this.entidades[posicao];
+        }
+
+        E obter(int id) {
+            int posicao = Arrays.binarySearch(this.ids, id);
+            return posicao >= 0 ? entidade(posicao) : null;
+        }
+
+        Esparso<E> substituir(int posicao, E entidade) {
+            Object[] entidades = this.entidades.clone();
+            entidades[posicao] = entidade;
+            return new Esparso<>(this.ids, entidades);
+        }
+
+        Esparso<E> inserir(int posicao, int id, E entidade) {
+            int n = this.ids.length;
+            int[] ids = new int[n + 1];
+            Object[] entidades = new Object[n + 1];
+            System.arraycopy(this.ids, 0, ids, 0, posicao);
+            System.arraycopy(this.entidades, 0, entidades, 0, posicao);
+            ids[posicao] = id;
+            entidades[posicao] = entidade;
+            System.arraycopy(this.ids, posicao, ids, posicao + 1, n - posicao);
+            System.arraycopy(this.entidades, posicao, entidades, posicao + 1, n - posicao);
+            return new Esparso<>(ids, entidades);
+        }
+
+        Esparso<E> remover(int posicao) {
+            int n = this.ids.length;
+            int[] ids = new int[n - 1];
+            Object[] entidades = new Object[n - 1];
+            System.arraycopy(this.ids, 0, ids, 0, posicao);
+            System.arraycopy(this.entidades, 0, entidades, 0, posicao);
+            System.arraycopy(this.ids, posicao + 1, ids, posicao, n - posicao - 1);
+            System.arraycopy(this.entidades, posicao + 1, entidades, posicao, n - posicao - 1);
+            return new Esparso<>(ids, entidades);
+        }
+    }
+
+    /** A vista das entidades devolvida por {@link #valores()}. */
+    private final class Valores extends AbstractCollection<E> {
+        @Override public Iterator<E> iterator() { return new Percurso(0, RegistoIds.this.blocos.length()); }
+
+        @Override public int size() { return tamanho(); }
+
+        @Override public Spliterator<E> spliterator() { return new Percurso(0, RegistoIds.this.blocos.length()); }
+    }
+
+    /**
+     * Percorre as entidades dos blocos {@code [inicio, fim)}, por ordem crescente de ID.
+     * Serve de iterador e de divisor para percursos paralelos (metade dos blocos para cada lado).
+     */
+    private final class Percurso implements Iterator<E>, Spliterator<E> {
+        private int bloco;
+        private int fim;
+        private int posicao;
+        /** O bloco a ser percorrido (completo ou esparso), lido do diretório ao entrar nele. */
+        private Object atual;
+        private E proxima;
+
+        Percurso(int inicio, int fim) {
+            this.bloco = inicio;
+            this.fim = fim;
+        }
+
+        private E avancar() {
+            AtomicReferenceArray<Object> blocos = RegistoIds.this.blocos;
+            while (this.bloco < this.fim && this.bloco < blocos.length()) {
+                if (this.posicao == 0) this.atual = blocos.get(this.bloco);
+                if (this.atual instanceof AtomicReferenceArray) {
+                    AtomicReferenceArray<E> completo = completo(this.atual);
+                    while (this.posicao < TAMANHO_BLOCO) {
+                        E entidade = completo.get(this.posicao++);
+                        if (entidade != null) return entidade;
+                    }
+                } else if (this.atual != null) {
+                    Esparso<E> esparso = esparso(this.atual);
+                    if (this.posicao < esparso.ids.length) return esparso.entidade(this.posicao++);
+                }
+                this.bloco++;
+                this.posicao = 0;
+            }
+            return null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (this.proxima == null) this.proxima = avancar();
+            return this.proxima != null;
+        }
+
+        @Override
+        public E next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            E entidade = this.proxima;
+            this.proxima = null;
+            return entidade;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super E> acao) {
+            if (!hasNext()) return false;
+            acao.accept(next());
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super E> acao) {
+            while (hasNext()) acao.accept(next());
+        }
+
+        @Override
+        public Spliterator<E> trySplit() {
+            // Só se divide antes de começar, e pelos blocos ainda não percorridos.
+            if (this.posicao != 0 || this.proxima != null || this.fim - this.bloco < 2) return null;
+            int meio = (this.bloco + this.fim) >>> 1;
+            Percurso primeiraMetade = new Percurso(this.bloco, meio);
+            this.bloco = meio;
+            return primeiraMetade;
+        }
+
+        @Override
+        public long estimateSize() {
+            return (long) (this.fim - this.bloco) * TAMANHO_BLOCO;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.NONNULL | Spliterator.CONCURRENT | Spliterator.ORDERED;
+        }
+    }
+}
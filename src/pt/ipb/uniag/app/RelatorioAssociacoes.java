@@ -0,0 +1,90 @@
+package pt.ipb.uniag.app;// Ficheiro: src/pt.ipb.uniag.app.RelatorioAssociacoes.java
+
+/**
+ * Relatório compacto do resultado de uma associação em lote
+ * ({@link UNIAG#associaMembrosProjetos(int[], int[])}).
+ * <p>
+ * Guarda um único byte por par membro-projeto, pela mesma ordem dos pares recebidos,
+ * e os totais por tipo de resultado.
+ *
+ * @author Luis Enrique
+ * @version 1.8
+ * @since 2026-10-18
+ */
+public final class RelatorioAssociacoes {
+
+    /**
+     * Resultado possível da associação de um par membro-projeto.
+     */
+    public enum Resultado {
+        /** A associação foi criada. */
+        ASSOCIADO,
+        /** O membro já estava associado ao projeto. */
+        JA_ASSOCIADO,
+        /** Não existe nenhum membro com o ID indicado. */
+        MEMBRO_INEXISTENTE,
+        /** Não existe nenhum projeto com o ID indicado. */
+        PROJETO_INEXISTENTE
+    }
+
+    private static final Resultado[] RESULTADOS = Resultado.values();
+
+    private final byte[] resultados;
+    private final int[] totais;
+
+    /**
+     * Constrói um relatório vazio para um determinado número de pares.
+     * @param numeroPares O número de pares do lote.
+     */
+    RelatorioAssociacoes(int numeroPares) {
+        this.resultados = new byte[numeroPares];
+        this.totais = new int[RESULTADOS.length];
+    }
+
+    /**
+     * Regista o resultado de um par.
+     * @param indice A posição do par no lote.
+     * @param resultado O resultado obtido.
+     */
+    void registar(int indice, Resultado resultado) {
+        this.resultados[indice] = (byte) resultado.ordinal();
+        this.totais[resultado.ordinal()]++;
+    }
+
+    /**
+     * Obtém o número de pares do lote.
+     * @return O número de pares.
+     */
+    public int getNumeroPares() { return resultados.length; }
+
+    /**
+     * Obtém o resultado de um par específico.
+     * @param indice A posição do par no lote.
+     * @return O resultado da associação desse par.
+     */
+    public Resultado getResultado(int indice) { return RESULTADOS[resultados[indice]]; }
+
+    /**
+     * Obtém o número de pares com um determinado resultado.
+     * @param resultado O resultado a contar.
+     * @return O número de pares com esse resultado.
+     */
+    public int getTotal(Resultado resultado) { return totais[resultado.ordinal()]; }
+
+    /**
+     * Indica se todos os pares do lote foram associados com sucesso.
+     * @return {@code true} se não houve nenhum par rejeitado ou repetido.
+     */
+    public boolean isTotalmenteAssociado() { return totais[Resultado.ASSOCIADO.ordinal()] == resultados.length; }
+
+    /** @return Um resumo textual dos totais do lote. */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Lote de ").append(resultados.length).append(" pares:");
+        for (Resultado r : RESULTADOS) {
+            sb.append(" | ").append(r).append(": ").append(totais[r.ordinal()]);
+        }
+        return sb.toString();
+    }
+}
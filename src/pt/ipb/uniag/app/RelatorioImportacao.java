@@ -0,0 +1,102 @@
+package pt.ipb.uniag.app;// Ficheiro: src/pt.ipb.uniag.app.RelatorioImportacao.java
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Relatório da importação de um ficheiro CSV ({@link ImportadorCSV}).
+ * <p>
+ * Conta as linhas de dados lidas, importadas e rejeitadas. Para que a memória usada não cresça com
+ * o tamanho do ficheiro, só as primeiras rejeições são guardadas com o número da linha e o motivo.
+ *
+ * @author Luis Enrique
+ * @version 1.8
+ * @since 2026-10-18
+ */
+public final class RelatorioImportacao {
+
+    /**
+     * Uma linha rejeitada do ficheiro.
+     */
+    public static final class Rejeicao {
+        private final long linha;
+        private final String motivo;
+
+        Rejeicao(long linha, String motivo) {
+            this.linha = linha;
+            this.motivo = motivo;
+        }
+
+        /** @return O número da linha no ficheiro (a primeira é a linha 1). */
+        public long getLinha() { return linha; }
+
+        /** @return O motivo da rejeição. */
+        public String getMotivo() { return motivo; }
+
+        /** @return A linha e o motivo da rejeição. */
+        @Override
+        public String toString() { return "Linha " + linha + ": " + motivo; }
+    }
+
+    private final int limiteRejeicoes;
+    private final List<Rejeicao> rejeicoes = new ArrayList<>();
+    private long lidas;
+    private long importadas;
+    private long rejeitadas;
+
+    /**
+     * Constrói um relatório vazio.
+     * @param limiteRejeicoes O número máximo de rejeições guardadas com o motivo.
+     */
+    RelatorioImportacao(int limiteRejeicoes) {
+        this.limiteRejeicoes = limiteRejeicoes;
+    }
+
+    /** Regista uma linha de dados importada. */
+    void registarImportada() {
+        this.lidas++;
+        this.importadas++;
+    }
+
+    /**
+     * Regista uma linha de dados rejeitada.
+     * @param linha O número da linha no ficheiro.
+     * @param motivo O motivo da rejeição.
+     */
+    void registarRejeitada(long linha, String motivo) {
+        this.lidas++;
+        this.rejeitadas++;
+        if (this.rejeicoes.size() < this.limiteRejeicoes) this.rejeicoes.add(new Rejeicao(linha, motivo));
+    }
+
+    /**
+     * Obtém o número de linhas de dados lidas (sem contar o cabeçalho, as linhas vazias e os comentários).
+     * @return O número de linhas de dados.
+     */
+    public long getLidas() { return lidas; }
+
+    /**
+     * Obtém o número de linhas importadas com sucesso.
+     * @return O número de linhas importadas.
+     */
+    public long getImportadas() { return importadas; }
+
+    /**
+     * Obtém o número de linhas rejeitadas.
+     * @return O número de linhas rejeitadas, incluindo as que não foram guardadas em {@link #getRejeicoes()}.
+     */
+    public long getRejeitadas() { return rejeitadas; }
+
+    /**
+     * Obtém as primeiras linhas rejeitadas, pela ordem do ficheiro.
+     * @return Uma lista não modificável das rejeições guardadas.
+     */
+    public List<Rejeicao> getRejeicoes() { return Collections.unmodifiableList(rejeicoes); }
+
+    /** @return Um resumo textual dos totais da importação. */
+    @Override
+    public String toString() {
+        return "Linhas lidas: " + lidas + " | Importadas: " + importadas + " | Rejeitadas: " + rejeitadas;
+    }
+}
@@ -0,0 +1,153 @@
+package pt.ipb.uniag.app;// Ficheiro: src/pt.ipb.uniag.app.RelatorioUNIAG.java
+
+import pt.ipb.uniag.modelo.MembroInvestigador;
+import pt.ipb.uniag.modelo.Projeto;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.function.IntPredicate;
+
+/**
+ * Escreve as listagens de membros e de projetos de uma UNIAG em qualquer {@link Appendable}
+ * (a consola, um {@link java.io.Writer}, um {@link StringBuilder}...).
+ * <p>
+ * O texto de cada entidade é acumulado num único {@link StringBuilder} reutilizado, que só é
+ * enviado para o destino quando atinge {@value #TAMANHO_BUFFER} caracteres ou no fim de cada página.
+ * Assim, listar centenas de milhares de entidades custa poucas escritas no destino, em vez de
+ * várias por entidade. O texto produzido é o mesmo de {@link MembroInvestigador#print()} e
+ * {@link Projeto#printDetalhes()}.
+ * <p>
+ * As listagens podem ser escritas página a página: depois de cada página completa, o destino é
+ * descarregado (se for {@link Flushable}) e quem invoca decide se a listagem continua.
+ *
+ * @author Luis Enrique
+ * @version 1.8
+ * @since 2026-10-18
+ */
+public final class RelatorioUNIAG {
+
+    /** O número de caracteres acumulados antes de serem enviados para o destino. */
+    public static final int TAMANHO_BUFFER = 64 * 1024;
+
+    private static final String SEPARADOR_MEMBRO = "-------------------------------------\n";
+
+    private final UNIAG uniag;
+    private final Appendable destino;
+    private final StringBuilder buffer;
+
+    /**
+     * Constrói um relatório sobre uma UNIAG.
+     * @param uniag A unidade a listar.
+     * @param destino O destino do texto.
+     */
+    public RelatorioUNIAG(UNIAG uniag, Appendable destino) {
+        this.uniag = uniag;
+        this.destino = destino;
+        this.buffer = new StringBuilder(TAMANHO_BUFFER + 1024);
+    }
+
+    /**
+     * Escreve a listagem completa dos membros.
+     * @throws IOException se a escrita no destino falhar.
+     */
+    public void escreverMembros() throws IOException {
+        escreverMembros(Integer.MAX_VALUE, pagina -> true);
+    }
+
+    /**
+     * Escreve a listagem dos membros, página a página.
+     * @param tamanhoPagina O número de membros por página.
+     * @param continuar Invocado depois de cada página completa (exceto a última) com o número de
+     *                  páginas já escritas; devolve {@code false} para terminar a listagem.
+     * @return {@code true} se a listagem foi escrita até ao fim.
+     * @throws IOException se a escrita no destino falhar.
+     * @throws IllegalArgumentException se o tamanho da página não for positivo.
+     */
+    public boolean escreverMembros(int tamanhoPagina, IntPredicate continuar) throws IOException {
+        if (tamanhoPagina <= 0) throw new IllegalArgumentException("O tamanho da página deve ser positivo.");
+        this.buffer.append("\n=== LISTA DE MEMBROS DA pt.ipb.uniag.app.UNIAG (").append(this.uniag.getMembros().size()).append(") ===\n");
+        Iterator<MembroInvestigador> membros = this.uniag.getMembros().iterator();
+        if (!membros.hasNext()) {
+            this.buffer.append(" (Nenhum membro registado)\n");
+        }
+        int paginas = 0;
+        int naPagina = 0;
+        while (membros.hasNext()) {
+            MembroInvestigador membro = membros.next();
+            this.buffer.append(SEPARADOR_MEMBRO);
+            membro.descrever(this.buffer);
+            this.buffer.append('\n').append(SEPARADOR_MEMBRO);
+            if (++naPagina == tamanhoPagina && membros.hasNext()) {
+                naPagina = 0;
+                if (!terminarPagina(continuar, ++paginas)) return false;
+            } else if (this.buffer.length() >= TAMANHO_BUFFER) {
+                enviar();
+            }
+        }
+        descarregar();
+        return true;
+    }
+
+    /**
+     * Escreve a listagem completa dos projetos, com os respetivos participantes.
+     * @throws IOException se a escrita no destino falhar.
+     */
+    public void escreverProjetos() throws IOException {
+        escreverProjetos(Integer.MAX_VALUE, pagina -> true);
+    }
+
+    /**
+     * Escreve a listagem dos projetos, página a página. Os participantes de cada projeto são lidos
+     * com o bloqueio do projeto adquirido, mas a escrita no destino é sempre feita sem bloqueios.
+     *
+     * @param tamanhoPagina O número de projetos por página.
+     * @param continuar Invocado depois de cada página completa (exceto a última) com o número de
+     *                  páginas já escritas; devolve {@code false} para terminar a listagem.
+     * @return {@code true} se a listagem foi escrita até ao fim.
+     * @throws IOException se a escrita no destino falhar.
+     * @throws IllegalArgumentException se o tamanho da página não for positivo.
+     */
+    public boolean escreverProjetos(int tamanhoPagina, IntPredicate continuar) throws IOException {
+        if (tamanhoPagina <= 0) throw new IllegalArgumentException("O tamanho da página deve ser positivo.");
+        this.buffer.append("\n=== LISTA DE PROJETOS DA pt.ipb.uniag.app.UNIAG (").append(this.uniag.getProjetos().size()).append(") ===\n");
+        Iterator<Projeto> projetos = this.uniag.getProjetos().iterator();
+        if (!projetos.hasNext()) {
+            this.buffer.append(" (Nenhum projeto registado)\n");
+        }
+        int paginas = 0;
+        int naPagina = 0;
+        while (projetos.hasNext()) {
+            this.uniag.comBloqueioProjeto(projetos.next(), this::descreverProjeto);
+            if (++naPagina == tamanhoPagina && projetos.hasNext()) {
+                naPagina = 0;
+                if (!terminarPagina(continuar, ++paginas)) return false;
+            } else if (this.buffer.length() >= TAMANHO_BUFFER) {
+                enviar();
+            }
+        }
+        descarregar();
+        return true;
+    }
+
+    private Void descreverProjeto(Projeto projeto) {
+        projeto.descreverDetalhes(this.buffer);
+        this.buffer.append('\n');
+        return null;
+    }
+
+    private boolean terminarPagina(IntPredicate continuar, int paginas) throws IOException {
+        descarregar();
+        return continuar.test(paginas);
+    }
+
+    private void enviar() throws IOException {
+        this.destino.append(this.buffer);
+        this.buffer.setLength(0);
+    }
+
+    private void descarregar() throws IOException {
+        enviar();
+        if (this.destino instanceof Flushable) ((Flushable) this.destino).flush();
+    }
+}
@@ -0,0 +1,74 @@
+package pt.ipb.uniag.app;// Ficheiro: src/pt.ipb.uniag.app.ResumoDistribuicao.java
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Resumo de uma distribuição global de verbas ({@link UNIAG#distribuirTodasAsVerbas()}).
+ * <p>
+ * Indica, para cada investigador creditado, o total que recebeu nesta distribuição
+ * (somando todos os projetos em que participa).
+ *
+ * @author Luis Enrique
+ * @version 1.8
+ * @since 2026-10-18
+ */
+public final class ResumoDistribuicao {
+
+    private final Map<Integer, Long> centimosPorMembro;
+    private final int projetosComVerbaDistribuida;
+    private final long totalDistribuidoCentimos;
+
+    /**
+     * Constrói o resumo.
+     * @param centimosPorMembro O total creditado a cada membro, em cêntimos, indexado pelo ID do membro.
+     * @param projetosComVerbaDistribuida O número de projetos que tinham investigadores para creditar.
+     */
+    ResumoDistribuicao(Map<Integer, Long> centimosPorMembro, int projetosComVerbaDistribuida) {
+        this.centimosPorMembro = Collections.unmodifiableMap(centimosPorMembro);
+        this.projetosComVerbaDistribuida = projetosComVerbaDistribuida;
+        long total = 0;
+        for (long valor : centimosPorMembro.values()) {
+            total += valor;
+        }
+        this.totalDistribuidoCentimos = total;
+    }
+
+    /**
+     * Obtém o total creditado a cada membro, em cêntimos, indexado pelo ID do membro.
+     * @return Um mapa não modificável com os totais por membro.
+     */
+    public Map<Integer, Long> getCentimosPorMembro() { return centimosPorMembro; }
+
+    /**
+     * Obtém o total creditado a um membro específico.
+     * @param idMembro O ID do membro.
+     * @return O valor creditado, ou zero se o membro não recebeu verba.
+     */
+    public double getTotalMembro(int idMembro) { return centimosPorMembro.getOrDefault(idMembro, 0L) / 100.0; }
+
+    /**
+     * Obtém o número de projetos cuja verba foi efetivamente distribuída.
+     * @return O número de projetos com pelo menos um investigador integrado.
+     */
+    public int getProjetosComVerbaDistribuida() { return projetosComVerbaDistribuida; }
+
+    /**
+     * Obtém a soma de todos os valores creditados.
+     * @return O total distribuído.
+     */
+    public double getTotalDistribuido() { return totalDistribuidoCentimos / 100.0; }
+
+    /**
+     * Obtém a soma exata, em cêntimos, de todos os valores creditados.
+     * @return O total distribuído em cêntimos.
+     */
+    public long getTotalDistribuidoCentimos() { return totalDistribuidoCentimos; }
+
+    /** @return Um resumo textual da distribuição. */
+    @Override
+    public String toString() {
+        return "Verba de " + String.format("%.2f", getTotalDistribuido()) + "€ distribuída por "
+                + centimosPorMembro.size() + " investigadores em " + projetosComVerbaDistribuida + " projetos.";
+    }
+}
@@ -0,0 +1,82 @@
+package pt.ipb.uniag.app;// Ficheiro: src/pt.ipb.uniag.app.ResumoLatencias.java
+
+import java.beans.ConstructorProperties;
+import java.util.Locale;
+
+/**
+ * Resumo das latências medidas de uma operação da UNIAG ({@link MetricasUNIAG#getLatencias()}).
+ * <p>
+ * Os percentis têm uma precisão de cerca de 6% (ver {@link HistogramaLatencias}); a média e o
+ * máximo são exatos. Todos os tempos estão em nanossegundos.
+ *
+ * @author Luis Enrique
+ * @version 1.8
+ * @since 2026-10-18
+ */
+public final class ResumoLatencias {
+
+    private final String operacao;
+    private final long contagem;
+    private final double mediaNanos;
+    private final long p50Nanos;
+    private final long p90Nanos;
+    private final long p99Nanos;
+    private final long p999Nanos;
+    private final long maximoNanos;
+
+    /**
+     * Constrói o resumo (também usado pelo JMX para reconstruir o resumo num cliente).
+     * @param operacao O nome da operação.
+     * @param contagem O número de medições.
+     * @param mediaNanos A duração média.
+     * @param p50Nanos A mediana.
+     * @param p90Nanos O percentil 90.
+     * @param p99Nanos O percentil 99.
+     * @param p999Nanos O percentil 99,9.
+     * @param maximoNanos A duração máxima.
+     */
+    @ConstructorProperties({"operacao", "contagem", "mediaNanos", "p50Nanos", "p90Nanos", "p99Nanos", "p999Nanos", "maximoNanos"})
+    public ResumoLatencias(String operacao, long contagem, double mediaNanos, long p50Nanos, long p90Nanos,
+                           long p99Nanos, long p999Nanos, long maximoNanos) {
+        this.operacao = operacao;
+        this.contagem = contagem;
+        this.mediaNanos = mediaNanos;
+        this.p50Nanos = p50Nanos;
+        this.p90Nanos = p90Nanos;
+        this.p99Nanos = p99Nanos;
+        this.p999Nanos = p999Nanos;
+        this.maximoNanos = maximoNanos;
+    }
+
+    /** @return O nome da operação. */
+    public String getOperacao() { return operacao; }
+
+    /** @return O número de medições. */
+    public long getContagem() { return contagem; }
+
+    /** @return A duração média, em nanossegundos. */
+    public double getMediaNanos() { return mediaNanos; }
+
+    /** @return A mediana, em nanossegundos. */
+    public long getP50Nanos() { return p50Nanos; }
+
+    /** @return O percentil 90, em nanossegundos. */
+    public long getP90Nanos() { return p90Nanos; }
+
+    /** @return O percentil 99, em nanossegundos. */
+    public long getP99Nanos() { return p99Nanos; }
+
+    /** @return O percentil 99,9, em nanossegundos. */
+    public long getP999Nanos() { return p999Nanos; }
+
+    /** @return A duração máxima, em nanossegundos. */
+    public long getMaximoNanos() { return maximoNanos; }
+
+    /** @return Uma linha com a contagem e os tempos, em microssegundos. */
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%-32s %12d %10.1f %10.1f %10.1f %10.1f %10.1f %12.1f",
+                operacao, contagem, mediaNanos / 1000, p50Nanos / 1000.0, p90Nanos / 1000.0,
+                p99Nanos / 1000.0, p999Nanos / 1000.0, maximoNanos / 1000.0);
+    }
+}
@@ -0,0 +1,667 @@
+package pt.ipb.uniag.app;// Ficheiro: src/pt.ipb.uniag.app.ServidorUNIAG.java
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import pt.ipb.uniag.modelo.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serviço HTTP/JSON embutido que expõe as operações de uma {@link UNIAG}, com o servidor HTTP
+ * incluído no JDK ({@code com.sun.net.httpserver}).
+ * <p>
+ * Pontos de acesso (os corpos dos pedidos e das respostas são JSON em UTF-8):
+ * <pre>
+ *   GET    /membros[?nome=prefixo&amp;limite=n]           listar (ou pesquisar por nome)
+ *   GET    /membros?cursor=id[&amp;tipo=...][&amp;limite=n]     página por ordem de ID: {"itens": [...], "cursor": id|null}
+ *   POST   /membros                                   {"tipo": "investigador"|"colaborador"|"visitante", "nome": ...}
+ *   GET    /membros/{id}                              membro, com os IDs dos seus projetos
+ *   PUT    /membros/{id}                              {"nome": ...}
+ *   DELETE /membros/{id}
+ *   GET    /projetos[?titulo=prefixo | ?min=&amp;max=][&amp;limite=n]
+ *   GET    /projetos?cursor=id[&amp;limite=n]                 página por ordem de ID
+ *   POST   /projetos                                  {"titulo": ..., "financiamento": ...}
+ *   GET    /projetos/{id}                             projeto, com os IDs dos participantes
+ *   PUT    /projetos/{id}                             {"titulo": ..., "financiamento": ...} (um ou ambos)
+ *   DELETE /projetos/{id}
+ *   POST   /projetos/{id}/membros/{idMembro}          associar o membro ao projeto
+ *   POST   /associacoes                               {"membros": [...], "projetos": [...]} (em lote)
+ *   POST   /projetos/{id}/distribuicao                distribuir a verba do projeto
+ *   POST   /distribuicao                              distribuir a verba de todos os projetos
+ *   GET    /estatisticas
+ * </pre>
+ * O parâmetro {@code limite} vale 100 por omissão e é reduzido a 10 000, para que um pedido não
+ * obrigue o servidor a recolher uma página arbitrariamente grande.
+ * <p>
+ * Os erros são devolvidos com o código HTTP adequado (400, 404, 405, 413) e um corpo
+ * {@code {"erro": ...}}. Um erro inesperado devolve 500 com uma mensagem genérica; os detalhes da
+ * exceção ficam apenas no registo de erros do servidor ({@code System.err}). As listagens completas são codificadas em fluxo por um {@link EscritorJSON}
+ * e enviadas em blocos (chunked), sem construir a resposta inteira em memória.
+ * <p>
+ * Cada pedido é atendido numa thread virtual quando a JVM as suporta (Java 21 ou superior); nas
+ * versões anteriores, num conjunto limitado de threads. As operações da UNIAG já são seguras entre
+ * threads, pelo que os pedidos são atendidos em paralelo sem bloqueios adicionais.
+ *
+ * @author Luis Enrique
+ * @version 1.8
+ * @since 2026-10-18
+ */
+public final class ServidorUNIAG implements AutoCloseable {
+
+    private static final int TAMANHO_BUFFER = 16 * 1024;
+    private static final int TAMANHO_MAXIMO_PEDIDO = 1 << 20;
+    private static final int LIMITE_PESQUISA = 100;
+    private static final int LIMITE_MAXIMO = 10_000;
+
+    private final UNIAG uniag;
+    private final HttpServer servidor;
+    private final ExecutorService executor;
+    private final boolean threadsVirtuais;
+
+    /**
+     * Constrói o serviço, sem o iniciar.
+     * @param uniag A unidade servida.
+     * @param endereco O endereço e a porta onde escutar (a porta 0 escolhe uma porta livre).
+     * @throws IOException se não for possível escutar no endereço.
+     */
+    public ServidorUNIAG(UNIAG uniag, InetSocketAddress endereco) throws IOException {
+        // Sem TCP_NODELAY, cada resposta pequena numa ligação persistente pode esperar ~40 ms pelo
+        // ACK atrasado do cliente (algoritmo de Nagle). Só tem efeito antes do primeiro servidor criado.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        this.uniag = uniag;
+        this.servidor = HttpServer.create(endereco, 1024);
+        ExecutorService virtual = executorVirtual();
+        this.threadsVirtuais = virtual != null;
+        this.executor = virtual != null ? virtual : executorPlataforma();
+        this.servidor.setExecutor(this.executor);
+        this.servidor.createContext("/", this::atender);
+    }
+
+    /**
+     * Começa a aceitar pedidos.
+     */
+    public void iniciar() {
+        this.servidor.start();
+    }
+
+    /**
+     * Obtém a porta onde o serviço escuta.
+     * @return O número da porta.
+     */
+    public int getPorta() {
+        return this.servidor.getAddress().getPort();
+    }
+
+    /**
+     * Indica se os pedidos são atendidos em threads virtuais.
+     * @return {@code true} se a JVM suporta threads virtuais.
+     */
+    public boolean isThreadsVirtuais() {
+        return this.threadsVirtuais;
+    }
+
+    /**
+     * Para o serviço: deixa de aceitar ligações e termina as threads de atendimento.
+     */
+    @Override
+    public void close() {
+        this.servidor.stop(0);
+        this.executor.shutdown();
+    }
+
+    /**
+     * Inicia o serviço a partir da linha de comandos.
+     * <p>
+     * O serviço não tem autenticação, pelo que, por omissão, só escuta no endereço local (loopback) e
+     * só aceita pedidos da própria máquina. Para aceitar pedidos de outras máquinas, o endereço tem de
+     * ser indicado explicitamente com {@code --endereco=}, por exemplo {@code --endereco=0.0.0.0} para
+     * todas as interfaces.
+     * @param args A porta (8080 por omissão), opcionalmente um ficheiro guardado por
+     *             {@link PersistenciaUNIAG} com o estado inicial, e a opção {@code --endereco=<endereço>}.
+     * @throws IOException se não for possível carregar o ficheiro, resolver o endereço ou escutar na porta.
+     */
+    public static void main(String[] args) throws IOException {
+        InetAddress endereco = InetAddress.getLoopbackAddress();
+        List<String> posicionais = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--endereco=")) endereco = InetAddress.getByName(arg.substring(11));
+            else posicionais.add(arg);
+        }
+        int porta = !posicionais.isEmpty() ? Integer.parseInt(posicionais.get(0)) : 8080;
+        UNIAG uniag = posicionais.size() > 1 ? PersistenciaUNIAG.carregar(Paths.get(posicionais.get(1))) : new UNIAG();
+        ServidorUNIAG servico = new ServidorUNIAG(uniag, new InetSocketAddress(endereco, porta));
+        servico.iniciar();
+        String anfitriao = endereco instanceof Inet6Address ? "[" + endereco.getHostAddress() + "]" : endereco.getHostAddress();
+        System.out.println("Serviço UNIAG em http://" + anfitriao + ":" + servico.getPorta() + "/ (threads virtuais: "
+                + (servico.isThreadsVirtuais() ? "sim" : "não") + ")");
+        if (!endereco.isLoopbackAddress()) {
+            System.out.println("Atenção: o serviço não tem autenticação e aceita pedidos de outras máquinas.");
+        }
+    }
+
+    /**
+     * Obtém um executor com uma thread virtual por pedido, se a JVM o suportar (Java 21 ou superior).
+     * É obtido por reflexão para que o código continue a compilar e a funcionar em versões anteriores.
+     */
+    private static ExecutorService executorVirtual() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static ExecutorService executorPlataforma() {
+        AtomicInteger numero = new AtomicInteger();
+        ThreadFactory fabrica = tarefa -> {
+            Thread thread = new Thread(tarefa, "uniag-http-" + numero.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newFixedThreadPool(Math.max(8, 4 * Runtime.getRuntime().availableProcessors()), fabrica);
+    }
+
+    // --- ATENDIMENTO ---
+
+    /**
+     * Um erro do pedido, com o código HTTP a devolver.
+     */
+    private static final class ErroPedido extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        final int estado;
+
+        ErroPedido(int estado, String mensagem) {
+            super(mensagem);
+            this.estado = estado;
+        }
+    }
+
+    /**
+     * O conteúdo de uma resposta, escrito por um {@link EscritorJSON}.
+     */
+    @FunctionalInterface
+    private interface Conteudo {
+        void escrever(EscritorJSON json) throws IOException;
+    }
+
+    /**
+     * A escrita de uma entidade de uma {@link Pagina}.
+     */
+    @FunctionalInterface
+    private interface Elemento<T> {
+        void escrever(EscritorJSON json, T entidade) throws IOException;
+    }
+
+    private void atender(HttpExchange troca) {
+        try {
+            String[] caminho = troca.getRequestURI().getPath().replaceAll("^/+|/+$", "").split("/+");
+            encaminhar(troca, troca.getRequestMethod(), caminho.length == 1 && caminho[0].isEmpty() ? new String[0] : caminho);
+        } catch (ErroPedido e) {
+            responderErro(troca, e.estado, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            responderErro(troca, 400, e.getMessage());
+        } catch (IOException e) {
+            // O cliente desligou-se a meio da resposta: não há a quem responder.
+        } catch (RuntimeException e) {
+            // Os detalhes da exceção podem revelar a estrutura interna: ficam só no registo do servidor.
+            System.err.println("Erro interno ao atender " + troca.getRequestMethod() + " " + troca.getRequestURI() + ": " + e);
+            e.printStackTrace();
+            responderErro(troca, 500, "Erro interno.");
+        } finally {
+            troca.close();
+        }
+    }
+
+    private void encaminhar(HttpExchange troca, String metodo, String[] caminho) throws IOException {
+        if (caminho.length == 0) throw new ErroPedido(404, "Recurso inexistente.");
+        switch (caminho[0]) {
+            case "membros":
+                if (caminho.length == 1) {
+                    if (metodo.equals("GET")) { listarMembros(troca); return; }
+                    if (metodo.equals("POST")) { criarMembro(troca); return; }
+                } else if (caminho.length == 2) {
+                    int id = id(caminho[1]);
+                    if (metodo.equals("GET")) { obterMembro(troca, id); return; }
+                    if (metodo.equals("PUT")) { editarMembro(troca, id); return; }
+                    if (metodo.equals("DELETE")) { remover(troca, this.uniag.removerMembro(id), "membro", id); return; }
+                } else {
+                    break;
+                }
+                throw metodoNaoPermitido(metodo);
+            case "projetos":
+                if (caminho.length == 1) {
+                    if (metodo.equals("GET")) { listarProjetos(troca); return; }
+                    if (metodo.equals("POST")) { criarProjeto(troca); return; }
+                } else if (caminho.length == 2) {
+                    int id = id(caminho[1]);
+                    if (metodo.equals("GET")) { obterProjeto(troca, id); return; }
+                    if (metodo.equals("PUT")) { editarProjeto(troca, id); return; }
+                    if (metodo.equals("DELETE")) { remover(troca, this.uniag.removerProjeto(id), "projeto", id); return; }
+                } else if (caminho.length == 3 && caminho[2].equals("distribuicao")) {
+                    if (metodo.equals("POST")) { distribuirVerba(troca, id(caminho[1])); return; }
+                } else if (caminho.length == 4 && caminho[2].equals("membros")) {
+                    if (metodo.equals("POST")) { associar(troca, id(caminho[3]), id(caminho[1])); return; }
+                } else {
+                    break;
+                }
+                throw metodoNaoPermitido(metodo);
+            case "associacoes":
+                if (caminho.length != 1) break;
+                if (metodo.equals("POST")) { associarEmLote(troca); return; }
+                throw metodoNaoPermitido(metodo);
+            case "distribuicao":
+                if (caminho.length != 1) break;
+                if (metodo.equals("POST")) { distribuirTodas(troca); return; }
+                throw metodoNaoPermitido(metodo);
+            case "estatisticas":
+                if (caminho.length != 1) break;
+                if (metodo.equals("GET")) { estatisticas(troca); return; }
+                throw metodoNaoPermitido(metodo);
+            default:
+                break;
+        }
+        throw new ErroPedido(404, "Recurso inexistente.");
+    }
+
+    // --- MEMBROS ---
+
+    private void listarMembros(HttpExchange troca) throws IOException {
+        Map<String, String> parametros = parametros(troca);
+        if (parametros.containsKey("cursor") || parametros.containsKey("tipo")) {
+            Pagina<? extends MembroInvestigador> pagina = this.uniag.listarMembros(classeMembro(parametros.get("tipo")),
+                    cursor(parametros), limite(parametros));
+            responderPagina(troca, pagina, (json, membro) -> escreverMembro(json, membro).fimObjeto());
+            return;
+        }
+        String nome = parametros.get("nome");
+        Collection<MembroInvestigador> membros = nome == null ? this.uniag.getMembros()
+                : this.uniag.procurarMembrosPorNome(nome, limite(parametros));
+        responderEmFluxo(troca, json -> {
+            json.inicioLista();
+            for (MembroInvestigador membro : membros) {
+                escreverMembro(json, membro);
+                json.fimObjeto();
+            }
+            json.fimLista();
+        });
+    }
+
+    private void criarMembro(HttpExchange troca) throws IOException {
+        Map<String, Object> corpo = corpo(troca);
+        String tipo = texto(corpo, "tipo");
+        String nome = texto(corpo, "nome");
+        MembroInvestigador membro;
+        switch (tipo) {
+            case "investigador": membro = this.uniag.addInvestigador(nome); break;
+            case "colaborador": membro = this.uniag.addInvColaborador(nome); break;
+            case "visitante": membro = this.uniag.addVisitante(nome); break;
+            default: throw new IllegalArgumentException("Tipo de membro desconhecido: " + tipo + ".");
+        }
+        troca.getResponseHeaders().set("Location", "/membros/" + membro.getId());
+        responder(troca, 201, json -> escreverMembro(json, membro).fimObjeto());
+    }
+
+    private void obterMembro(HttpExchange troca, int id) throws IOException {
+        MembroInvestigador membro = membro(id);
+        int[] projetos = this.uniag.comBloqueioMembro(membro, m -> {
+            int[] ids = new int[m.getProjetosAssociados().size()];
+            int i = 0;
+            for (Projeto projeto : m.getProjetosAssociados()) {
+                if (i == ids.length) break;
+                ids[i++] = projeto.getId();
+            }
+            return ids;
+        });
+        responder(troca, 200, json -> {
+            escreverMembro(json, membro).nome("projetos").inicioLista();
+            for (int idProj : projetos) json.valor(idProj);
+            json.fimLista().fimObjeto();
+        });
+    }
+
+    private void editarMembro(HttpExchange troca, int id) throws IOException {
+        String nome = texto(corpo(troca), "nome");
+        MembroInvestigador membro = membro(id);
+        if (!this.uniag.editarNomeMembro(id, nome)) throw edicaoRecusada("membro", id);
+        responder(troca, 200, json -> escreverMembro(json, membro).fimObjeto());
+    }
+
+    /** Escreve os campos de um membro, deixando o objeto aberto para campos adicionais. */
+    private static EscritorJSON escreverMembro(EscritorJSON json, MembroInvestigador membro) throws IOException {
+        json.inicioObjeto().nome("id").valor(membro.getId()).nome("tipo").valor(tipo(membro))
+                .nome("nome").valor(membro.getNome());
+        if (membro instanceof Investigador) json.nome("saldo").valor(((Investigador) membro).getSaldo());
+        return json;
+    }
+
+    private static Class<? extends MembroInvestigador> classeMembro(String tipo) {
+        if (tipo == null) return MembroInvestigador.class;
+        switch (tipo) {
+            case "investigador": return Investigador.class;
+            case "colaborador": return InvColaborador.class;
+            case "visitante": return Visitante.class;
+            default: throw new IllegalArgumentException("Tipo de membro desconhecido: " + tipo + ".");
+        }
+    }
+
+    private static String tipo(MembroInvestigador membro) {
+        if (membro instanceof Investigador) return "investigador";
+        if (membro instanceof InvColaborador) return "colaborador";
+        if (membro instanceof Visitante) return "visitante";
+        return membro.getClass().getSimpleName();
+    }
+
+    // --- PROJETOS ---
+
+    private void listarProjetos(HttpExchange troca) throws IOException {
+        Map<String, String> parametros = parametros(troca);
+        if (parametros.containsKey("cursor")) {
+            Pagina<Projeto> pagina = this.uniag.listarProjetos(cursor(parametros), limite(parametros));
+            responderPagina(troca, pagina, (json, projeto) -> escreverProjeto(json, projeto).fimObjeto());
+            return;
+        }
+        String titulo = parametros.get("titulo");
+        Collection<Projeto> projetos;
+        if (titulo != null) {
+            projetos = this.uniag.procurarProjetosPorTitulo(titulo, limite(parametros));
+        } else if (parametros.containsKey("min") || parametros.containsKey("max")) {
+            projetos = this.uniag.procurarProjetosPorFinanciamento(decimal(parametros, "min", 0),
+                    decimal(parametros, "max", Double.MAX_VALUE), limite(parametros));
+        } else {
+            projetos = this.uniag.getProjetos();
+        }
+        responderEmFluxo(troca, json -> {
+            json.inicioLista();
+            for (Projeto projeto : projetos) {
+                escreverProjeto(json, projeto).fimObjeto();
+            }
+            json.fimLista();
+        });
+    }
+
+    private void criarProjeto(HttpExchange troca) throws IOException {
+        Map<String, Object> corpo = corpo(troca);
+        Projeto projeto = this.uniag.addProjeto(texto(corpo, "titulo"), numero(corpo, "financiamento"));
+        troca.getResponseHeaders().set("Location", "/projetos/" + projeto.getId());
+        responder(troca, 201, json -> escreverProjeto(json, projeto).fimObjeto());
+    }
+
+    private void obterProjeto(HttpExchange troca, int id) throws IOException {
+        Projeto projeto = projeto(id);
+        int[] membros = this.uniag.comBloqueioProjeto(projeto, PersistenciaUNIAG::idsParticipantes);
+        responder(troca, 200, json -> {
+            escreverProjeto(json, projeto).nome("membros").inicioLista();
+            for (int idMembro : membros) {
+                if (idMembro != 0) json.valor(idMembro);
+            }
+            json.fimLista().fimObjeto();
+        });
+    }
+
+    private void editarProjeto(HttpExchange troca, int id) throws IOException {
+        Map<String, Object> corpo = corpo(troca);
+        if (!corpo.containsKey("titulo") && !corpo.containsKey("financiamento")) {
+            throw new IllegalArgumentException("Indique o \"titulo\" e/ou o \"financiamento\".");
+        }
+        // Os tipos dos dois campos são verificados antes de qualquer alteração.
+        String titulo = corpo.containsKey("titulo") ? texto(corpo, "titulo") : null;
+        Double financiamento = corpo.containsKey("financiamento") ? numero(corpo, "financiamento") : null;
+        Projeto projeto = projeto(id);
+        // Validados e aplicados juntos: um valor inválido não deixa o outro aplicado.
+        if (!this.uniag.editarProjeto(id, titulo, financiamento)) throw edicaoRecusada("projeto", id);
+        responder(troca, 200, json -> escreverProjeto(json, projeto).fimObjeto());
+    }
+
+    /** Escreve os campos de um projeto, deixando o objeto aberto para campos adicionais. */
+    private static EscritorJSON escreverProjeto(EscritorJSON json, Projeto projeto) throws IOException {
+        return json.inicioObjeto().nome("id").valor(projeto.getId()).nome("titulo").valor(projeto.getTitulo())
+                .nome("financiamento").valor(projeto.getFinanciamento());
+    }
+
+    // --- ASSOCIAÇÕES, DISTRIBUIÇÃO E ESTATÍSTICAS ---
+
+    private void associar(HttpExchange troca, int idMembro, int idProj) throws IOException {
+        membro(idMembro);
+        projeto(idProj);
+        boolean associado = this.uniag.associaMembroProjeto(idMembro, idProj);
+        responder(troca, 200, json -> json.inicioObjeto().nome("associado").valor(associado).fimObjeto());
+    }
+
+    private void associarEmLote(HttpExchange troca) throws IOException {
+        Map<String, Object> corpo = corpo(troca);
+        int[] membros = ids(corpo, "membros");
+        int[] projetos = ids(corpo, "projetos");
+        RelatorioAssociacoes relatorio = this.uniag.associaMembrosProjetos(membros, projetos);
+        responder(troca, 200, json -> {
+            json.inicioObjeto();
+            for (RelatorioAssociacoes.Resultado resultado : RelatorioAssociacoes.Resultado.values()) {
+                json.nome(resultado.name()).valor(relatorio.getTotal(resultado));
+            }
+            json.nome("resultados").inicioLista();
+            for (int i = 0; i < relatorio.getNumeroPares(); i++) {
+                json.valor(relatorio.getResultado(i).name());
+            }
+            json.fimLista().fimObjeto();
+        });
+    }
+
+    private void distribuirVerba(HttpExchange troca, int idProj) throws IOException {
+        if (!this.uniag.distribuirVerba(idProj, false)) throw naoEncontrado("projeto", idProj);
+        responder(troca, 200, json -> json.inicioObjeto().nome("distribuido").valor(true).fimObjeto());
+    }
+
+    private void distribuirTodas(HttpExchange troca) throws IOException {
+        ResumoDistribuicao resumo = this.uniag.distribuirTodasAsVerbas();
+        responder(troca, 200, json -> json.inicioObjeto()
+                .nome("totalDistribuido").valor(resumo.getTotalDistribuido())
+                .nome("projetos").valor(resumo.getProjetosComVerbaDistribuida())
+                .nome("investigadores").valor(resumo.getCentimosPorMembro().size())
+                .fimObjeto());
+    }
+
+    private void estatisticas(HttpExchange troca) throws IOException {
+        EstatisticasUNIAG e = this.uniag.getEstatisticas();
+        responder(troca, 200, json -> json.inicioObjeto()
+                .nome("investigadores").valor(e.getNumeroInvestigadores())
+                .nome("colaboradores").valor(e.getNumeroColaboradores())
+                .nome("visitantes").valor(e.getNumeroVisitantes())
+                .nome("projetos").valor(e.getNumeroProjetos())
+                .nome("associacoes").valor(e.getNumeroAssociacoes())
+                .nome("mediaMembrosPorProjeto").valor(e.getMediaMembrosPorProjeto())
+                .nome("financiamentoTotal").valor(e.getFinanciamentoTotal())
+                .nome("saldoTotal").valor(e.getSaldoTotal())
+                .fimObjeto());
+    }
+
+    private void remover(HttpExchange troca, boolean removido, String entidade, int id) throws IOException {
+        if (!removido) throw naoEncontrado(entidade, id);
+        troca.sendResponseHeaders(204, -1);
+    }
+
+    // --- AUXILIARES ---
+
+    private MembroInvestigador membro(int id) {
+        MembroInvestigador membro = this.uniag.findMembro(id);
+        if (membro == null) throw naoEncontrado("membro", id);
+        return membro;
+    }
+
+    private Projeto projeto(int id) {
+        Projeto projeto = this.uniag.findProjeto(id);
+        if (projeto == null) throw naoEncontrado("projeto", id);
+        return projeto;
+    }
+
+    private static ErroPedido naoEncontrado(String entidade, int id) {
+        return new ErroPedido(404, "Não existe nenhum " + entidade + " com o ID " + id + ".");
+    }
+
+    /** A edição falhou com a entidade existente: os novos dados são inválidos (ou foi removida entretanto). */
+    private static ErroPedido edicaoRecusada(String entidade, int id) {
+        return new ErroPedido(400, "Dados inválidos para o " + entidade + " com o ID " + id + ".");
+    }
+
+    private static ErroPedido metodoNaoPermitido(String metodo) {
+        return new ErroPedido(405, "Método " + metodo + " não permitido neste recurso.");
+    }
+
+    private static int id(String texto) {
+        try {
+            return Integer.parseInt(texto);
+        } catch (NumberFormatException e) {
+            throw new ErroPedido(404, "ID inválido: " + texto + ".");
+        }
+    }
+
+    private static Map<String, String> parametros(HttpExchange troca) {
+        Map<String, String> parametros = new HashMap<>();
+        String consulta = troca.getRequestURI().getRawQuery();
+        if (consulta == null) return parametros;
+        for (String par : consulta.split("&")) {
+            if (par.isEmpty()) continue;
+            int igual = par.indexOf('=');
+            String nome = URLDecoder.decode(igual < 0 ? par : par.substring(0, igual), StandardCharsets.UTF_8);
+            String valor = igual < 0 ? "" : URLDecoder.decode(par.substring(igual + 1), StandardCharsets.UTF_8);
+            parametros.put(nome, valor);
+        }
+        return parametros;
+    }
+
+    private static int cursor(Map<String, String> parametros) {
+        String cursor = parametros.get("cursor");
+        if (cursor == null || cursor.isEmpty()) return 0;
+        try {
+            int valor = Integer.parseInt(cursor);
+            if (valor >= 0) return valor;
+        } catch (NumberFormatException e) {
+            // tratado abaixo
+        }
+        throw new IllegalArgumentException("Cursor inválido: " + cursor + ".");
+    }
+
+    private static int limite(Map<String, String> parametros) {
+        String limite = parametros.get("limite");
+        if (limite == null) return LIMITE_PESQUISA;
+        try {
+            int valor = Integer.parseInt(limite);
+            if (valor > 0) return Math.min(valor, LIMITE_MAXIMO);
+        } catch (NumberFormatException e) {
+            // tratado abaixo
+        }
+        throw new IllegalArgumentException("Limite inválido: " + limite + ".");
+    }
+
+    private static double decimal(Map<String, String> parametros, String nome, double omissao) {
+        String valor = parametros.get(nome);
+        if (valor == null) return omissao;
+        try {
+            return Double.parseDouble(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor inválido para \"" + nome + "\": " + valor + ".");
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> corpo(HttpExchange troca) throws IOException {
+        byte[] bytes = troca.getRequestBody().readNBytes(TAMANHO_MAXIMO_PEDIDO + 1);
+        if (bytes.length > TAMANHO_MAXIMO_PEDIDO) throw new ErroPedido(413, "Pedido demasiado grande.");
+        Object valor = LeitorJSON.ler(new String(bytes, StandardCharsets.UTF_8));
+        if (!(valor instanceof Map)) throw new IllegalArgumentException("O corpo do pedido tem de ser um objeto JSON.");
+        return (Map<String, Object>) valor;
+    }
+
+    private static String texto(Map<String, Object> corpo, String nome) {
+        Object valor = corpo.get(nome);
+        if (!(valor instanceof String)) throw new IllegalArgumentException("O campo \"" + nome + "\" tem de ser um texto.");
+        return (String) valor;
+    }
+
+    private static double numero(Map<String, Object> corpo, String nome) {
+        Object valor = corpo.get(nome);
+        if (!(valor instanceof Number)) throw new IllegalArgumentException("O campo \"" + nome + "\" tem de ser um número.");
+        return ((Number) valor).doubleValue();
+    }
+
+    private static int[] ids(Map<String, Object> corpo, String nome) {
+        Object valor = corpo.get(nome);
+        if (!(valor instanceof List)) throw new IllegalArgumentException("O campo \"" + nome + "\" tem de ser uma lista de IDs.");
+        List<?> lista = (List<?>) valor;
+        int[] ids = new int[lista.size()];
+        for (int i = 0; i < ids.length; i++) {
+            Object id = lista.get(i);
+            if (!(id instanceof Long) || (Long) id != ((Long) id).intValue()) {
+                throw new IllegalArgumentException("ID inválido em \"" + nome + "\": " + id + ".");
+            }
+            ids[i] = ((Long) id).intValue();
+        }
+        return ids;
+    }
+
+    /**
+     * Responde com um documento pequeno, com o tamanho indicado no cabeçalho.
+     */
+    private static void responder(HttpExchange troca, int estado, Conteudo conteudo) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        EscritorJSON json = new EscritorJSON(bytes, 1024);
+        conteudo.escrever(json);
+        json.descarregar();
+        troca.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        troca.sendResponseHeaders(estado, bytes.size());
+        bytes.writeTo(troca.getResponseBody());
+    }
+
+    /**
+     * Responde com uma página e o cursor da seguinte ({@code null} na última).
+     */
+    private static <T> void responderPagina(HttpExchange troca, Pagina<T> pagina, Elemento<? super T> elemento)
+            throws IOException {
+        responder(troca, 200, json -> {
+            json.inicioObjeto().nome("itens").inicioLista();
+            for (T entidade : pagina.getItens()) {
+                elemento.escrever(json, entidade);
+            }
+            json.fimLista().nome("cursor");
+            if (pagina.isUltima()) json.nulo();
+            else json.valor(pagina.getCursor());
+            json.fimObjeto();
+        });
+    }
+
+    /**
+     * Responde com uma listagem codificada em fluxo e enviada em blocos, à medida que é produzida.
+     */
+    private static void responderEmFluxo(HttpExchange troca, Conteudo conteudo) throws IOException {
+        troca.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        troca.sendResponseHeaders(200, 0);
+        EscritorJSON json = new EscritorJSON(troca.getResponseBody(), TAMANHO_BUFFER);
+        conteudo.escrever(json);
+        json.descarregar();
+    }
+
+    private static void responderErro(HttpExchange troca, int estado, String mensagem) {
+        if (troca.getResponseCode() != -1) return; // a resposta já começou: resta fechar a ligação
+        try {
+            responder(troca, estado, json -> json.inicioObjeto().nome("erro").valor(mensagem).fimObjeto());
+        } catch (IOException e) {
+            // O cliente já não está à espera da resposta.
+        }
+    }
+}
@@ -0,0 +1,502 @@
+package pt.ipb.uniag.app;// Ficheiro: src/pt.ipb.uniag.app.TesteConcorrencia.java
+
+import pt.ipb.uniag.modelo.Investigador;
+import pt.ipb.uniag.modelo.MembroInvestigador;
+import pt.ipb.uniag.modelo.Projeto;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.Stream;
+
+/**
+ * Teste de concorrência da {@link UNIAG}: várias threads criam, associam, removem, editam, clonam e
+ * distribuem verbas ao mesmo tempo, com o diário de operações e a publicação de eventos ativos, e
+ * no fim são verificadas as invariantes da unidade:
+ * <ul>
+ *   <li>as ligações são simétricas: cada membro está nos participantes de cada projeto seu, e vice-versa,
+ *       e ambos estão registados;</li>
+ *   <li>as estatísticas mantidas a cada operação coincidem com as recalculadas de raiz;</li>
+ *   <li>o dinheiro é conservado: cada distribuição credita exatamente o financiamento do projeto (ou nada)
+ *       e o saldo de cada investigador é a soma dos créditos que recebeu;</li>
+ *   <li>os eventos, aplicados pela ordem de publicação, reconstroem as associações atuais, e nenhum
+ *       associa ou credita um membro ou projeto depois da sua remoção;</li>
+ *   <li>o último ficheiro guardado com o diário reproduzido reconstrói a mesma unidade, e um ficheiro
+ *       guardado no fim sem o diário ter sido reiniciado (falha entre guardar e reiniciar) não
+ *       reproduz nenhuma operação outra vez;</li>
+ *   <li>um projeto clonado durante as alterações tem membros coerentes (cada um participa no projeto),
+ *       que não mudam depois da clonagem.</li>
+ * </ul>
+ * As rondas alternam entre associações em conjuntos e associações compactas. Termina com o código 1
+ * se alguma invariante falhar.
+ * <p>
+ * Utilização:
+ * <pre>
+ *   java -cp out pt.ipb.uniag.app.TesteConcorrencia [--threads=8] [--operacoes=200000] [--rondas=4]
+ *        [--membros=2000] [--projetos=200]
+ * </pre>
+ *
+ * @author Luis Enrique
+ * @version 1.8
+ * @since 2026-10-18
+ */
+public final class TesteConcorrencia {
+
+    private static final int MAXIMO_ERROS = 20;
+    private static final int COPIAS_GUARDADAS = 8;
+
+    /**
+     * Construtor privado para prevenir a instanciação desta classe utilitária.
+     */
+    private TesteConcorrencia() {
+        // Esta classe não deve ser instanciada.
+    }
+
+    /**
+     * Ponto de entrada do teste.
+     * @param args As opções (ver a descrição da classe).
+     * @throws Exception se os ficheiros temporários não puderem ser criados ou uma thread for interrompida.
+     */
+    public static void main(String[] args) throws Exception {
+        int threads = 8;
+        int operacoes = 200_000;
+        int rondas = 4;
+        int membros = 2_000;
+        int projetos = 200;
+        for (String arg : args) {
+            if (arg.startsWith("--threads=")) threads = Integer.parseInt(arg.substring(10));
+            else if (arg.startsWith("--operacoes=")) operacoes = Integer.parseInt(arg.substring(12));
+            else if (arg.startsWith("--rondas=")) rondas = Integer.parseInt(arg.substring(9));
+            else if (arg.startsWith("--membros=")) membros = Integer.parseInt(arg.substring(10));
+            else if (arg.startsWith("--projetos=")) projetos = Integer.parseInt(arg.substring(11));
+        }
+
+        int falhadas = 0;
+        for (int ronda = 1; ronda <= rondas; ronda++) {
+            boolean compactas = ronda % 2 == 0;
+            long inicio = System.nanoTime();
+            List<String> erros = executarRonda(compactas, threads, operacoes, membros, projetos);
+            System.out.printf("Ronda %d (%s, %d threads, %d operações): %s em %d ms%n", ronda,
+                    compactas ? "associações compactas" : "associações em conjuntos", threads, operacoes,
+                    erros.isEmpty() ? "OK" : erros.size() + " falhas", (System.nanoTime() - inicio) / 1_000_000);
+            for (String erro : erros) {
+                System.out.println("  - " + erro);
+            }
+            if (!erros.isEmpty()) falhadas++;
+        }
+        if (falhadas > 0) {
+            System.out.println(falhadas + " de " + rondas + " rondas falharam.");
+            System.exit(1);
+        }
+        System.out.println("Todas as invariantes se verificaram.");
+    }
+
+    /**
+     * Executa uma ronda: cria os dados, aplica as operações concorrentes e verifica as invariantes.
+     * @return As falhas encontradas (no máximo {@value #MAXIMO_ERROS}).
+     */
+    private static List<String> executarRonda(boolean compactas, int threads, int operacoes,
+                                              int membros, int projetos) throws IOException, InterruptedException {
+        Path pasta = Files.createTempDirectory("uniag-concorrencia");
+        Path dados = pasta.resolve("uniag.dat");
+        Path ficheiroDiario = pasta.resolve("uniag.wal");
+        Path dadosFinais = pasta.resolve("uniag-final.dat");
+        Erros erros = new Erros();
+        try {
+            UNIAG uniag = new UNIAG(compactas);
+            AtomicIntegerArray idsMembros = new AtomicIntegerArray(membros);
+            AtomicIntegerArray idsProjetos = new AtomicIntegerArray(projetos);
+            Map<Integer, Long> financiamentos = new ConcurrentHashMap<>();
+            for (int i = 0; i < membros; i++) {
+                idsMembros.set(i, adicionarMembro(uniag).getId());
+            }
+            for (int i = 0; i < projetos; i++) {
+                Projeto projeto = adicionarProjeto(uniag);
+                idsProjetos.set(i, projeto.getId());
+                financiamentos.put(projeto.getId(), projeto.getFinanciamentoCentimos());
+            }
+            PersistenciaUNIAG.guardar(uniag, dados);
+
+            VerificadorEventos verificador = new VerificadorEventos(financiamentos, erros);
+            try (DiarioOperacoes diario = DiarioOperacoes.abrir(ficheiroDiario, DiarioOperacoes.ModoDurabilidade.ASSINCRONO);
+                 PublicadorEventos eventos = new PublicadorEventos(1 << 16, PublicadorEventos.PoliticaExcesso.ESPERAR)) {
+                diario.reiniciar();
+                eventos.subscrever(verificador);
+                uniag.setDiario(diario);
+                uniag.setEventos(eventos);
+
+                CountDownLatch partida = new CountDownLatch(1);
+                Thread[] trabalhadores = new Thread[threads];
+                for (int t = 0; t < threads; t++) {
+                    int quota = operacoes / threads + (t < operacoes % threads ? 1 : 0);
+                    trabalhadores[t] = new Thread(() -> {
+                        try {
+                            partida.await();
+                            trabalhar(uniag, idsMembros, idsProjetos, quota, erros);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        } catch (RuntimeException | Error e) {
+                            erros.registar("Exceção numa operação: " + e);
+                        }
+                    }, "uniag-concorrencia-" + t);
+                    trabalhadores[t].start();
+                }
+                partida.countDown();
+                for (Thread trabalhador : trabalhadores) {
+                    trabalhador.join();
+                }
+                // Falha simulada: o estado é guardado com o diário ativo, mas o diário não chega a ser reiniciado.
+                PersistenciaUNIAG.guardar(uniag, dadosFinais);
+                uniag.setEventos(null);
+                uniag.setDiario(null);
+            } // fechar o publicador entrega ao verificador todos os eventos já publicados
+
+            verificarLigacoes(uniag, erros);
+            try {
+                uniag.verificarEstatisticas();
+            } catch (IllegalStateException e) {
+                erros.registar(e.getMessage());
+            }
+            verificador.verificarFim(uniag);
+            verificarDiario(uniag, dados, dadosFinais, ficheiroDiario, erros);
+        } finally {
+            try (Stream<Path> ficheiros = Files.list(pasta)) {
+                for (Path ficheiro : (Iterable<Path>) ficheiros::iterator) {
+                    Files.deleteIfExists(ficheiro);
+                }
+            }
+            Files.deleteIfExists(pasta);
+        }
+        return erros.lista();
+    }
+
+    // --- OPERAÇÕES ---
+
+    /**
+     * Aplica uma mistura aleatória de operações. Os IDs em uso ficam em posições fixas: quem remove
+     * um membro ou projeto põe no seu lugar um novo, para que a unidade não se esvazie.
+     */
+    private static void trabalhar(UNIAG uniag, AtomicIntegerArray idsMembros, AtomicIntegerArray idsProjetos,
+                                  int operacoes, Erros erros) {
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        List<CopiaVerificada> copias = new ArrayList<>(COPIAS_GUARDADAS);
+        for (int i = 0; i < operacoes && !erros.cheio(); i++) {
+            int posicaoMembro = aleatorio.nextInt(idsMembros.length());
+            int posicaoProjeto = aleatorio.nextInt(idsProjetos.length());
+            int idMembro = idsMembros.get(posicaoMembro);
+            int idProjeto = idsProjetos.get(posicaoProjeto);
+            int tipo = aleatorio.nextInt(100);
+            if (tipo < 50) {
+                uniag.associaMembroProjeto(idMembro, idProjeto);
+            } else if (tipo < 55) {
+                int[] membros = new int[8];
+                int[] projetos = new int[8];
+                for (int k = 0; k < membros.length; k++) {
+                    membros[k] = idsMembros.get(aleatorio.nextInt(idsMembros.length()));
+                    projetos[k] = idsProjetos.get(aleatorio.nextInt(idsProjetos.length()));
+                }
+                uniag.associaMembrosProjetos(membros, projetos);
+            } else if (tipo < 67) {
+                uniag.distribuirVerba(idProjeto, false);
+            } else if (tipo < 75) {
+                if (uniag.removerMembro(idMembro)) idsMembros.set(posicaoMembro, adicionarMembro(uniag).getId());
+            } else if (tipo < 78) {
+                if (uniag.removerProjeto(idProjeto)) idsProjetos.set(posicaoProjeto, adicionarProjeto(uniag).getId());
+            } else if (tipo < 86) {
+                uniag.editarNomeMembro(idMembro, "Membro " + aleatorio.nextInt(1_000_000));
+            } else if (tipo < 99) {
+                clonar(uniag, idProjeto, copias, erros);
+            } else {
+                uniag.distribuirTodasAsVerbas();
+            }
+        }
+    }
+
+    private static MembroInvestigador adicionarMembro(UNIAG uniag) {
+        int tipo = ThreadLocalRandom.current().nextInt(10);
+        String nome = "Membro " + ThreadLocalRandom.current().nextInt(1_000_000);
+        if (tipo < 6) return uniag.addInvestigador(nome);
+        return tipo < 8 ? uniag.addInvColaborador(nome) : uniag.addVisitante(nome);
+    }
+
+    private static Projeto adicionarProjeto(UNIAG uniag) {
+        // Financiamentos com cêntimos e não divisíveis pelo número de investigadores, para exercitar os restos.
+        long centimos = ThreadLocalRandom.current().nextLong(100_000, 10_000_000);
+        return uniag.addProjeto("Projeto " + ThreadLocalRandom.current().nextInt(1_000_000), centimos / 100.0);
+    }
+
+    /**
+     * Clona um projeto registado com o seu bloqueio adquirido, verifica a cópia e volta a verificar as cópias
+     * anteriores desta thread, que não podem ter mudado entretanto.
+     */
+    private static void clonar(UNIAG uniag, int idProjeto, List<CopiaVerificada> copias, Erros erros) {
+        for (CopiaVerificada anterior : copias) {
+            String estado = descrever(anterior.copia, erros);
+            if (!estado.equals(anterior.estado)) {
+                erros.registar("A cópia do projeto " + anterior.copia.getId() + " mudou depois de clonada: "
+                        + anterior.estado + " -> " + estado);
+            }
+        }
+        Projeto projeto = uniag.findProjeto(idProjeto);
+        if (projeto == null) return;
+        // Um projeto já retirado do registo ainda está a ser desligado dos membros: não é clonado.
+        Projeto copia = uniag.comBloqueioProjeto(projeto, p -> uniag.findProjeto(p.getId()) == p ? p.clone() : null);
+        if (copia == null) return;
+        if (copias.size() == COPIAS_GUARDADAS) copias.remove(0);
+        copias.add(new CopiaVerificada(copia, descrever(copia, erros)));
+    }
+
+    /**
+     * Descreve os membros de uma cópia (nome e projetos), verificando que cada um participa no projeto.
+     */
+    private static String descrever(Projeto copia, Erros erros) {
+        StringBuilder sb = new StringBuilder();
+        for (MembroInvestigador membro : copia.getMembrosParticipantes()) {
+            if (!membro.getProjetosAssociados().contains(copia)) {
+                erros.registar("Na cópia do projeto " + copia.getId() + ", o membro " + membro.getId()
+                        + " não tem o projeto entre os seus.");
+            }
+            int[] projetos = membro.getProjetosAssociados().stream().mapToInt(Projeto::getId).sorted().toArray();
+            sb.append(membro.getId()).append('=').append(membro.getNome()).append(Arrays.toString(projetos)).append(';');
+        }
+        return sb.toString();
+    }
+
+    private static final class CopiaVerificada {
+        final Projeto copia;
+        final String estado;
+
+        CopiaVerificada(Projeto copia, String estado) {
+            this.copia = copia;
+            this.estado = estado;
+        }
+    }
+
+    // --- VERIFICAÇÕES ---
+
+    /**
+     * Verifica que as ligações são simétricas e só envolvem entidades registadas.
+     */
+    private static void verificarLigacoes(UNIAG uniag, Erros erros) {
+        long doLadoDosMembros = 0;
+        long doLadoDosProjetos = 0;
+        for (MembroInvestigador membro : uniag.getMembros()) {
+            for (Projeto projeto : membro.getProjetosAssociados()) {
+                doLadoDosMembros++;
+                if (uniag.findProjeto(projeto.getId()) != projeto) {
+                    erros.registar("O membro " + membro.getId() + " está ligado ao projeto removido " + projeto.getId() + ".");
+                } else if (!projeto.getMembrosParticipantes().contains(membro)) {
+                    erros.registar("O membro " + membro.getId() + " tem o projeto " + projeto.getId() + ", mas o projeto não o tem.");
+                }
+            }
+        }
+        for (Projeto projeto : uniag.getProjetos()) {
+            for (MembroInvestigador membro : projeto.getMembrosParticipantes()) {
+                doLadoDosProjetos++;
+                if (uniag.findMembro(membro.getId()) != membro) {
+                    erros.registar("O projeto " + projeto.getId() + " está ligado ao membro removido " + membro.getId() + ".");
+                } else if (!membro.getProjetosAssociados().contains(projeto)) {
+                    erros.registar("O projeto " + projeto.getId() + " tem o membro " + membro.getId() + ", mas o membro não o tem.");
+                }
+            }
+        }
+        if (doLadoDosMembros != doLadoDosProjetos) {
+            erros.registar("Ligações assimétricas: " + doLadoDosMembros + " do lado dos membros, "
+                    + doLadoDosProjetos + " do lado dos projetos.");
+        }
+    }
+
+    /**
+     * Verifica que o ficheiro guardado antes das operações, com o diário reproduzido, reconstrói a unidade,
+     * e que o ficheiro guardado no fim, que já contém todo o diário, não reproduz nenhuma operação.
+     * Depois disso, o diário reaberto sobre a unidade reposta tem de continuar a numeração depois do
+     * LSN guardado.
+     */
+    private static void verificarDiario(UNIAG uniag, Path dados, Path dadosFinais, Path ficheiroDiario,
+                                        Erros erros) throws IOException {
+        UNIAG reposta = PersistenciaUNIAG.carregar(dados);
+        DiarioOperacoes.reproduzir(ficheiroDiario, reposta);
+        compararReposta(uniag, reposta, "O diário reproduzido", erros);
+
+        UNIAG depoisDaFalha = PersistenciaUNIAG.carregar(dadosFinais);
+        int repetidas = DiarioOperacoes.reproduzir(ficheiroDiario, depoisDaFalha);
+        if (repetidas != 0) {
+            erros.registar(repetidas + " operações do diário foram reproduzidas sobre um ficheiro que já as continha.");
+        }
+        compararReposta(uniag, depoisDaFalha, "O diário reproduzido depois da falha", erros);
+        try (DiarioOperacoes diario = DiarioOperacoes.abrir(ficheiroDiario, DiarioOperacoes.ModoDurabilidade.POR_OPERACAO)) {
+            depoisDaFalha.setDiario(diario);
+            if (diario.getUltimoLsn() < depoisDaFalha.getLsnIncluido()) {
+                erros.registar("O diário reaberto está no LSN " + diario.getUltimoLsn() + ", antes do LSN guardado "
+                        + depoisDaFalha.getLsnIncluido() + ".");
+            }
+            depoisDaFalha.setDiario(null);
+        }
+    }
+
+    private static void compararReposta(UNIAG uniag, UNIAG reposta, String origem, Erros erros) {
+        if (!uniag.getEstatisticas().equals(reposta.getEstatisticas())) {
+            erros.registar(origem + " dá outras estatísticas: " + reposta.getEstatisticas()
+                    + " em vez de " + uniag.getEstatisticas() + ".");
+        }
+        if (!associacoes(uniag).equals(associacoes(reposta))) {
+            erros.registar(origem + " dá outras associações.");
+        }
+        if (!saldos(uniag).equals(saldos(reposta))) {
+            erros.registar(origem + " dá outros saldos.");
+        }
+    }
+
+    private static Set<Long> associacoes(UNIAG uniag) {
+        Set<Long> associacoes = new HashSet<>();
+        for (MembroInvestigador membro : uniag.getMembros()) {
+            for (Projeto projeto : membro.getProjetosAssociados()) {
+                associacoes.add(par(membro.getId(), projeto.getId()));
+            }
+        }
+        return associacoes;
+    }
+
+    private static Map<Integer, Long> saldos(UNIAG uniag) {
+        Map<Integer, Long> saldos = new HashMap<>();
+        for (MembroInvestigador membro : uniag.getMembros()) {
+            if (membro instanceof Investigador) saldos.put(membro.getId(), ((Investigador) membro).getSaldoCentimos());
+        }
+        return saldos;
+    }
+
+    private static long par(int idMembro, int idProjeto) {
+        return (long) idMembro << 32 | idProjeto;
+    }
+
+    /**
+     * Aplica os eventos, pela ordem de publicação, a um modelo das associações e dos créditos, e
+     * verifica cada um contra esse modelo. Só é usado pela thread de entrega do publicador; o
+     * resultado é lido depois de o publicador ser fechado.
+     */
+    private static final class VerificadorEventos implements OuvinteEventos {
+        private final Map<Integer, Long> financiamentos;
+        private final Erros erros;
+        private final Set<Long> associacoes = new HashSet<>();
+        private final Set<Integer> membrosRemovidos = new HashSet<>();
+        private final Set<Integer> projetosRemovidos = new HashSet<>();
+        private final Map<Integer, Long> creditos = new HashMap<>();
+        private final Map<Integer, Long> emDistribuicao = new HashMap<>();
+
+        VerificadorEventos(Map<Integer, Long> financiamentos, Erros erros) {
+            this.financiamentos = financiamentos;
+            this.erros = erros;
+        }
+
+        @Override
+        public void aoReceber(List<EventoUNIAG> lote) {
+            for (EventoUNIAG evento : lote) {
+                aplicar(evento);
+            }
+        }
+
+        private void aplicar(EventoUNIAG evento) {
+            int idMembro = evento.getIdMembro();
+            int idProjeto = evento.getIdProjeto();
+            long centimos = Math.round(evento.getValor() * 100);
+            switch (evento.getTipo()) {
+                case PROJETO_ADICIONADO:
+                    this.financiamentos.put(idProjeto, centimos);
+                    break;
+                case MEMBRO_REMOVIDO:
+                    if (!this.membrosRemovidos.add(idMembro)) falha(evento, "membro removido duas vezes");
+                    break;
+                case PROJETO_REMOVIDO:
+                    if (!this.projetosRemovidos.add(idProjeto)) falha(evento, "projeto removido duas vezes");
+                    break;
+                case ASSOCIACAO_CRIADA:
+                    verificarAtivos(evento);
+                    if (!this.associacoes.add(par(idMembro, idProjeto))) falha(evento, "associação repetida");
+                    break;
+                case ASSOCIACAO_REMOVIDA:
+                    if (!this.associacoes.remove(par(idMembro, idProjeto))) falha(evento, "associação inexistente");
+                    if (!this.membrosRemovidos.contains(idMembro) && !this.projetosRemovidos.contains(idProjeto)) {
+                        falha(evento, "associação desfeita sem remoção");
+                    }
+                    break;
+                case SALDO_CREDITADO:
+                    verificarAtivos(evento);
+                    if (!this.associacoes.contains(par(idMembro, idProjeto))) falha(evento, "crédito sem associação");
+                    this.creditos.merge(idMembro, centimos, Long::sum);
+                    this.emDistribuicao.merge(idProjeto, centimos, Long::sum);
+                    break;
+                case VERBA_DISTRIBUIDA:
+                    long creditado = this.emDistribuicao.getOrDefault(idProjeto, 0L);
+                    this.emDistribuicao.remove(idProjeto);
+                    if (creditado != centimos) falha(evento, "total diferente dos créditos (" + creditado + " cêntimos)");
+                    if (centimos != 0 && centimos != this.financiamentos.getOrDefault(idProjeto, -1L)) {
+                        falha(evento, "total diferente do financiamento");
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private void verificarAtivos(EventoUNIAG evento) {
+            if (this.membrosRemovidos.contains(evento.getIdMembro())) falha(evento, "membro já removido");
+            if (this.projetosRemovidos.contains(evento.getIdProjeto())) falha(evento, "projeto já removido");
+        }
+
+        private void falha(EventoUNIAG evento, String motivo) {
+            this.erros.registar("Evento " + evento + ": " + motivo + ".");
+        }
+
+        /**
+         * Compara o modelo reconstruído com a unidade, sem operações em curso.
+         */
+        void verificarFim(UNIAG uniag) {
+            Set<Long> atuais = associacoes(uniag);
+            if (!atuais.equals(this.associacoes)) {
+                erros.registar("Os eventos reconstroem " + this.associacoes.size() + " associações, mas existem "
+                        + atuais.size() + ".");
+            }
+            if (!this.emDistribuicao.isEmpty()) {
+                erros.registar("Créditos sem o evento da distribuição: " + this.emDistribuicao + ".");
+            }
+            saldos(uniag).entrySet().stream()
+                    .filter(saldo -> !saldo.getValue().equals(this.creditos.getOrDefault(saldo.getKey(), 0L)))
+                    .sorted(Comparator.comparing(Map.Entry::getKey))
+                    .forEach(saldo -> erros.registar("O investigador " + saldo.getKey() + " tem " + saldo.getValue()
+                            + " cêntimos, mas recebeu " + this.creditos.getOrDefault(saldo.getKey(), 0L) + "."));
+        }
+    }
+
+    /**
+     * As falhas encontradas, de várias threads, limitadas a {@value #MAXIMO_ERROS}.
+     */
+    private static final class Erros {
+        private final Queue<String> erros = new ConcurrentLinkedQueue<>();
+
+        void registar(String erro) {
+            if (!cheio()) this.erros.add(erro);
+        }
+
+        boolean cheio() {
+            return this.erros.size() >= MAXIMO_ERROS;
+        }
+
+        List<String> lista() {
+            return new ArrayList<>(this.erros);
+        }
+    }
+}
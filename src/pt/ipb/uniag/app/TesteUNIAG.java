@@ -2,7 +2,12 @@ package pt.ipb.uniag.app;// Ficheiro: src/pt.ipb.uniag.app.TesteUNIAG.java
 
 import pt.ipb.uniag.modelo.*;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.InputMismatchException;
+import java.util.List;
 import java.util.Scanner;
 
 /**
@@ -17,7 +22,11 @@ import java.util.Scanner;
 public class TesteUNIAG {
 
     private static final Scanner scanner = new Scanner(System.in);
-    private static final UNIAG uniag = new UNIAG();
+    private static final Path FICHEIRO_DADOS = Paths.get("uniag.dat");
+    private static final Path FICHEIRO_DIARIO = Paths.get("uniag.wal");
+    private static final int TAMANHO_PAGINA = 1000;
+    private static final int LIMITE_PESQUISA = 50;
+    private static UNIAG uniag;
 
     /**
      * Construtor privado para prevenir a instanciação desta classe utilitária.
@@ -31,7 +40,10 @@ public class TesteUNIAG {
      * @param args Argumentos da linha de comando (não utilizados).
      */
     public static void main(String[] args) {
-        popularDadosIniciais();
+        if (!carregarDados()) {
+            System.out.println("A aplicação termina sem alterar " + FICHEIRO_DADOS + " nem " + FICHEIRO_DIARIO + ".");
+            return;
+        }
 
         System.out.println("Bem-vindo ao Sistema de Gestão da pt.ipb.uniag.app.UNIAG!");
         int opcao;
@@ -44,14 +56,19 @@ public class TesteUNIAG {
                 case 2: registarNovoProjeto(); break;
                 case 3: associarMembroProjeto(); break;
                 case 4: distribuirVerba(); break;
-                case 5: uniag.mostrarMembros(); break;
-                case 6: uniag.mostrarProjetos(); break;
+                case 5: listarMembros(); break;
+                case 6: listarProjetos(); break;
                 case 7: pesquisarProjeto(); break;
                 case 8: editarMembro(); break;
                 case 9: editarProjeto(); break;
                 case 10: removerMembro(); break;
                 case 11: removerProjeto(); break;
-                case 0: System.out.println("\nA sair do sistema. Até breve!"); break;
+                case 12: pesquisarMembrosPorNome(); break;
+                case 13: pesquisarProjetosPorTitulo(); break;
+                case 14: pesquisarProjetosPorFinanciamento(); break;
+                case 15: mostrarEstatisticas(); break;
+                case 16: importarCSV(); break;
+                case 0: guardarDados(); System.out.println("\nA sair do sistema. Até breve!"); break;
                 default: System.out.println("Opção inválida. Tente novamente."); break;
             }
 
@@ -74,10 +91,15 @@ public class TesteUNIAG {
         System.out.println("2. Registar Novo pt.ipb.uniag.modelo.Projeto");
         System.out.println("3. Associar Membro a pt.ipb.uniag.modelo.Projeto");
         System.out.println("4. Distribuir Verba de pt.ipb.uniag.modelo.Projeto");
+        System.out.println("16. Importar Dados de Ficheiros CSV");
         System.out.println("\n--- Ler (Read) ---");
         System.out.println("5. Listar Todos os Membros");
         System.out.println("6. Listar Todos os Projetos");
         System.out.println("7. Pesquisar Detalhes de um pt.ipb.uniag.modelo.Projeto");
+        System.out.println("12. Pesquisar Membros por Nome");
+        System.out.println("13. Pesquisar Projetos por Título");
+        System.out.println("14. Pesquisar Projetos por Financiamento");
+        System.out.println("15. Estatísticas da Unidade");
         System.out.println("\n--- Editar (Update) ---");
         System.out.println("8. Editar Nome de Membro");
         System.out.println("9. Editar Dados de pt.ipb.uniag.modelo.Projeto");
@@ -178,6 +200,55 @@ public class TesteUNIAG {
         }
     }
 
+    private static void pesquisarMembrosPorNome() {
+        System.out.println("\n--- 12. Pesquisar Membros por Nome ---");
+        System.out.print("Insira o início do nome: ");
+        List<MembroInvestigador> encontrados = uniag.procurarMembrosPorNome(scanner.nextLine(), LIMITE_PESQUISA);
+        if (encontrados.isEmpty()) {
+            System.out.println("Nenhum membro encontrado.");
+            return;
+        }
+        encontrados.forEach(MembroInvestigador::print);
+        if (encontrados.size() == LIMITE_PESQUISA) System.out.println("(Mostrados os primeiros " + LIMITE_PESQUISA + " resultados.)");
+    }
+
+    private static void pesquisarProjetosPorTitulo() {
+        System.out.println("\n--- 13. Pesquisar Projetos por Título ---");
+        System.out.print("Insira o início do título: ");
+        List<Projeto> encontrados = uniag.procurarProjetosPorTitulo(scanner.nextLine(), LIMITE_PESQUISA);
+        if (encontrados.isEmpty()) {
+            System.out.println("Nenhum projeto encontrado.");
+            return;
+        }
+        encontrados.forEach(System.out::println);
+        if (encontrados.size() == LIMITE_PESQUISA) System.out.println("(Mostrados os primeiros " + LIMITE_PESQUISA + " resultados.)");
+    }
+
+    private static void pesquisarProjetosPorFinanciamento() {
+        System.out.println("\n--- 14. Pesquisar Projetos por Financiamento ---");
+        double minimo, maximo;
+        try {
+            System.out.print("Insira o financiamento mínimo: ");
+            minimo = scanner.nextDouble();
+            System.out.print("Insira o financiamento máximo: ");
+            maximo = scanner.nextDouble();
+            scanner.nextLine();
+        } catch (InputMismatchException e) {
+            System.out.println("Valor de financiamento inválido.");
+            scanner.nextLine(); return;
+        }
+        int total = uniag.contarProjetosPorFinanciamento(minimo, maximo);
+        System.out.println(total + " projeto(s), com um financiamento total de "
+                + String.format("%.2f", uniag.somarFinanciamento(minimo, maximo)) + "€.");
+        uniag.procurarProjetosPorFinanciamento(minimo, maximo, LIMITE_PESQUISA).forEach(System.out::println);
+        if (total > LIMITE_PESQUISA) System.out.println("(Mostrados os primeiros " + LIMITE_PESQUISA + " resultados.)");
+    }
+
+    private static void mostrarEstatisticas() {
+        System.out.println("\n--- 15. Estatísticas da Unidade ---");
+        System.out.println(uniag.getEstatisticas());
+    }
+
     private static void editarMembro() {
         System.out.println("\n--- 8. Editar Nome de Membro ---");
         System.out.print("Insira o ID do membro a editar: ");
@@ -216,6 +287,46 @@ public class TesteUNIAG {
         System.out.println("pt.ipb.uniag.modelo.Projeto atualizado.");
     }
 
+    /**
+     * Importa membros, projetos e associações de ficheiros CSV, através de um {@link ImportadorCSV}.
+     * Cada ficheiro é opcional; os membros e projetos são importados antes das associações.
+     */
+    private static void importarCSV() {
+        System.out.println("\n--- 16. Importar Dados de Ficheiros CSV ---");
+        System.out.println("(deixe em branco para não importar esse ficheiro)");
+        System.out.print("Ficheiro de membros (id,tipo,nome): ");
+        String membros = scanner.nextLine().trim();
+        System.out.print("Ficheiro de projetos (id,titulo,financiamento): ");
+        String projetos = scanner.nextLine().trim();
+        System.out.print("Ficheiro de associações (idMembro,idProjeto): ");
+        String associacoes = scanner.nextLine().trim();
+
+        ImportadorCSV importador = new ImportadorCSV(uniag);
+        try {
+            if (!membros.isEmpty()) mostrarImportacao("Membros", importador.importarMembros(Paths.get(membros)));
+            if (!projetos.isEmpty()) mostrarImportacao("Projetos", importador.importarProjetos(Paths.get(projetos)));
+            if (!associacoes.isEmpty()) mostrarImportacao("Associações", importador.importarAssociacoes(Paths.get(associacoes)));
+        } catch (IOException e) {
+            System.out.println("Erro ao importar: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Mostra os totais de uma importação e as primeiras linhas rejeitadas.
+     * @param titulo O tipo de dados importados.
+     * @param relatorio O relatório da importação.
+     */
+    private static void mostrarImportacao(String titulo, RelatorioImportacao relatorio) {
+        System.out.println(titulo + " -> " + relatorio);
+        List<RelatorioImportacao.Rejeicao> rejeicoes = relatorio.getRejeicoes();
+        for (int i = 0; i < Math.min(rejeicoes.size(), LIMITE_PESQUISA); i++) {
+            System.out.println("  " + rejeicoes.get(i));
+        }
+        if (relatorio.getRejeitadas() > Math.min(rejeicoes.size(), LIMITE_PESQUISA)) {
+            System.out.println("  ...");
+        }
+    }
+
     private static void removerMembro() {
         System.out.println("\n--- 10. Remover Membro ---");
         System.out.print("Insira o ID do membro a remover: ");
@@ -238,6 +349,101 @@ public class TesteUNIAG {
         }
     }
 
+    /**
+     * Lista todos os membros, página a página, através de um {@link RelatorioUNIAG}.
+     */
+    private static void listarMembros() {
+        try {
+            new RelatorioUNIAG(uniag, System.out).escreverMembros(TAMANHO_PAGINA, TesteUNIAG::continuarListagem);
+        } catch (IOException e) {
+            System.out.println("Erro ao escrever a listagem: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Lista todos os projetos, página a página, através de um {@link RelatorioUNIAG}.
+     */
+    private static void listarProjetos() {
+        try {
+            new RelatorioUNIAG(uniag, System.out).escreverProjetos(TAMANHO_PAGINA, TesteUNIAG::continuarListagem);
+        } catch (IOException e) {
+            System.out.println("Erro ao escrever a listagem: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Pergunta ao utilizador se a listagem deve continuar depois de uma página completa.
+     * @param paginas O número de páginas já mostradas.
+     * @return {@code true} para mostrar a página seguinte.
+     */
+    private static boolean continuarListagem(int paginas) {
+        System.out.print("\n-- " + (paginas * TAMANHO_PAGINA) + " mostrados. Pressione ENTER para continuar ou 0 para parar: ");
+        return !scanner.nextLine().trim().equals("0");
+    }
+
+    /**
+     * Carrega os dados guardados na última sessão ou, se o ficheiro não existir, os dados iniciais de
+     * exemplo. As operações registadas no diário depois do último estado guardado (por exemplo, se a
+     * sessão anterior terminou de forma abrupta) são reproduzidas, e o diário fica ativo para esta sessão.
+     * <p>
+     * Os ficheiros existentes só são alterados depois de tudo ter sido lido: com um erro ao carregar,
+     * ao reproduzir ou ao abrir o diário, nem o estado guardado nem o diário são tocados.
+     * @return {@code false} se houve um erro: a aplicação não deve continuar, para não substituir os
+     *         dados guardados por um estado incompleto ao sair.
+     */
+    private static boolean carregarDados() {
+        boolean novo = Files.notExists(FICHEIRO_DADOS);
+        try {
+            if (novo) {
+                uniag = new UNIAG();
+                popularDadosIniciais();
+            } else {
+                uniag = PersistenciaUNIAG.carregar(FICHEIRO_DADOS);
+                System.out.println("Dados carregados de " + FICHEIRO_DADOS + ".");
+                int operacoes = DiarioOperacoes.reproduzir(FICHEIRO_DIARIO, uniag);
+                if (operacoes > 0) System.out.println(operacoes + " operações recuperadas de " + FICHEIRO_DIARIO + ".");
+            }
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Erro ao carregar os dados guardados: " + e.getMessage());
+            return false;
+        }
+
+        try {
+            DiarioOperacoes diario = DiarioOperacoes.abrir(FICHEIRO_DIARIO, DiarioOperacoes.ModoDurabilidade.EM_GRUPO);
+            uniag.setDiario(diario);
+            if (novo) {
+                // O diário só é válido sobre o estado guardado: os dados iniciais passam a ser esse estado.
+                // O ficheiro regista o último LSN do diário, pelo que um diário antigo que não chegue a ser
+                // reiniciado é saltado na próxima sessão.
+                PersistenciaUNIAG.guardar(uniag, FICHEIRO_DADOS);
+                diario.reiniciar();
+            }
+        } catch (IOException | RuntimeException e) {
+            // Sem diário, guardar ao sair juntaria ao estado guardado operações que o diário ainda contém.
+            System.out.println("Erro ao abrir o diário de operações: " + e.getMessage());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Guarda o estado atual para ser recuperado na próxima sessão e esvazia o diário de operações,
+     * cujo conteúdo passa a estar contido no ficheiro guardado.
+     */
+    private static void guardarDados() {
+        try {
+            PersistenciaUNIAG.guardar(uniag, FICHEIRO_DADOS);
+            System.out.println("Dados guardados em " + FICHEIRO_DADOS + ".");
+            DiarioOperacoes diario = uniag.getDiario();
+            if (diario != null) {
+                diario.reiniciar();
+                diario.close();
+            }
+        } catch (IOException e) {
+            System.out.println("Erro ao guardar os dados: " + e.getMessage());
+        }
+    }
+
     private static void popularDadosIniciais() {
         Investigador ana = uniag.addInvestigador("Prof. Ana Silva");
         Investigador rui = uniag.addInvestigador("Dr. Rui Costa");
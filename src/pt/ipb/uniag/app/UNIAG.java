@@ -2,16 +2,46 @@ package pt.ipb.uniag.app;// Ficheiro: src/pt.ipb.uniag.app.UNIAG.java
 
 import pt.ipb.uniag.modelo.*;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.UnaryOperator;
 
 /**
  * Representa a Unidade de Investigação (controlador principal).
  * <p>
- * Gere as coleções de membros e projetos usando estruturas de dados otimizadas (HashMap),
+ * Gere as coleções de membros e projetos usando estruturas de dados otimizadas ({@link RegistoIds},
+ * indexadas diretamente pelo ID, sem conversões para {@link Integer}),
  * e orquestra todas as operações de criação, leitura, edição e remoção (CRUD).
+ * <p>
+ * A instância pode ser partilhada entre várias threads: as leituras ({@link #findMembro(int)},
+ * {@link #findProjeto(int)}) não usam bloqueios, e as operações que
+ * alteram as ligações bidirecionais bloqueiam apenas o membro e o projeto envolvidos, através de
+ * bloqueios repartidos por ID. Para evitar impasses (deadlocks), quando são necessários os dois
+ * bloqueios, o do membro é sempre adquirido antes do do projeto; a remoção de um membro, que
+ * precisa dos bloqueios de vários projetos, adquire-os por ordem crescente de faixa.
+ * <p>
+ * Quem precisa de ler muitas entidades de forma coerente enquanto outras threads as alteram pode
+ * ativar as fotografias ({@link #ativarFotografias()}) e ler a {@link FotografiaUNIAG} atual, sem bloqueios.
+ * Quem precisa de saber o que mudou, sem voltar a ler tudo, pode subscrever os eventos das
+ * alterações num {@link PublicadorEventos} ({@link #setEventos(PublicadorEventos)}).
+ * <p>
+ * Para grafos com muitas associações, a UNIAG pode ser criada com as associações compactas
+ * ({@link #UNIAG(boolean)}): em vez de um conjunto de objetos em cada membro e em cada projeto, as
+ * associações ficam em listas de IDs inteiros partilhadas por todas as entidades.
  *
  * @author Luis Enrique
  * @version 1.7 // Versão final com CRUD completo e Javadoc
@@ -19,15 +49,71 @@ import java.util.Map;
  */
 public class UNIAG {
 
-    private final Map<Integer, MembroInvestigador> membros;
-    private final Map<Integer, Projeto> projetos;
+    private static final int NUM_FAIXAS_BLOQUEIO = 1024;
+    /** Devolvido por {@code inserirMembro}/{@code inserirProjeto} quando o ID já está ocupado. */
+    private static final long ID_OCUPADO = -1;
+
+    private final RegistoIds<MembroInvestigador> membros;
+    private final RegistoIds<Projeto> projetos;
+    private final BloqueiosRepartidos bloqueiosMembros;
+    private final BloqueiosRepartidos bloqueiosProjetos;
+    private volatile DiarioOperacoes diario;
+    private volatile long lsnIncluido;   // último registo de diário já contido no estado, sem diário ativo
+    private volatile PublicadorEventos eventos;
+    private final MetricasUNIAG metricas;
+    private final AtomicReference<FotografiaUNIAG> fotografia = new AtomicReference<>();
+    private final IndiceTexto<MembroInvestigador> indiceNomes = new IndiceTexto<>();
+    private final IndiceTexto<Projeto> indiceTitulos = new IndiceTexto<>();
+    private final IndiceFinanciamento indiceFinanciamento = new IndiceFinanciamento();
+    private final AgregadosUNIAG agregados = new AgregadosUNIAG();
+    private volatile boolean verificarEstatisticas;
+    private final AssociacoesCompactas associacoesCompactas;   // null com as associações guardadas no modelo
+    private final AlocadorIds idsMembros;
+    private final AlocadorIds idsProjetos;
 
     /**
      * Constrói a instância da pt.ipb.uniag.app.UNIAG, inicializando as coleções.
      */
     public UNIAG() {
-        this.membros = new HashMap<>();
-        this.projetos = new HashMap<>();
+        this(false);
+    }
+
+    /**
+     * Constrói a instância da pt.ipb.uniag.app.UNIAG, escolhendo onde ficam as associações.
+     * <p>
+     * Com as associações compactas, os membros e projetos registados ficam ligados a um
+     * {@link ArmazemAssociacoes} da UNIAG, que guarda cada associação como dois inteiros em vez de
+     * duas entradas de conjuntos (e do sub-índice de investigadores de cada projeto). Os métodos do
+     * modelo continuam a funcionar da mesma forma, servidos por vistas sobre esse armazém. A
+     * distribuição de verbas passa a filtrar os participantes de cada projeto.
+     *
+     * @param associacoesCompactas {@code true} para guardar as associações de forma compacta.
+     */
+    public UNIAG(boolean associacoesCompactas) {
+        this(associacoesCompactas, AlocadorIds.sequencial(), AlocadorIds.sequencial());
+    }
+
+    /**
+     * Constrói a instância da pt.ipb.uniag.app.UNIAG com os alocadores de IDs indicados.
+     * <p>
+     * Os IDs dos membros e projetos criados por esta UNIAG vêm apenas destes alocadores (e não dos
+     * contadores globais do modelo), pelo que cada instância tem o seu próprio espaço de IDs. Para
+     * cargas em massa a partir de várias threads, {@link AlocadorIds#porBlocos(int)} evita que todas
+     * disputem o mesmo contador.
+     *
+     * @param associacoesCompactas {@code true} para guardar as associações de forma compacta.
+     * @param idsMembros O alocador dos IDs dos membros (não partilhado com outras UNIAG).
+     * @param idsProjetos O alocador dos IDs dos projetos (não partilhado com outras UNIAG).
+     */
+    public UNIAG(boolean associacoesCompactas, AlocadorIds idsMembros, AlocadorIds idsProjetos) {
+        this.idsMembros = Objects.requireNonNull(idsMembros);
+        this.idsProjetos = Objects.requireNonNull(idsProjetos);
+        this.membros = new RegistoIds<>();
+        this.projetos = new RegistoIds<>();
+        this.bloqueiosMembros = new BloqueiosRepartidos(NUM_FAIXAS_BLOQUEIO);
+        this.bloqueiosProjetos = new BloqueiosRepartidos(NUM_FAIXAS_BLOQUEIO);
+        this.associacoesCompactas = associacoesCompactas ? new AssociacoesCompactas() : null;
+        this.metricas = new MetricasUNIAG(this.membros::tamanho, this.projetos::tamanho, this::calcularMaiorProjeto);
     }
 
     // --- MÉTODOS DE LEITURA (READ) ---
@@ -38,7 +124,7 @@ public class UNIAG {
      * @return O objeto {@link Projeto} se encontrado, ou {@code null} caso contrário.
      */
     public Projeto findProjeto(int id) {
-        return this.projetos.get(id);
+        return this.projetos.obter(id);
     }
 
     /**
@@ -47,34 +133,107 @@ public class UNIAG {
      * @return O objeto {@link MembroInvestigador} se encontrado, ou {@code null} caso contrário.
      */
     public MembroInvestigador findMembro(int id) {
-        return this.membros.get(id);
+        return this.membros.obter(id);
+    }
+
+    /**
+     * Procura os membros cujo nome começa por um prefixo, sem distinguir maiúsculas, acentos
+     * nem espaços repetidos (por exemplo, "joao" encontra "João Conceição").
+     * <p>
+     * Usa um índice ordenado mantido pelas operações de criação, edição e remoção: o custo depende
+     * do número de resultados pedidos e não do número de membros registados.
+     *
+     * @param prefixo O início do nome (vazio para todos).
+     * @param limite O número máximo de resultados.
+     * @return Os membros encontrados, por ordem alfabética do nome.
+     * @throws IllegalArgumentException se o limite for negativo.
+     */
+    public List<MembroInvestigador> procurarMembrosPorNome(String prefixo, int limite) {
+        return this.indiceNomes.procurarPrefixo(prefixo, limite);
+    }
+
+    /**
+     * Procura os projetos cujo título começa por um prefixo, sem distinguir maiúsculas, acentos
+     * nem espaços repetidos (ver {@link #procurarMembrosPorNome(String, int)}).
+     * @param prefixo O início do título (vazio para todos).
+     * @param limite O número máximo de resultados.
+     * @return Os projetos encontrados, por ordem alfabética do título.
+     * @throws IllegalArgumentException se o limite for negativo.
+     */
+    public List<Projeto> procurarProjetosPorTitulo(String prefixo, int limite) {
+        return this.indiceTitulos.procurarPrefixo(prefixo, limite);
+    }
+
+    /**
+     * Procura os projetos com financiamento num intervalo, em O(log n + resultados), usando um
+     * índice ordenado mantido pelas operações de criação, edição e remoção.
+     * @param minimo O financiamento mínimo, inclusive ({@link Double#NEGATIVE_INFINITY} para não limitar).
+     * @param maximo O financiamento máximo, inclusive ({@link Double#POSITIVE_INFINITY} para não limitar).
+     * @param limite O número máximo de resultados.
+     * @return Os projetos encontrados, por ordem crescente de financiamento.
+     * @throws IllegalArgumentException se o limite for negativo.
+     */
+    public List<Projeto> procurarProjetosPorFinanciamento(double minimo, double maximo, int limite) {
+        if (limite < 0) throw new IllegalArgumentException("O limite não pode ser negativo.");
+        return this.indiceFinanciamento.intervalo(centimos(minimo), centimos(maximo), limite);
+    }
+
+    /**
+     * Conta os projetos com financiamento num intervalo, em O(log n).
+     * @param minimo O financiamento mínimo, inclusive.
+     * @param maximo O financiamento máximo, inclusive.
+     * @return O número de projetos no intervalo.
+     */
+    public int contarProjetosPorFinanciamento(double minimo, double maximo) {
+        return this.indiceFinanciamento.contar(centimos(minimo), centimos(maximo));
+    }
+
+    /**
+     * Soma o financiamento dos projetos num intervalo, em O(log n).
+     * @param minimo O financiamento mínimo, inclusive.
+     * @param maximo O financiamento máximo, inclusive.
+     * @return A soma dos financiamentos, em euros.
+     */
+    public double somarFinanciamento(double minimo, double maximo) {
+        return this.indiceFinanciamento.somar(centimos(minimo), centimos(maximo)) / 100.0;
+    }
+
+    /**
+     * Obtém os projetos com maior financiamento, em O(log n + k).
+     * @param k O número de projetos pretendido.
+     * @return Os (no máximo) {@code k} projetos com maior financiamento, por ordem decrescente.
+     * @throws IllegalArgumentException se {@code k} for negativo.
+     */
+    public List<Projeto> getProjetosMaisFinanciados(int k) {
+        if (k < 0) throw new IllegalArgumentException("O número de projetos não pode ser negativo.");
+        return this.indiceFinanciamento.maiores(k);
+    }
+
+    /** Converte um valor em euros para cêntimos, arredondando como {@link Projeto#getFinanciamentoCentimos()}. */
+    private static long centimos(double euros) {
+        return Math.round(euros * 100);
     }
 
     /**
      * Mostra na consola a lista de todos os membros registados na pt.ipb.uniag.app.UNIAG.
      */
     public void mostrarMembros() {
-        System.out.println("\n=== LISTA DE MEMBROS DA pt.ipb.uniag.app.UNIAG (" + this.membros.size() + ") ===");
-        if (this.membros.isEmpty()) {
-            System.out.println(" (Nenhum membro registado)");
-            return;
-        }
-        for (MembroInvestigador membro : this.membros.values()) {
-            membro.print();
+        try {
+            new RelatorioUNIAG(this, System.out).escreverMembros();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
 
     /**
      * Mostra na consola a lista de todos os projetos registados na pt.ipb.uniag.app.UNIAG.
+     * Cada projeto é lido com o seu bloqueio adquirido (ver {@link RelatorioUNIAG}).
      */
     public void mostrarProjetos() {
-        System.out.println("\n=== LISTA DE PROJETOS DA pt.ipb.uniag.app.UNIAG (" + this.projetos.size() + ") ===");
-        if (this.projetos.isEmpty()) {
-            System.out.println(" (Nenhum projeto registado)");
-            return;
-        }
-        for (Projeto projeto : this.projetos.values()) {
-            projeto.printDetalhes();
+        try {
+            new RelatorioUNIAG(this, System.out).escreverProjetos();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
 
@@ -87,9 +246,16 @@ public class UNIAG {
      * @return O objeto {@link Projeto} recém-criado.
      */
     public Projeto addProjeto(String titulo, double financiamento) {
-        Projeto novo = new Projeto(titulo, financiamento);
-        this.projetos.put(novo.getId(), novo);
-        return novo;
+        DiarioOperacoes diario = this.diario;
+        while (true) {
+            Projeto novo = new Projeto(this.idsProjetos.proximo(), titulo, financiamento);
+            long lsn = inserirProjeto(novo, diario);
+            if (lsn != ID_OCUPADO) {
+                confirmar(diario, lsn);
+                return novo;
+            }
+            // O ID foi importado entretanto (atribuído antes de a importação o reservar): usa-se outro.
+        }
     }
 
     /**
@@ -98,9 +264,7 @@ public class UNIAG {
      * @return O objeto {@link Investigador} recém-criado.
      */
     public Investigador addInvestigador(String nome) {
-        Investigador novo = new Investigador(nome);
-        this.membros.put(novo.getId(), novo);
-        return novo;
+        return adicionarMembro(id -> new Investigador(id, nome, 0));
     }
 
     /**
@@ -109,9 +273,7 @@ public class UNIAG {
      * @return O objeto {@link InvColaborador} recém-criado.
      */
     public InvColaborador addInvColaborador(String nome) {
-        InvColaborador novo = new InvColaborador(nome);
-        this.membros.put(novo.getId(), novo);
-        return novo;
+        return adicionarMembro(id -> new InvColaborador(id, nome));
     }
 
     /**
@@ -120,9 +282,139 @@ public class UNIAG {
      * @return O objeto {@link Visitante} recém-criado.
      */
     public Visitante addVisitante(String nome) {
-        Visitante novo = new Visitante(nome);
-        this.membros.put(novo.getId(), novo);
-        return novo;
+        return adicionarMembro(id -> new Visitante(id, nome));
+    }
+
+    /**
+     * Cria um membro com um novo ID e adiciona-o ao sistema, registando a operação no diário (se ativo).
+     * @param fabrica Cria o membro com o ID atribuído.
+     * @param <T> O tipo concreto do membro.
+     * @return O novo membro.
+     */
+    private <T extends MembroInvestigador> T adicionarMembro(IntFunction<T> fabrica) {
+        DiarioOperacoes diario = this.diario;
+        while (true) {
+            T novo = fabrica.apply(this.idsMembros.proximo());
+            long lsn = inserirMembro(novo, diario);
+            if (lsn != ID_OCUPADO) {
+                confirmar(diario, lsn);
+                return novo;
+            }
+            // O ID foi importado entretanto (atribuído antes de a importação o reservar): usa-se outro.
+        }
+    }
+
+    /**
+     * Regista um membro já construído (por exemplo, restaurado de um ficheiro), mantendo o seu ID.
+     * A operação não é registada no diário. O alocador de IDs dos membros é avançado para lá desse ID.
+     * @param membro O membro a registar.
+     * @throws IllegalArgumentException se já existir um membro com o mesmo ID.
+     */
+    void registarMembro(MembroInvestigador membro) {
+        this.idsMembros.avancarPara(membro.getId() + 1L);
+        if (inserirMembro(membro, null) == ID_OCUPADO) throw membroRepetido(membro);
+    }
+
+    /**
+     * Adiciona um membro já construído com um ID escolhido fora da UNIAG (por exemplo, importado de
+     * um ficheiro CSV), registando a operação no diário (se ativo) como {@link #addInvestigador(String)}.
+     * Não espera que o registo seja confirmado: ver {@link #confirmarDiario()}. O alocador de IDs
+     * dos membros é avançado para lá desse ID antes de a entidade ficar visível, para que uma criação
+     * em simultâneo não receba o mesmo ID.
+     * @param membro O membro a adicionar.
+     * @throws IllegalArgumentException se já existir um membro com o mesmo ID.
+     */
+    void importarMembro(MembroInvestigador membro) {
+        // O ID é reservado antes de o membro ficar visível: a partir daqui, o alocador já não o atribui.
+        this.idsMembros.avancarPara(membro.getId() + 1L);
+        if (inserirMembro(membro, this.diario) == ID_OCUPADO) throw membroRepetido(membro);
+    }
+
+    /**
+     * Torna visível um membro novo, com o seu bloqueio adquirido.
+     * @param membro O membro.
+     * @param diario O diário onde registar a operação, ou {@code null}.
+     * @return O LSN do registo no diário a confirmar, 0, ou {@link #ID_OCUPADO} se já existir um
+     *         membro com o mesmo ID (e nada foi feito).
+     */
+    private long inserirMembro(MembroInvestigador membro, DiarioOperacoes diario) {
+        ReentrantLock bloqueio = this.bloqueiosMembros.para(membro.getId());
+        bloqueio.lock();
+        try {
+            if (this.membros.contem(membro.getId())) return ID_OCUPADO;
+            // Registado no diário antes de ficar visível, para preceder qualquer operação sobre ele.
+            long lsn = diario == null ? 0 : diario.registarMembroAdicionado(membro);
+            if (this.associacoesCompactas != null) this.associacoesCompactas.ligar(membro);
+            fotografar(f -> f.comMembro(membro));
+            this.agregados.membroAdicionado(membro);
+            this.membros.colocar(membro.getId(), membro);
+            this.indiceNomes.adicionar(membro.getNome(), membro.getId(), membro);
+            publicar(EventoUNIAG.Tipo.MEMBRO_ADICIONADO, membro.getId(), 0, 0, membro.getNome());
+            return lsn;
+        } finally {
+            bloqueio.unlock();
+        }
+    }
+
+    /**
+     * Regista um projeto já construído (por exemplo, restaurado de um ficheiro), mantendo o seu ID.
+     * A operação não é registada no diário. O alocador de IDs dos projetos é avançado para lá desse ID.
+     * @param projeto O projeto a registar.
+     * @throws IllegalArgumentException se já existir um projeto com o mesmo ID.
+     */
+    void registarProjeto(Projeto projeto) {
+        this.idsProjetos.avancarPara(projeto.getId() + 1L);
+        if (inserirProjeto(projeto, null) == ID_OCUPADO) throw projetoRepetido(projeto);
+    }
+
+    /**
+     * Adiciona um projeto já construído com um ID escolhido fora da UNIAG (por exemplo, importado de
+     * um ficheiro CSV), registando a operação no diário (se ativo) como {@link #addProjeto(String, double)}.
+     * Não espera que o registo seja confirmado: ver {@link #confirmarDiario()}. O alocador de IDs
+     * dos projetos é avançado para lá desse ID antes de a entidade ficar visível, para que uma criação
+     * em simultâneo não receba o mesmo ID.
+     * @param projeto O projeto a adicionar.
+     * @throws IllegalArgumentException se já existir um projeto com o mesmo ID.
+     */
+    void importarProjeto(Projeto projeto) {
+        // O ID é reservado antes de o projeto ficar visível: a partir daqui, o alocador já não o atribui.
+        this.idsProjetos.avancarPara(projeto.getId() + 1L);
+        if (inserirProjeto(projeto, this.diario) == ID_OCUPADO) throw projetoRepetido(projeto);
+    }
+
+    /**
+     * Torna visível um projeto novo, com o seu bloqueio adquirido.
+     * @param projeto O projeto.
+     * @param diario O diário onde registar a operação, ou {@code null}.
+     * @return O LSN do registo no diário a confirmar, 0, ou {@link #ID_OCUPADO} se já existir um
+     *         projeto com o mesmo ID (e nada foi feito).
+     */
+    private long inserirProjeto(Projeto projeto, DiarioOperacoes diario) {
+        ReentrantLock bloqueio = this.bloqueiosProjetos.para(projeto.getId());
+        bloqueio.lock();
+        try {
+            if (this.projetos.contem(projeto.getId())) return ID_OCUPADO;
+            // Registado no diário antes de ficar visível, para preceder qualquer operação sobre ele.
+            long lsn = diario == null ? 0 : diario.registarProjetoAdicionado(projeto);
+            if (this.associacoesCompactas != null) this.associacoesCompactas.ligar(projeto);
+            fotografar(f -> f.comProjeto(projeto));
+            this.agregados.projetoAdicionado(projeto);
+            this.projetos.colocar(projeto.getId(), projeto);
+            this.indiceTitulos.adicionar(projeto.getTitulo(), projeto.getId(), projeto);
+            this.indiceFinanciamento.adicionar(projeto);
+            publicar(EventoUNIAG.Tipo.PROJETO_ADICIONADO, 0, projeto.getId(), projeto.getFinanciamento(), projeto.getTitulo());
+            return lsn;
+        } finally {
+            bloqueio.unlock();
+        }
+    }
+
+    private static IllegalArgumentException membroRepetido(MembroInvestigador membro) {
+        return new IllegalArgumentException("Já existe um membro com o ID " + membro.getId() + ".");
+    }
+
+    private static IllegalArgumentException projetoRepetido(Projeto projeto) {
+        return new IllegalArgumentException("Já existe um projeto com o ID " + projeto.getId() + ".");
     }
 
     // --- MÉTODOS DE EDIÇÃO (UPDATE) ---
@@ -135,16 +427,28 @@ public class UNIAG {
      */
     public boolean editarNomeMembro(int idMembro, String novoNome) {
         MembroInvestigador membro = findMembro(idMembro);
-        if (membro != null) {
-            try {
-                membro.setNome(novoNome);
-                return true;
-            } catch (IllegalArgumentException e) {
-                System.out.println("Erro ao editar: " + e.getMessage());
-                return false;
-            }
+        if (membro == null) return false;
+        DiarioOperacoes diario = this.diario;
+        long lsn = 0;
+        ReentrantLock bloqueio = this.bloqueiosMembros.para(idMembro);
+        bloqueio.lock();
+        try {
+            if (this.membros.obter(idMembro) != membro) return false; // removido entretanto
+            if (diario != null) DiarioOperacoes.verificarTexto(novoNome);
+            String nomeAntigo = membro.getNome();
+            membro.setNome(novoNome);
+            this.indiceNomes.alterar(nomeAntigo, membro.getNome(), idMembro, membro);
+            if (diario != null) lsn = diario.registarNomeEditado(idMembro, novoNome);
+            fotografar(f -> f.comNome(idMembro, membro.getNome()));
+            publicar(EventoUNIAG.Tipo.NOME_EDITADO, idMembro, 0, 0, membro.getNome());
+        } catch (IllegalArgumentException e) {
+            System.out.println("Erro ao editar: " + e.getMessage());
+            return false;
+        } finally {
+            bloqueio.unlock();
         }
-        return false;
+        confirmar(diario, lsn);
+        return true;
     }
 
     /**
@@ -154,17 +458,11 @@ public class UNIAG {
      * @return {@code true} se a edição foi bem-sucedida, {@code false} caso contrário.
      */
     public boolean editarTituloProjeto(int idProj, String novoTitulo) {
-        Projeto projeto = findProjeto(idProj);
-        if (projeto != null) {
-            try {
-                projeto.setTitulo(novoTitulo);
-                return true;
-            } catch (IllegalArgumentException e) {
-                System.out.println("Erro ao editar: " + e.getMessage());
-                return false;
-            }
+        if (novoTitulo == null) {
+            System.out.println("Erro ao editar: O título não pode ser nulo ou vazio.");
+            return false;
         }
-        return false;
+        return editarProjeto(idProj, novoTitulo, null);
     }
 
     /**
@@ -174,17 +472,59 @@ public class UNIAG {
      * @return {@code true} se a edição foi bem-sucedida, {@code false} caso contrário.
      */
     public boolean editarFinanciamentoProjeto(int idProj, double novoFin) {
+        return editarProjeto(idProj, null, novoFin);
+    }
+
+    /**
+     * Edita o título e/ou o financiamento de um projeto existente, de uma só vez: os dois valores
+     * são validados antes de qualquer alteração e aplicados com o bloqueio do projeto adquirido,
+     * pelo que nenhuma outra operação vê o projeto só com um deles alterado.
+     * @param idProj O ID do projeto a editar.
+     * @param novoTitulo O novo título, ou {@code null} para o manter.
+     * @param novoFin O novo financiamento, ou {@code null} para o manter.
+     * @return {@code true} se a edição foi bem-sucedida, {@code false} caso contrário (e nada foi alterado).
+     */
+    public boolean editarProjeto(int idProj, String novoTitulo, Double novoFin) {
         Projeto projeto = findProjeto(idProj);
-        if (projeto != null) {
-            try {
+        if (projeto == null) return false;
+        DiarioOperacoes diario = this.diario;
+        try {
+            if (novoTitulo != null) {
+                Projeto.validarTitulo(novoTitulo);
+                if (diario != null) DiarioOperacoes.verificarTexto(novoTitulo);
+            }
+            if (novoFin != null) Projeto.validarFinanciamento(novoFin);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Erro ao editar: " + e.getMessage());
+            return false;
+        }
+        long lsn = 0;
+        ReentrantLock bloqueio = this.bloqueiosProjetos.para(idProj);
+        bloqueio.lock();
+        try {
+            if (this.projetos.obter(idProj) != projeto) return false; // removido entretanto
+            if (novoTitulo != null) {
+                String tituloAntigo = projeto.getTitulo();
+                projeto.setTitulo(novoTitulo);
+                this.indiceTitulos.alterar(tituloAntigo, projeto.getTitulo(), idProj, projeto);
+                if (diario != null) lsn = diario.registarTituloEditado(idProj, novoTitulo);
+                fotografar(f -> f.comTitulo(idProj, projeto.getTitulo()));
+                publicar(EventoUNIAG.Tipo.TITULO_EDITADO, 0, idProj, 0, projeto.getTitulo());
+            }
+            if (novoFin != null) {
+                long centimosAntigos = projeto.getFinanciamentoCentimos();
                 projeto.setFinanciamento(novoFin);
-                return true;
-            } catch (IllegalArgumentException e) {
-                System.out.println("Erro ao editar: " + e.getMessage());
-                return false;
+                this.indiceFinanciamento.alterar(centimosAntigos, projeto);
+                this.agregados.financiamentoAlterado(centimosAntigos, projeto.getFinanciamentoCentimos());
+                if (diario != null) lsn = diario.registarFinanciamentoEditado(idProj, novoFin);
+                fotografar(f -> f.comFinanciamento(idProj, projeto.getFinanciamento()));
+                publicar(EventoUNIAG.Tipo.FINANCIAMENTO_EDITADO, 0, idProj, projeto.getFinanciamento(), null);
             }
+        } finally {
+            bloqueio.unlock();
         }
-        return false;
+        confirmar(diario, lsn);
+        return true;
     }
 
     // --- MÉTODOS DE REMOÇÃO (DELETE) ---
@@ -195,38 +535,244 @@ public class UNIAG {
      * @return {@code true} se o projeto foi encontrado e removido.
      */
     public boolean removerProjeto(int idProj) {
-        Projeto projetoARemover = this.findProjeto(idProj);
-        if (projetoARemover == null) return false;
+        long medicao = this.metricas.inicio();
+        try {
+            Projeto projetoARemover;
+            List<MembroInvestigador> membrosParaDesassociar;
+            DiarioOperacoes diario = this.diario;
+            long lsn = 0;
+            ReentrantLock bloqueioProjeto = this.bloqueiosProjetos.para(idProj);
+            bloqueioProjeto.lock();
+            try {
+                // Retirar primeiro do registo: a partir daqui nenhuma nova associação é aceite.
+                projetoARemover = this.projetos.remover(idProj);
+                if (projetoARemover == null) return false;
+                this.indiceTitulos.remover(projetoARemover.getTitulo(), idProj);
+                this.indiceFinanciamento.remover(projetoARemover.getFinanciamentoCentimos(), idProj);
+                this.agregados.projetoRemovido(projetoARemover);
+                if (diario != null) lsn = diario.registarProjetoRemovido(idProj);
+                // Na fotografia, a remoção e o desfazer de todas as ligações são uma única versão.
+                fotografar(f -> f.semProjeto(idProj));
+                publicar(EventoUNIAG.Tipo.PROJETO_REMOVIDO, 0, idProj, 0, null);
+                membrosParaDesassociar = new ArrayList<>(projetoARemover.getMembrosParticipantes());
+            } finally {
+                bloqueioProjeto.unlock();
+            }
 
-        List<MembroInvestigador> membrosParaDesassociar = new ArrayList<>(projetoARemover.getMembrosParticipantes());
-        for (MembroInvestigador membro : membrosParaDesassociar) {
-            membro.removerAssociacaoProjeto(projetoARemover);
+            for (MembroInvestigador membro : membrosParaDesassociar) {
+                ReentrantLock bloqueioMembro = this.bloqueiosMembros.para(membro.getId());
+                bloqueioMembro.lock();
+                try {
+                    if (membro.removerAssociacaoProjeto(projetoARemover)) {
+                        publicar(EventoUNIAG.Tipo.ASSOCIACAO_REMOVIDA, membro.getId(), idProj, 0, null);
+                    }
+                } finally {
+                    bloqueioMembro.unlock();
+                }
+            }
+            if (this.associacoesCompactas != null) {
+                bloqueioProjeto.lock();
+                try {
+                    this.associacoesCompactas.desligar(projetoARemover);
+                } finally {
+                    bloqueioProjeto.unlock();
+                }
+            }
+            confirmar(diario, lsn);
+            return true;
+        } finally {
+            this.metricas.registar(MetricasUNIAG.Operacao.REMOVER_PROJETO, medicao);
         }
-
-        this.projetos.remove(idProj);
-        return true;
     }
 
     /**
      * Remove um membro do sistema, garantindo a consistência das associações.
+     * <p>
+     * O membro é retirado de todos os seus projetos com os bloqueios desses projetos adquiridos ao
+     * mesmo tempo, para que uma distribuição de verba concorrente o credite totalmente antes da
+     * remoção ou não o credite de todo, pela mesma ordem em que as duas operações ficam no diário.
+     *
      * @param idMembro O ID do membro a ser removido.
      * @return {@code true} se o membro foi encontrado e removido.
      */
     public boolean removerMembro(int idMembro) {
-        MembroInvestigador membroARemover = this.findMembro(idMembro);
-        if (membroARemover == null) return false;
-
-        List<Projeto> projetosParaDesassociar = new ArrayList<>(membroARemover.getProjetosAssociados());
-        for (Projeto projeto : projetosParaDesassociar) {
-            projeto.removerMembro(membroARemover);
+        long medicao = this.metricas.inicio();
+        try {
+            DiarioOperacoes diario = this.diario;
+            long lsn = 0;
+            ReentrantLock bloqueioMembro = this.bloqueiosMembros.para(idMembro);
+            bloqueioMembro.lock();
+            try {
+                MembroInvestigador membroARemover = this.membros.obter(idMembro);
+                if (membroARemover == null) return false;
+                // Os projetos do membro só mudam com o seu bloqueio, que está adquirido.
+                List<Projeto> projetosParaDesassociar = new ArrayList<>(membroARemover.getProjetosAssociados());
+                int[] idsProjetos = new int[projetosParaDesassociar.size()];
+                for (int i = 0; i < idsProjetos.length; i++) {
+                    idsProjetos[i] = projetosParaDesassociar.get(i).getId();
+                }
+                ReentrantLock[] bloqueiosProjetos = this.bloqueiosProjetos.bloquear(idsProjetos);
+                try {
+                    this.membros.remover(idMembro);
+                    this.indiceNomes.remover(membroARemover.getNome(), idMembro);
+                    this.agregados.membroRemovido(membroARemover);
+                    // Na fotografia, a remoção e o desfazer de todas as ligações são uma única versão.
+                    fotografar(f -> f.semMembro(idMembro));
+                    publicar(EventoUNIAG.Tipo.MEMBRO_REMOVIDO, idMembro, 0, 0, null);
+                    for (Projeto projeto : projetosParaDesassociar) {
+                        // As participações de um projeto já removido foram descontadas na sua remoção.
+                        if (projeto.removerMembro(membroARemover) && this.projetos.obter(projeto.getId()) == projeto) {
+                            this.agregados.associacoesAlteradas(-1);
+                            publicar(EventoUNIAG.Tipo.ASSOCIACAO_REMOVIDA, idMembro, projeto.getId(), 0, null);
+                        }
+                    }
+                    if (this.associacoesCompactas != null) this.associacoesCompactas.desligar(membroARemover);
+                    // Já não pertence a nenhum projeto: nenhuma distribuição o pode creditar e o saldo é final.
+                    if (membroARemover instanceof Investigador) {
+                        this.agregados.saldoRetirado(((Investigador) membroARemover).getSaldoCentimos());
+                    }
+                    if (diario != null) lsn = diario.registarMembroRemovido(idMembro);
+                } finally {
+                    BloqueiosRepartidos.desbloquear(bloqueiosProjetos);
+                }
+            } finally {
+                bloqueioMembro.unlock();
+            }
+            confirmar(diario, lsn);
+            return true;
+        } finally {
+            this.metricas.registar(MetricasUNIAG.Operacao.REMOVER_MEMBRO, medicao);
         }
-
-        this.membros.remove(idMembro);
-        return true;
     }
 
     // --- OUTROS MÉTODOS DE GESTÃO ---
 
+    /**
+     * Obtém uma vista não modificável de todos os membros registados.
+     * @return Os membros, por ordem crescente de ID.
+     */
+    public Collection<MembroInvestigador> getMembros() {
+        return Collections.unmodifiableCollection(this.membros.valores());
+    }
+
+    /**
+     * Obtém uma vista não modificável de todos os projetos registados.
+     * @return Os projetos, por ordem crescente de ID.
+     */
+    public Collection<Projeto> getProjetos() {
+        return Collections.unmodifiableCollection(this.projetos.valores());
+    }
+
+    /**
+     * Obtém uma página dos membros registados, por ordem crescente de ID (paginação por cursor).
+     * <p>
+     * A primeira página é pedida com o cursor {@code 0} e as seguintes com o
+     * {@linkplain Pagina#getCursor() cursor} da página anterior, até à
+     * {@linkplain Pagina#isUltima() última}. Cada página começa diretamente no ID do cursor: o custo
+     * depende do tamanho da página (e dos IDs removidos pelo caminho) e não do número de membros,
+     * e as páginas não precisam de nenhum bloqueio.
+     * <p>
+     * As páginas continuam válidas enquanto outras threads criam e removem membros: os membros
+     * criados entretanto recebem IDs maiores e aparecem nas páginas seguintes, os removidos deixam
+     * simplesmente de aparecer, e nenhum membro existente durante todo o percurso é saltado ou repetido.
+     *
+     * @param depoisDe O cursor ({@code 0} para a primeira página).
+     * @param limite O número máximo de membros da página.
+     * @return A página.
+     * @throws IllegalArgumentException se o cursor for negativo ou o limite não for positivo.
+     */
+    public Pagina<MembroInvestigador> listarMembros(int depoisDe, int limite) {
+        return listarMembros(MembroInvestigador.class, depoisDe, limite);
+    }
+
+    /**
+     * Obtém uma página dos membros de um tipo, por ordem crescente de ID
+     * (ver {@link #listarMembros(int, int)}). Uma página de um tipo pouco frequente pode vir
+     * incompleta, ou vazia, sem ser a última; basta continuar com o cursor devolvido.
+     * @param tipo O tipo dos membros (por exemplo, {@code Investigador.class}).
+     * @param depoisDe O cursor ({@code 0} para a primeira página).
+     * @param limite O número máximo de membros da página.
+     * @param <T> O tipo dos membros.
+     * @return A página.
+     * @throws IllegalArgumentException se o cursor for negativo ou o limite não for positivo.
+     */
+    public <T extends MembroInvestigador> Pagina<T> listarMembros(Class<T> tipo, int depoisDe, int limite) {
+        Objects.requireNonNull(tipo, "O tipo não pode ser nulo.");
+        return pagina(this.membros, tipo, depoisDe, limite);
+    }
+
+    /**
+     * Obtém uma página dos projetos registados, por ordem crescente de ID
+     * (ver {@link #listarMembros(int, int)}).
+     * @param depoisDe O cursor ({@code 0} para a primeira página).
+     * @param limite O número máximo de projetos da página.
+     * @return A página.
+     * @throws IllegalArgumentException se o cursor for negativo ou o limite não for positivo.
+     */
+    public Pagina<Projeto> listarProjetos(int depoisDe, int limite) {
+        return pagina(this.projetos, Projeto.class, depoisDe, limite);
+    }
+
+    private static <E, T extends E> Pagina<T> pagina(RegistoIds<E> registo, Class<T> tipo, int depoisDe, int limite) {
+        if (depoisDe < 0) throw new IllegalArgumentException("O cursor não pode ser negativo.");
+        if (limite <= 0) throw new IllegalArgumentException("O limite tem de ser positivo.");
+        List<T> itens = new ArrayList<>(Math.min(limite, 1024));
+        int cursor = registo.pagina(depoisDe, limite, tipo, itens);
+        return new Pagina<>(itens, cursor);
+    }
+
+    /**
+     * Obtém o alocador dos IDs dos membros criados por esta UNIAG.
+     * @return O alocador.
+     */
+    AlocadorIds getIdsMembros() {
+        return this.idsMembros;
+    }
+
+    /**
+     * Obtém o alocador dos IDs dos projetos criados por esta UNIAG.
+     * @return O alocador.
+     */
+    AlocadorIds getIdsProjetos() {
+        return this.idsProjetos;
+    }
+
+    /**
+     * Executa uma ação sobre um membro com o respetivo bloqueio adquirido, para que o seu conjunto
+     * de projetos possa ser lido de forma consistente enquanto outras threads fazem alterações.
+     * @param membro O membro.
+     * @param acao A ação a executar.
+     * @param <R> O tipo do resultado da ação.
+     * @return O resultado da ação.
+     */
+    <R> R comBloqueioMembro(MembroInvestigador membro, Function<MembroInvestigador, R> acao) {
+        ReentrantLock bloqueio = this.bloqueiosMembros.para(membro.getId());
+        bloqueio.lock();
+        try {
+            return acao.apply(membro);
+        } finally {
+            bloqueio.unlock();
+        }
+    }
+
+    /**
+     * Executa uma ação sobre um projeto com o respetivo bloqueio adquirido, para que o seu conjunto
+     * de participantes possa ser lido de forma consistente enquanto outras threads fazem alterações.
+     * @param projeto O projeto.
+     * @param acao A ação a executar.
+     * @param <R> O tipo do resultado da ação.
+     * @return O resultado da ação.
+     */
+    <R> R comBloqueioProjeto(Projeto projeto, Function<Projeto, R> acao) {
+        ReentrantLock bloqueio = this.bloqueiosProjetos.para(projeto.getId());
+        bloqueio.lock();
+        try {
+            return acao.apply(projeto);
+        } finally {
+            bloqueio.unlock();
+        }
+    }
+
     /**
      * Associa um membro a um projeto, estabelecendo a ligação bidirecional.
      * @param idMembro O ID do membro a associar.
@@ -234,14 +780,122 @@ public class UNIAG {
      * @return {@code true} se a associação foi bem-sucedida, {@code false} caso contrário.
      */
     public boolean associaMembroProjeto(int idMembro, int idProj) {
-        MembroInvestigador membro = findMembro(idMembro);
-        Projeto projeto = findProjeto(idProj);
-        if (membro != null && projeto != null) {
-            boolean sucessoProjeto = projeto.adicionarMembro(membro);
-            boolean sucessoMembro = membro.associarProjeto(projeto);
-            return sucessoMembro && sucessoProjeto;
+        long medicao = this.metricas.inicio();
+        try {
+            MembroInvestigador membro = findMembro(idMembro);
+            Projeto projeto = findProjeto(idProj);
+            if (membro == null || projeto == null) return false;
+            DiarioOperacoes diario = this.diario;
+            boolean associado = ligar(membro, projeto, diario) == RelatorioAssociacoes.Resultado.ASSOCIADO;
+            if (associado) confirmarTudo(diario);
+            return associado;
+        } finally {
+            this.metricas.registar(MetricasUNIAG.Operacao.ASSOCIAR, medicao);
+        }
+    }
+
+    /**
+     * Associa em lote vários pares membro-projeto.
+     * <p>
+     * Todos os IDs são validados numa única passagem; os pares válidos são depois agrupados
+     * por projeto, para que o conjunto de participantes de cada projeto seja dimensionado
+     * uma única vez antes de receber o seu grupo de membros.
+     *
+     * @param idsMembros Os IDs dos membros, um por par.
+     * @param idsProjetos Os IDs dos projetos, na mesma posição do membro correspondente.
+     * @return Um relatório com o resultado de cada par, pela ordem recebida.
+     * @throws IllegalArgumentException se os dois arrays não tiverem o mesmo tamanho.
+     */
+    public RelatorioAssociacoes associaMembrosProjetos(int[] idsMembros, int[] idsProjetos) {
+        long medicao = this.metricas.inicio();
+        try {
+            if (idsMembros.length != idsProjetos.length) {
+                throw new IllegalArgumentException("O número de membros e de projetos do lote tem de ser igual.");
+            }
+            int n = idsMembros.length;
+            RelatorioAssociacoes relatorio = new RelatorioAssociacoes(n);
+            DiarioOperacoes diario = this.diario;
+            MembroInvestigador[] membrosLote = new MembroInvestigador[n];
+            Projeto[] projetosLote = new Projeto[n];
+
+            // 1. Validar todos os IDs e ordenar os pares válidos por projeto (ID do projeto nos 32 bits altos).
+            long[] chaves = new long[n];
+            int validos = 0;
+            for (int i = 0; i < n; i++) {
+                membrosLote[i] = findMembro(idsMembros[i]);
+                projetosLote[i] = findProjeto(idsProjetos[i]);
+                if (membrosLote[i] == null) {
+                    relatorio.registar(i, RelatorioAssociacoes.Resultado.MEMBRO_INEXISTENTE);
+                } else if (projetosLote[i] == null) {
+                    relatorio.registar(i, RelatorioAssociacoes.Resultado.PROJETO_INEXISTENTE);
+                } else {
+                    chaves[validos++] = ((long) idsProjetos[i] << 32) | i;
+                }
+            }
+            Arrays.sort(chaves, 0, validos);
+
+            // 2. Processar cada grupo de pares do mesmo projeto.
+            int inicio = 0;
+            while (inicio < validos) {
+                int idProj = (int) (chaves[inicio] >>> 32);
+                int fim = inicio + 1;
+                while (fim < validos && (int) (chaves[fim] >>> 32) == idProj) fim++;
+
+                Projeto projeto = projetosLote[(int) chaves[inicio]];
+                ReentrantLock bloqueioProjeto = this.bloqueiosProjetos.para(idProj);
+                bloqueioProjeto.lock();
+                try {
+                    projeto.reservarCapacidade(fim - inicio);
+                } finally {
+                    bloqueioProjeto.unlock();
+                }
+                for (int k = inicio; k < fim; k++) {
+                    int i = (int) chaves[k];
+                    relatorio.registar(i, ligar(membrosLote[i], projeto, diario));
+                }
+                inicio = fim;
+            }
+            // Uma única espera pelo diário cobre todas as associações do lote.
+            confirmarTudo(diario);
+            return relatorio;
+        } finally {
+            this.metricas.registar(MetricasUNIAG.Operacao.ASSOCIAR_EM_LOTE, medicao);
+        }
+    }
+
+    /**
+     * Estabelece a ligação bidirecional entre um membro e um projeto, com os dois bloqueios adquiridos.
+     * A associação é registada no diário, mas a espera pela durabilidade fica a cargo de quem invoca.
+     * @param membro O membro a associar.
+     * @param projeto O projeto a associar.
+     * @param diario O diário ativo, ou {@code null}.
+     * @return O resultado da associação.
+     */
+    private RelatorioAssociacoes.Resultado ligar(MembroInvestigador membro, Projeto projeto, DiarioOperacoes diario) {
+        ReentrantLock bloqueioMembro = this.bloqueiosMembros.para(membro.getId());
+        ReentrantLock bloqueioProjeto = this.bloqueiosProjetos.para(projeto.getId());
+        bloqueioMembro.lock();
+        try {
+            bloqueioProjeto.lock();
+            try {
+                // Uma remoção concorrente pode ter retirado o membro ou o projeto entretanto.
+                if (this.membros.obter(membro.getId()) != membro) return RelatorioAssociacoes.Resultado.MEMBRO_INEXISTENTE;
+                if (this.projetos.obter(projeto.getId()) != projeto) return RelatorioAssociacoes.Resultado.PROJETO_INEXISTENTE;
+                // Primeiro do lado do membro: um participante tem sempre o projeto entre os seus.
+                boolean sucessoMembro = membro.associarProjeto(projeto);
+                boolean sucessoProjeto = projeto.adicionarMembro(membro);
+                if (sucessoProjeto) this.agregados.associacoesAlteradas(1);
+                if (!(sucessoMembro && sucessoProjeto)) return RelatorioAssociacoes.Resultado.JA_ASSOCIADO;
+                if (diario != null) diario.registarAssociacao(membro.getId(), projeto.getId());
+                fotografar(f -> f.comAssociacao(membro.getId(), projeto.getId()));
+                publicar(EventoUNIAG.Tipo.ASSOCIACAO_CRIADA, membro.getId(), projeto.getId(), 0, null);
+                return RelatorioAssociacoes.Resultado.ASSOCIADO;
+            } finally {
+                bloqueioProjeto.unlock();
+            }
+        } finally {
+            bloqueioMembro.unlock();
         }
-        return false;
     }
 
     /**
@@ -250,11 +904,321 @@ public class UNIAG {
      * @return {@code true} se o projeto foi encontrado, {@code false} caso contrário.
      */
     public boolean distribuirVerbaPorInvestigador(int idProj) {
-        Projeto projeto = findProjeto(idProj);
-        if (projeto != null) {
-            projeto.distribuirVerbaPorInvestigador();
+        return distribuirVerba(idProj, true);
+    }
+
+    /**
+     * Distribui a verba de um projeto específico, opcionalmente sem mensagens na consola.
+     * @param idProj O ID do projeto cuja verba será distribuída.
+     * @param mostrarMensagem {@code true} para informar o resultado na consola.
+     * @return {@code true} se o projeto foi encontrado, {@code false} caso contrário.
+     */
+    boolean distribuirVerba(int idProj, boolean mostrarMensagem) {
+        long medicao = this.metricas.inicio();
+        try {
+            DiarioOperacoes diario = this.diario;
+            long lsn = 0;
+            ReentrantLock bloqueio = this.bloqueiosProjetos.para(idProj);
+            bloqueio.lock();
+            try {
+                Projeto projeto = findProjeto(idProj);
+                if (projeto == null) return false;
+                PublicadorEventos eventos = this.eventos;
+                if (this.fotografia.get() == null && eventos == null) {
+                    projeto.distribuirVerbaPorInvestigador(mostrarMensagem, (inv, valor) -> this.agregados.creditado(valor));
+                } else {
+                    FotografiaUNIAG.Creditos creditos = this.fotografia.get() == null ? null
+                            : new FotografiaUNIAG.Creditos(projeto.getNumeroInvestigadores());
+                    long[] distribuido = new long[1];
+                    projeto.distribuirVerbaPorInvestigador(mostrarMensagem, (inv, valor) -> {
+                        this.agregados.creditado(valor);
+                        if (creditos != null) creditos.registar(inv, valor);
+                        distribuido[0] += valor;
+                        publicar(eventos, EventoUNIAG.Tipo.SALDO_CREDITADO, inv.getId(), idProj, valor / 100.0, null);
+                    });
+                    if (creditos != null) fotografar(f -> f.comCreditos(creditos));
+                    publicar(eventos, EventoUNIAG.Tipo.VERBA_DISTRIBUIDA, 0, idProj, distribuido[0] / 100.0, null);
+                }
+                if (diario != null) lsn = diario.registarVerbaDistribuida(idProj);
+            } finally {
+                bloqueio.unlock();
+            }
+            confirmar(diario, lsn);
             return true;
+        } finally {
+            this.metricas.registar(MetricasUNIAG.Operacao.DISTRIBUIR_VERBA, medicao);
+        }
+    }
+
+    /**
+     * Distribui, em paralelo, a verba de todos os projetos pelos respetivos investigadores integrados.
+     * <p>
+     * Os projetos são processados pelo {@link java.util.concurrent.ForkJoinPool} comum (parallel streams),
+     * cada um com o seu bloqueio adquirido. Um investigador que participe em vários projetos pode ser
+     * creditado por várias threads ao mesmo tempo, o que é seguro em {@link Investigador#adicionarSaldoCentimos(long)}.
+     *
+     * @return Um resumo com o total creditado a cada investigador.
+     */
+    public ResumoDistribuicao distribuirTodasAsVerbas() {
+        long medicao = this.metricas.inicio();
+        try {
+            ConcurrentHashMap<Integer, LongAdder> totais = new ConcurrentHashMap<>();
+            LongAdder projetosDistribuidos = new LongAdder();
+            DiarioOperacoes diario = this.diario;
+            PublicadorEventos eventos = this.eventos;
+            this.projetos.valores().parallelStream().forEach(projeto -> {
+                ReentrantLock bloqueio = this.bloqueiosProjetos.para(projeto.getId());
+                bloqueio.lock();
+                try {
+                    if (this.projetos.obter(projeto.getId()) != projeto) return; // removido entretanto
+                    FotografiaUNIAG.Creditos creditos = this.fotografia.get() == null ? null
+                            : new FotografiaUNIAG.Creditos(projeto.getNumeroInvestigadores());
+                    long[] distribuido = new long[1];
+                    int creditados = projeto.distribuirVerbaPorInvestigador((inv, valor) -> {
+                        totais.computeIfAbsent(inv.getId(), id -> new LongAdder()).add(valor);
+                        this.agregados.creditado(valor);
+                        if (creditos != null) creditos.registar(inv, valor);
+                        distribuido[0] += valor;
+                        publicar(eventos, EventoUNIAG.Tipo.SALDO_CREDITADO, inv.getId(), projeto.getId(), valor / 100.0, null);
+                    });
+                    if (creditados > 0) projetosDistribuidos.increment();
+                    if (creditos != null) fotografar(f -> f.comCreditos(creditos));
+                    publicar(eventos, EventoUNIAG.Tipo.VERBA_DISTRIBUIDA, 0, projeto.getId(), distribuido[0] / 100.0, null);
+                    if (diario != null) diario.registarVerbaDistribuida(projeto.getId());
+                } finally {
+                    bloqueio.unlock();
+                }
+            });
+            confirmarTudo(diario);
+
+            Map<Integer, Long> resumo = new HashMap<>(totais.size() * 4 / 3 + 1);
+            totais.forEach((id, total) -> resumo.put(id, total.sum()));
+            return new ResumoDistribuicao(resumo, projetosDistribuidos.intValue());
+        } finally {
+            this.metricas.registar(MetricasUNIAG.Operacao.DISTRIBUIR_TODAS, medicao);
+        }
+    }
+
+    // --- ESTATÍSTICAS ---
+
+    /**
+     * Obtém as estatísticas agregadas da unidade em O(1): são mantidas a cada operação de criação,
+     * edição, associação, remoção e distribuição, sem percorrer as entidades.
+     * <p>
+     * Com a verificação ativa ({@link #setVerificarEstatisticas(boolean)}), cada chamada recalcula-as
+     * também de raiz e compara (ver {@link #verificarEstatisticas()}).
+     *
+     * @return As estatísticas atuais (exatas quando não há operações em curso).
+     */
+    public EstatisticasUNIAG getEstatisticas() {
+        return this.verificarEstatisticas ? verificarEstatisticas() : this.agregados.ler();
+    }
+
+    /**
+     * Recalcula as estatísticas de raiz, em O(n), e compara-as com as mantidas incrementalmente.
+     * Deve ser invocado sem operações em curso, que podem estar aplicadas só em parte.
+     * @return As estatísticas recalculadas.
+     * @throws IllegalStateException se as estatísticas mantidas não coincidirem com as recalculadas.
+     */
+    public EstatisticasUNIAG verificarEstatisticas() {
+        EstatisticasUNIAG mantidas = this.agregados.ler();
+        EstatisticasUNIAG recalculadas = EstatisticasUNIAG.calcular(this.membros, this.projetos);
+        if (!mantidas.equals(recalculadas)) {
+            throw new IllegalStateException("Estatísticas inconsistentes: mantidas [" + mantidas
+                    + "], recalculadas [" + recalculadas + "].");
+        }
+        return recalculadas;
+    }
+
+    /**
+     * Ativa ou desativa o modo de verificação das estatísticas (por omissão, desativado).
+     * @param verificar {@code true} para que {@link #getEstatisticas()} recalcule e compare a cada chamada.
+     */
+    public void setVerificarEstatisticas(boolean verificar) {
+        this.verificarEstatisticas = verificar;
+    }
+
+    // --- FOTOGRAFIAS ---
+
+    /**
+     * Ativa a publicação de fotografias coerentes da unidade (ver {@link FotografiaUNIAG}).
+     * <p>
+     * A primeira fotografia é construída com todos os bloqueios adquiridos, o que espera pelas
+     * operações em curso e custa O(n). A partir daí, cada operação que altera a unidade publica,
+     * com os bloqueios das entidades envolvidas adquiridos, uma nova fotografia que partilha com a
+     * anterior tudo o que não mudou. Enquanto não forem ativadas, as operações não têm qualquer custo extra.
+     *
+     * @return A fotografia atual.
+     */
+    public FotografiaUNIAG ativarFotografias() {
+        FotografiaUNIAG atual = this.fotografia.get();
+        if (atual != null) return atual;
+        // Pela mesma ordem das operações: todos os bloqueios de membros, depois todos os de projetos.
+        this.bloqueiosMembros.bloquearTodos();
+        try {
+            this.bloqueiosProjetos.bloquearTodos();
+            try {
+                atual = this.fotografia.get();
+                if (atual == null) {
+                    atual = FotografiaUNIAG.de(this.membros, this.projetos);
+                    this.fotografia.set(atual);
+                }
+                return atual;
+            } finally {
+                this.bloqueiosProjetos.desbloquearTodos();
+            }
+        } finally {
+            this.bloqueiosMembros.desbloquearTodos();
+        }
+    }
+
+    /**
+     * Obtém a fotografia mais recente, em O(1) e sem bloqueios. A fotografia devolvida nunca muda:
+     * para ver operações posteriores, obtém-se uma nova.
+     * @return A fotografia atual, ou {@code null} se as fotografias não estiverem ativas.
+     */
+    public FotografiaUNIAG getFotografia() {
+        return this.fotografia.get();
+    }
+
+    /**
+     * Publica uma nova fotografia, se estiverem ativas. Invocado com os bloqueios das entidades
+     * alteradas adquiridos, para que as fotografias sigam a mesma ordem que as operações. A transição
+     * pode ser reaplicada se outra thread publicar entretanto uma fotografia de outras entidades.
+     * @param transicao Calcula a nova fotografia a partir da atual.
+     */
+    private void fotografar(UnaryOperator<FotografiaUNIAG> transicao) {
+        FotografiaUNIAG atual;
+        do {
+            atual = this.fotografia.get();
+            if (atual == null) return;
+        } while (!this.fotografia.compareAndSet(atual, transicao.apply(atual)));
+    }
+
+    // --- DIÁRIO DE OPERAÇÕES ---
+
+    /**
+     * Ativa (ou desativa, com {@code null}) o registo das operações num diário.
+     * <p>
+     * A partir daqui, todas as operações que alteram a unidade são registadas antes de terminarem,
+     * e esperam pela sua durabilidade conforme o {@link DiarioOperacoes.ModoDurabilidade} do diário.
+     * Se o diário estiver atrás de {@link #getLsnIncluido()} (todos os seus registos já estão no
+     * estado carregado), é esvaziado, para que as novas operações fiquem numeradas depois desse LSN.
+     *
+     * @param diario O diário a usar, ou {@code null} para deixar de registar.
+     * @throws UncheckedIOException se o diário precisar de ser esvaziado e isso falhar.
+     */
+    public void setDiario(DiarioOperacoes diario) {
+        if (diario != null) {
+            try {
+                diario.avancarPara(this.lsnIncluido);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Não foi possível preparar o diário.", e);
+            }
+        }
+        DiarioOperacoes anterior = this.diario;
+        if (anterior != null) this.lsnIncluido = Math.max(this.lsnIncluido, anterior.getUltimoLsn());
+        this.diario = diario;
+    }
+
+    /**
+     * Obtém o LSN do último registo de diário contido no estado da unidade (restaurado por
+     * {@link PersistenciaUNIAG#carregar(java.nio.file.Path)} e avançado por
+     * {@link DiarioOperacoes#reproduzir(java.nio.file.Path, UNIAG)}). Com um diário ativo, o valor
+     * atual é o {@link DiarioOperacoes#getUltimoLsn()} desse diário.
+     *
+     * @return O LSN, ou 0 se a unidade não tiver vindo de um diário.
+     */
+    long getLsnIncluido() {
+        return this.lsnIncluido;
+    }
+
+    void setLsnIncluido(long lsn) {
+        this.lsnIncluido = lsn;
+    }
+
+    /**
+     * Obtém o diário ativo.
+     * @return O diário de operações, ou {@code null} se nenhum estiver ativo.
+     */
+    public DiarioOperacoes getDiario() {
+        return this.diario;
+    }
+
+    /**
+     * Espera que todas as operações já registadas no diário (se ativo) estejam confirmadas, por
+     * exemplo no fim de um lote de {@link #importarMembro(MembroInvestigador)}.
+     */
+    void confirmarDiario() {
+        confirmarTudo(this.diario);
+    }
+
+    private static void confirmar(DiarioOperacoes diario, long lsn) {
+        if (diario != null && lsn > 0) diario.confirmar(lsn);
+    }
+
+    private static void confirmarTudo(DiarioOperacoes diario) {
+        if (diario != null) diario.confirmar(diario.getUltimoLsn());
+    }
+
+    // --- EVENTOS ---
+
+    /**
+     * Ativa (ou desativa, com {@code null}) a publicação das alterações como eventos
+     * (ver {@link PublicadorEventos}).
+     * <p>
+     * A partir daqui, cada operação que altera a unidade publica os seus eventos com os bloqueios
+     * das entidades envolvidas adquiridos, pela ordem em que as alterações são aplicadas. Sem
+     * publicador, as operações não têm qualquer custo extra além da leitura de um campo.
+     *
+     * @param eventos O publicador a usar, ou {@code null} para deixar de publicar.
+     */
+    public void setEventos(PublicadorEventos eventos) {
+        this.eventos = eventos;
+    }
+
+    /**
+     * Obtém o publicador de eventos ativo.
+     * @return O publicador, ou {@code null} se nenhum estiver ativo.
+     */
+    public PublicadorEventos getEventos() {
+        return this.eventos;
+    }
+
+    private void publicar(EventoUNIAG.Tipo tipo, int idMembro, int idProjeto, double valor, String texto) {
+        publicar(this.eventos, tipo, idMembro, idProjeto, valor, texto);
+    }
+
+    private static void publicar(PublicadorEventos eventos, EventoUNIAG.Tipo tipo, int idMembro, int idProjeto,
+                                 double valor, String texto) {
+        if (eventos != null) eventos.publicar(tipo, idMembro, idProjeto, valor, texto);
+    }
+
+    // --- MÉTRICAS ---
+
+    /**
+     * Obtém as métricas desta unidade: a latência das operações mais pesadas, o número de membros e
+     * de projetos e o tamanho do maior projeto.
+     * <p>
+     * As métricas começam desativadas (exceto com {@code -Duniag.metricas=true}) e podem ser ativadas
+     * a qualquer momento com {@link MetricasUNIAG#setAtiva(boolean)}, por código ou por JMX depois de
+     * {@link MetricasUNIAG#registarJMX(String)}.
+     *
+     * @return As métricas.
+     */
+    public MetricasUNIAG getMetricas() {
+        return this.metricas;
+    }
+
+    /**
+     * Calcula o número de participantes do maior projeto, sem bloquear os projetos: cada contagem
+     * é lida tal como está, pelo que as associações em curso podem ou não ser contadas.
+     */
+    private int calcularMaiorProjeto() {
+        int maior = 0;
+        for (Projeto projeto : this.projetos.valores()) {
+            maior = Math.max(maior, projeto.getNumeroParticipantes());
         }
-        return false;
+        return maior;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,543 @@
+package pt.ipb.uniag.app;// Ficheiro: src/pt.ipb.uniag.app.VistaMapeada.java
+
+import pt.ipb.uniag.modelo.*;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Vista só de leitura de uma UNIAG exportada, consultada diretamente a partir de um ficheiro mapeado em memória.
+ * <p>
+ * Ao contrário de {@link PersistenciaUNIAG#carregar(Path)}, abrir uma vista não cria nenhum objeto
+ * {@link MembroInvestigador} ou {@link Projeto}: os dados ficam na cache de páginas do sistema operativo,
+ * partilhada por todos os processos que mapeiam o mesmo ficheiro, e só as páginas efetivamente
+ * consultadas são lidas do disco.
+ * <p>
+ * O formato (big-endian) é:
+ * <pre>
+ *   cabeçalho (64 bytes):  int MAGICO, int VERSAO, int primeiro ID de membro, int nº de posições de membros,
+ *                          int primeiro ID de projeto, int nº de posições de projetos, int nº de membros,
+ *                          int nº de projetos, int início das adjacências, int início do texto, (reservado)
+ *   membros (32 bytes):    byte tipo (0 = posição livre), 3 bytes livres, int id, int início do nome,
+ *                          int tamanho do nome, long saldo em cêntimos, int início dos projetos, int nº de projetos
+ *   projetos (32 bytes):   byte 1 (0 = posição livre), 3 bytes livres, int id, int início do título,
+ *                          int tamanho do título, double financiamento, int início dos membros, int nº de membros
+ *   adjacências:           int × (nº total de associações × 2), em listas contíguas por entidade
+ *   texto:                 bytes UTF-8 dos nomes e títulos
+ * </pre>
+ * Os registos de tamanho fixo são indexados por {@code id - primeiro ID}, pelo que cada pesquisa é um
+ * único acesso a uma posição calculada. As listas de membros de cada projeto mantêm a ordem dos
+ * participantes, que é a ordem usada na distribuição de verbas.
+ * <p>
+ * Uma vista pode ser consultada por várias threads em simultâneo. O ficheiro não deve ser alterado
+ * enquanto estiver mapeado; para atualizar os dados, exporte para um novo ficheiro e abra uma nova vista.
+ *
+ * @author Luis Enrique
+ * @version 1.8
+ * @since 2026-10-18
+ */
+public final class VistaMapeada implements Closeable {
+
+    private static final int MAGICO = 0x554E4956; // "UNIV"
+    private static final int VERSAO = 1;
+    private static final int TAMANHO_CABECALHO = 64;
+    private static final int TAMANHO_REGISTO = 32;
+    private static final int TAMANHO_BUFFER = 1 << 20;
+
+    // Posições dos campos dentro de cada registo.
+    private static final int CAMPO_TIPO = 0;
+    private static final int CAMPO_ID = 4;
+    private static final int CAMPO_TEXTO = 8;
+    private static final int CAMPO_TAMANHO_TEXTO = 12;
+    private static final int CAMPO_VALOR = 16;
+    private static final int CAMPO_ADJACENCIAS = 24;
+    private static final int CAMPO_NUMERO_ADJACENCIAS = 28;
+
+    private volatile ByteBuffer dados;
+    private final int primeiroIdMembro;
+    private final int posicoesMembros;
+    private final int primeiroIdProjeto;
+    private final int posicoesProjetos;
+    private final int numeroMembros;
+    private final int numeroProjetos;
+    private final int inicioProjetos;
+
+    /**
+     * Construtor privado, utilizado por {@link #abrir(Path)}.
+     * @param dados O conteúdo mapeado do ficheiro, já validado.
+     */
+    private VistaMapeada(ByteBuffer dados) {
+        this.dados = dados;
+        this.primeiroIdMembro = dados.getInt(8);
+        this.posicoesMembros = dados.getInt(12);
+        this.primeiroIdProjeto = dados.getInt(16);
+        this.posicoesProjetos = dados.getInt(20);
+        this.numeroMembros = dados.getInt(24);
+        this.numeroProjetos = dados.getInt(28);
+        this.inicioProjetos = TAMANHO_CABECALHO + this.posicoesMembros * TAMANHO_REGISTO;
+    }
+
+    /**
+     * Exporta o estado de uma UNIAG para um ficheiro que pode ser aberto com {@link #abrir(Path)}.
+     * <p>
+     * Os participantes de cada projeto são lidos com o bloqueio do projeto adquirido, e as listas de
+     * projetos de cada membro são derivadas dessas mesmas leituras, pelo que as adjacências exportadas
+     * são sempre simétricas.
+     *
+     * @param uniag A unidade a exportar.
+     * @param ficheiro O caminho do ficheiro de destino (substituído se existir).
+     * @throws IOException se a escrita falhar ou os dados não couberem no formato (máximo de 2 GB).
+     */
+    public static void exportar(UNIAG uniag, Path ficheiro) throws IOException {
+        Collection<MembroInvestigador> membros = uniag.getMembros();
+        Collection<Projeto> projetos = uniag.getProjetos();
+
+        // 1. Fotografia dos dados: as coleções podem mudar durante a exportação.
+        MembroInvestigador[] listaMembros = membros.toArray(new MembroInvestigador[0]);
+        Projeto[] listaProjetos = projetos.toArray(new Projeto[0]);
+        int[][] participantes = new int[listaProjetos.length][];
+        for (int i = 0; i < listaProjetos.length; i++) {
+            participantes[i] = uniag.comBloqueioProjeto(listaProjetos[i], PersistenciaUNIAG::idsParticipantes);
+        }
+
+        int[] limitesMembros = limites(listaMembros.length, i -> listaMembros[i].getId());
+        int[] limitesProjetos = limites(listaProjetos.length, i -> listaProjetos[i].getId());
+        int posicoesMembros = limitesMembros[1] - limitesMembros[0];
+        int posicoesProjetos = limitesProjetos[1] - limitesProjetos[0];
+
+        // 2. Número de projetos de cada membro. Um membro removido depois da fotografia pode ainda
+        //    aparecer como participante de um projeto: essas associações não são exportadas.
+        boolean[] membroExportado = new boolean[posicoesMembros];
+        for (MembroInvestigador membro : listaMembros) {
+            membroExportado[membro.getId() - limitesMembros[0]] = true;
+        }
+        int[] projetosPorMembro = new int[posicoesMembros];
+        long totalAssociacoes = 0;
+        for (int p = 0; p < listaProjetos.length; p++) {
+            int[] ids = participantes[p];
+            int n = 0;
+            for (int idMembro : ids) {
+                int posicao = idMembro - limitesMembros[0];
+                if (posicao >= 0 && posicao < posicoesMembros && membroExportado[posicao]) {
+                    ids[n++] = idMembro;
+                    projetosPorMembro[posicao]++;
+                }
+            }
+            participantes[p] = n == ids.length ? ids : Arrays.copyOf(ids, n);
+            totalAssociacoes += n;
+        }
+        if (2 * totalAssociacoes * Integer.BYTES > Integer.MAX_VALUE) {
+            throw new IOException("Os dados são demasiado grandes para uma vista mapeada (máximo de 2 GB).");
+        }
+
+        // 3. Listas de projetos de cada membro, contíguas e pela ordem dos projetos exportados.
+        int[] inicioListaMembro = new int[posicoesMembros];
+        for (int i = 0, acumulado = 0; i < posicoesMembros; i++) {
+            inicioListaMembro[i] = acumulado;
+            acumulado += projetosPorMembro[i];
+        }
+        int[] projetosDosMembros = new int[(int) totalAssociacoes];
+        int[] preenchidos = new int[posicoesMembros];
+        for (int p = 0; p < listaProjetos.length; p++) {
+            for (int idMembro : participantes[p]) {
+                int posicao = idMembro - limitesMembros[0];
+                projetosDosMembros[inicioListaMembro[posicao] + preenchidos[posicao]++] = listaProjetos[p].getId();
+            }
+        }
+
+        // 4. Textos e posições de cada secção.
+        byte[][] nomes = new byte[listaMembros.length][];
+        byte[][] titulos = new byte[listaProjetos.length][];
+        long tamanhoTexto = 0;
+        for (int i = 0; i < listaMembros.length; i++) {
+            nomes[i] = listaMembros[i].getNome().getBytes(StandardCharsets.UTF_8);
+            tamanhoTexto += nomes[i].length;
+        }
+        for (int i = 0; i < listaProjetos.length; i++) {
+            titulos[i] = listaProjetos[i].getTitulo().getBytes(StandardCharsets.UTF_8);
+            tamanhoTexto += titulos[i].length;
+        }
+        long inicioAdjacencias = TAMANHO_CABECALHO + ((long) posicoesMembros + posicoesProjetos) * TAMANHO_REGISTO;
+        long inicioTexto = inicioAdjacencias + 2 * totalAssociacoes * Integer.BYTES;
+        if (inicioTexto + tamanhoTexto > Integer.MAX_VALUE) {
+            throw new IOException("Os dados são demasiado grandes para uma vista mapeada (máximo de 2 GB).");
+        }
+
+        // 5. Escrita sequencial de todas as secções.
+        Path temporario = ficheiro.resolveSibling(ficheiro.getFileName() + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            EscritorBinario saida = new EscritorBinario(canal, TAMANHO_BUFFER);
+            saida.escreverInt(MAGICO);
+            saida.escreverInt(VERSAO);
+            saida.escreverInt(limitesMembros[0]);
+            saida.escreverInt(posicoesMembros);
+            saida.escreverInt(limitesProjetos[0]);
+            saida.escreverInt(posicoesProjetos);
+            saida.escreverInt(listaMembros.length);
+            saida.escreverInt(listaProjetos.length);
+            saida.escreverInt((int) inicioAdjacencias);
+            saida.escreverInt((int) inicioTexto);
+            for (int i = 40; i < TAMANHO_CABECALHO; i += Integer.BYTES) {
+                saida.escreverInt(0);
+            }
+
+            // Tabela de membros, indexada pelo ID.
+            int[] ordemMembros = ordemPorId(listaMembros.length, i -> listaMembros[i].getId(), limitesMembros[0], posicoesMembros);
+            long posicaoTexto = inicioTexto;
+            long[] inicioNome = new long[listaMembros.length];
+            for (int i = 0; i < listaMembros.length; i++) {
+                inicioNome[i] = posicaoTexto;
+                posicaoTexto += nomes[i].length;
+            }
+            for (int posicao = 0; posicao < posicoesMembros; posicao++) {
+                int i = ordemMembros[posicao];
+                if (i < 0) {
+                    escreverPosicaoLivre(saida);
+                    continue;
+                }
+                MembroInvestigador membro = listaMembros[i];
+                saida.escreverByte(PersistenciaUNIAG.tipoDe(membro));
+                saida.escreverByte(0);
+                saida.escreverByte(0);
+                saida.escreverByte(0);
+                saida.escreverInt(membro.getId());
+                saida.escreverInt((int) inicioNome[i]);
+                saida.escreverInt(nomes[i].length);
+                saida.escreverLong(membro instanceof Investigador ? ((Investigador) membro).getSaldoCentimos() : 0L);
+                saida.escreverInt((int) (inicioAdjacencias + (long) inicioListaMembro[posicao] * Integer.BYTES));
+                saida.escreverInt(projetosPorMembro[posicao]);
+            }
+
+            // Tabela de projetos, indexada pelo ID.
+            int[] ordemProjetos = ordemPorId(listaProjetos.length, i -> listaProjetos[i].getId(), limitesProjetos[0], posicoesProjetos);
+            long[] inicioTitulo = new long[listaProjetos.length];
+            for (int i = 0; i < listaProjetos.length; i++) {
+                inicioTitulo[i] = posicaoTexto;
+                posicaoTexto += titulos[i].length;
+            }
+            long[] inicioListaProjeto = new long[listaProjetos.length];
+            long acumulado = inicioAdjacencias + totalAssociacoes * Integer.BYTES;
+            for (int i = 0; i < listaProjetos.length; i++) {
+                inicioListaProjeto[i] = acumulado;
+                acumulado += (long) participantes[i].length * Integer.BYTES;
+            }
+            for (int posicao = 0; posicao < posicoesProjetos; posicao++) {
+                int i = ordemProjetos[posicao];
+                if (i < 0) {
+                    escreverPosicaoLivre(saida);
+                    continue;
+                }
+                Projeto projeto = listaProjetos[i];
+                saida.escreverByte(1);
+                saida.escreverByte(0);
+                saida.escreverByte(0);
+                saida.escreverByte(0);
+                saida.escreverInt(projeto.getId());
+                saida.escreverInt((int) inicioTitulo[i]);
+                saida.escreverInt(titulos[i].length);
+                saida.escreverDouble(projeto.getFinanciamento());
+                saida.escreverInt((int) inicioListaProjeto[i]);
+                saida.escreverInt(participantes[i].length);
+            }
+
+            // Adjacências: primeiro as listas dos membros, depois as dos projetos.
+            for (int i = 0; i < projetosDosMembros.length; i++) {
+                saida.escreverInt(projetosDosMembros[i]);
+            }
+            for (int i = 0; i < listaProjetos.length; i++) {
+                for (int idMembro : participantes[i]) {
+                    saida.escreverInt(idMembro);
+                }
+            }
+
+            // Texto: nomes e depois títulos.
+            for (byte[] nome : nomes) {
+                saida.escreverBytes(nome, 0, nome.length);
+            }
+            for (byte[] titulo : titulos) {
+                saida.escreverBytes(titulo, 0, titulo.length);
+            }
+
+            saida.descarregar();
+            canal.force(true);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        Files.move(temporario, ficheiro, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Abre uma vista sobre um ficheiro criado por {@link #exportar(UNIAG, Path)}.
+     * Apenas o cabeçalho é lido de imediato; o resto do ficheiro é carregado pelo sistema operativo à medida que é consultado.
+     *
+     * @param ficheiro O caminho do ficheiro exportado.
+     * @return A vista sobre o ficheiro.
+     * @throws IOException se o ficheiro não puder ser mapeado ou não estiver no formato esperado.
+     */
+    public static VistaMapeada abrir(Path ficheiro) throws IOException {
+        try (FileChannel canal = FileChannel.open(ficheiro, StandardOpenOption.READ)) {
+            long tamanho = canal.size();
+            if (tamanho < TAMANHO_CABECALHO || tamanho > Integer.MAX_VALUE) {
+                throw new IOException("O ficheiro não é uma vista exportada da UNIAG.");
+            }
+            // O mapeamento continua válido depois de o canal ser fechado.
+            ByteBuffer dados = canal.map(FileChannel.MapMode.READ_ONLY, 0, tamanho);
+            if (dados.getInt(0) != MAGICO) throw new IOException("O ficheiro não é uma vista exportada da UNIAG.");
+            int versao = dados.getInt(4);
+            if (versao != VERSAO) throw new IOException("Versão de vista não suportada: " + versao);
+            long fimTabelas = TAMANHO_CABECALHO + ((long) dados.getInt(12) + dados.getInt(20)) * TAMANHO_REGISTO;
+            if (dados.getInt(12) < 0 || dados.getInt(20) < 0 || fimTabelas > dados.getInt(32)
+                    || dados.getInt(32) > dados.getInt(36) || dados.getInt(36) > tamanho) {
+                throw new IOException("Cabeçalho de vista inválido.");
+            }
+            return new VistaMapeada(dados);
+        }
+    }
+
+    /**
+     * Procura um membro pelo seu ID.
+     * @param id O ID do membro.
+     * @return Uma vista sobre o registo do membro, ou {@code null} se não existir.
+     */
+    public MembroMapeado findMembro(int id) {
+        ByteBuffer dados = dados();
+        long posicao = (long) id - this.primeiroIdMembro;
+        if (posicao < 0 || posicao >= this.posicoesMembros) return null;
+        int registo = TAMANHO_CABECALHO + (int) posicao * TAMANHO_REGISTO;
+        return dados.get(registo + CAMPO_TIPO) == 0 ? null : new MembroMapeado(this, registo);
+    }
+
+    /**
+     * Procura um projeto pelo seu ID.
+     * @param id O ID do projeto.
+     * @return Uma vista sobre o registo do projeto, ou {@code null} se não existir.
+     */
+    public ProjetoMapeado findProjeto(int id) {
+        ByteBuffer dados = dados();
+        long posicao = (long) id - this.primeiroIdProjeto;
+        if (posicao < 0 || posicao >= this.posicoesProjetos) return null;
+        int registo = this.inicioProjetos + (int) posicao * TAMANHO_REGISTO;
+        return dados.get(registo + CAMPO_TIPO) == 0 ? null : new ProjetoMapeado(this, registo);
+    }
+
+    /**
+     * Obtém o número de membros exportados.
+     * @return O número de membros.
+     */
+    public int getNumeroMembros() { return this.numeroMembros; }
+
+    /**
+     * Obtém o número de projetos exportados.
+     * @return O número de projetos.
+     */
+    public int getNumeroProjetos() { return this.numeroProjetos; }
+
+    /**
+     * Obtém os IDs de todos os membros exportados, por ordem crescente.
+     * @return Um novo array com os IDs.
+     */
+    public int[] getIdsMembros() {
+        return idsOcupados(TAMANHO_CABECALHO, this.posicoesMembros, this.numeroMembros);
+    }
+
+    /**
+     * Obtém os IDs de todos os projetos exportados, por ordem crescente.
+     * @return Um novo array com os IDs.
+     */
+    public int[] getIdsProjetos() {
+        return idsOcupados(this.inicioProjetos, this.posicoesProjetos, this.numeroProjetos);
+    }
+
+    /**
+     * Fecha a vista. As vistas de registos obtidas antes deixam de poder ser consultadas.
+     * <p>
+     * A memória mapeada é devolvida ao sistema quando deixar de estar referenciada, pois a
+     * plataforma não permite desfazer o mapeamento de forma explícita.
+     */
+    @Override
+    public void close() {
+        this.dados = null;
+    }
+
+    // --- IMPLEMENTAÇÃO ---
+
+    private ByteBuffer dados() {
+        ByteBuffer dados = this.dados;
+        if (dados == null) throw new IllegalStateException("A vista mapeada já foi fechada.");
+        return dados;
+    }
+
+    private int[] idsOcupados(int inicio, int posicoes, int numero) {
+        ByteBuffer dados = dados();
+        int[] ids = new int[numero];
+        int n = 0;
+        for (int posicao = 0; posicao < posicoes && n < numero; posicao++) {
+            int registo = inicio + posicao * TAMANHO_REGISTO;
+            if (dados.get(registo + CAMPO_TIPO) != 0) ids[n++] = dados.getInt(registo + CAMPO_ID);
+        }
+        return n == numero ? ids : Arrays.copyOf(ids, n);
+    }
+
+    private String texto(int registo) {
+        ByteBuffer dados = dados();
+        byte[] bytes = new byte[dados.getInt(registo + CAMPO_TAMANHO_TEXTO)];
+        dados.get(dados.getInt(registo + CAMPO_TEXTO), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int[] adjacencias(int registo) {
+        ByteBuffer dados = dados();
+        int inicio = dados.getInt(registo + CAMPO_ADJACENCIAS);
+        int[] ids = new int[dados.getInt(registo + CAMPO_NUMERO_ADJACENCIAS)];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = dados.getInt(inicio + i * Integer.BYTES);
+        }
+        return ids;
+    }
+
+    private int adjacencia(int registo, int indice) {
+        ByteBuffer dados = dados();
+        int numero = dados.getInt(registo + CAMPO_NUMERO_ADJACENCIAS);
+        if (indice < 0 || indice >= numero) throw new IndexOutOfBoundsException("Índice " + indice + " fora de [0, " + numero + ").");
+        return dados.getInt(dados.getInt(registo + CAMPO_ADJACENCIAS) + indice * Integer.BYTES);
+    }
+
+    /**
+     * Calcula o intervalo de IDs [mínimo, máximo + 1) de um conjunto de entidades.
+     */
+    private static int[] limites(int n, IntUnaryOperator idDe) throws IOException {
+        if (n == 0) return new int[] {1, 1};
+        int minimo = Integer.MAX_VALUE, maximo = Integer.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            int id = idDe.applyAsInt(i);
+            minimo = Math.min(minimo, id);
+            maximo = Math.max(maximo, id);
+        }
+        if ((long) maximo - minimo + 1 > Integer.MAX_VALUE / TAMANHO_REGISTO) {
+            throw new IOException("Os IDs estão demasiado dispersos para uma vista mapeada.");
+        }
+        return new int[] {minimo, maximo + 1};
+    }
+
+    /**
+     * Para cada posição da tabela, obtém o índice da entidade com esse ID, ou -1 se a posição estiver livre.
+     */
+    private static int[] ordemPorId(int n, IntUnaryOperator idDe, int primeiroId, int posicoes) {
+        int[] ordem = new int[posicoes];
+        Arrays.fill(ordem, -1);
+        for (int i = 0; i < n; i++) {
+            ordem[idDe.applyAsInt(i) - primeiroId] = i;
+        }
+        return ordem;
+    }
+
+    private static void escreverPosicaoLivre(EscritorBinario saida) throws IOException {
+        for (int i = 0; i < TAMANHO_REGISTO; i += Long.BYTES) {
+            saida.escreverLong(0L);
+        }
+    }
+
+    /**
+     * Vista leve sobre o registo de um membro. Cada valor é lido do ficheiro mapeado quando é pedido.
+     */
+    public static final class MembroMapeado {
+
+        private final VistaMapeada vista;
+        private final int registo;
+
+        private MembroMapeado(VistaMapeada vista, int registo) {
+            this.vista = vista;
+            this.registo = registo;
+        }
+
+        /** @return O ID do membro. */
+        public int getId() { return this.vista.dados().getInt(this.registo + CAMPO_ID); }
+
+        /** @return O nome do membro. */
+        public String getNome() { return this.vista.texto(this.registo); }
+
+        /**
+         * Obtém o tipo concreto do membro guardado.
+         * @return {@link Investigador}, {@link InvColaborador} ou {@link Visitante}.
+         */
+        public Class<? extends MembroInvestigador> getTipo() {
+            return PersistenciaUNIAG.classeDoTipo(this.vista.dados().get(this.registo + CAMPO_TIPO));
+        }
+
+        /** @return O saldo em cêntimos (zero para quem não é {@link Investigador}). */
+        public long getSaldoCentimos() { return this.vista.dados().getLong(this.registo + CAMPO_VALOR); }
+
+        /** @return O saldo em euros (zero para quem não é {@link Investigador}). */
+        public double getSaldo() { return getSaldoCentimos() / 100.0; }
+
+        /** @return O número de projetos a que o membro está associado. */
+        public int getNumeroProjetos() { return this.vista.dados().getInt(this.registo + CAMPO_NUMERO_ADJACENCIAS); }
+
+        /**
+         * Obtém o ID de um dos projetos associados, sem criar arrays.
+         * @param indice A posição na lista, entre 0 e {@link #getNumeroProjetos()} - 1.
+         * @return O ID do projeto.
+         */
+        public int getIdProjeto(int indice) { return this.vista.adjacencia(this.registo, indice); }
+
+        /** @return Um novo array com os IDs dos projetos associados. */
+        public int[] getIdsProjetos() { return this.vista.adjacencias(this.registo); }
+
+        @Override
+        public String toString() {
+            return "ID: " + getId() + " | Nome: " + getNome() + " | Tipo: " + getTipo().getSimpleName();
+        }
+    }
+
+    /**
+     * Vista leve sobre o registo de um projeto. Cada valor é lido do ficheiro mapeado quando é pedido.
+     */
+    public static final class ProjetoMapeado {
+
+        private final VistaMapeada vista;
+        private final int registo;
+
+        private ProjetoMapeado(VistaMapeada vista, int registo) {
+            this.vista = vista;
+            this.registo = registo;
+        }
+
+        /** @return O ID do projeto. */
+        public int getId() { return this.vista.dados().getInt(this.registo + CAMPO_ID); }
+
+        /** @return O título do projeto. */
+        public String getTitulo() { return this.vista.texto(this.registo); }
+
+        /** @return O financiamento do projeto. */
+        public double getFinanciamento() { return this.vista.dados().getDouble(this.registo + CAMPO_VALOR); }
+
+        /** @return O número de membros participantes. */
+        public int getNumeroMembros() { return this.vista.dados().getInt(this.registo + CAMPO_NUMERO_ADJACENCIAS); }
+
+        /**
+         * Obtém o ID de um dos membros participantes, sem criar arrays.
+         * @param indice A posição na lista, entre 0 e {@link #getNumeroMembros()} - 1.
+         * @return O ID do membro.
+         */
+        public int getIdMembro(int indice) { return this.vista.adjacencia(this.registo, indice); }
+
+        /** @return Um novo array com os IDs dos membros participantes, pela ordem de participação. */
+        public int[] getIdsMembros() { return this.vista.adjacencias(this.registo); }
+
+        @Override
+        public String toString() {
+            return "ID: " + getId() + " | Título: " + getTitulo() + " | Financiamento: " + getFinanciamento();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package pt.ipb.uniag.modelo;// Ficheiro: src/pt.ipb.uniag.modelo.ArmazemAssociacoes.java
+
+import java.util.Set;
+
+/**
+ * Armazenamento externo das associações entre membros e projetos.
+ * <p>
+ * Por omissão, cada membro guarda o conjunto dos seus projetos e cada projeto o dos seus
+ * participantes. Um membro ou projeto ligado a um armazém ({@link MembroInvestigador#setArmazemAssociacoes},
+ * {@link Projeto#setArmazemAssociacoes}) deixa de ter esses conjuntos: as associações passam a ser
+ * lidas e alteradas no armazém, e os métodos do modelo devolvem as vistas fornecidas por ele.
+ * <p>
+ * Os dois lados de uma associação são independentes, como nos conjuntos do modelo: associar um
+ * membro a um projeto não o acrescenta aos participantes do projeto. As alterações de um membro
+ * ou de um projeto devem ser feitas por uma thread de cada vez (por exemplo, com o bloqueio da
+ * entidade adquirido); as leituras podem ser concorrentes.
+ *
+ * @author Luis Enrique
+ * @version 1.8
+ * @since 2026-10-18
+ */
+public interface ArmazemAssociacoes {
+
+    /**
+     * Obtém os projetos associados a um membro.
+     * @param membro O membro (ligado a este armazém).
+     * @return Uma vista não modificável dos projetos, pela ordem de associação.
+     */
+    Set<Projeto> projetosDe(MembroInvestigador membro);
+
+    /**
+     * Associa um membro a um projeto (apenas do lado do membro).
+     * @param membro O membro (ligado a este armazém).
+     * @param projeto O projeto.
+     * @return {@code true} se a associação foi criada; {@code false} se já existia.
+     * @throws IllegalArgumentException se o projeto não estiver ligado a este armazém.
+     */
+    boolean associar(MembroInvestigador membro, Projeto projeto);
+
+    /**
+     * Desfaz a associação de um membro a um projeto (apenas do lado do membro).
+     * @param membro O membro (ligado a este armazém).
+     * @param projeto O projeto.
+     * @return {@code true} se a associação existia e foi desfeita.
+     */
+    boolean desassociar(MembroInvestigador membro, Projeto projeto);
+
+    /**
+     * Obtém os membros participantes de um projeto.
+     * @param projeto O projeto (ligado a este armazém).
+     * @return Uma vista não modificável dos participantes, pela ordem de entrada.
+     */
+    Set<MembroInvestigador> participantesDe(Projeto projeto);
+
+    /**
+     * Acrescenta um membro aos participantes de um projeto (apenas do lado do projeto).
+     * @param projeto O projeto (ligado a este armazém).
+     * @param membro O membro.
+     * @return {@code true} se o membro foi acrescentado; {@code false} se já participava.
+     * @throws IllegalArgumentException se o membro não estiver ligado a este armazém.
+     */
+    boolean adicionarParticipante(Projeto projeto, MembroInvestigador membro);
+
+    /**
+     * Retira um membro dos participantes de um projeto (apenas do lado do projeto).
+     * @param projeto O projeto (ligado a este armazém).
+     * @param membro O membro.
+     * @return {@code true} se o membro participava e foi retirado.
+     */
+    boolean removerParticipante(Projeto projeto, MembroInvestigador membro);
+}
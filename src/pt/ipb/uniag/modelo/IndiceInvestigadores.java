@@ -0,0 +1,112 @@
+package pt.ipb.uniag.modelo;// Ficheiro: src/pt.ipb.uniag.modelo.IndiceInvestigadores.java
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sub-índice tipado dos {@link Investigador}es participantes de um {@link Projeto}.
+ * <p>
+ * Os investigadores ficam num array contíguo, pela ordem em que foram adicionados, para que a
+ * distribuição de verbas seja uma única passagem sem alocações. A remoção é O(1): a posição
+ * fica vazia e o array é compactado quando as posições vazias passam a ser a maioria.
+ *
+ * @author Luis Enrique
+ * @version 1.8
+ * @since 2026-10-18
+ */
+final class IndiceInvestigadores {
+
+    private static final Investigador[] VAZIO = new Investigador[0];
+    private static final int CAPACIDADE_INICIAL = 8;
+
+    private Investigador[] elementos;
+    private int limite;
+    private int tamanho;
+    private final Map<Investigador, Integer> posicoes;
+
+    /**
+     * Constrói um índice vazio.
+     */
+    IndiceInvestigadores() {
+        this.elementos = VAZIO;
+        this.posicoes = new HashMap<>();
+    }
+
+    /**
+     * Acrescenta um investigador ao fim do índice.
+     * @param inv O investigador a acrescentar (ainda não presente).
+     */
+    void adicionar(Investigador inv) {
+        if (this.limite == this.elementos.length) {
+            if (this.tamanho <= this.limite / 2 && this.limite > 0) {
+                compactar();
+            } else {
+                Investigador[] maior = new Investigador[Math.max(CAPACIDADE_INICIAL, this.elementos.length * 2)];
+                System.arraycopy(this.elementos, 0, maior, 0, this.limite);
+                this.elementos = maior;
+            }
+        }
+        this.elementos[this.limite] = inv;
+        this.posicoes.put(inv, this.limite);
+        this.limite++;
+        this.tamanho++;
+    }
+
+    /**
+     * Retira um investigador do índice.
+     * @param inv O investigador a retirar.
+     * @return {@code true} se o investigador estava presente.
+     */
+    boolean remover(Investigador inv) {
+        Integer posicao = this.posicoes.remove(inv);
+        if (posicao == null) return false;
+        this.elementos[posicao] = null;
+        this.tamanho--;
+        if (this.tamanho == 0) {
+            this.limite = 0;
+        } else if (this.tamanho < this.limite / 4) {
+            compactar();
+        }
+        return true;
+    }
+
+    /**
+     * Obtém o número de investigadores presentes.
+     * @return O número de investigadores.
+     */
+    int tamanho() { return this.tamanho; }
+
+    /**
+     * Obtém o número de posições a percorrer numa iteração (inclui posições vazias).
+     * @return O limite superior (exclusivo) das posições ocupadas.
+     */
+    int limite() { return this.limite; }
+
+    /**
+     * Obtém o investigador numa posição.
+     * @param posicao A posição, entre 0 e {@link #limite()} (exclusivo).
+     * @return O investigador, ou {@code null} se a posição estiver vazia.
+     */
+    Investigador em(int posicao) { return this.elementos[posicao]; }
+
+    /**
+     * Junta os investigadores no início do array, mantendo a ordem relativa.
+     */
+    private void compactar() {
+        int destino = 0;
+        for (int i = 0; i < this.limite; i++) {
+            Investigador inv = this.elementos[i];
+            if (inv != null) {
+                if (destino != i) {
+                    this.elementos[destino] = inv;
+                    this.posicoes.put(inv, destino);
+                }
+                destino++;
+            }
+        }
+        for (int i = destino; i < this.limite; i++) {
+            this.elementos[i] = null;
+        }
+        this.limite = destino;
+    }
+}
@@ -23,6 +23,16 @@ public class InvColaborador extends MembroInvestigador {
         super(nome); // Invoca o construtor da superclasse
     }
 
+    /**
+     * Constrói um pt.ipb.uniag.modelo.InvColaborador com um ID já atribuído (por exemplo, ao restaurar dados guardados).
+     *
+     * @param id O ID do investigador colaborador.
+     * @param nome O nome do investigador colaborador.
+     */
+    public InvColaborador(int id, String nome) {
+        super(id, nome);
+    }
+
     /**
      * Construtor de cópia para a classe pt.ipb.uniag.modelo.InvColaborador.
      *
@@ -45,17 +55,15 @@ public class InvColaborador extends MembroInvestigador {
     }
 
     /**
-     * Devolve uma representação textual completa do pt.ipb.uniag.modelo.InvColaborador.
+     * Acrescenta a representação textual completa do pt.ipb.uniag.modelo.InvColaborador (usada por {@link #toString()}).
      * Reutiliza a implementação da superclasse e adiciona o seu tipo específico.
      *
-     * @return Uma String formatada com os detalhes do investigador colaborador.
+     * @param sb O destino da descrição.
      */
     @Override
-    public String toString() {
-        StringBuilder sb = new StringBuilder();
-        sb.append(super.toString());
+    protected void descreverCampos(StringBuilder sb) {
+        super.descreverCampos(sb);
         sb.append(" | Tipo: pt.ipb.uniag.modelo.Investigador Colaborador");
-        return sb.toString();
     }
 
     /**
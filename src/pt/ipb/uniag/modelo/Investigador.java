@@ -2,11 +2,15 @@ package pt.ipb.uniag.modelo;// Ficheiro: src/pt.ipb.uniag.modelo.Investigador.ja
 
 import java.text.NumberFormat;
 import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Representa um investigador integrado, um tipo de membro da pt.ipb.uniag.app.UNIAG.
  * <p>
  * Um investigador integrado herda de pt.ipb.uniag.modelo.MembroInvestigador e possui adicionalmente uma verba (saldo).
+ * O saldo é guardado em cêntimos exatos (sem erros de arredondamento de {@code double}) num
+ * {@link LongAdder}, para que várias threads o possam creditar em simultâneo sem disputarem
+ * um único bloqueio (por exemplo, quando vários projetos distribuem a sua verba em paralelo).
  *
  * @author Luis Enrique
  * @version 1.7
@@ -14,7 +18,11 @@ import java.util.Locale;
  */
 public class Investigador extends MembroInvestigador {
 
-    private double saldo;
+    /** O formatador de moeda não é seguro entre threads, por isso cada thread reutiliza o seu. */
+    private static final ThreadLocal<NumberFormat> FORMATADOR_MOEDA =
+            ThreadLocal.withInitial(() -> NumberFormat.getCurrencyInstance(new Locale("pt", "PT")));
+
+    private final LongAdder saldoCentimos;
 
     // --- CONSTRUTORES ---
     /**
@@ -25,7 +33,20 @@ public class Investigador extends MembroInvestigador {
      */
     public Investigador(String nome) {
         super(nome); // Chama o construtor da classe pai
-        this.saldo = 0.0;
+        this.saldoCentimos = new LongAdder();
+    }
+
+    /**
+     * Constrói um pt.ipb.uniag.modelo.Investigador com um ID e saldo já atribuídos (por exemplo, ao restaurar dados guardados).
+     *
+     * @param id O ID do investigador.
+     * @param nome O nome do investigador.
+     * @param saldoCentimos O saldo inicial, em cêntimos.
+     */
+    public Investigador(int id, String nome, long saldoCentimos) {
+        super(id, nome);
+        this.saldoCentimos = new LongAdder();
+        this.saldoCentimos.add(saldoCentimos);
     }
 
     /**
@@ -36,21 +57,35 @@ public class Investigador extends MembroInvestigador {
      */
     public Investigador(Investigador original) {
         super(original); // Chama o construtor de cópia da superclasse
-        this.saldo = original.saldo;
+        this.saldoCentimos = new LongAdder();
+        this.saldoCentimos.add(original.getSaldoCentimos());
     }
 
     // --- MÉTODOS PÚBLICOS ---
     /**
      * Adiciona um determinado valor ao saldo do investigador.
-     * O valor a ser adicionado deve ser positivo.
+     * O valor é primeiro arredondado ao cêntimo (meio cêntimo arredonda para cima) e só é adicionado
+     * se o resultado for positivo: um valor inferior a meio cêntimo, como 0.004, não é adicionado.
      *
      * @param valor O valor monetário a ser adicionado ao saldo.
-     * @return      {@code true} se o valor foi adicionado com sucesso (se for positivo),
-     * {@code false} caso contrário.
+     * @return      {@code true} se o valor foi adicionado com sucesso (se for positivo depois de
+     * arredondado ao cêntimo), {@code false} caso contrário.
      */
     public boolean adicionarSaldo(double valor) {
-        if (valor > 0) {
-            this.saldo += valor;
+        return valor > 0 && adicionarSaldoCentimos(Math.round(valor * 100));
+    }
+
+    /**
+     * Adiciona um valor exato, em cêntimos, ao saldo do investigador.
+     * Pode ser invocado em simultâneo por várias threads.
+     *
+     * @param centimos O número de cêntimos a adicionar.
+     * @return {@code true} se o valor foi adicionado (se for positivo), {@code false} caso contrário.
+     */
+    public boolean adicionarSaldoCentimos(long centimos) {
+        if (centimos > 0) {
+            antesDeAlterar();
+            this.saldoCentimos.add(centimos);
             return true;
         }
         return false;
@@ -62,7 +97,20 @@ public class Investigador extends MembroInvestigador {
      * @return O valor do saldo.
      */
     public double getSaldo() {
-        return saldo;
+        return getSaldoCentimos() / 100.0;
+    }
+
+    /**
+     * Obtém o saldo atual do investigador em cêntimos exatos.
+     * <p>
+     * Com créditos a decorrer noutras threads, o valor devolvido inclui todos os créditos já
+     * concluídos e possivelmente alguns dos que estão em curso, mas é sempre uma soma exata
+     * de créditos inteiros. Sem créditos concorrentes, é o saldo exato.
+     *
+     * @return O saldo em cêntimos.
+     */
+    public long getSaldoCentimos() {
+        return saldoCentimos.sum();
     }
 
     // --- MÉTODOS SOBRESCRITOS (OVERRIDE) ---
@@ -78,20 +126,25 @@ public class Investigador extends MembroInvestigador {
     }
 
     /**
-     * Devolve uma representação textual completa do pt.ipb.uniag.modelo.Investigador.
+     * Acrescenta a representação textual completa do pt.ipb.uniag.modelo.Investigador (usada por {@link #toString()}).
      * Reutiliza a implementação da superclasse e adiciona os seus próprios detalhes.
      *
-     * @return Uma String formatada com os detalhes do investigador.
+     * @param sb O destino da descrição.
      */
     @Override
-    public String toString() {
-        NumberFormat formatadorMoeda = NumberFormat.getCurrencyInstance(new Locale("pt", "PT"));
-
-        StringBuilder sb = new StringBuilder();
-        sb.append(super.toString());
+    protected void descreverCampos(StringBuilder sb) {
+        super.descreverCampos(sb);
         sb.append(" | Tipo: pt.ipb.uniag.modelo.Investigador Integrado");
-        sb.append(" | Saldo: ").append(formatadorMoeda.format(this.saldo));
-        return sb.toString();
+        sb.append(" | Saldo: ").append(FORMATADOR_MOEDA.get().format(this.getSaldo()));
+    }
+
+    /**
+     * A representação textual inclui o saldo: é reconstruída sempre que o saldo muda.
+     * @return O saldo atual, em cêntimos.
+     */
+    @Override
+    protected long versaoDescricao() {
+        return getSaldoCentimos();
     }
 
     /**
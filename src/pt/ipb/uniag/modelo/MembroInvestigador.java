@@ -1,9 +1,11 @@
 package pt.ipb.uniag.modelo;// Ficheiro: src/pt.ipb.uniag.modelo.MembroInvestigador.java
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -23,7 +25,9 @@ public abstract class MembroInvestigador implements Cloneable {
     private static final AtomicInteger contadorId = new AtomicInteger(1);
     private final int id;
     private String nome;
-    private final List<Projeto> projetosAssociados;
+    private ProjetosPartilhados projetosAssociados;   // null enquanto estiver ligado a um armazém
+    private ArmazemAssociacoes armazem;
+    private Descricao descricao;   // a última descrição construída, com o estado de que dependia
 
     /**
      * Constrói uma nova instância de um membro investigador com um ID gerado automaticamente.
@@ -37,20 +41,76 @@ public abstract class MembroInvestigador implements Cloneable {
         }
         this.id = contadorId.getAndIncrement();
         this.nome = nome;
-        this.projetosAssociados = new ArrayList<>();
+        this.projetosAssociados = new ProjetosPartilhados(new LinkedHashSet<>());
+    }
+
+    /**
+     * Constrói um membro investigador com um ID já atribuído, por exemplo ao restaurar dados guardados.
+     * O contador de IDs não é alterado; ver {@link #avancarContadorId(int)}.
+     *
+     * @param id O ID do membro (tem de ser positivo).
+     * @param nome O nome do membro investigador. Não pode ser nulo ou vazio.
+     * @throws IllegalArgumentException se o ID não for positivo ou o nome for nulo ou vazio.
+     */
+    protected MembroInvestigador(int id, String nome) {
+        if (id <= 0) {
+            throw new IllegalArgumentException("O ID do membro tem de ser positivo.");
+        }
+        if (nome == null || nome.trim().isEmpty()) {
+            throw new IllegalArgumentException("O nome do membro não pode ser nulo ou vazio.");
+        }
+        this.id = id;
+        this.nome = nome;
+        this.projetosAssociados = new ProjetosPartilhados(new LinkedHashSet<>());
     }
 
     /**
      * Construtor de cópia (copy constructor), um padrão enfatizado nas aulas.
+     * <p>
+     * O conjunto de projetos associados é partilhado com o original até que um dos dois o altere
+     * (cópia na escrita), pelo que a cópia é O(1) mas tem o mesmo comportamento de uma cópia completa.
+     * Se o original estiver ligado a um {@link ArmazemAssociacoes}, a cópia recebe um conjunto próprio
+     * com os projetos atuais e não fica ligada ao armazém.
+     * <p>
+     * O original é lido com o seu monitor adquirido, tal como é alterado (ver {@link #antesDeAlterar()}),
+     * pelo que a cópia nunca apanha uma alteração a meio, mesmo quando é feita por uma thread que não
+     * tem o bloqueio do membro na UNIAG (por exemplo, ao preservar o membro para um projeto clonado
+     * durante um crédito no saldo).
      *
      * @param original O pt.ipb.uniag.modelo.MembroInvestigador a ser copiado.
      */
     protected MembroInvestigador(MembroInvestigador original) {
-        this.id = original.id;
-        this.nome = original.nome;
-        this.projetosAssociados = new ArrayList<>(original.projetosAssociados);
+        synchronized (original) {
+            this.id = original.id;
+            this.nome = original.nome;
+            this.descricao = original.descricao;
+            ArmazemAssociacoes armazemOriginal = original.armazem;
+            if (armazemOriginal != null) {
+                this.projetosAssociados = new ProjetosPartilhados(new LinkedHashSet<>(armazemOriginal.projetosDe(original)));
+            } else {
+                ProjetosPartilhados partilhados = original.projetosAssociados;
+                partilhados.donos.incrementAndGet();
+                this.projetosAssociados = partilhados;
+            }
+        }
     }
 
+    // --- Gestão do Contador de IDs ---
+
+    /**
+     * Obtém o ID que será atribuído ao próximo membro criado.
+     * @return O próximo ID livre.
+     */
+    public static int getProximoId() { return contadorId.get(); }
+
+    /**
+     * Garante que o próximo ID atribuído é pelo menos o indicado, para que membros criados
+     * depois de um restauro não colidam com os IDs restaurados. Nunca faz o contador recuar.
+     *
+     * @param proximoId O menor valor aceitável para o próximo ID.
+     */
+    public static void avancarContadorId(int proximoId) { contadorId.accumulateAndGet(proximoId, Math::max); }
+
     // --- Métodos de Leitura e Escrita (Getters e Setters) ---
 
     /**
@@ -75,16 +135,55 @@ public abstract class MembroInvestigador implements Cloneable {
         if (novoNome == null || novoNome.trim().isEmpty()) {
             throw new IllegalArgumentException("O nome não pode ser nulo ou vazio.");
         }
-        this.nome = novoNome;
+        synchronized (this) {
+            antesDeAlterar();
+            this.nome = novoNome;
+        }
     }
 
     /**
      * Retorna uma vista não modificável da lista de projetos associados.
+     * A ordem é a ordem pela qual os projetos foram associados.
+     * <p>
+     * Os projetos são guardados num conjunto: percorrer a lista e {@code contains} custam o mesmo
+     * que no conjunto, mas <b>{@code get(i)} e {@code indexOf} são O(i)</b>, porque percorrem os
+     * primeiros {@code i} projetos (a lista não é {@link java.util.RandomAccess}). Um ciclo
+     * {@code for (int i = 0; i < n; i++) lista.get(i)} é por isso quadrático: percorra a lista com
+     * um iterador, ou copie-a primeiro ({@code new ArrayList<>(membro.getProjetosAssociados())})
+     * se precisar de acesso por índice.
      *
      * @return Uma lista não modificável de projetos.
      */
     public List<Projeto> getProjetosAssociados() {
-        return Collections.unmodifiableList(projetosAssociados);
+        ArmazemAssociacoes armazem = this.armazem;
+        return new VistaLista<>(armazem != null ? armazem.projetosDe(this) : new VistaProjetos());
+    }
+
+    /**
+     * Passa a guardar as associações deste membro num armazém externo, ou volta a guardá-las no
+     * próprio membro.
+     * <p>
+     * Ao ligar, o membro não pode ter associações. Ao desligar ({@code null}), o membro recebe um
+     * conjunto próprio com os projetos que o armazém lhe atribuía nesse momento.
+     *
+     * @param armazem O armazém, ou {@code null} para desligar do armazém atual.
+     * @throws IllegalStateException se o membro já tiver associações e for ligado a um armazém.
+     */
+    public synchronized void setArmazemAssociacoes(ArmazemAssociacoes armazem) {
+        ArmazemAssociacoes atual = this.armazem;
+        if (armazem == atual) return;
+        if (atual != null) {
+            this.projetosAssociados = new ProjetosPartilhados(new LinkedHashSet<>(atual.projetosDe(this)));
+            this.armazem = null;
+        }
+        if (armazem != null) {
+            if (!this.projetosAssociados.conjunto.isEmpty()) {
+                throw new IllegalStateException("O membro " + this.id + " já tem projetos associados.");
+            }
+            this.projetosAssociados.donos.decrementAndGet(); // as cópias que o partilham ficam com ele
+            this.projetosAssociados = null;
+            this.armazem = armazem;
+        }
     }
 
     // --- Métodos de Associação ---
@@ -95,22 +194,79 @@ public abstract class MembroInvestigador implements Cloneable {
      * @param p O projeto a ser associado.
      * @return {@code true} se a associação for bem-sucedida; {@code false} caso contrário.
      */
-    public boolean associarProjeto(Projeto p) {
-        if (p != null && !this.projetosAssociados.contains(p)) {
-            this.projetosAssociados.add(p);
-            return true;
+    public synchronized boolean associarProjeto(Projeto p) {
+        if (p == null) return false;
+        if (this.armazem != null) {
+            antesDeAlterar();
+            return this.armazem.associar(this, p);
         }
-        return false;
+        if (this.projetosAssociados.conjunto.contains(p)) return false;
+        antesDeAlterar();
+        return projetosParaAlterar().add(p);
     }
 
     /**
      * Remove a associação deste membro com um projeto específico.
      *
      * @param p O projeto a ser desassociado.
-     * @return {@code true} se o projeto estava na lista e foi removido; {@code false} caso contrário.
+     * @return {@code true} se o projeto estava associado e foi removido; {@code false} caso contrário.
      */
-    public boolean removerAssociacaoProjeto(Projeto p) {
-        return this.projetosAssociados.remove(p);
+    public synchronized boolean removerAssociacaoProjeto(Projeto p) {
+        if (this.armazem != null) {
+            if (p == null || !this.armazem.projetosDe(this).contains(p)) return false;
+            p.marcarParticipacoesAssimetricas(); // antes de consultar os clones do projeto
+            antesDeAlterar();
+            return this.armazem.desassociar(this, p);
+        }
+        if (!this.projetosAssociados.conjunto.contains(p)) return false;
+        p.marcarParticipacoesAssimetricas(); // antes de consultar os clones do projeto
+        antesDeAlterar();
+        return projetosParaAlterar().remove(p);
+    }
+
+    /**
+     * Verifica, com o monitor do membro adquirido, se um projeto está entre os projetos associados.
+     * @param p O projeto.
+     * @return {@code true} se o projeto estiver associado a este membro.
+     */
+    synchronized boolean estaAssociado(Projeto p) {
+        ArmazemAssociacoes armazem = this.armazem;
+        return armazem != null ? armazem.projetosDe(this).contains(p) : this.projetosAssociados.conjunto.contains(p);
+    }
+
+    /**
+     * Deve ser invocado por qualquer método que altere o estado do membro, antes de o alterar,
+     * para que as cópias pendentes de projetos clonados (ver {@link Projeto#clone()}) fiquem
+     * com o estado que o membro tinha no momento da clonagem. Só são consultados os clones
+     * pendentes dos projetos deste membro; sem nenhum clone pendente, custa duas leituras.
+     * <p>
+     * Os métodos que alteram o nome ou as associações invocam-no e fazem a alteração com o monitor
+     * do membro adquirido, o mesmo que o construtor de cópia adquire: uma cópia é feita antes ou
+     * depois de toda a alteração. O saldo de um {@link Investigador} é seguro entre threads por si
+     * e não precisa do monitor.
+     */
+    protected final void antesDeAlterar() {
+        if (!Projeto.haCopiasPendentes()) return;
+        synchronized (this) {
+            ArmazemAssociacoes armazem = this.armazem;
+            for (Projeto projeto : armazem != null ? armazem.projetosDe(this) : this.projetosAssociados.conjunto) {
+                projeto.preservarParaCopias(this);
+            }
+        }
+    }
+
+    /**
+     * Obtém o conjunto de projetos para alteração, copiando-o primeiro se estiver partilhado com uma
+     * cópia. Invocado com o monitor do membro adquirido, para que nenhuma cópia passe a partilhar o
+     * conjunto entre a verificação e a alteração.
+     */
+    private Set<Projeto> projetosParaAlterar() {
+        ProjetosPartilhados atual = this.projetosAssociados;
+        if (atual.donos.get() > 1) {
+            this.projetosAssociados = new ProjetosPartilhados(new LinkedHashSet<>(atual.conjunto));
+            atual.donos.decrementAndGet();
+        }
+        return this.projetosAssociados.conjunto;
     }
 
     // --- Métodos Abstratos e de Object ---
@@ -126,11 +282,59 @@ public abstract class MembroInvestigador implements Cloneable {
 
     /**
      * Retorna uma representação do objeto em formato String.
+     * O conteúdo é definido por {@link #descreverCampos(StringBuilder)}, que as subclasses estendem.
+     * <p>
+     * A representação é construída uma vez e guardada com o nome e a {@link #versaoDescricao()} de
+     * que depende: as chamadas seguintes devolvem a mesma String, sem a reconstruir, até que
+     * {@link #setNome(String)} ou um crédito no saldo a tornem obsoleta.
+     *
      * @return Uma String com o ID e o nome do membro.
      */
     @Override
     public String toString() {
-        return "ID: " + this.id + " | Nome: " + this.nome;
+        Descricao atual = this.descricao;
+        if (atual != null && atual.valida(this)) return atual.texto;
+        // O estado é lido antes de construir: uma alteração a meio deixa a descrição já inválida.
+        String nomeDescrito = this.nome;
+        long versao = versaoDescricao();
+        StringBuilder sb = new StringBuilder(96);
+        descreverCampos(sb);
+        String texto = sb.toString();
+        this.descricao = new Descricao(nomeDescrito, versao, texto);
+        return texto;
+    }
+
+    /**
+     * Acrescenta a um {@link StringBuilder} a mesma representação devolvida por {@link #toString()},
+     * sem criar Strings intermédias. Usado para escrever listagens longas num único buffer: reutiliza
+     * a representação guardada por {@link #toString()}, se ainda for válida, mas não guarda nenhuma.
+     * @param sb O destino da descrição.
+     */
+    public final void descrever(StringBuilder sb) {
+        Descricao atual = this.descricao;
+        if (atual != null && atual.valida(this)) {
+            sb.append(atual.texto);
+        } else {
+            descreverCampos(sb);
+        }
+    }
+
+    /**
+     * Constrói a representação textual do membro. As subclasses acrescentam os seus próprios
+     * detalhes depois dos da superclasse.
+     * @param sb O destino da descrição.
+     */
+    protected void descreverCampos(StringBuilder sb) {
+        sb.append("ID: ").append(this.id).append(" | Nome: ").append(this.nome);
+    }
+
+    /**
+     * Obtém o estado, além do nome, de que a representação textual depende; uma representação
+     * guardada com outro valor é reconstruída.
+     * @return A versão do estado descrito (0 por omissão).
+     */
+    protected long versaoDescricao() {
+        return 0;
     }
 
     /**
@@ -156,4 +360,47 @@ public abstract class MembroInvestigador implements Cloneable {
     public int hashCode() {
         return Objects.hash(id);
     }
-}
\ No newline at end of file
+
+    /**
+     * Uma representação textual construída, com o estado de que dependia. É imutável, pelo que
+     * pode ser lida por outras threads sem sincronização.
+     */
+    private static final class Descricao {
+        private final String nome;
+        private final long versao;
+        private final String texto;
+
+        Descricao(String nome, long versao, String texto) {
+            this.nome = nome;
+            this.versao = versao;
+            this.texto = texto;
+        }
+
+        boolean valida(MembroInvestigador membro) {
+            return this.nome == membro.nome && this.versao == membro.versaoDescricao();
+        }
+    }
+
+    /**
+     * Conjunto de projetos associados, partilhável entre um membro e as suas cópias.
+     * Quem o quiser alterar enquanto houver mais do que um dono tem de o copiar primeiro.
+     */
+    private static final class ProjetosPartilhados {
+        private final Set<Projeto> conjunto;
+        private final AtomicInteger donos = new AtomicInteger(1);
+
+        ProjetosPartilhados(Set<Projeto> conjunto) {
+            this.conjunto = conjunto;
+        }
+    }
+
+    /**
+     * Vista do conjunto de projetos atual, que continua válida depois de uma cópia na escrita
+     * (mas não depois de o membro ser ligado a um armazém).
+     */
+    private final class VistaProjetos extends AbstractSet<Projeto> {
+        @Override public Iterator<Projeto> iterator() { return projetosAssociados.conjunto.iterator(); }
+        @Override public int size() { return projetosAssociados.conjunto.size(); }
+        @Override public boolean contains(Object o) { return projetosAssociados.conjunto.contains(o); }
+    }
+}
@@ -1,10 +1,19 @@
 package pt.ipb.uniag.modelo;// Ficheiro: src/pt.ipb.uniag.modelo.Projeto.java
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.AbstractSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ObjLongConsumer;
 
 /**
  * Representa um projeto de investigação financiado na pt.ipb.uniag.app.UNIAG.
@@ -18,10 +27,24 @@ public class Projeto implements Cloneable {
 
     private static final AtomicInteger contadorId = new AtomicInteger(1);
 
+    /** O número de clones, de todos os projetos, cujos membros ainda não foram copiados (ver {@link #clone()}). */
+    private static final AtomicInteger numeroCopiasPendentes = new AtomicInteger();
+    /** Recebe os registos de clones pendentes que deixaram de ser usados e foram recolhidos. */
+    private static final ReferenceQueue<CopiaPendente> copiasRecolhidas = new ReferenceQueue<>();
+
     private final int id;
     private String titulo;
     private double financiamento;
-    private final List<MembroInvestigador> membrosParticipantes;
+    private Set<MembroInvestigador> membrosParticipantes;   // null enquanto estiver ligado a um armazém
+    private IndiceInvestigadores investigadores;           // null enquanto estiver ligado a um armazém
+    private ArmazemAssociacoes armazem;
+    private boolean participantesPartilhados;        // o conjunto está congelado por um clone pendente
+    private volatile CopiaPendente copiaPendente;    // não nulo enquanto este clone não copiar os membros
+    /** Os clones pendentes deste projeto; criado no primeiro clone. */
+    private volatile Set<RegistoCopia> copiasDependentes;
+    /** Algum participante pode não ter este projeto entre os seus: os clones copiam logo os membros. */
+    private volatile boolean participacoesAssimetricas;
+    private Descricao descricao;                     // a última descrição construída, com o estado de que dependia
 
     /**
      * Constrói um novo pt.ipb.uniag.modelo.Projeto com um ID gerado automaticamente.
@@ -35,24 +58,89 @@ public class Projeto implements Cloneable {
         this.id = contadorId.getAndIncrement();
         this.titulo = titulo;
         this.financiamento = financiamento;
-        this.membrosParticipantes = new ArrayList<>();
+        this.membrosParticipantes = new LinkedHashSet<>();
+        this.investigadores = new IndiceInvestigadores();
+    }
+
+    /**
+     * Constrói um pt.ipb.uniag.modelo.Projeto com um ID já atribuído (por exemplo, ao restaurar dados guardados).
+     * O contador de IDs não é alterado; ver {@link #avancarContadorId(int)}.
+     * @param id O ID do projeto (tem de ser positivo).
+     * @param titulo O título do projeto (não pode ser nulo/vazio).
+     * @param financiamento O valor do financiamento (não pode ser negativo).
+     * @throws IllegalArgumentException Se os parâmetros forem inválidos.
+     */
+    public Projeto(int id, String titulo, double financiamento) {
+        if (id <= 0) throw new IllegalArgumentException("O ID do projeto tem de ser positivo.");
+        validarTitulo(titulo);
+        validarFinanciamento(financiamento);
+        this.id = id;
+        this.titulo = titulo;
+        this.financiamento = financiamento;
+        this.membrosParticipantes = new LinkedHashSet<>();
+        this.investigadores = new IndiceInvestigadores();
     }
 
     /**
      * Construtor de cópia que realiza uma "deep copy" do projeto.
+     * <p>
+     * A cópia é feita de forma preguiçosa: o construtor é O(1) e apenas congela o conjunto de
+     * participantes do original (que o copia antes de o voltar a alterar). Cada membro é clonado
+     * quando a cópia precisa dos seus membros pela primeira vez ou, se antes disso, imediatamente
+     * antes de o membro original ser alterado. O resultado observável é o de uma cópia profunda
+     * feita no momento da construção.
+     * Se o original estiver ligado a um {@link ArmazemAssociacoes}, o conjunto congelado é uma cópia
+     * dos participantes atuais, e a cópia do projeto não fica ligada ao armazém.
+     * <p>
+     * O clone pendente fica registado apenas no original, e um membro prestes a ser alterado
+     * consulta só os clones pendentes dos seus projetos: o custo de uma alteração não depende dos
+     * clones de outros projetos. Isto pressupõe que cada participante tem o projeto entre os seus;
+     * quando isso pode não acontecer (um participante juntado só do lado do projeto, ou desligado
+     * só do seu lado, ou os membros já copiados de um clone), os membros são copiados logo aqui.
+     * <p>
+     * O original é lido com o seu monitor adquirido, o mesmo que os métodos que alteram os
+     * participantes adquirem, pelo que o clone pode ser feito por qualquer thread. Num projeto
+     * registado numa UNIAG, com o bloqueio do projeto adquirido, o clone vê também cada associação
+     * completa (dos dois lados).
+     *
      * @param original O projeto a ser copiado.
      */
     public Projeto(Projeto original) {
-        this.id = original.id;
-        this.titulo = original.titulo;
-        this.financiamento = original.financiamento;
-        this.membrosParticipantes = new ArrayList<>();
-        // Deep Copy da lista de membros, clonando cada um.
-        for (MembroInvestigador membro : original.membrosParticipantes) {
-            this.membrosParticipantes.add(membro.clone());
+        CopiaPendente pendente;
+        synchronized (original) {
+            original.materializar(); // um clone de um clone parte de membros já copiados
+            this.id = original.id;
+            this.titulo = original.titulo;
+            this.financiamento = original.financiamento;
+            this.descricao = original.descricao;
+            ArmazemAssociacoes armazemOriginal = original.armazem;
+            if (armazemOriginal != null) {
+                this.membrosParticipantes = new LinkedHashSet<>(armazemOriginal.participantesDe(original));
+            } else {
+                original.participantesPartilhados = true;
+                this.membrosParticipantes = original.membrosParticipantes;
+            }
+            pendente = new CopiaPendente(original, this.membrosParticipantes);
+            this.copiaPendente = pendente;
+            if (!original.participacoesAssimetricas) original.registarCopia(pendente);
         }
+        // Lido depois do registo: um membro que se desligue do original entretanto marca-o antes de
+        // consultar os seus clones, pelo que ou encontra este clone ou este clone vê a marca.
+        if (original.participacoesAssimetricas) materializar();
     }
 
+    // --- CONTADOR DE IDS ---
+    /** * Obtém o ID que será atribuído ao próximo projeto criado.
+     * @return O próximo ID livre.
+     */
+    public static int getProximoId() { return contadorId.get(); }
+
+    /**
+     * Garante que o próximo ID atribuído é pelo menos o indicado (nunca faz o contador recuar).
+     * @param proximoId O menor valor aceitável para o próximo ID.
+     */
+    public static void avancarContadorId(int proximoId) { contadorId.accumulateAndGet(proximoId, Math::max); }
+
     // --- GETTERS E SETTERS ---
     /** * Obtém o ID único do projeto.
      * @return O ID único do projeto.
@@ -69,11 +157,62 @@ public class Projeto implements Cloneable {
      */
     public double getFinanciamento() { return financiamento; }
 
+    /** * Obtém o valor de financiamento do projeto arredondado ao cêntimo.
+     * @return O valor de financiamento em cêntimos.
+     */
+    public long getFinanciamentoCentimos() { return Math.round(financiamento * 100); }
+
     /**
-     * Devolve uma vista não modificável da lista de membros participantes.
+     * Devolve uma vista não modificável da lista de membros participantes,
+     * pela ordem em que foram adicionados.
+     * <p>
+     * Os participantes são guardados num conjunto: percorrer a lista e {@code contains} custam o
+     * mesmo que no conjunto, mas <b>{@code get(i)} e {@code indexOf} são O(i)</b>, porque percorrem
+     * os primeiros {@code i} participantes (a lista não é {@link java.util.RandomAccess}). Um ciclo
+     * {@code for (int i = 0; i < n; i++) lista.get(i)} é por isso quadrático: percorra a lista com
+     * um iterador, ou copie-a primeiro ({@code new ArrayList<>(projeto.getMembrosParticipantes())})
+     * se precisar de acesso por índice.
      * @return Uma lista não modificável de MembroInvestigador.
      */
-    public List<MembroInvestigador> getMembrosParticipantes() { return Collections.unmodifiableList(membrosParticipantes); }
+    public List<MembroInvestigador> getMembrosParticipantes() {
+        ArmazemAssociacoes armazem = this.armazem;
+        return new VistaLista<>(armazem != null ? armazem.participantesDe(this) : new VistaParticipantes());
+    }
+
+    /**
+     * Passa a guardar os participantes deste projeto num armazém externo, ou volta a guardá-los no
+     * próprio projeto.
+     * <p>
+     * Ao ligar, o projeto não pode ter participantes. Ao desligar ({@code null}), o projeto recebe um
+     * conjunto próprio com os participantes que o armazém lhe atribuía nesse momento.
+     *
+     * @param armazem O armazém, ou {@code null} para desligar do armazém atual.
+     * @throws IllegalStateException se o projeto já tiver participantes e for ligado a um armazém.
+     */
+    public synchronized void setArmazemAssociacoes(ArmazemAssociacoes armazem) {
+        ArmazemAssociacoes atual = this.armazem;
+        if (armazem == atual) return;
+        if (atual != null) {
+            Set<MembroInvestigador> membros = new LinkedHashSet<>(atual.participantesDe(this));
+            IndiceInvestigadores indice = new IndiceInvestigadores();
+            for (MembroInvestigador membro : membros) {
+                if (membro instanceof Investigador) indice.adicionar((Investigador) membro);
+            }
+            this.membrosParticipantes = membros;
+            this.investigadores = indice;
+            this.participantesPartilhados = false;
+            this.armazem = null;
+        }
+        if (armazem != null) {
+            materializar();
+            if (!this.membrosParticipantes.isEmpty()) {
+                throw new IllegalStateException("O projeto " + this.id + " já tem membros participantes.");
+            }
+            this.membrosParticipantes = null;
+            this.investigadores = null;
+            this.armazem = armazem;
+        }
+    }
 
     /**
      * Altera o título do projeto.
@@ -81,7 +220,7 @@ public class Projeto implements Cloneable {
      * @throws IllegalArgumentException Se o novo título for inválido.
      */
     public void setTitulo(String novoTitulo) {
-        if (novoTitulo == null || novoTitulo.trim().isEmpty()) throw new IllegalArgumentException("O título não pode ser nulo ou vazio.");
+        validarTitulo(novoTitulo);
         this.titulo = novoTitulo;
     }
 
@@ -91,47 +230,183 @@ public class Projeto implements Cloneable {
      * @throws IllegalArgumentException Se o novo financiamento for negativo.
      */
     public void setFinanciamento(double novoFinanciamento) {
-        if (novoFinanciamento < 0) throw new IllegalArgumentException("O financiamento não pode ser negativo.");
+        validarFinanciamento(novoFinanciamento);
         this.financiamento = novoFinanciamento;
     }
 
+    /**
+     * Verifica se um título é válido, sem alterar nenhum projeto.
+     * @param titulo O título.
+     * @throws IllegalArgumentException Se o título for nulo ou vazio.
+     */
+    public static void validarTitulo(String titulo) {
+        if (titulo == null || titulo.trim().isEmpty()) throw new IllegalArgumentException("O título não pode ser nulo ou vazio.");
+    }
+
+    /**
+     * Verifica se um financiamento é válido, sem alterar nenhum projeto.
+     * @param financiamento O financiamento.
+     * @throws IllegalArgumentException Se o financiamento for negativo.
+     */
+    public static void validarFinanciamento(double financiamento) {
+        if (financiamento < 0) throw new IllegalArgumentException("O financiamento não pode ser negativo.");
+    }
+
     // --- MÉTODOS DE GESTÃO DE MEMBROS ---
     /**
-     * Adiciona um membro à lista de participantes do projeto.
+     * Adiciona um membro ao conjunto de participantes do projeto.
+     * <p>
+     * Deve ser invocado depois de {@link MembroInvestigador#associarProjeto(Projeto)}: um membro que
+     * ainda não tenha o projeto entre os seus faz com que os clones deste projeto deixem de ser
+     * preguiçosos (ver {@link #Projeto(Projeto)}).
      * @param membro O membro a ser adicionado.
      * @return {@code true} se o membro foi adicionado com sucesso.
      */
-    public boolean adicionarMembro(MembroInvestigador membro) { if (membro != null && !this.membrosParticipantes.contains(membro)) { this.membrosParticipantes.add(membro); return true; } return false; }
+    public synchronized boolean adicionarMembro(MembroInvestigador membro) {
+        if (membro == null) return false;
+        if (!membro.estaAssociado(this)) this.participacoesAssimetricas = true;
+        if (this.armazem != null) return this.armazem.adicionarParticipante(this, membro);
+        if (!participantesParaAlterar().add(membro)) return false;
+        if (membro instanceof Investigador) this.investigadores.adicionar((Investigador) membro);
+        return true;
+    }
 
     /**
-     * Remove um membro da lista de participantes do projeto.
+     * Prepara o conjunto de participantes para receber um número conhecido de novos membros,
+     * evitando redimensionamentos sucessivos durante uma associação em lote.
+     * @param adicionais O número de membros que se prevê adicionar.
+     */
+    public synchronized void reservarCapacidade(int adicionais) {
+        if (this.armazem != null) return; // o armazém gere a sua própria capacidade
+        materializar();
+        // Abaixo do tamanho atual o redimensionamento amortizado já é suficiente.
+        if (adicionais <= this.membrosParticipantes.size()) return;
+        int esperado = this.membrosParticipantes.size() + adicionais;
+        Set<MembroInvestigador> maior = new LinkedHashSet<>((int) (esperado / 0.75f) + 1);
+        maior.addAll(this.membrosParticipantes);
+        this.membrosParticipantes = maior;
+        this.participantesPartilhados = false;
+    }
+
+    /**
+     * Remove um membro do conjunto de participantes do projeto.
      * @param membro O membro a ser removido.
      * @return {@code true} se o membro foi removido com sucesso.
      */
-    public boolean removerMembro(MembroInvestigador membro) { return this.membrosParticipantes.remove(membro); }
+    public synchronized boolean removerMembro(MembroInvestigador membro) {
+        if (this.armazem != null) return membro != null && this.armazem.removerParticipante(this, membro);
+        if (!participantesParaAlterar().remove(membro)) return false;
+        if (membro instanceof Investigador) this.investigadores.remover((Investigador) membro);
+        return true;
+    }
 
     /**
-     * Distribui o financiamento do projeto pelos investigadores integrados participantes.
+     * Obtém o número de membros participantes do projeto, sem criar a vista dos participantes.
+     * @return O número de participantes.
+     */
+    public int getNumeroParticipantes() {
+        ArmazemAssociacoes armazem = this.armazem;
+        if (armazem != null) return armazem.participantesDe(this).size();
+        CopiaPendente pendente = this.copiaPendente;
+        return pendente != null ? pendente.origem.size() : this.membrosParticipantes.size();
+    }
+
+    /**
+     * Obtém o número de investigadores integrados que participam no projeto.
+     * @return O número de participantes do tipo {@link Investigador}.
+     */
+    public int getNumeroInvestigadores() {
+        ArmazemAssociacoes armazem = this.armazem;
+        if (armazem != null) return contarInvestigadores(armazem.participantesDe(this));
+        materializar();
+        return this.investigadores.tamanho();
+    }
+
+    /**
+     * Distribui o financiamento do projeto pelos investigadores integrados participantes
+     * e informa o resultado na consola.
      */
     public void distribuirVerbaPorInvestigador() {
-        // 1. Filtrar apenas os membros que são Investigadores
-        List<Investigador> investigadoresNoProjeto = new ArrayList<>();
-        for (MembroInvestigador membro : this.membrosParticipantes) {
-            if (membro instanceof Investigador) {
-                investigadoresNoProjeto.add((Investigador) membro);
-            }
-        }
+        distribuirVerbaPorInvestigador(true);
+    }
+
+    /**
+     * Distribui o financiamento do projeto pelos investigadores integrados participantes.
+     * <p>
+     * Percorre diretamente o sub-índice de investigadores mantido por {@link #adicionarMembro}
+     * e {@link #removerMembro}, sem filtrar os restantes participantes nem criar coleções temporárias.
+     * Num projeto ligado a um {@link ArmazemAssociacoes} não há sub-índice, e os participantes são filtrados.
+     *
+     * @param mostrarMensagem {@code true} para informar o resultado na consola.
+     * @return O número de investigadores que receberam verba.
+     */
+    public int distribuirVerbaPorInvestigador(boolean mostrarMensagem) {
+        return distribuir(mostrarMensagem, null);
+    }
+
+    /**
+     * Distribui o financiamento do projeto pelos investigadores integrados participantes,
+     * sem mensagens na consola, informando cada crédito efetuado.
+     *
+     * @param aoCreditar Recebe cada investigador creditado e o valor, em cêntimos, que lhe foi atribuído.
+     * @return O número de investigadores que receberam verba.
+     */
+    public int distribuirVerbaPorInvestigador(ObjLongConsumer<Investigador> aoCreditar) {
+        return distribuir(false, aoCreditar);
+    }
+
+    /**
+     * Distribui o financiamento do projeto pelos investigadores integrados participantes,
+     * informando cada crédito efetuado e, opcionalmente, o resultado na consola.
+     *
+     * @param mostrarMensagem {@code true} para informar o resultado na consola.
+     * @param aoCreditar Recebe cada investigador creditado e o valor, em cêntimos, que lhe foi atribuído.
+     * @return O número de investigadores que receberam verba.
+     */
+    public int distribuirVerbaPorInvestigador(boolean mostrarMensagem, ObjLongConsumer<Investigador> aoCreditar) {
+        return distribuir(mostrarMensagem, aoCreditar);
+    }
 
-        // 2. Se existirem investigadores, calcular e distribuir a verba
-        if (!investigadoresNoProjeto.isEmpty()) {
-            double verbaPorInvestigador = this.financiamento / investigadoresNoProjeto.size();
-            for (Investigador inv : investigadoresNoProjeto) {
-                inv.adicionarSaldo(verbaPorInvestigador);
+    /**
+     * Divide o financiamento em cêntimos exatos: cada investigador recebe a parte inteira da divisão
+     * e os cêntimos restantes são dados, um a um, aos primeiros investigadores pela ordem de entrada
+     * no projeto. Assim o total creditado é sempre igual ao financiamento, ao cêntimo.
+     */
+    private int distribuir(boolean mostrarMensagem, ObjLongConsumer<Investigador> aoCreditar) {
+        materializar();
+        ArmazemAssociacoes armazem = this.armazem;
+        int numero = armazem != null ? contarInvestigadores(armazem.participantesDe(this)) : this.investigadores.tamanho();
+        if (numero > 0) {
+            long centimos = getFinanciamentoCentimos();
+            long parte = centimos / numero;
+            long resto = centimos % numero;
+            if (armazem != null) {
+                for (MembroInvestigador membro : armazem.participantesDe(this)) {
+                    if (!(membro instanceof Investigador)) continue;
+                    long valor = resto > 0 ? parte + 1 : parte;
+                    if (resto > 0) resto--;
+                    if (((Investigador) membro).adicionarSaldoCentimos(valor) && aoCreditar != null) {
+                        aoCreditar.accept((Investigador) membro, valor);
+                    }
+                }
+            } else {
+                for (int i = 0, limite = this.investigadores.limite(); i < limite; i++) {
+                    Investigador inv = this.investigadores.em(i);
+                    if (inv == null) continue;
+                    long valor = resto > 0 ? parte + 1 : parte;
+                    if (resto > 0) resto--;
+                    if (inv.adicionarSaldoCentimos(valor) && aoCreditar != null) {
+                        aoCreditar.accept(inv, valor);
+                    }
+                }
             }
-            System.out.println("Verba de " + String.format("%.2f", this.financiamento) + "€ distribuída por " + investigadoresNoProjeto.size() + " investigadores.");
-        } else {
+            if (mostrarMensagem) {
+                System.out.println("Verba de " + String.format("%.2f", this.financiamento) + "€ distribuída por " + numero + " investigadores.");
+            }
+        } else if (mostrarMensagem) {
             System.out.println("Aviso: pt.ipb.uniag.modelo.Projeto ID " + this.id + " não possui Investigadores integrados para distribuir a verba.");
         }
+        return numero;
     }
 
     /**
@@ -139,31 +414,274 @@ public class Projeto implements Cloneable {
      */
     public void printDetalhes() {
         StringBuilder sb = new StringBuilder();
+        descreverDetalhes(sb);
+        System.out.println(sb.toString());
+    }
+
+    /**
+     * Acrescenta a um {@link StringBuilder} os detalhes impressos por {@link #printDetalhes()}
+     * (sem a quebra de linha final), para escrever listagens longas num único buffer.
+     * <p>
+     * O financiamento formatado e a linha de cada participante ({@link MembroInvestigador#toString()})
+     * ficam guardados nos objetos: ao repetir os detalhes de um projeto sem alterações, nada é
+     * reconstruído.
+     *
+     * @param sb O destino dos detalhes.
+     */
+    public void descreverDetalhes(StringBuilder sb) {
+        materializar();
+        Set<MembroInvestigador> membrosParticipantes = this.armazem != null
+                ? this.armazem.participantesDe(this) : this.membrosParticipantes;
         sb.append("------------------------------------------\n");
         sb.append("Detalhes do pt.ipb.uniag.modelo.Projeto ID: ").append(this.id).append("\n");
         sb.append("------------------------------------------\n");
-        sb.append("Título: ").append(this.titulo).append("\n");
-        sb.append("Financiamento: ").append(String.format("%.2f", this.financiamento)).append("€\n");
-        sb.append("--- Membros Participantes (").append(this.membrosParticipantes.size()).append(") ---\n");
+        Descricao atual = descricao();
+        sb.append("Título: ").append(atual.titulo).append("\n");
+        sb.append("Financiamento: ").append(atual.financiamentoFormatado).append("€\n");
+        sb.append("--- Membros Participantes (").append(membrosParticipantes.size()).append(") ---\n");
 
-        if (this.membrosParticipantes.isEmpty()) {
+        if (membrosParticipantes.isEmpty()) {
             sb.append("(Nenhum membro associado a este projeto ainda)\n");
         } else {
-            for (MembroInvestigador membro : this.membrosParticipantes) {
+            for (MembroInvestigador membro : membrosParticipantes) {
                 sb.append("  -> ").append(membro.toString()).append("\n");
             }
         }
         sb.append("------------------------------------------");
-        System.out.println(sb.toString());
     }
 
     // --- MÉTODOS DE OBJECT ---
     /** @return Um clone deste projeto. */
     @Override public Projeto clone() { return new Projeto(this); }
-    /** @return Uma representação textual concisa do projeto. */
-    @Override public String toString() { return "pt.ipb.uniag.modelo.Projeto " + id + ": " + titulo + " (" + String.format("%.2f", financiamento) + "€)"; }
+    /** @return Uma representação textual concisa do projeto (guardada até o título ou o financiamento mudarem). */
+    @Override public String toString() { return descricao().linha; }
     /** @return {@code true} se os projetos tiverem o mesmo ID. */
     @Override public boolean equals(Object o) { if (this == o) return true; if (o == null || getClass() != o.getClass()) return false; Projeto projeto = (Projeto) o; return id == projeto.id; }
     /** @return Um código de hash baseado no ID do projeto. */
     @Override public int hashCode() { return Objects.hash(id); }
-}
\ No newline at end of file
+
+    /**
+     * Obtém a descrição do estado atual, reconstruindo-a apenas se o título ou o financiamento
+     * mudaram desde a última.
+     */
+    private Descricao descricao() {
+        Descricao atual = this.descricao;
+        String tituloAtual = this.titulo;
+        double financiamentoAtual = this.financiamento;
+        if (atual != null && atual.titulo == tituloAtual
+                && Double.doubleToRawLongBits(atual.financiamento) == Double.doubleToRawLongBits(financiamentoAtual)) {
+            return atual;
+        }
+        atual = new Descricao(this.id, tituloAtual, financiamentoAtual);
+        this.descricao = atual;
+        return atual;
+    }
+
+    /**
+     * As representações textuais de um projeto, construídas a partir de um título e de um
+     * financiamento. É imutável, pelo que pode ser lida por outras threads sem sincronização.
+     */
+    private static final class Descricao {
+        private final String titulo;
+        private final double financiamento;
+        private final String financiamentoFormatado;
+        private final String linha;
+
+        Descricao(int id, String titulo, double financiamento) {
+            this.titulo = titulo;
+            this.financiamento = financiamento;
+            this.financiamentoFormatado = String.format("%.2f", financiamento);
+            this.linha = "pt.ipb.uniag.modelo.Projeto " + id + ": " + titulo + " (" + this.financiamentoFormatado + "€)";
+        }
+    }
+
+    /** Conta os investigadores integrados entre os participantes. */
+    private static int contarInvestigadores(Set<MembroInvestigador> participantes) {
+        int numero = 0;
+        for (MembroInvestigador membro : participantes) {
+            if (membro instanceof Investigador) numero++;
+        }
+        return numero;
+    }
+
+    // --- CÓPIA PREGUIÇOSA ---
+
+    /**
+     * Obtém o conjunto de participantes para alteração: um clone pendente copia primeiro os membros,
+     * e um original congelado por um clone passa a usar um conjunto próprio. Invocado com o monitor
+     * do projeto adquirido, o mesmo com que o construtor de cópia congela o conjunto.
+     */
+    private Set<MembroInvestigador> participantesParaAlterar() {
+        materializar();
+        if (this.participantesPartilhados) {
+            this.membrosParticipantes = new LinkedHashSet<>(this.membrosParticipantes);
+            this.participantesPartilhados = false;
+        }
+        return this.membrosParticipantes;
+    }
+
+    /**
+     * Se este projeto for um clone pendente, clona agora todos os membros (reaproveitando as cópias
+     * já feitas antes de alterações aos originais) e constrói os seus próprios participantes.
+     */
+    private void materializar() {
+        if (this.copiaPendente == null) return;
+        CopiaPendente pendente;
+        synchronized (this) {
+            pendente = this.copiaPendente;
+            if (pendente == null) return;
+            Set<MembroInvestigador> membros = new LinkedHashSet<>((int) (pendente.origem.size() / 0.75f) + 1);
+            IndiceInvestigadores indice = new IndiceInvestigadores();
+            for (MembroInvestigador original : pendente.origem) {
+                MembroInvestigador copia = pendente.copiar(original);
+                membros.add(copia);
+                if (copia instanceof Investigador) indice.adicionar((Investigador) copia);
+            }
+            this.membrosParticipantes = membros;
+            this.investigadores = indice;
+            this.participacoesAssimetricas = true; // as cópias dos membros não têm este projeto
+            this.copiaPendente = null;
+        }
+        pendente.dono.retirarCopia(pendente.registo);
+    }
+
+    /**
+     * Regista um clone pendente deste projeto (com o monitor adquirido). O registo entra no
+     * conjunto antes de ser contado em {@link #numeroCopiasPendentes}, que um membro lê antes de
+     * percorrer o conjunto.
+     */
+    private void registarCopia(CopiaPendente pendente) {
+        Set<RegistoCopia> dependentes = this.copiasDependentes;
+        if (dependentes == null) this.copiasDependentes = dependentes = ConcurrentHashMap.newKeySet();
+        dependentes.add(pendente.registo);
+        pendente.registo.contar();
+    }
+
+    /** Retira o registo de um clone deste projeto que já copiou os membros (ou foi recolhido). */
+    private void retirarCopia(RegistoCopia registo) {
+        Set<RegistoCopia> dependentes = this.copiasDependentes;
+        if (dependentes != null) dependentes.remove(registo);
+        registo.descontar();
+    }
+
+    /**
+     * Indica se existe algum clone pendente, de qualquer projeto. Sem nenhum, um membro prestes a
+     * ser alterado não precisa de consultar os seus projetos.
+     * @return {@code true} se algum clone ainda não copiou os membros.
+     */
+    static boolean haCopiasPendentes() {
+        for (Reference<? extends CopiaPendente> recolhida; (recolhida = copiasRecolhidas.poll()) != null; ) {
+            RegistoCopia registo = (RegistoCopia) recolhida;
+            registo.dono.retirarCopia(registo);
+        }
+        return numeroCopiasPendentes.get() > 0;
+    }
+
+    /**
+     * Invocado por um membro deste projeto imediatamente antes de alterar o seu estado: os clones
+     * pendentes deste projeto que o incluem ficam já com uma cópia do estado atual.
+     * @param membro O membro prestes a ser alterado.
+     */
+    void preservarParaCopias(MembroInvestigador membro) {
+        Set<RegistoCopia> dependentes = this.copiasDependentes;
+        if (dependentes == null) return;
+        for (RegistoCopia registo : dependentes) {
+            CopiaPendente pendente = registo.get();
+            if (pendente != null && pendente.origem.contains(membro)) pendente.copiar(membro);
+        }
+    }
+
+    /**
+     * Indica que um participante deixou (ou pode ter deixado) de ter este projeto entre os seus,
+     * pelo que já não avisa os clones deste projeto quando muda.
+     */
+    void marcarParticipacoesAssimetricas() {
+        this.participacoesAssimetricas = true;
+    }
+
+    /**
+     * O estado de um clone cujos membros ainda não foram todos copiados.
+     */
+    private static final class CopiaPendente {
+        /** O projeto clonado, onde este clone está registado. */
+        private final Projeto dono;
+        /** Os participantes originais, num conjunto que o projeto original já não altera. */
+        private final Set<MembroInvestigador> origem;
+        /**
+         * As cópias, por identidade do original: a cópia de um membro tem o mesmo ID (e é igual a
+         * ele) e também pode ser alterada, mas não pode ser confundida com o original.
+         */
+        private final Map<MembroInvestigador, MembroInvestigador> copias = new IdentityHashMap<>();
+        /** A entrada deste clone em {@link #copiasDependentes}; posta na fila se o clone for recolhido. */
+        private final RegistoCopia registo;
+
+        CopiaPendente(Projeto dono, Set<MembroInvestigador> origem) {
+            this.dono = dono;
+            this.origem = origem;
+            this.registo = new RegistoCopia(this, dono);
+        }
+
+        /** Obtém a cópia de um membro original, criando-a se ainda não existir. */
+        MembroInvestigador copiar(MembroInvestigador original) {
+            synchronized (this.copias) {
+                MembroInvestigador copia = this.copias.get(original);
+                if (copia != null) return copia;
+            }
+            // Clonado fora do mapa: o clone espera pelo monitor do membro, e quem o está a alterar
+            // pode estar, com esse monitor, à espera deste mesmo mapa (ver antesDeAlterar).
+            MembroInvestigador copia = original.clone();
+            synchronized (this.copias) {
+                MembroInvestigador anterior = this.copias.putIfAbsent(original, copia);
+                return anterior != null ? anterior : copia;
+            }
+        }
+    }
+
+    /**
+     * A entrada de um clone pendente no conjunto do projeto clonado. É descontada de
+     * {@link #numeroCopiasPendentes} uma única vez: quando o clone copia os membros ou quando é
+     * recolhido sem os ter copiado (o que pode acontecer por esta ordem, se a recolha for detetada
+     * ao mesmo tempo que o clone termina).
+     */
+    private static final class RegistoCopia extends WeakReference<CopiaPendente> {
+        private static final int NAO_CONTADA = 0;
+        private static final int CONTADA = 1;
+        private static final int DESCONTADA = 2;
+        private final AtomicInteger estado = new AtomicInteger(NAO_CONTADA);
+        private final Projeto dono;
+
+        RegistoCopia(CopiaPendente copia, Projeto dono) {
+            super(copia, copiasRecolhidas);
+            this.dono = dono;
+        }
+
+        void contar() {
+            if (this.estado.compareAndSet(NAO_CONTADA, CONTADA)) numeroCopiasPendentes.incrementAndGet();
+        }
+
+        void descontar() {
+            if (this.estado.compareAndSet(CONTADA, DESCONTADA)) numeroCopiasPendentes.decrementAndGet();
+        }
+    }
+
+    /**
+     * Vista dos participantes atuais, que copia os membros de um clone pendente quando é percorrida
+     * (não é válida depois de o projeto ser ligado a um armazém).
+     */
+    private final class VistaParticipantes extends AbstractSet<MembroInvestigador> {
+        @Override public Iterator<MembroInvestigador> iterator() {
+            materializar();
+            return membrosParticipantes.iterator();
+        }
+
+        @Override public int size() {
+            CopiaPendente pendente = copiaPendente;
+            return pendente != null ? pendente.origem.size() : membrosParticipantes.size();
+        }
+
+        @Override public boolean contains(Object o) {
+            materializar();
+            return membrosParticipantes.contains(o);
+        }
+    }
+}
@@ -23,6 +23,16 @@ public class Visitante extends MembroInvestigador {
         super(nome); // Invoca o construtor da superclasse
     }
 
+    /**
+     * Constrói um pt.ipb.uniag.modelo.Visitante com um ID já atribuído (por exemplo, ao restaurar dados guardados).
+     *
+     * @param id O ID do visitante de investigação.
+     * @param nome O nome do visitante de investigação.
+     */
+    public Visitante(int id, String nome) {
+        super(id, nome);
+    }
+
     /**
      * Construtor de cópia para a classe pt.ipb.uniag.modelo.Visitante.
      *
@@ -45,17 +55,15 @@ public class Visitante extends MembroInvestigador {
     }
 
     /**
-     * Devolve uma representação textual completa do pt.ipb.uniag.modelo.Visitante.
+     * Acrescenta a representação textual completa do pt.ipb.uniag.modelo.Visitante (usada por {@link #toString()}).
      * Reutiliza a implementação da superclasse e adiciona o seu tipo específico.
      *
-     * @return Uma String formatada com os detalhes do visitante.
+     * @param sb O destino da descrição.
      */
     @Override
-    public String toString() {
-        StringBuilder sb = new StringBuilder();
-        sb.append(super.toString());
+    protected void descreverCampos(StringBuilder sb) {
+        super.descreverCampos(sb);
         sb.append(" | Tipo: pt.ipb.uniag.modelo.Visitante de Investigação");
-        return sb.toString();
     }
 
     /**
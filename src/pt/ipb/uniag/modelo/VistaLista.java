@@ -0,0 +1,98 @@
+package pt.ipb.uniag.modelo;// Ficheiro: src/pt.ipb.uniag.modelo.VistaLista.java
+
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Vista não modificável, com a interface de {@link List}, de um conjunto com ordem de iteração
+ * (os participantes de um {@link Projeto} ou os projetos de um {@link MembroInvestigador}).
+ * <p>
+ * Percorrer a vista, {@link #size()} e {@link #contains(Object)} custam o mesmo que no conjunto;
+ * {@link #get(int)} e {@link #indexOf(Object)} percorrem os elementos até à posição pedida (O(i)).
+ * Por isso a vista não implementa {@link java.util.RandomAccess}, e os algoritmos das bibliotecas
+ * que o verificam (como {@link java.util.Collections#binarySearch}) usam o iterador.
+ *
+ * @param <E> O tipo dos elementos.
+ * @author Luis Enrique
+ * @version 1.8
+ * @since 2026-10-18
+ */
+final class VistaLista<E> extends AbstractList<E> {
+
+    private final Set<E> conjunto;
+
+    /**
+     * Constrói a vista.
+     * @param conjunto O conjunto, que continua a ser lido (não copiado) pela vista.
+     */
+    VistaLista(Set<E> conjunto) {
+        this.conjunto = Collections.unmodifiableSet(conjunto);
+    }
+
+    @Override
+    public E get(int indice) {
+        Objects.checkIndex(indice, this.conjunto.size());
+        Iterator<E> elementos = this.conjunto.iterator();
+        for (int i = 0; i < indice; i++) {
+            elementos.next();
+        }
+        return elementos.next();
+    }
+
+    @Override
+    public int size() {
+        return this.conjunto.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.conjunto.isEmpty();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return this.conjunto.contains(o);
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return this.conjunto.iterator();
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        if (!this.conjunto.contains(o)) return -1;
+        int indice = 0;
+        for (E elemento : this.conjunto) {
+            if (Objects.equals(elemento, o)) return indice;
+            indice++;
+        }
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        return indexOf(o); // um conjunto não tem elementos repetidos
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) return true;
+        if (!(o instanceof List)) return false;
+        Iterator<E> estes = iterator();
+        Iterator<?> outros = ((List<?>) o).iterator();
+        while (estes.hasNext() && outros.hasNext()) {
+            if (!Objects.equals(estes.next(), outros.next())) return false;
+        }
+        return !estes.hasNext() && !outros.hasNext();
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+}